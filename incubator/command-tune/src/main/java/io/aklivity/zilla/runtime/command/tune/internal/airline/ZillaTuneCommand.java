@@ -20,6 +20,7 @@ import static java.nio.file.StandardOpenOption.READ;
 import static java.nio.file.StandardOpenOption.WRITE;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
@@ -27,6 +28,7 @@ import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.BitSet;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.LongPredicate;
@@ -76,6 +78,8 @@ public final class ZillaTuneCommand extends ZillaCommand
                 LongPredicate filter = id -> true;
                 Consumer<ByteBuffer> updater = buf -> {};
 
+                final int maskWords = Math.max((workers + Long.SIZE - 1) / Long.SIZE, 1);
+
                 if (args != null && args.size() >= 1)
                 {
                     String nameEqualsValue = args.get(0);
@@ -98,8 +102,14 @@ public final class ZillaTuneCommand extends ZillaCommand
 
                     if (value != null)
                     {
-                        final long mask = Long.decode(value);
-                        updater = buf -> buf.putLong(buf.position() - Long.BYTES, mask);
+                        final long[] mask = decodeMask(value, maskWords);
+                        updater = buf ->
+                        {
+                            for (int index = 0; index < maskWords; index++)
+                            {
+                                buf.putLong(buf.position() - Long.BYTES * (maskWords - index), mask[index]);
+                            }
+                        };
                     }
                 }
 
@@ -108,15 +118,22 @@ public final class ZillaTuneCommand extends ZillaCommand
                     MappedByteBuffer byteBuf = channel.map(MapMode.READ_WRITE, 0, Files.size(tuning));
                     byteBuf.order(nativeOrder());
 
-                    while (byteBuf.remaining() >= Long.BYTES + Long.BYTES)
+                    final long[] words = new long[maskWords];
+
+                    while (byteBuf.remaining() >= Long.BYTES + Long.BYTES * maskWords)
                     {
                         long bindingId = byteBuf.getLong();
-                        long mask = byteBuf.getLong();
+                        byteBuf.position(byteBuf.position() + Long.BYTES * maskWords);
 
                         if (filter.test(bindingId))
                         {
                             updater.accept(byteBuf);
-                            mask = byteBuf.getLong(byteBuf.position() - Long.BYTES);
+
+                            for (int index = 0; index < maskWords; index++)
+                            {
+                                words[index] = byteBuf.getLong(byteBuf.position() - Long.BYTES * (maskWords - index));
+                            }
+                            BitSet mask = BitSet.valueOf(words);
 
                             int namespaceId = (int)(bindingId >> 32) & 0xffff_ffff;
                             int localId = (int)(bindingId >> 0) & 0xffff_ffff;
@@ -124,14 +141,11 @@ public final class ZillaTuneCommand extends ZillaCommand
                             String namespace = labels.lookupLabel(namespaceId);
                             String binding = labels.lookupLabel(localId);
 
-                            String format = String.format("%%%ds", workers);
-                            String maskBits = new StringBuilder()
-                                .append(String.format(format, Long.toBinaryString(mask))
-                                        .replace(' ', '.')
-                                        .replace('0', '.')
-                                        .replace('1', 'x'))
-                                .reverse()
-                                .toString();
+                            StringBuilder maskBits = new StringBuilder();
+                            for (int index = 0; index < Math.max(workers, mask.length()); index++)
+                            {
+                                maskBits.append(mask.get(index) ? 'x' : '.');
+                            }
 
                             System.out.printf("%s  %s.%s\n", maskBits, namespace, binding);
                         }
@@ -144,4 +158,42 @@ public final class ZillaTuneCommand extends ZillaCommand
             }
         }
     }
+
+    private static long[] decodeMask(
+        String value,
+        int maskWords)
+    {
+        final boolean negative = value.startsWith("-");
+        final String unsigned = negative ? value.substring(1) : value;
+
+        BigInteger decoded;
+        if (unsigned.startsWith("0x") || unsigned.startsWith("0X"))
+        {
+            decoded = new BigInteger(unsigned.substring(2), 16);
+        }
+        else if (unsigned.startsWith("#"))
+        {
+            decoded = new BigInteger(unsigned.substring(1), 16);
+        }
+        else if (unsigned.startsWith("0") && unsigned.length() > 1)
+        {
+            decoded = new BigInteger(unsigned.substring(1), 8);
+        }
+        else
+        {
+            decoded = new BigInteger(unsigned);
+        }
+
+        if (negative)
+        {
+            decoded = decoded.negate();
+        }
+
+        final long[] mask = new long[maskWords];
+        for (int index = 0; index < maskWords; index++)
+        {
+            mask[index] = decoded.shiftRight(index * Long.SIZE).longValue();
+        }
+        return mask;
+    }
 }
@@ -28,6 +28,7 @@ public class KafkaTopicConfig
     public final KafkaDeltaType deltaType;
     public final ValidatorConfig key;
     public final ValidatorConfig value;
+    public final KafkaCompressionConfig compression;
 
     public KafkaTopicConfig(
         String name,
@@ -35,18 +36,30 @@ public class KafkaTopicConfig
         KafkaDeltaType deltaType,
         ValidatorConfig key,
         ValidatorConfig value)
+    {
+        this(name, defaultOffset, deltaType, key, value, null);
+    }
+
+    public KafkaTopicConfig(
+        String name,
+        KafkaOffsetType defaultOffset,
+        KafkaDeltaType deltaType,
+        ValidatorConfig key,
+        ValidatorConfig value,
+        KafkaCompressionConfig compression)
     {
         this.name = name;
         this.defaultOffset = defaultOffset;
         this.deltaType = deltaType;
         this.key = key;
         this.value = value;
+        this.compression = compression;
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(name, deltaType);
+        return Objects.hash(name, deltaType, compression);
     }
 
     @Override
@@ -66,7 +79,8 @@ public class KafkaTopicConfig
         KafkaTopicConfig that = (KafkaTopicConfig) other;
         return Objects.equals(this.name, that.name) &&
                 Objects.equals(this.defaultOffset, that.defaultOffset) &&
-                Objects.equals(this.deltaType, that.deltaType);
+                Objects.equals(this.deltaType, that.deltaType) &&
+                Objects.equals(this.compression, that.compression);
     }
 
     @Override
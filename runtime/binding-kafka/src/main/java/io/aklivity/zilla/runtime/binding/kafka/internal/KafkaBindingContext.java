@@ -21,6 +21,8 @@ import static io.aklivity.zilla.runtime.engine.config.KindConfig.CLIENT;
 
 import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 
 import org.agrona.collections.Long2ObjectHashMap;
@@ -44,6 +46,9 @@ final class KafkaBindingContext implements BindingContext
     private final Long2ObjectHashMap<KafkaCacheRoute> cacheRoutesById;
     private final Map<KindConfig, KafkaStreamFactory> factories;
 
+    private ExecutorService segmentExecutor;
+    private int cacheBindings;
+
     KafkaBindingContext(
         KafkaConfiguration config,
         EngineContext context,
@@ -55,9 +60,9 @@ final class KafkaBindingContext implements BindingContext
         Map<KindConfig, KafkaStreamFactory> factories = new EnumMap<>(KindConfig.class);
         factories.put(CLIENT, new KafkaClientFactory(config, context, this::supplyClientRoute));
         factories.put(CACHE_SERVER, new KafkaCacheServerFactory(config, context, supplyCache,
-            this::supplyCacheRoute));
+            this::supplyCacheRoute, this::executeSegmentTask));
         factories.put(CACHE_CLIENT, new KafkaCacheClientFactory(config, context, supplyCache,
-            this::supplyCacheRoute));
+            this::supplyCacheRoute, this::executeSegmentTask));
         this.factories = factories;
     }
 
@@ -69,6 +74,12 @@ final class KafkaBindingContext implements BindingContext
 
         if (factory != null)
         {
+            if (binding.kind != CLIENT && cacheBindings++ == 0)
+            {
+                // segment freeze, clean, archive and recovery must not queue behind engine tasks such as TLS handshakes
+                this.segmentExecutor = Executors.newSingleThreadExecutor();
+            }
+
             factory.attach(binding);
         }
 
@@ -84,6 +95,12 @@ final class KafkaBindingContext implements BindingContext
         if (factory != null)
         {
             factory.detach(binding.id);
+
+            if (binding.kind != CLIENT && --cacheBindings == 0)
+            {
+                segmentExecutor.shutdown();
+                this.segmentExecutor = null;
+            }
         }
     }
 
@@ -93,6 +110,12 @@ final class KafkaBindingContext implements BindingContext
         return String.format("%s %s", getClass().getSimpleName(), factories);
     }
 
+    private void executeSegmentTask(
+        Runnable task)
+    {
+        segmentExecutor.execute(task);
+    }
+
     private KafkaCacheRoute supplyCacheRoute(
         long resolvedId)
     {
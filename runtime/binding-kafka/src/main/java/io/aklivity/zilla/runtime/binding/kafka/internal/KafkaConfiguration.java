@@ -16,6 +16,7 @@
 package io.aklivity.zilla.runtime.binding.kafka.internal;
 
 import static io.aklivity.zilla.runtime.engine.EngineConfiguration.ENGINE_CACHE_DIRECTORY;
+import static org.agrona.BitUtil.isPowerOfTwo;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
@@ -54,6 +55,7 @@ public class KafkaConfiguration extends Configuration
     public static final IntPropertyDef KAFKA_CACHE_MAX_MESSAGE_BYTES;
     public static final LongPropertyDef KAFKA_CACHE_RETENTION_MILLIS;
     public static final LongPropertyDef KAFKA_CACHE_RETENTION_BYTES;
+    public static final LongPropertyDef KAFKA_CACHE_HOT_BYTES;
     public static final LongPropertyDef KAFKA_CACHE_DELETE_RETENTION_MILLIS;
     public static final LongPropertyDef KAFKA_CACHE_MIN_COMPACTION_LAG_MILLIS;
     public static final LongPropertyDef KAFKA_CACHE_MAX_COMPACTION_LAG_MILLIS;
@@ -61,6 +63,7 @@ public class KafkaConfiguration extends Configuration
     public static final LongPropertyDef KAFKA_CACHE_SEGMENT_MILLIS;
     public static final IntPropertyDef KAFKA_CACHE_SEGMENT_BYTES;
     public static final IntPropertyDef KAFKA_CACHE_SEGMENT_INDEX_BYTES;
+    public static final PropertyDef<Integer> KAFKA_CACHE_SEGMENT_CHUNK_BYTES;
     public static final BooleanPropertyDef KAFKA_CACHE_SERVER_BOOTSTRAP;
     public static final IntPropertyDef KAFKA_CACHE_CLIENT_RECONNECT_DELAY;
     public static final IntPropertyDef KAFKA_CACHE_CLIENT_CLEANUP_DELAY;
@@ -73,6 +76,13 @@ public class KafkaConfiguration extends Configuration
     public static final PropertyDef<String> KAFKA_CLIENT_ID;
     public static final PropertyDef<InstanceIdSupplier> KAFKA_CLIENT_INSTANCE_ID;
     public static final BooleanPropertyDef KAFKA_CLIENT_CONNECTION_POOL;
+    public static final BooleanPropertyDef KAFKA_CLIENT_FETCH_COALESCE;
+    public static final BooleanPropertyDef KAFKA_CLIENT_FETCH_SESSION;
+    public static final BooleanPropertyDef KAFKA_CLIENT_PRODUCE_COALESCE;
+    public static final IntPropertyDef KAFKA_CLIENT_PRODUCE_COALESCE_LINGER_MILLIS;
+    public static final IntPropertyDef KAFKA_CLIENT_PRODUCE_COALESCE_MAX_BYTES;
+    public static final BooleanPropertyDef KAFKA_CLIENT_API_VERSIONS;
+    public static final PropertyDef<String> KAFKA_CLIENT_RACK;
 
     private static final ConfigurationDef KAFKA_CONFIG;
 
@@ -113,6 +123,7 @@ public class KafkaConfiguration extends Configuration
         KAFKA_CACHE_MAX_MESSAGE_BYTES = config.property("cache.max.message.bytes", 1000012);
         KAFKA_CACHE_RETENTION_MILLIS = config.property("cache.retention.ms", 604800000L);
         KAFKA_CACHE_RETENTION_BYTES = config.property("cache.retention.bytes", -1L);
+        KAFKA_CACHE_HOT_BYTES = config.property("cache.hot.bytes", Long.MAX_VALUE);
         KAFKA_CACHE_DELETE_RETENTION_MILLIS = config.property("cache.delete.retention.ms", 86400000L);
         KAFKA_CACHE_MIN_COMPACTION_LAG_MILLIS = config.property("cache.min.compaction.lag.ms", 0L);
         KAFKA_CACHE_MAX_COMPACTION_LAG_MILLIS = config.property("cache.max.compaction.lag.ms", Long.MAX_VALUE);
@@ -120,8 +131,17 @@ public class KafkaConfiguration extends Configuration
         KAFKA_CACHE_SEGMENT_MILLIS = config.property("cache.segment.ms", 604800000L);
         KAFKA_CACHE_SEGMENT_BYTES = config.property("cache.segment.bytes", 0x40000000);
         KAFKA_CACHE_SEGMENT_INDEX_BYTES = config.property("cache.segment.index.bytes", 0xA00000);
+        KAFKA_CACHE_SEGMENT_CHUNK_BYTES = config.property(Integer.class, "cache.segment.chunk.bytes",
+            KafkaConfiguration::decodeCacheSegmentChunkBytes, 0x10000);
         KAFKA_CACHE_CLIENT_TRAILERS_SIZE_MAX = config.property("cache.client.trailers.size.max", 256);
         KAFKA_CLIENT_CONNECTION_POOL = config.property("client.connection.pool", true);
+        KAFKA_CLIENT_FETCH_COALESCE = config.property("client.fetch.coalesce", false);
+        KAFKA_CLIENT_FETCH_SESSION = config.property("client.fetch.session", false);
+        KAFKA_CLIENT_PRODUCE_COALESCE = config.property("client.produce.coalesce", false);
+        KAFKA_CLIENT_PRODUCE_COALESCE_LINGER_MILLIS = config.property("client.produce.coalesce.linger.millis", 0);
+        KAFKA_CLIENT_PRODUCE_COALESCE_MAX_BYTES = config.property("client.produce.coalesce.max.bytes", Integer.MAX_VALUE);
+        KAFKA_CLIENT_API_VERSIONS = config.property("client.api.versions", false);
+        KAFKA_CLIENT_RACK = config.property("client.rack");
         KAFKA_CONFIG = config;
     }
 
@@ -216,6 +236,11 @@ public class KafkaConfiguration extends Configuration
         return KAFKA_CACHE_RETENTION_BYTES.getAsLong(this);
     }
 
+    public long cacheHotBytes()
+    {
+        return KAFKA_CACHE_HOT_BYTES.getAsLong(this);
+    }
+
     public long cacheRetentionMillis()
     {
         return KAFKA_CACHE_RETENTION_MILLIS.getAsLong(this);
@@ -256,6 +281,11 @@ public class KafkaConfiguration extends Configuration
         return KAFKA_CACHE_SEGMENT_INDEX_BYTES.getAsInt(this);
     }
 
+    public int cacheSegmentChunkBytes()
+    {
+        return KAFKA_CACHE_SEGMENT_CHUNK_BYTES.get(this);
+    }
+
     public boolean cacheServerBootstrap()
     {
         return KAFKA_CACHE_SERVER_BOOTSTRAP.getAsBoolean(this);
@@ -266,6 +296,41 @@ public class KafkaConfiguration extends Configuration
         return KAFKA_CLIENT_CONNECTION_POOL.getAsBoolean(this);
     }
 
+    public boolean clientFetchCoalesce()
+    {
+        return KAFKA_CLIENT_FETCH_COALESCE.getAsBoolean(this);
+    }
+
+    public boolean clientFetchSession()
+    {
+        return KAFKA_CLIENT_FETCH_SESSION.getAsBoolean(this);
+    }
+
+    public boolean clientProduceCoalesce()
+    {
+        return KAFKA_CLIENT_PRODUCE_COALESCE.getAsBoolean(this);
+    }
+
+    public int clientProduceCoalesceLingerMillis()
+    {
+        return KAFKA_CLIENT_PRODUCE_COALESCE_LINGER_MILLIS.getAsInt(this);
+    }
+
+    public int clientProduceCoalesceMaxBytes()
+    {
+        return KAFKA_CLIENT_PRODUCE_COALESCE_MAX_BYTES.getAsInt(this);
+    }
+
+    public boolean clientApiVersions()
+    {
+        return KAFKA_CLIENT_API_VERSIONS.getAsBoolean(this);
+    }
+
+    public String clientRack()
+    {
+        return KAFKA_CLIENT_RACK.get(this);
+    }
+
     public int cacheClientReconnect()
     {
         return KAFKA_CACHE_CLIENT_RECONNECT_DELAY.getAsInt(this);
@@ -312,6 +377,19 @@ public class KafkaConfiguration extends Configuration
         return ENGINE_CACHE_DIRECTORY.get(config).resolve(cacheDirectory);
     }
 
+    private static Integer decodeCacheSegmentChunkBytes(
+        String value)
+    {
+        final int chunkBytes = Integer.decode(value);
+
+        if (chunkBytes <= 0 || !isPowerOfTwo(chunkBytes))
+        {
+            throw new IllegalArgumentException(String.format("%s is not a positive power of 2", value));
+        }
+
+        return chunkBytes;
+    }
+
     private static KafkaCacheCleanupPolicy cleanupPolicy(
         Configuration config,
         String cleanupPolicy)
@@ -67,6 +67,8 @@ public final class KafkaCacheCursorFactory
     public static final int POSITION_UNSET = -1;
     public static final int INDEX_UNSET = -1;
 
+    private static final int NEXT_UNKNOWN_VALUE = Integer.MIN_VALUE;
+
     public KafkaCacheCursorFactory(
         MutableDirectBuffer writeBuffer)
     {
@@ -78,7 +80,21 @@ public final class KafkaCacheCursorFactory
         KafkaFilterCondition condition,
         KafkaDeltaType deltaType)
     {
-        return new KafkaCacheCursor(condition, deltaType);
+        return new KafkaCacheCursor(condition, deltaType, null);
+    }
+
+    public KafkaCacheCursor newCursor(
+        KafkaFilterCondition condition,
+        KafkaDeltaType deltaType,
+        KafkaCacheCursorMemo memo)
+    {
+        return new KafkaCacheCursor(condition, deltaType, memo);
+    }
+
+    public KafkaCacheCursorMemo newMemo(
+        Runnable onReleased)
+    {
+        return new KafkaCacheCursorMemo(onReleased);
     }
 
     public final class KafkaCacheCursor implements AutoCloseable
@@ -87,6 +103,7 @@ public final class KafkaCacheCursorFactory
         private final LongHashSet deltaKeyOffsets; // TODO: bounded LongHashCache, evict -> discard
         private final KafkaFilterCondition condition;
 
+        private KafkaCacheCursorMemo memo;
         private Node segmentNode;
         private KafkaCacheSegment segment;
 
@@ -94,14 +111,22 @@ public final class KafkaCacheCursorFactory
         public long offset;
         private long latestOffset;
         private int position;
+        private boolean conditionStale;
 
         KafkaCacheCursor(
             KafkaFilterCondition condition,
-            KafkaDeltaType deltaType)
+            KafkaDeltaType deltaType,
+            KafkaCacheCursorMemo memo)
         {
             this.condition = condition;
             this.deltaType = deltaType;
             this.deltaKeyOffsets = new LongHashSet();
+            this.memo = memo;
+
+            if (memo != null)
+            {
+                memo.acquire();
+            }
         }
 
         public void init(
@@ -139,6 +164,7 @@ public final class KafkaCacheCursorFactory
 
             final int position = condition.reset(segment, offset, latestOffset, POSITION_UNSET);
             this.position = position == RETRY_SEGMENT_VALUE || position == NEXT_SEGMENT_VALUE ? 0 : position;
+            this.conditionStale = false;
         }
 
         public KafkaCacheEntryFW next(
@@ -149,7 +175,7 @@ public final class KafkaCacheCursorFactory
             next:
             while (nextEntry == null)
             {
-                final int positionNext = condition.next(position);
+                final int positionNext = segment.archived() ? archivedPosition() : nextPosition(position);
                 if (positionNext == RETRY_SEGMENT_VALUE)
                 {
                     break next;
@@ -184,6 +210,7 @@ public final class KafkaCacheCursorFactory
 
                     final int position = condition.reset(segment, offset, latestOffset, POSITION_UNSET);
                     this.position = position == RETRY_SEGMENT_VALUE || position == NEXT_SEGMENT_VALUE ? 0 : position;
+                    this.conditionStale = false;
                     continue;
                 }
 
@@ -203,7 +230,7 @@ public final class KafkaCacheCursorFactory
 
                 final long nextOffset = nextEntry.offset$();
 
-                filters = condition.test(nextEntry);
+                filters = testEntry(positionNext, nextEntry);
 
                 // TODO: when doing reset, condition.reset(condition)
                 // TODO: remove nextOffset < offset from if condition
@@ -231,6 +258,76 @@ public final class KafkaCacheCursorFactory
             return nextEntry;
         }
 
+        public KafkaCacheSegment restoring()
+        {
+            return segment != null && segment.archived() && segment.restorable() ? segment : null;
+        }
+
+        private int archivedPosition()
+        {
+            // restore runs on the segment task pool, so retry until complete, or skip when archive is corrupt
+            return segment.restorable() ? RETRY_SEGMENT_VALUE : NEXT_SEGMENT_VALUE;
+        }
+
+        private int nextPosition(
+            int position)
+        {
+            int positionNext = memo != null ? memo.next(segment, position) : NEXT_UNKNOWN_VALUE;
+
+            if (positionNext == NEXT_UNKNOWN_VALUE)
+            {
+                resetConditionIfStale(position);
+                positionNext = condition.next(position);
+
+                if (memo != null)
+                {
+                    memo.next(segment, position, positionNext);
+                }
+            }
+            else
+            {
+                conditionStale = true;
+            }
+
+            return positionNext;
+        }
+
+        private long testEntry(
+            int position,
+            KafkaCacheEntryFW cacheEntry)
+        {
+            long filters;
+
+            if (memo != null && memo.tested(segment, position))
+            {
+                filters = memo.test(position);
+            }
+            else
+            {
+                resetConditionIfStale(position);
+                filters = condition.test(cacheEntry);
+
+                if (memo != null)
+                {
+                    memo.test(segment, position, filters);
+                }
+            }
+
+            return filters;
+        }
+
+        private void resetConditionIfStale(
+            int position)
+        {
+            // memo hits skip condition.next, so catch up the condition state before evaluating it directly
+            if (conditionStale)
+            {
+                condition.reset(segment, offset, latestOffset, position);
+                condition.next(position);
+                conditionStale = false;
+            }
+        }
+
         private KafkaCacheEntryFW markAncestorIfNecessary(
             KafkaCacheEntryFW cacheEntry,
             KafkaCacheEntryFW nextEntry)
@@ -323,6 +420,7 @@ public final class KafkaCacheCursorFactory
 
                 final int position = condition.reset(segment, offset, latestOffset, POSITION_UNSET);
                 this.position = position == RETRY_SEGMENT_VALUE || position == NEXT_SEGMENT_VALUE ? 0 : position;
+                this.conditionStale = false;
             }
         }
 
@@ -341,6 +439,12 @@ public final class KafkaCacheCursorFactory
                 segmentNode = null;
                 segment = null;
             }
+
+            if (memo != null)
+            {
+                memo.release();
+                memo = null;
+            }
         }
 
         @Override
@@ -351,6 +455,102 @@ public final class KafkaCacheCursorFactory
         }
     }
 
+    public static final class KafkaCacheCursorMemo
+    {
+        private static final int SLOT_BITS = 4;
+        private static final int SLOTS = 1 << SLOT_BITS;
+
+        private final Runnable onReleased;
+        private final KafkaCacheSegment[] nextSegments;
+        private final int[] nextPositions;
+        private final int[] nextResults;
+        private final KafkaCacheSegment[] testSegments;
+        private final int[] testPositions;
+        private final long[] testResults;
+
+        private int references;
+
+        private KafkaCacheCursorMemo(
+            Runnable onReleased)
+        {
+            this.onReleased = onReleased;
+            this.nextSegments = new KafkaCacheSegment[SLOTS];
+            this.nextPositions = new int[SLOTS];
+            this.nextResults = new int[SLOTS];
+            this.testSegments = new KafkaCacheSegment[SLOTS];
+            this.testPositions = new int[SLOTS];
+            this.testResults = new long[SLOTS];
+        }
+
+        private void acquire()
+        {
+            references++;
+        }
+
+        private void release()
+        {
+            assert references > 0;
+            if (--references == 0)
+            {
+                onReleased.run();
+            }
+        }
+
+        private int next(
+            KafkaCacheSegment segment,
+            int position)
+        {
+            final int slot = slot(position);
+            return nextSegments[slot] == segment && nextPositions[slot] == position ? nextResults[slot] : NEXT_UNKNOWN_VALUE;
+        }
+
+        private void next(
+            KafkaCacheSegment segment,
+            int position,
+            int positionNext)
+        {
+            // retry and next segment results can change as entries are appended
+            if (positionNext != RETRY_SEGMENT_VALUE && positionNext != NEXT_SEGMENT_VALUE)
+            {
+                final int slot = slot(position);
+                nextSegments[slot] = segment;
+                nextPositions[slot] = position;
+                nextResults[slot] = positionNext;
+            }
+        }
+
+        private boolean tested(
+            KafkaCacheSegment segment,
+            int position)
+        {
+            final int slot = slot(position);
+            return testSegments[slot] == segment && testPositions[slot] == position;
+        }
+
+        private long test(
+            int position)
+        {
+            return testResults[slot(position)];
+        }
+
+        private void test(
+            KafkaCacheSegment segment,
+            int position,
+            long filters)
+        {
+            final int slot = slot(position);
+            testSegments[slot] = segment;
+            testPositions[slot] = position;
+            testResults[slot] = filters;
+        }
+
+        private static int slot(
+            int position)
+        {
+            return (position * 0x9e3779b9) >>> (Integer.SIZE - SLOT_BITS);
+        }
+    }
+
     public abstract static class KafkaFilterCondition
     {
         public abstract int reset(
@@ -451,7 +651,7 @@ public final class KafkaCacheCursorFactory
             {
                 int positionNext = NEXT_SEGMENT_VALUE;
 
-                if (segment != null)
+                if (segment != null && segment.mightContain(hash))
                 {
                     final KafkaCacheIndexFile hashFile = segment.hashFile();
                     assert hashFile != null;
@@ -15,9 +15,18 @@
  */
 package io.aklivity.zilla.runtime.binding.kafka.internal.cache;
 
+import static io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheIndexRecord.SIZEOF_INDEX_RECORD;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheIndexRecord.indexKey;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.types.cache.KafkaCacheEntryFW.FIELD_OFFSET_DELTA_POSITION;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.types.cache.KafkaCacheEntryFW.FIELD_OFFSET_DESCENDANT;
+import static java.nio.ByteOrder.nativeOrder;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.CREATE_NEW;
 import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
 import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Objects.requireNonNull;
 
@@ -28,15 +37,23 @@ import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
 
+import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.IoUtil;
 import org.agrona.LangUtil;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 
+import com.github.luben.zstd.Zstd;
+
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.Flyweight;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.cache.KafkaCacheEntryFW;
 
 public class KafkaCacheFile implements AutoCloseable
 {
@@ -52,8 +69,14 @@ public class KafkaCacheFile implements AutoCloseable
     private static final String EXT_KSCAN = ".kscan";
     private static final String EXT_KSCAN_WORK = ".kscan.work";
     private static final String EXT_KINDEX = ".kindex";
+    private static final String EXT_BLOOM = ".bloom";
+    private static final String EXT_CHECKSUM = ".checksum";
+    private static final String EXT_ARCHIVE = ".archive";
+    private static final String EXT_ARCHIVE_WORK = ".archive.work";
+    private static final String EXT_LOG_WORK = ".log.work";
 
     private static final String FORMAT_FILE = "%%019d%s";
+    private static final int SIZEOF_BASE_OFFSET = 19;
     private static final String FORMAT_LOG_FILE = String.format(FORMAT_FILE, EXT_LOG);
     private static final String FORMAT_DELTA_FILE = String.format(FORMAT_FILE, EXT_DELTA);
     private static final String FORMAT_INDEX_FILE = String.format(FORMAT_FILE, EXT_INDEX);
@@ -63,13 +86,21 @@ public class KafkaCacheFile implements AutoCloseable
     private static final String FORMAT_NINDEX_FILE = String.format(FORMAT_FILE, EXT_NINDEX);
     private static final String FORMAT_KSCAN_FILE = String.format(FORMAT_FILE, EXT_KSCAN);
     private static final String FORMAT_KINDEX_FILE = String.format(FORMAT_FILE, EXT_KINDEX);
+    private static final String FORMAT_BLOOM_FILE = String.format(FORMAT_FILE, EXT_BLOOM);
+    private static final String FORMAT_CHECKSUM_FILE = String.format(FORMAT_FILE, EXT_CHECKSUM);
+    private static final String FORMAT_ARCHIVE_FILE = String.format(FORMAT_FILE, EXT_ARCHIVE);
+    private static final String FORMAT_ARCHIVE_WORK_FILE = String.format(FORMAT_FILE, EXT_ARCHIVE_WORK);
+    private static final String FORMAT_LOG_WORK_FILE = String.format(FORMAT_FILE, EXT_LOG_WORK);
 
     private final Path location;
-    private final MappedByteBuffer mappedByteBuf;
-    private final MutableDirectBuffer mappedBuf;
     private final FileChannel appender;
     private final MutableDirectBuffer appendBuf;
     private final ByteBuffer appendByteBuf;
+    private final int chunkBytes;
+    private final List<MappedByteBuffer> retiredByteBufs;
+
+    private volatile MappedByteBuffer mappedByteBuf;
+    private volatile MutableDirectBuffer mappedBuf;
 
     private volatile int maxCapacity;
     private volatile int capacity;   // only ever increases
@@ -78,14 +109,17 @@ public class KafkaCacheFile implements AutoCloseable
     public KafkaCacheFile(
         Path location,
         int capacity,
+        int chunkBytes,
         MutableDirectBuffer appendBuf)
     {
         this.location = location;
-        this.mappedByteBuf = mapCreateAppend(location, capacity);
+        this.mappedByteBuf = mapCreateAppend(location, Math.min(chunkBytes, capacity));
         this.mappedBuf = new UnsafeBuffer(mappedByteBuf);
         this.appender = openAppender(location);
         this.appendBuf = requireNonNull(appendBuf);
         this.appendByteBuf = requireNonNull(appendBuf.byteBuffer());
+        this.chunkBytes = chunkBytes;
+        this.retiredByteBufs = new ArrayList<>();
         this.capacity = 0;
         this.maxCapacity = capacity;
     }
@@ -99,6 +133,8 @@ public class KafkaCacheFile implements AutoCloseable
         this.appender = null;
         this.appendBuf = null;
         this.appendByteBuf = null;
+        this.chunkBytes = 0;
+        this.retiredByteBufs = null;
         this.capacity = mappedBuf.capacity();
         this.maxCapacity = mappedBuf.capacity();
     }
@@ -132,7 +168,8 @@ public class KafkaCacheFile implements AutoCloseable
         int position,
         Flyweight.Visitor<T> visitor)
     {
-        return visitor.visit(mappedBuf, position, capacity);
+        final int limit = capacity;
+        return visitor.visit(mappedBuf, position, limit);
     }
 
     public int readInt(
@@ -216,6 +253,8 @@ public class KafkaCacheFile implements AutoCloseable
 
         if (writable)
         {
+            ensureMapped(capacity + length);
+
             try
             {
                 final int appendableBytes = appendBuf.capacity();
@@ -260,6 +299,8 @@ public class KafkaCacheFile implements AutoCloseable
 
         if (writable)
         {
+            ensureMapped(capacity + Long.BYTES);
+
             try
             {
                 appendByteBuf.clear();
@@ -290,6 +331,8 @@ public class KafkaCacheFile implements AutoCloseable
 
         if (writable)
         {
+            ensureMapped(capacity + Integer.BYTES);
+
             try
             {
                 appendByteBuf.clear();
@@ -344,6 +387,23 @@ public class KafkaCacheFile implements AutoCloseable
         return capacity == 0;
     }
 
+    public void checksum(
+        CRC32C checksum)
+    {
+        checksum(checksum, 0, capacity);
+    }
+
+    protected final void checksum(
+        CRC32C checksum,
+        int position,
+        int limit)
+    {
+        final ByteBuffer buffer = mappedByteBuf.duplicate();
+        buffer.limit(limit);
+        buffer.position(position);
+        checksum.update(buffer);
+    }
+
     @Override
     public String toString()
     {
@@ -353,7 +413,32 @@ public class KafkaCacheFile implements AutoCloseable
     @Override
     public void close()
     {
+        CloseHelper.quietClose(appender);
         IoUtil.unmap(mappedByteBuf);
+
+        if (retiredByteBufs != null)
+        {
+            retiredByteBufs.forEach(IoUtil::unmap);
+            retiredByteBufs.clear();
+        }
+    }
+
+    private void ensureMapped(
+        int required)
+    {
+        final int mapped = mappedBuf.capacity();
+
+        if (required > mapped)
+        {
+            final long aligned = ((long) required + chunkBytes - 1) / chunkBytes * chunkBytes;
+            final int newMapped = (int) Math.min(Math.max(aligned, (long) mapped << 1), maxCapacity);
+            final MappedByteBuffer newMappedByteBuf = mapAppend(location, newMapped, capacity);
+
+            // readers on other threads may still hold the previous mapping until close
+            retiredByteBufs.add(mappedByteBuf);
+            this.mappedByteBuf = newMappedByteBuf;
+            this.mappedBuf = new UnsafeBuffer(newMappedByteBuf);
+        }
     }
 
     private static MappedByteBuffer mapCreateAppend(
@@ -378,6 +463,27 @@ public class KafkaCacheFile implements AutoCloseable
         return mapped;
     }
 
+    private static MappedByteBuffer mapAppend(
+        Path file,
+        int capacity,
+        int size)
+    {
+        MappedByteBuffer mapped = null;
+
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE))
+        {
+            mapped = channel.map(MapMode.READ_WRITE, 0, capacity);
+            channel.truncate(size);
+        }
+        catch (IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+
+        assert mapped != null;
+        return mapped;
+    }
+
     private static MappedByteBuffer mapReadWrite(
         Path file)
     {
@@ -420,9 +526,10 @@ public class KafkaCacheFile implements AutoCloseable
             Path location,
             long baseOffset,
             int capacity,
+            int chunkBytes,
             MutableDirectBuffer appendBuf)
         {
-            super(location.resolve(String.format(FORMAT_LOG_FILE, baseOffset)), capacity, appendBuf);
+            super(location.resolve(String.format(FORMAT_LOG_FILE, baseOffset)), capacity, chunkBytes, appendBuf);
         }
 
         public Log(
@@ -431,6 +538,34 @@ public class KafkaCacheFile implements AutoCloseable
         {
             super(location.resolve(String.format(FORMAT_LOG_FILE, baseOffset)));
         }
+
+        public static boolean exists(
+            Path location,
+            long baseOffset)
+        {
+            return Files.exists(location.resolve(String.format(FORMAT_LOG_FILE, baseOffset)));
+        }
+
+        @Override
+        public void checksum(
+            CRC32C checksum)
+        {
+            final KafkaCacheEntryFW entryRO = new KafkaCacheEntryFW();
+            final int capacity = capacity();
+
+            int position = 0;
+            for (KafkaCacheEntryFW entry = readBytes(position, entryRO::tryWrap);
+                 entry != null;
+                 entry = readBytes(position, entryRO::tryWrap))
+            {
+                // descendant and flags are updated in place as entries become dirty
+                checksum(checksum, position, position + FIELD_OFFSET_DESCENDANT);
+                checksum(checksum, position + FIELD_OFFSET_DELTA_POSITION, entry.limit());
+                position = entry.limit();
+            }
+
+            checksum(checksum, position, capacity);
+        }
     }
 
     public static final class Index extends KafkaCacheIndexFile.SortedByKey
@@ -439,9 +574,10 @@ public class KafkaCacheFile implements AutoCloseable
             Path location,
             long baseOffset,
             int capacity,
+            int chunkBytes,
             MutableDirectBuffer appendBuf)
         {
-            super(location.resolve(String.format(FORMAT_INDEX_FILE, baseOffset)), capacity, appendBuf);
+            super(location.resolve(String.format(FORMAT_INDEX_FILE, baseOffset)), capacity, chunkBytes, appendBuf);
         }
 
         public Index(
@@ -458,10 +594,11 @@ public class KafkaCacheFile implements AutoCloseable
             Path location,
             long baseOffset,
             int capacity,
+            int chunkBytes,
             MutableDirectBuffer appendBuf,
             IntFunction<long[]> sortSpaceRef)
         {
-            super(location.resolve(String.format(FORMAT_HSCAN_FILE, baseOffset)), capacity, appendBuf, sortSpaceRef);
+            super(location.resolve(String.format(FORMAT_HSCAN_FILE, baseOffset)), capacity, chunkBytes, appendBuf, sortSpaceRef);
         }
 
         @Override
@@ -494,10 +631,11 @@ public class KafkaCacheFile implements AutoCloseable
             Path location,
             long baseOffset,
             int capacity,
+            int chunkBytes,
             MutableDirectBuffer appendBuf,
             IntFunction<long[]> sortSpaceRef)
         {
-            super(location.resolve(String.format(FORMAT_KSCAN_FILE, baseOffset)), capacity, appendBuf, sortSpaceRef);
+            super(location.resolve(String.format(FORMAT_KSCAN_FILE, baseOffset)), capacity, chunkBytes, appendBuf, sortSpaceRef);
         }
 
         @Override
@@ -530,10 +668,11 @@ public class KafkaCacheFile implements AutoCloseable
             Path location,
             long baseOffset,
             int capacity,
+            int chunkBytes,
             MutableDirectBuffer appendBuf,
             IntFunction<long[]> sortSpaceRef)
         {
-            super(location.resolve(String.format(FORMAT_NSCAN_FILE, baseOffset)), capacity, appendBuf, sortSpaceRef);
+            super(location.resolve(String.format(FORMAT_NSCAN_FILE, baseOffset)), capacity, chunkBytes, appendBuf, sortSpaceRef);
         }
 
         @Override
@@ -566,9 +705,10 @@ public class KafkaCacheFile implements AutoCloseable
             Path location,
             long baseOffset,
             int capacity,
+            int chunkBytes,
             MutableDirectBuffer appendBuf)
         {
-            super(location.resolve(String.format(FORMAT_DELTA_FILE, baseOffset)), capacity, appendBuf);
+            super(location.resolve(String.format(FORMAT_DELTA_FILE, baseOffset)), capacity, chunkBytes, appendBuf);
         }
 
         public Delta(
@@ -578,4 +718,367 @@ public class KafkaCacheFile implements AutoCloseable
             super(location.resolve(String.format(FORMAT_DELTA_FILE, baseOffset)));
         }
     }
+
+    public static final class Bloom extends KafkaCacheFile
+    {
+        private static final int BITS_PER_ENTRY = 10;
+        private static final int PROBES = 7;
+        private static final long BITS_MAX = 1L << 30;
+
+        private final int mask;
+
+        public Bloom(
+            Path location,
+            long baseOffset,
+            KafkaCacheIndexFile hashFile)
+        {
+            super(writeBloom(location.resolve(String.format(FORMAT_BLOOM_FILE, baseOffset)), hashFile));
+            this.mask = (capacity() << 3) - 1;
+        }
+
+        public Bloom(
+            Path location,
+            long baseOffset)
+        {
+            super(location.resolve(String.format(FORMAT_BLOOM_FILE, baseOffset)));
+            this.mask = (capacity() << 3) - 1;
+        }
+
+        public boolean mightContain(
+            int hash)
+        {
+            boolean contains = true;
+
+            final int increment = Integer.rotateLeft(hash, 16) | 1;
+            for (int probe = 0, bit = hash; contains && probe < PROBES; probe++, bit += increment)
+            {
+                final int masked = bit & mask;
+                final long word = readLong((masked >>> 6) << 3);
+                contains = (word & (1L << (masked & 0x3f))) != 0L;
+            }
+
+            return contains;
+        }
+
+        private static Path writeBloom(
+            Path location,
+            KafkaCacheIndexFile hashFile)
+        {
+            final long entries = hashFile.capacity() / SIZEOF_INDEX_RECORD;
+            final long bits = Math.min(Math.max(Long.highestOneBit(entries * BITS_PER_ENTRY) << 1, Long.SIZE), BITS_MAX);
+            final int mask = (int) (bits - 1);
+            final long[] words = new long[(int) (bits >>> 6)];
+
+            for (int position = 0; position < hashFile.capacity(); position += SIZEOF_INDEX_RECORD)
+            {
+                final int hash = indexKey(hashFile.readLong(position));
+                final int increment = Integer.rotateLeft(hash, 16) | 1;
+                for (int probe = 0, bit = hash; probe < PROBES; probe++, bit += increment)
+                {
+                    final int masked = bit & mask;
+                    words[masked >>> 6] |= 1L << (masked & 0x3f);
+                }
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate(words.length << 3).order(nativeOrder());
+            buffer.asLongBuffer().put(words);
+
+            try (FileChannel channel = FileChannel.open(location, CREATE, WRITE, TRUNCATE_EXISTING))
+            {
+                while (buffer.hasRemaining())
+                {
+                    channel.write(buffer);
+                }
+            }
+            catch (IOException ex)
+            {
+                LangUtil.rethrowUnchecked(ex);
+            }
+
+            return location;
+        }
+    }
+
+    public static final class Checksum extends KafkaCacheFile
+    {
+        private static final int FIELD_OFFSET_LAST_OFFSET = 0;
+        private static final int FIELD_OFFSET_TIMESTAMP = FIELD_OFFSET_LAST_OFFSET + Long.BYTES;
+        private static final int FIELD_OFFSET_CHECKSUMS = FIELD_OFFSET_TIMESTAMP + Long.BYTES;
+
+        public Checksum(
+            Path location,
+            long baseOffset,
+            long lastOffset,
+            long timestamp,
+            KafkaCacheFile... files)
+        {
+            super(writeChecksum(location.resolve(String.format(FORMAT_CHECKSUM_FILE, baseOffset)), lastOffset, timestamp, files));
+        }
+
+        public Checksum(
+            Path location,
+            long baseOffset)
+        {
+            super(location.resolve(String.format(FORMAT_CHECKSUM_FILE, baseOffset)));
+        }
+
+        public static long[] baseOffsets(
+            Path location)
+        {
+            long[] baseOffsets = null;
+
+            try (Stream<Path> files = Files.list(location))
+            {
+                baseOffsets = files
+                    .map(f -> f.getFileName().toString())
+                    .filter(n -> n.endsWith(EXT_CHECKSUM) && n.length() == SIZEOF_BASE_OFFSET + EXT_CHECKSUM.length())
+                    .mapToLong(n -> Long.parseLong(n.substring(0, SIZEOF_BASE_OFFSET)))
+                    .sorted()
+                    .toArray();
+            }
+            catch (IOException | NumberFormatException ex)
+            {
+                baseOffsets = new long[0];
+            }
+
+            return baseOffsets;
+        }
+
+        public long lastOffset()
+        {
+            return readLong(FIELD_OFFSET_LAST_OFFSET);
+        }
+
+        public long timestamp()
+        {
+            return readLong(FIELD_OFFSET_TIMESTAMP);
+        }
+
+        public boolean matches(
+            KafkaCacheFile... files)
+        {
+            boolean matches = capacity() == FIELD_OFFSET_CHECKSUMS + files.length * Integer.BYTES;
+
+            final CRC32C checksum = new CRC32C();
+            for (int index = 0; matches && index < files.length; index++)
+            {
+                if (files[index] != null)
+                {
+                    checksum.reset();
+                    files[index].checksum(checksum);
+                    matches = readInt(FIELD_OFFSET_CHECKSUMS + index * Integer.BYTES) == (int) checksum.getValue();
+                }
+            }
+
+            return matches;
+        }
+
+        private static Path writeChecksum(
+            Path location,
+            long lastOffset,
+            long timestamp,
+            KafkaCacheFile... files)
+        {
+            // reopened segments keep their original checksums for validation
+            if (!Files.exists(location))
+            {
+                final ByteBuffer buffer = ByteBuffer.allocate(FIELD_OFFSET_CHECKSUMS + files.length * Integer.BYTES)
+                    .order(nativeOrder());
+                buffer.putLong(lastOffset);
+                buffer.putLong(timestamp);
+
+                final CRC32C checksum = new CRC32C();
+                for (KafkaCacheFile file : files)
+                {
+                    checksum.reset();
+                    file.checksum(checksum);
+                    buffer.putInt((int) checksum.getValue());
+                }
+                buffer.flip();
+
+                try (FileChannel channel = FileChannel.open(location, CREATE, WRITE, TRUNCATE_EXISTING))
+                {
+                    while (buffer.hasRemaining())
+                    {
+                        channel.write(buffer);
+                    }
+                }
+                catch (IOException ex)
+                {
+                    LangUtil.rethrowUnchecked(ex);
+                }
+            }
+
+            return location;
+        }
+    }
+
+    public static final class Archive extends KafkaCacheFile
+    {
+        private static final int BLOCK_BYTES = 256 * 1024;
+
+        private static final int FIELD_OFFSET_LOG_BYTES = 0;
+        private static final int FIELD_OFFSET_BLOCK_BYTES = FIELD_OFFSET_LOG_BYTES + Integer.BYTES;
+        private static final int FIELD_OFFSET_BLOCK_COUNT = FIELD_OFFSET_BLOCK_BYTES + Integer.BYTES;
+        private static final int FIELD_OFFSET_CHECKSUM = FIELD_OFFSET_BLOCK_COUNT + Integer.BYTES;
+        private static final int FIELD_OFFSET_BLOCK_LENGTHS = FIELD_OFFSET_CHECKSUM + Integer.BYTES;
+
+        private final long baseOffset;
+
+        public Archive(
+            Path location,
+            long baseOffset,
+            KafkaCacheFile logFile)
+        {
+            super(writeArchive(location, baseOffset, logFile));
+            this.baseOffset = baseOffset;
+        }
+
+        public Archive(
+            Path location,
+            long baseOffset)
+        {
+            super(location.resolve(String.format(FORMAT_ARCHIVE_FILE, baseOffset)));
+            this.baseOffset = baseOffset;
+        }
+
+        public static boolean exists(
+            Path location,
+            long baseOffset)
+        {
+            return Files.exists(location.resolve(String.format(FORMAT_ARCHIVE_FILE, baseOffset)));
+        }
+
+        public int logBytes()
+        {
+            return readInt(FIELD_OFFSET_LOG_BYTES);
+        }
+
+        public void restore()
+        {
+            final Path location = location().getParent();
+            final Path workFile = location.resolve(String.format(FORMAT_LOG_WORK_FILE, baseOffset));
+            final Path logFile = location.resolve(String.format(FORMAT_LOG_FILE, baseOffset));
+
+            final int logBytes = logBytes();
+            final int blockBytes = readInt(FIELD_OFFSET_BLOCK_BYTES);
+            final int blockCount = readInt(FIELD_OFFSET_BLOCK_COUNT);
+            final ByteBuffer archive = ((KafkaCacheFile) this).mappedByteBuf;
+            final int blocksAt = FIELD_OFFSET_BLOCK_LENGTHS + blockCount * Integer.BYTES;
+
+            final CRC32C checksum = new CRC32C();
+            checksum.update(archive.duplicate().position(blocksAt));
+
+            try (FileChannel channel = FileChannel.open(workFile, CREATE, READ, WRITE, TRUNCATE_EXISTING))
+            {
+                if (readInt(FIELD_OFFSET_CHECKSUM) != (int) checksum.getValue())
+                {
+                    throw new IOException(String.format("Corrupt archive checksum in %s", location()));
+                }
+
+                final MappedByteBuffer mapped = channel.map(MapMode.READ_WRITE, 0, logBytes);
+
+                int archivePosition = blocksAt;
+                for (int block = 0; block < blockCount; block++)
+                {
+                    final int blockLength = readInt(FIELD_OFFSET_BLOCK_LENGTHS + block * Integer.BYTES);
+                    final int logPosition = block * blockBytes;
+                    final int logLength = Math.min(blockBytes, logBytes - logPosition);
+
+                    final long restored = Zstd.decompressDirectByteBuffer(mapped, logPosition, logLength,
+                        archive, archivePosition, blockLength);
+
+                    if (Zstd.isError(restored) || restored != logLength)
+                    {
+                        throw new IOException(String.format("Corrupt archive block %d in %s", block, location()));
+                    }
+
+                    archivePosition += blockLength;
+                }
+
+                mapped.force();
+                IoUtil.unmap(mapped);
+            }
+            catch (IOException ex)
+            {
+                LangUtil.rethrowUnchecked(ex);
+            }
+
+            try
+            {
+                Files.move(workFile, logFile, ATOMIC_MOVE, REPLACE_EXISTING);
+            }
+            catch (IOException ex)
+            {
+                LangUtil.rethrowUnchecked(ex);
+            }
+        }
+
+        private static Path writeArchive(
+            Path location,
+            long baseOffset,
+            KafkaCacheFile logFile)
+        {
+            final Path workFile = location.resolve(String.format(FORMAT_ARCHIVE_WORK_FILE, baseOffset));
+            final Path archiveFile = location.resolve(String.format(FORMAT_ARCHIVE_FILE, baseOffset));
+
+            final int logBytes = logFile.capacity();
+            final int blockCount = (logBytes + BLOCK_BYTES - 1) / BLOCK_BYTES;
+            final ByteBuffer log = logFile.mappedByteBuf;
+
+            final ByteBuffer header = ByteBuffer.allocate(FIELD_OFFSET_BLOCK_LENGTHS + blockCount * Integer.BYTES)
+                .order(nativeOrder());
+            final ByteBuffer block = ByteBuffer.allocateDirect((int) Zstd.compressBound(BLOCK_BYTES));
+            final CRC32C checksum = new CRC32C();
+
+            try (FileChannel channel = FileChannel.open(workFile, CREATE, WRITE, TRUNCATE_EXISTING))
+            {
+                header.putInt(FIELD_OFFSET_LOG_BYTES, logBytes);
+                header.putInt(FIELD_OFFSET_BLOCK_BYTES, BLOCK_BYTES);
+                header.putInt(FIELD_OFFSET_BLOCK_COUNT, blockCount);
+                channel.position(header.capacity());
+
+                for (int index = 0; index < blockCount; index++)
+                {
+                    final int logPosition = index * BLOCK_BYTES;
+                    final int logLength = Math.min(BLOCK_BYTES, logBytes - logPosition);
+
+                    final long compressed = Zstd.compressDirectByteBuffer(block, 0, block.capacity(),
+                        log, logPosition, logLength, Zstd.defaultCompressionLevel());
+
+                    if (Zstd.isError(compressed))
+                    {
+                        throw new IOException(Zstd.getErrorName(compressed));
+                    }
+
+                    header.putInt(FIELD_OFFSET_BLOCK_LENGTHS + index * Integer.BYTES, (int) compressed);
+
+                    block.clear();
+                    block.limit((int) compressed);
+                    checksum.update(block.duplicate());
+                    while (block.hasRemaining())
+                    {
+                        channel.write(block);
+                    }
+                    block.clear();
+                }
+
+                header.putInt(FIELD_OFFSET_CHECKSUM, (int) checksum.getValue());
+
+                header.clear();
+                while (header.hasRemaining())
+                {
+                    channel.write(header, header.position());
+                }
+
+                Files.move(workFile, archiveFile, ATOMIC_MOVE, REPLACE_EXISTING);
+            }
+            catch (IOException ex)
+            {
+                LangUtil.rethrowUnchecked(ex);
+            }
+
+            return archiveFile;
+        }
+    }
 }
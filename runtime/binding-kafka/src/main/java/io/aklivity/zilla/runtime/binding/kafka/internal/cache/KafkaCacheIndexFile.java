@@ -48,9 +48,10 @@ public abstract class KafkaCacheIndexFile extends KafkaCacheFile
     protected KafkaCacheIndexFile(
         Path location,
         int capacity,
+        int chunkBytes,
         MutableDirectBuffer appendBuf)
     {
-        super(location, capacity, appendBuf);
+        super(location, capacity, chunkBytes, appendBuf);
     }
 
     protected KafkaCacheIndexFile(
@@ -99,9 +100,10 @@ public abstract class KafkaCacheIndexFile extends KafkaCacheFile
         protected SortedByKey(
             Path location,
             int capacity,
+            int chunkBytes,
             MutableDirectBuffer appendBuf)
         {
-            super(location, capacity, appendBuf);
+            super(location, capacity, chunkBytes, appendBuf);
         }
 
         protected SortedByKey(
@@ -418,10 +420,11 @@ public abstract class KafkaCacheIndexFile extends KafkaCacheFile
         protected SortedByValue(
             Path location,
             int capacity,
+            int chunkBytes,
             MutableDirectBuffer appendBuf,
             IntFunction<long[]> sortSpaceRef)
         {
-            super(location, capacity, appendBuf);
+            super(location, capacity, chunkBytes, appendBuf);
             this.sortSpaceRef = sortSpaceRef;
         }
 
@@ -25,28 +25,39 @@ import static io.aklivity.zilla.runtime.binding.kafka.internal.types.cache.Kafka
 import static io.aklivity.zilla.runtime.binding.kafka.internal.types.cache.KafkaCacheEntryFW.FIELD_OFFSET_DESCENDANT;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.types.cache.KafkaCacheEntryFW.FIELD_OFFSET_FLAGS;
 import static java.nio.ByteBuffer.allocateDirect;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.stream.Stream;
 import java.util.zip.CRC32C;
 
-import jakarta.json.JsonArray;
-import jakarta.json.JsonPatch;
+import jakarta.json.JsonException;
 import jakarta.json.JsonReader;
+import jakarta.json.JsonReaderFactory;
 import jakarta.json.JsonStructure;
 import jakarta.json.JsonWriter;
+import jakarta.json.JsonWriterFactory;
 import jakarta.json.spi.JsonProvider;
 
 import org.agrona.DirectBuffer;
 import org.agrona.ExpandableArrayBuffer;
+import org.agrona.IoUtil;
 import org.agrona.LangUtil;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.LongArrayList;
+import org.agrona.collections.LongHashSet;
 import org.agrona.collections.MutableInteger;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.io.DirectBufferInputStream;
@@ -74,9 +85,14 @@ public final class KafkaCachePartition
     private static final int NO_SEQUENCE = -1;
     private static final int NO_ACKNOWLEDGE = 0;
     private static final int NO_DELTA_POSITION = -1;
+    private static final int NO_DELTA_LENGTH = -1;
+    private static final long NO_BASE_OFFSET = -1L;
+    private static final int SIZEOF_BASE_OFFSET = 19;
+    private static final String EXT_WORK = ".work";
 
     private static final String FORMAT_FETCH_PARTITION_DIRECTORY = "%s-%d";
     private static final String FORMAT_PRODUCE_PARTITION_DIRECTORY = "%s-%d-%d";
+    private static final String CLEAN_DIRECTORY = ".clean";
 
     public static final int CACHE_ENTRY_FLAGS_DIRTY = 0x01;
     public static final int CACHE_ENTRY_FLAGS_COMPLETED = 0x02;
@@ -85,6 +101,7 @@ public final class KafkaCachePartition
     public static final int CACHE_ENTRY_FLAGS_ADVANCE = CACHE_ENTRY_FLAGS_COMPLETED | CACHE_ENTRY_FLAGS_DIRTY;
 
     private static final long OFFSET_HISTORICAL = KafkaOffsetType.HISTORICAL.value();
+    private static final long OFFSET_LIVE = KafkaOffsetType.LIVE.value();
 
     private static final Array32FW<KafkaHeaderFW> EMPTY_TRAILERS =
             new Array32FW.Builder<>(new KafkaHeaderFW.Builder(), new KafkaHeaderFW())
@@ -94,9 +111,13 @@ public final class KafkaCachePartition
 
     private static final int SIZEOF_PADDING_LENGTH = Integer.BYTES;
 
+    private static final JsonProvider JSON_PROVIDER = JsonProvider.provider();
+    private static final JsonReaderFactory JSON_READER_FACTORY = JSON_PROVIDER.createReaderFactory(null);
+    private static final JsonWriterFactory JSON_WRITER_FACTORY = JSON_PROVIDER.createWriterFactory(null);
+    private static final DirectBuffer EMPTY_JSON_PATCH = new UnsafeBuffer("[]".getBytes(UTF_8));
+
     private final KafkaCacheEntryFW headEntryRO = new KafkaCacheEntryFW();
     private final KafkaCacheEntryFW logEntryRO = new KafkaCacheEntryFW();
-    private final KafkaCacheDeltaFW deltaEntryRO = new KafkaCacheDeltaFW();
 
     private final MutableDirectBuffer entryInfo = new UnsafeBuffer(new byte[6 * Long.BYTES + 3 * Integer.BYTES + Short.BYTES]);
     private final MutableDirectBuffer valueInfo = new UnsafeBuffer(new byte[Integer.BYTES]);
@@ -117,11 +138,15 @@ public final class KafkaCachePartition
     private final IntFunction<long[]> sortSpaceRef;
     private final Node sentinel;
     private final CRC32C checksum;
+    private final List<SegmentTask> tasks;
 
     private long progress;
+    private Runnable recoverTask;
 
     private KafkaCacheEntryFW ancestorEntry;
     private final AtomicLong produceCapacity;
+    private final AtomicLong topicHotBytes;
+    private long hotBytes;
 
     public KafkaCachePartition(
         Path location,
@@ -131,6 +156,19 @@ public final class KafkaCachePartition
         int id,
         int appendCapacity,
         IntFunction<long[]> sortSpaceRef)
+    {
+        this(location, config, cache, new AtomicLong(), topic, id, appendCapacity, sortSpaceRef);
+    }
+
+    public KafkaCachePartition(
+        Path location,
+        KafkaCacheTopicConfig config,
+        String cache,
+        AtomicLong topicHotBytes,
+        String topic,
+        int id,
+        int appendCapacity,
+        IntFunction<long[]> sortSpaceRef)
     {
         this.location = createDirectories(location.resolve(String.format(FORMAT_FETCH_PARTITION_DIRECTORY, topic, id)));
         this.config = config;
@@ -141,8 +179,12 @@ public final class KafkaCachePartition
         this.sortSpaceRef = sortSpaceRef;
         this.sentinel = new Node();
         this.checksum = new CRC32C();
+        this.tasks = new ArrayList<>();
         this.progress = OFFSET_HISTORICAL;
         this.produceCapacity = new AtomicLong(0);
+        this.topicHotBytes = topicHotBytes;
+
+        recover();
     }
 
     public KafkaCachePartition(
@@ -167,7 +209,9 @@ public final class KafkaCachePartition
         this.sortSpaceRef = sortSpaceRef;
         this.sentinel = new Node();
         this.checksum = new CRC32C();
+        this.tasks = new ArrayList<>();
         this.progress = OFFSET_HISTORICAL;
+        this.topicHotBytes = new AtomicLong(0);
     }
 
     public String cache()
@@ -221,15 +265,107 @@ public final class KafkaCachePartition
         node.previous.next = node;
         node.next.previous = node;
 
-        if (!head.sentinel())
+        produceCapacity.getAndAdd(segmentBytes());
+
+        return node;
+    }
+
+    public Runnable freezeTask()
+    {
+        completeTasks();
+
+        final List<Node> nodes = new ArrayList<>();
+
+        for (Node node = sentinel.next; node.next != sentinel; node = node.next)
         {
-            final KafkaCacheSegment tail = head.segment.freeze();
-            head.segment(tail);
+            if (node.task == null && !node.segment.frozen())
+            {
+                nodes.add(node);
+            }
         }
 
-        produceCapacity.getAndAdd(segmentBytes());
+        return !nodes.isEmpty() ? newTask(new FreezeTask(nodes)) : null;
+    }
 
-        return node;
+    public Runnable cleanTask(
+        long now)
+    {
+        completeTasks();
+
+        final List<Node> nodes = new ArrayList<>();
+
+        for (Node node = sentinel.next; node.next != sentinel; node = node.next)
+        {
+            if (node.task == null && node.segment.cleanableAt() <= now)
+            {
+                nodes.add(node);
+            }
+        }
+
+        return !nodes.isEmpty() ? newTask(new CleanTask(nodes)) : null;
+    }
+
+    public Runnable archiveTask()
+    {
+        completeTasks();
+
+        final List<Node> nodes = new ArrayList<>();
+
+        long hotBytes = 0L;
+        for (Node node = sentinel.next; node != sentinel; node = node.next)
+        {
+            final KafkaCacheSegment segment = node.segment;
+            if (!segment.cold())
+            {
+                hotBytes += segment.logFile().capacity();
+            }
+        }
+
+        // hot bytes budget is shared by all partitions of the topic
+        final long topicHotBytes = this.topicHotBytes.addAndGet(hotBytes - this.hotBytes);
+        this.hotBytes = hotBytes;
+
+        long excessBytes = topicHotBytes - config.hotBytes;
+        for (Node node = sentinel.next; node != sentinel && excessBytes > 0L; node = node.next)
+        {
+            final KafkaCacheSegment segment = node.segment;
+            if (!segment.cold() &&
+                node.task == null &&
+                segment.frozen() &&
+                segment.references() == 1)
+            {
+                nodes.add(node);
+                excessBytes -= segment.logFile().capacity();
+            }
+        }
+
+        return !nodes.isEmpty() ? newTask(new ArchiveTask(nodes)) : null;
+    }
+
+    public Runnable recoverTask()
+    {
+        final Runnable task = recoverTask;
+        recoverTask = null;
+        return task;
+    }
+
+    public boolean pendingTasks()
+    {
+        completeTasks();
+        return !tasks.isEmpty();
+    }
+
+    public void completeTasks()
+    {
+        for (Iterator<SegmentTask> iterator = tasks.iterator(); iterator.hasNext(); )
+        {
+            final SegmentTask task = iterator.next();
+            if (task.done)
+            {
+                iterator.remove();
+                task.complete();
+            }
+        }
     }
 
     public Node seekNotBefore(
@@ -472,29 +608,17 @@ public final class KafkaCachePartition
             final OctetsFW headValue = headEntry.value();
             assert headEntry.offset$() == progress;
 
-            final JsonProvider json = JsonProvider.provider();
-            ancestorIn.wrap(ancestorValue.buffer(), ancestorValue.offset(), ancestorValue.sizeof());
-            final JsonReader ancestorReader = json.createReader(ancestorIn);
-            final JsonStructure ancestorJson = ancestorReader.read();
-            ancestorReader.close();
-
-            headIn.wrap(headValue.buffer(), headValue.offset(), headValue.sizeof());
-            final JsonReader headReader = json.createReader(headIn);
-            final JsonStructure headJson = headReader.read();
-            headReader.close();
-
-            final JsonPatch diff = json.createDiff(ancestorJson, headJson);
-            final JsonArray diffJson = diff.toJsonArray();
-            diffOut.wrap(diffBuffer, Integer.BYTES);
-            final JsonWriter writer = json.createWriter(diffOut);
-            writer.write(diffJson);
-            writer.close();
+            final int deltaLength = writeJsonPatch(ancestorValue, headValue);
 
-            // TODO: signal delta.sizeof > head.sizeof via null delta, otherwise delta file can exceed log file
-
-            final int deltaLength = diffOut.position();
-            diffBuffer.putInt(0, deltaLength);
-            deltaFile.appendBytes(diffBuffer, 0, Integer.BYTES + deltaLength);
+            if (deltaLength == NO_DELTA_LENGTH || deltaLength > headValue.sizeof())
+            {
+                logFile.writeInt(logFile.markValue() + FIELD_OFFSET_DELTA_POSITION, NO_DELTA_POSITION);
+            }
+            else
+            {
+                diffBuffer.putInt(0, deltaLength);
+                deltaFile.appendBytes(diffBuffer, 0, Integer.BYTES + deltaLength);
+            }
         }
 
         if (type != null)
@@ -522,6 +646,70 @@ public final class KafkaCachePartition
         headSegment.lastOffset(progress);
     }
 
+    private int writeJsonPatch(
+        OctetsFW ancestorValue,
+        OctetsFW headValue)
+    {
+        int deltaLength = NO_DELTA_LENGTH;
+
+        if (equalBytes(ancestorValue, headValue))
+        {
+            diffBuffer.putBytes(Integer.BYTES, EMPTY_JSON_PATCH, 0, EMPTY_JSON_PATCH.capacity());
+            deltaLength = EMPTY_JSON_PATCH.capacity();
+        }
+        else
+        {
+            try
+            {
+                ancestorIn.wrap(ancestorValue.buffer(), ancestorValue.offset(), ancestorValue.sizeof());
+                final JsonStructure ancestorJson;
+                try (JsonReader ancestorReader = JSON_READER_FACTORY.createReader(ancestorIn))
+                {
+                    ancestorJson = ancestorReader.read();
+                }
+
+                headIn.wrap(headValue.buffer(), headValue.offset(), headValue.sizeof());
+                final JsonStructure headJson;
+                try (JsonReader headReader = JSON_READER_FACTORY.createReader(headIn))
+                {
+                    headJson = headReader.read();
+                }
+
+                diffOut.wrap(diffBuffer, Integer.BYTES);
+                try (JsonWriter writer = JSON_WRITER_FACTORY.createWriter(diffOut))
+                {
+                    writer.write(JSON_PROVIDER.createDiff(ancestorJson, headJson).toJsonArray());
+                }
+                deltaLength = diffOut.position();
+            }
+            catch (JsonException ex)
+            {
+                // not JSON, deliver head value without delta
+            }
+        }
+
+        return deltaLength;
+    }
+
+    private static boolean equalBytes(
+        OctetsFW value1,
+        OctetsFW value2)
+    {
+        final DirectBuffer buffer1 = value1.buffer();
+        final DirectBuffer buffer2 = value2.buffer();
+        final int offset1 = value1.offset();
+        final int offset2 = value2.offset();
+        final int length = value1.sizeof();
+
+        boolean equal = length == value2.sizeof();
+        for (int index = 0; equal && index < length; index++)
+        {
+            equal = buffer1.getByte(offset1 + index) == buffer2.getByte(offset2 + index);
+        }
+
+        return equal;
+    }
+
     public void writeProduceEntryStart(
         long offset,
         Node head,
@@ -756,6 +944,9 @@ public final class KafkaCachePartition
         private volatile KafkaCachePartition.Node previous;
         private volatile KafkaCachePartition.Node next;
 
+        private SegmentTask task;
+        private LongArrayList dirtied;
+
         Node()
         {
             this.segment = null;
@@ -807,6 +998,7 @@ public final class KafkaCachePartition
         public void remove()
         {
             assert segment != null;
+            assert task == null;
             segment.delete();
             segment.close();
 
@@ -822,81 +1014,9 @@ public final class KafkaCachePartition
             this.segment = segment;
         }
 
-        public void clean(
-            long now)
+        public boolean busy()
         {
-            assert next != sentinel; // not head segment
-
-            if (segment.cleanableAt() <= now)
-            {
-                // TODO: use temporary files plus move to avoid corrupted log on restart
-                segment.delete();
-
-                final KafkaCacheSegment appender = new KafkaCacheSegment(segment, config, appendBuf, sortSpaceRef);
-                final KafkaCacheFile logFile = segment.logFile();
-                final KafkaCacheFile deltaFile = segment.deltaFile();
-
-                for (int logPosition = 0; logPosition < logFile.capacity(); )
-                {
-                    final KafkaCacheEntryFW logEntry = logFile.readBytes(logPosition, logEntryRO::wrap);
-                    if ((logEntry.flags() & CACHE_ENTRY_FLAGS_DIRTY) == 0)
-                    {
-                        final long logOffset = logEntry.offset$();
-                        final KafkaKeyFW key = logEntry.key();
-                        final ArrayFW<KafkaHeaderFW> headers = logEntry.headers();
-                        final int deltaPosition = logEntry.deltaPosition();
-                        final long keyHash = computeHash(key);
-
-                        final long offsetDelta = (int)(logOffset - segment.baseOffset());
-                        final long indexEntry = (offsetDelta << 32) | appender.logFile().capacity();
-                        appender.indexFile().appendLong(indexEntry);
-
-                        final long keyHashEntry = keyHash << 32 | appender.logFile().capacity();
-                        appender.hashFile().appendLong(keyHashEntry);
-
-                        headers.forEach(header ->
-                        {
-                            final long headerHash = computeHash(header);
-                            final long headerHashEntry = headerHash << 32 | appender.logFile().capacity();
-                            appender.hashFile().appendLong(headerHashEntry);
-                        });
-
-                        appender.logFile().appendBytes(logEntry);
-                        if (deltaPosition != -1)
-                        {
-                            final int newLogEntryAt = appender.logFile().capacity() - logEntry.sizeof();
-                            appender.logFile().writeInt(newLogEntryAt + FIELD_OFFSET_DELTA_POSITION, deltaFile.capacity());
-
-                            final KafkaCacheDeltaFW deltaEntry = deltaFile.readBytes(deltaPosition, deltaEntryRO::wrap);
-                            appender.deltaFile().appendBytes(deltaEntry);
-                        }
-
-                        // note: keys cleanup must also retain non-zero base offsets when spanning multiple segments
-                        final int deltaBaseOffset = 0;
-                        final long keyEntry = keyHash << 32 | deltaBaseOffset;
-                        appender.keysFile().appendLong(keyEntry);
-
-                        appender.lastOffset(logOffset);
-                    }
-
-                    logPosition = logEntry.limit();
-                }
-
-                segment.close();
-
-                final KafkaCacheSegment frozen = appender.freeze();
-                appender.close();
-
-                if (frozen.logFile().empty())
-                {
-                    frozen.delete();
-                    remove();
-                }
-                else
-                {
-                    segment(frozen);
-                }
-            }
+            return task != null;
         }
 
         public void findAndAbortProducerId(
@@ -905,7 +1025,7 @@ public final class KafkaCachePartition
         {
             final KafkaCacheFile logFile = segment.logFile();
 
-            for (int offsetBytes = 0; offsetBytes < logFile.capacity(); offsetBytes = cacheEntry.limit())
+            for (int offsetBytes = 0; logFile != null && offsetBytes < logFile.capacity(); offsetBytes = cacheEntry.limit())
             {
                 final KafkaCacheEntryFW entry = logFile.readBytes(offsetBytes, cacheEntry::wrap);
                 if (entry.ownerId() == producerId && (entry.flags() & CACHE_ENTRY_FLAGS_CONTROL) == 0x00)
@@ -927,10 +1047,11 @@ public final class KafkaCachePartition
             if (key.length() != -1)
             {
                 final KafkaCacheIndexFile hashFile = segment.hashFile();
-                final KafkaCacheFile logFile = segment.logFile();
                 long hashCursor = hashFile.last((int) hash);
                 int position = cursorValue(hashCursor);
-                while (position != NEXT_SEGMENT_VALUE && position != RETRY_SEGMENT_VALUE)
+                final boolean candidate = position != NEXT_SEGMENT_VALUE && position != RETRY_SEGMENT_VALUE;
+                final KafkaCacheFile logFile = candidate ? segment.logFile() : null;
+                while (logFile != null && position != NEXT_SEGMENT_VALUE && position != RETRY_SEGMENT_VALUE)
                 {
                     final KafkaCacheEntryFW cacheEntry = logFile.readBytes(position, ancestorEntry::wrap);
                     assert cacheEntry != null;
@@ -945,7 +1066,7 @@ public final class KafkaCachePartition
                     hashCursor = hashFile.lower((int) hash, hashCursor);
                     position = cursorValue(hashCursor);
                 }
-                assert position == NEXT_SEGMENT_VALUE || position == RETRY_SEGMENT_VALUE;
+                assert logFile == null || position == NEXT_SEGMENT_VALUE || position == RETRY_SEGMENT_VALUE;
             }
 
             return ancestor;
@@ -976,6 +1097,12 @@ public final class KafkaCachePartition
             logFile.writeLong(ancestor.offset() + FIELD_OFFSET_DESCENDANT, descendantOffset);
             logFile.writeInt(ancestor.offset() + FIELD_OFFSET_FLAGS, CACHE_ENTRY_FLAGS_DIRTY);
             segment.markDirtyBytes(ancestor.sizeof());
+
+            if (dirtied != null)
+            {
+                dirtied.addLong(ancestor.offset$());
+                dirtied.addLong(descendantOffset);
+            }
         }
 
         public void markDirty(
@@ -984,6 +1111,42 @@ public final class KafkaCachePartition
             final KafkaCacheFile logFile = segment.logFile();
             logFile.writeInt(entry.offset() + FIELD_OFFSET_FLAGS, CACHE_ENTRY_FLAGS_DIRTY);
             segment.markDirtyBytes(entry.sizeof());
+
+            if (dirtied != null)
+            {
+                dirtied.addLong(entry.offset$());
+                dirtied.addLong(NO_DESCENDANT_OFFSET);
+            }
+        }
+
+        private void redoDirty(
+            KafkaCacheSegment segment)
+        {
+            final KafkaCacheFile logFile = segment.logFile();
+
+            for (int index = 0; index < dirtied.size(); index += 2)
+            {
+                final long offset = dirtied.getLong(index);
+                final long descendantOffset = dirtied.getLong(index + 1);
+
+                final int offsetDelta = (int)(offset - segment.baseOffset());
+                final long cursor = segment.indexFile().first(offsetDelta);
+                final int position = cursorValue(cursor);
+
+                if (position != NEXT_SEGMENT_VALUE && position != RETRY_SEGMENT_VALUE)
+                {
+                    final KafkaCacheEntryFW entry = logFile.readBytes(position, logEntryRO::tryWrap);
+                    if (entry != null && entry.offset$() == offset)
+                    {
+                        if (descendantOffset != NO_DESCENDANT_OFFSET)
+                        {
+                            logFile.writeLong(entry.offset() + FIELD_OFFSET_DESCENDANT, descendantOffset);
+                        }
+                        logFile.writeInt(entry.offset() + FIELD_OFFSET_FLAGS, CACHE_ENTRY_FLAGS_DIRTY);
+                        segment.markDirtyBytes(entry.sizeof());
+                    }
+                }
+            }
         }
 
         @Override
@@ -1006,6 +1169,479 @@ public final class KafkaCachePartition
         }
     }
 
+    private Runnable newTask(
+        SegmentTask task)
+    {
+        tasks.add(task);
+        return task;
+    }
+
+    private abstract class SegmentTask implements Runnable
+    {
+        protected final List<Node> nodes;
+        protected final KafkaCacheSegment[] segments;
+
+        private volatile boolean done;
+
+        SegmentTask(
+            List<Node> nodes)
+        {
+            this.nodes = nodes;
+            this.segments = new KafkaCacheSegment[nodes.size()];
+            nodes.forEach(n -> n.task = this);
+        }
+
+        @Override
+        public final void run()
+        {
+            try
+            {
+                for (int index = 0; index < segments.length; index++)
+                {
+                    segments[index] = process(nodes.get(index).segment);
+                }
+            }
+            finally
+            {
+                done = true;
+            }
+        }
+
+        protected abstract KafkaCacheSegment process(
+            KafkaCacheSegment segment);
+
+        protected abstract void complete();
+    }
+
+    private final class FreezeTask extends SegmentTask
+    {
+        FreezeTask(
+            List<Node> nodes)
+        {
+            super(nodes);
+        }
+
+        @Override
+        protected KafkaCacheSegment process(
+            KafkaCacheSegment segment)
+        {
+            return segment.freeze();
+        }
+
+        @Override
+        protected void complete()
+        {
+            for (int index = 0; index < segments.length; index++)
+            {
+                final Node node = nodes.get(index);
+                final KafkaCacheSegment frozen = segments[index];
+
+                node.task = null;
+
+                if (frozen != null)
+                {
+                    frozen.inheritDirty(node.segment);
+                    node.segment(frozen);
+                }
+            }
+        }
+    }
+
+    private final class RecoverTask extends SegmentTask
+    {
+        private final KafkaCacheEntryFW logEntryRO = new KafkaCacheEntryFW();
+
+        RecoverTask(
+            List<Node> nodes)
+        {
+            super(nodes);
+        }
+
+        @Override
+        protected KafkaCacheSegment process(
+            KafkaCacheSegment segment)
+        {
+            KafkaCacheSegment recovered = null;
+
+            if (segment.validate())
+            {
+                if (!segment.archived())
+                {
+                    recoverDirtyBytes(segment);
+                }
+
+                recovered = segment;
+            }
+
+            return recovered;
+        }
+
+        @Override
+        protected void complete()
+        {
+            int validFrom = 0;
+            for (int index = 0; index < segments.length; index++)
+            {
+                if (segments[index] == null)
+                {
+                    // discard earlier segments too, so the cache never has a gap
+                    validFrom = index + 1;
+                }
+            }
+
+            final Node first = sentinel.next;
+            for (int index = 0; index < segments.length; index++)
+            {
+                final Node node = nodes.get(index);
+
+                node.task = null;
+
+                if (index < validFrom)
+                {
+                    node.segment.delete();
+                    node.segment.close();
+                }
+                else
+                {
+                    node.previous = first.previous;
+                    node.next = first;
+                    node.previous.next = node;
+                    node.next.previous = node;
+                }
+            }
+        }
+
+        private void recoverDirtyBytes(
+            KafkaCacheSegment segment)
+        {
+            final KafkaCacheFile logFile = segment.logFile();
+
+            int dirtyBytes = 0;
+            for (int position = 0; position < logFile.capacity(); )
+            {
+                final KafkaCacheEntryFW logEntry = logFile.readBytes(position, logEntryRO::wrap);
+                if ((logEntry.flags() & CACHE_ENTRY_FLAGS_DIRTY) != 0)
+                {
+                    dirtyBytes += logEntry.sizeof();
+                }
+
+                position = logEntry.limit();
+            }
+
+            if (dirtyBytes != 0)
+            {
+                segment.markDirtyBytes(dirtyBytes);
+            }
+        }
+    }
+
+    private final class ArchiveTask extends SegmentTask
+    {
+        ArchiveTask(
+            List<Node> nodes)
+        {
+            super(nodes);
+            nodes.forEach(n -> n.dirtied = new LongArrayList());
+        }
+
+        @Override
+        protected KafkaCacheSegment process(
+            KafkaCacheSegment segment)
+        {
+            return segment.archive();
+        }
+
+        @Override
+        protected void complete()
+        {
+            for (int index = 0; index < segments.length; index++)
+            {
+                final Node node = nodes.get(index);
+                final KafkaCacheSegment archived = segments[index];
+
+                node.task = null;
+
+                if (archived != null)
+                {
+                    if (node.dirtied.isEmpty())
+                    {
+                        node.segment.logFile().delete();
+                        node.segment(archived);
+                    }
+                    else
+                    {
+                        // entries marked dirty while archiving, retry when next cold
+                        archived.deleteArchive();
+                        archived.close();
+                    }
+                }
+
+                node.dirtied = null;
+            }
+        }
+    }
+
+    private final class CleanTask extends SegmentTask
+    {
+        private final MutableDirectBuffer appendBuf;
+        private final KafkaCacheEntryFW logEntryRO = new KafkaCacheEntryFW();
+        private final KafkaCacheDeltaFW deltaEntryRO = new KafkaCacheDeltaFW();
+        private final CRC32C checksum = new CRC32C();
+
+        CleanTask(
+            List<Node> nodes)
+        {
+            super(nodes);
+            this.appendBuf = new UnsafeBuffer(allocateDirect(KafkaCachePartition.this.appendBuf.capacity()));
+            nodes.forEach(n -> n.dirtied = new LongArrayList());
+        }
+
+        @Override
+        protected KafkaCacheSegment process(
+            KafkaCacheSegment segment)
+        {
+            final Path cleanLocation = createDirectories(location.resolve(CLEAN_DIRECTORY));
+            final KafkaCacheSegment appender = new KafkaCacheSegment(cleanLocation, config, segment.name(), segment.id(),
+                segment.baseOffset(), appendBuf, sortSpaceRef);
+            final KafkaCacheFile logFile = segment.logFile();
+            final KafkaCacheFile deltaFile = segment.deltaFile();
+
+            for (int logPosition = 0; logPosition < logFile.capacity(); )
+            {
+                final KafkaCacheEntryFW logEntry = logFile.readBytes(logPosition, logEntryRO::wrap);
+                if ((logEntry.flags() & CACHE_ENTRY_FLAGS_DIRTY) == 0)
+                {
+                    final long logOffset = logEntry.offset$();
+                    final KafkaKeyFW key = logEntry.key();
+                    final ArrayFW<KafkaHeaderFW> headers = logEntry.headers();
+                    final int deltaPosition = logEntry.deltaPosition();
+                    final long keyHash = computeHash(key);
+
+                    final long offsetDelta = (int)(logOffset - segment.baseOffset());
+                    final long indexEntry = (offsetDelta << 32) | appender.logFile().capacity();
+                    appender.indexFile().appendLong(indexEntry);
+
+                    final long keyHashEntry = keyHash << 32 | appender.logFile().capacity();
+                    appender.hashFile().appendLong(keyHashEntry);
+
+                    headers.forEach(header ->
+                    {
+                        final long headerHash = computeHash(header);
+                        final long headerHashEntry = headerHash << 32 | appender.logFile().capacity();
+                        appender.hashFile().appendLong(headerHashEntry);
+                    });
+
+                    appender.logFile().appendBytes(logEntry);
+                    if (deltaPosition != -1)
+                    {
+                        final int newLogEntryAt = appender.logFile().capacity() - logEntry.sizeof();
+                        appender.logFile().writeInt(newLogEntryAt + FIELD_OFFSET_DELTA_POSITION, appender.deltaFile().capacity());
+
+                        final KafkaCacheDeltaFW deltaEntry = deltaFile.readBytes(deltaPosition, deltaEntryRO::wrap);
+                        appender.deltaFile().appendBytes(deltaEntry);
+                    }
+
+                    // note: keys cleanup must also retain non-zero base offsets when spanning multiple segments
+                    final int deltaBaseOffset = 0;
+                    final long keyEntry = keyHash << 32 | deltaBaseOffset;
+                    appender.keysFile().appendLong(keyEntry);
+
+                    appender.lastOffset(logOffset);
+                }
+
+                logPosition = logEntry.limit();
+            }
+
+            final KafkaCacheSegment frozen = appender.freeze();
+            appender.close();
+
+            return frozen.logFile().empty() ? frozen : frozen.moveTo(location);
+        }
+
+        @Override
+        protected void complete()
+        {
+            for (int index = 0; index < segments.length; index++)
+            {
+                final Node node = nodes.get(index);
+                final KafkaCacheSegment cleaned = segments[index];
+
+                node.task = null;
+
+                if (cleaned != null)
+                {
+                    if (cleaned.logFile().empty())
+                    {
+                        cleaned.delete();
+                        cleaned.close();
+                        node.remove();
+                    }
+                    else
+                    {
+                        node.segment.deleteArchive();
+                        node.segment(cleaned);
+                        node.redoDirty(cleaned);
+                    }
+                }
+
+                node.dirtied = null;
+            }
+        }
+
+        private long computeHash(
+            Flyweight keyOrHeader)
+        {
+            final ByteBuffer byteBuffer = keyOrHeader.buffer().byteBuffer().duplicate();
+            byteBuffer.clear();
+            checksum.reset();
+            byteBuffer.position(keyOrHeader.offset());
+            byteBuffer.limit(keyOrHeader.limit());
+            checksum.update(byteBuffer);
+            return checksum.getValue();
+        }
+    }
+
+    private void recover()
+    {
+        final LongHashSet recovered = new LongHashSet();
+        final List<Node> nodes = new ArrayList<>();
+
+        recoverCleanedSegments();
+
+        for (long baseOffset : KafkaCacheFile.Checksum.baseOffsets(location))
+        {
+            final KafkaCacheSegment segment = recoverSegment(baseOffset);
+
+            if (segment == null)
+            {
+                // discard later segments too, so the cache never has a gap
+                break;
+            }
+
+            if (segment.lastOffset() == OFFSET_LIVE)
+            {
+                segment.close();
+                continue;
+            }
+
+            nodes.add(new Node(segment));
+            recovered.add(baseOffset);
+            this.progress = segment.lastOffset();
+        }
+
+        try (Stream<Path> files = Files.list(location))
+        {
+            files.filter(f -> !recovered.contains(baseOffset(f)) || f.toString().endsWith(EXT_WORK))
+                 .forEach(f -> IoUtil.delete(f.toFile(), true));
+        }
+        catch (IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+
+        if (!recovered.isEmpty())
+        {
+            append(progress + 1);
+
+            // checksums are validated off the I/O thread, segments join the partition when valid
+            this.recoverTask = newTask(new RecoverTask(nodes));
+        }
+    }
+
+    private void recoverCleanedSegments()
+    {
+        final Path cleanLocation = location.resolve(CLEAN_DIRECTORY);
+
+        // a staged checksum means the cleaned segment was complete, but not yet fully moved into place
+        for (long baseOffset : KafkaCacheFile.Checksum.baseOffsets(cleanLocation))
+        {
+            try (Stream<Path> files = Files.list(cleanLocation))
+            {
+                final Path checksum;
+                try (KafkaCacheFile.Checksum staged = new KafkaCacheFile.Checksum(cleanLocation, baseOffset))
+                {
+                    checksum = staged.location();
+                }
+
+                final List<Path> staged = files
+                    .filter(f -> baseOffset(f) == baseOffset && !f.equals(checksum))
+                    .collect(toList());
+
+                for (Path file : staged)
+                {
+                    Files.move(file, location.resolve(file.getFileName()), ATOMIC_MOVE);
+                }
+
+                Files.move(checksum, location.resolve(checksum.getFileName()), ATOMIC_MOVE);
+            }
+            catch (IOException ex)
+            {
+                LangUtil.rethrowUnchecked(ex);
+            }
+        }
+    }
+
+    private KafkaCacheSegment recoverSegment(
+        long baseOffset)
+    {
+        KafkaCacheSegment segment = null;
+
+        try
+        {
+            long lastOffset;
+            long timestamp;
+            try (KafkaCacheFile.Checksum checksum = new KafkaCacheFile.Checksum(location, baseOffset))
+            {
+                lastOffset = checksum.lastOffset();
+                timestamp = checksum.timestamp();
+            }
+
+            KafkaCacheFile.Archive archiveFile = null;
+            if (KafkaCacheFile.Archive.exists(location, baseOffset))
+            {
+                archiveFile = new KafkaCacheFile.Archive(location, baseOffset);
+
+                if (KafkaCacheFile.Log.exists(location, baseOffset))
+                {
+                    // restored log may have newer dirty marks than the archive
+                    archiveFile.delete();
+                    archiveFile.close();
+                    archiveFile = null;
+                }
+            }
+
+            segment = new KafkaCacheSegment(location, topic, id, baseOffset, lastOffset, timestamp, archiveFile);
+        }
+        catch (Exception ex)
+        {
+            // missing or truncated segment files
+            segment = null;
+        }
+
+        return segment;
+    }
+
+    private static long baseOffset(
+        Path file)
+    {
+        final String name = file.getFileName().toString();
+
+        long baseOffset = NO_BASE_OFFSET;
+        if (name.length() > SIZEOF_BASE_OFFSET && name.charAt(SIZEOF_BASE_OFFSET) == '.')
+        {
+            try
+            {
+                baseOffset = Long.parseLong(name.substring(0, SIZEOF_BASE_OFFSET));
+            }
+            catch (NumberFormatException ex)
+            {
+                // not a segment file
+            }
+        }
+
+        return baseOffset;
+    }
+
     private static Path createDirectories(
         Path directory)
     {
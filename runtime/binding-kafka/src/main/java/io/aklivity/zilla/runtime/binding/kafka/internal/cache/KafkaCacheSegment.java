@@ -16,10 +16,14 @@
 package io.aklivity.zilla.runtime.binding.kafka.internal.cache;
 
 import static java.lang.System.currentTimeMillis;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.function.IntFunction;
 
+import org.agrona.LangUtil;
 import org.agrona.MutableDirectBuffer;
 
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaOffsetType;
@@ -32,20 +36,25 @@ public final class KafkaCacheSegment extends KafkaCacheObject<KafkaCacheSegment>
     private final String name;
     private final int id;
     private final long baseOffset;
+    private final boolean frozen;
     private long timestamp;
 
-    private final KafkaCacheFile logFile;
+    private volatile KafkaCacheFile logFile;
     private final KafkaCacheFile deltaFile;
     private final KafkaCacheIndexFile indexFile;
     private final KafkaCacheIndexFile hashFile;
     private final KafkaCacheIndexFile keysFile;
     private final KafkaCacheIndexFile nullsFile;
+    private final KafkaCacheFile.Bloom bloomFile;
+    private final KafkaCacheFile.Checksum checksumFile;
+    private final KafkaCacheFile.Archive archiveFile;
 
     private long lastOffset;
 
     private int dirtyBytes;
     private long dirtySince = -1L;
     private long cleanableAt = Long.MAX_VALUE;
+    private volatile boolean restorable = true;
 
     public KafkaCacheSegment(
         KafkaCacheSegment segment,
@@ -71,18 +80,26 @@ public final class KafkaCacheSegment extends KafkaCacheObject<KafkaCacheSegment>
         MutableDirectBuffer appendBuf,
         IntFunction<long[]> sortSpaceRef)
     {
+        final int segmentBytes = config.segmentBytes;
+        final int indexBytes = config.segmentIndexBytes;
+        final int chunkBytes = config.segmentChunkBytes;
+
         this.location = location;
         this.name = name;
         this.id = id;
         this.baseOffset = baseOffset;
         this.lastOffset = OFFSET_LIVE;
+        this.frozen = false;
         this.timestamp = currentTimeMillis();
-        this.logFile = new KafkaCacheFile.Log(location, baseOffset, config.segmentBytes, appendBuf);
-        this.deltaFile = new KafkaCacheFile.Delta(location, baseOffset, config.segmentBytes, appendBuf);
-        this.indexFile = new KafkaCacheFile.Index(location, baseOffset, config.segmentIndexBytes, appendBuf);
-        this.hashFile = new KafkaCacheFile.HashScan(location, baseOffset, config.segmentIndexBytes, appendBuf, sortSpaceRef);
-        this.keysFile = new KafkaCacheFile.KeysScan(location, baseOffset, config.segmentIndexBytes, appendBuf, sortSpaceRef);
-        this.nullsFile = new KafkaCacheFile.NullsScan(location, baseOffset, config.segmentIndexBytes, appendBuf, sortSpaceRef);
+        this.logFile = new KafkaCacheFile.Log(location, baseOffset, segmentBytes, chunkBytes, appendBuf);
+        this.deltaFile = new KafkaCacheFile.Delta(location, baseOffset, segmentBytes, chunkBytes, appendBuf);
+        this.indexFile = new KafkaCacheFile.Index(location, baseOffset, indexBytes, chunkBytes, appendBuf);
+        this.hashFile = new KafkaCacheFile.HashScan(location, baseOffset, indexBytes, chunkBytes, appendBuf, sortSpaceRef);
+        this.keysFile = new KafkaCacheFile.KeysScan(location, baseOffset, indexBytes, chunkBytes, appendBuf, sortSpaceRef);
+        this.nullsFile = new KafkaCacheFile.NullsScan(location, baseOffset, indexBytes, chunkBytes, appendBuf, sortSpaceRef);
+        this.bloomFile = null;
+        this.checksumFile = null;
+        this.archiveFile = null;
     }
 
     public KafkaCacheSegment(
@@ -91,19 +108,47 @@ public final class KafkaCacheSegment extends KafkaCacheObject<KafkaCacheSegment>
         int id,
         long baseOffset,
         long lastOffset)
+    {
+        this(location, name, id, baseOffset, lastOffset, currentTimeMillis());
+    }
+
+    public KafkaCacheSegment(
+        Path location,
+        String name,
+        int id,
+        long baseOffset,
+        long lastOffset,
+        long timestamp)
+    {
+        this(location, name, id, baseOffset, lastOffset, timestamp, null);
+    }
+
+    public KafkaCacheSegment(
+        Path location,
+        String name,
+        int id,
+        long baseOffset,
+        long lastOffset,
+        long timestamp,
+        KafkaCacheFile.Archive archiveFile)
     {
         this.location = location;
         this.name = name;
         this.id = id;
         this.baseOffset = baseOffset;
         this.lastOffset = lastOffset;
-        this.timestamp = currentTimeMillis();
-        this.logFile = new KafkaCacheFile.Log(location, baseOffset);
+        this.frozen = true;
+        this.timestamp = timestamp;
+        this.archiveFile = archiveFile;
+        this.logFile = archiveFile == null ? new KafkaCacheFile.Log(location, baseOffset) : null;
         this.deltaFile = new KafkaCacheFile.Delta(location, baseOffset);
         this.indexFile = new KafkaCacheFile.Index(location, baseOffset);
         this.hashFile = new KafkaCacheFile.HashIndex(location, baseOffset);
         this.keysFile = new KafkaCacheFile.KeysIndex(location, baseOffset);
         this.nullsFile = new KafkaCacheFile.NullsIndex(location, baseOffset);
+        this.bloomFile = new KafkaCacheFile.Bloom(location, baseOffset);
+        this.checksumFile = new KafkaCacheFile.Checksum(location, baseOffset, lastOffset, timestamp,
+            logFile, deltaFile, indexFile, hashFile, nullsFile, keysFile, bloomFile);
     }
 
     public Path location()
@@ -148,9 +193,38 @@ public final class KafkaCacheSegment extends KafkaCacheObject<KafkaCacheSegment>
         return timestamp;
     }
 
+    public boolean frozen()
+    {
+        return frozen;
+    }
+
     public KafkaCacheFile logFile()
     {
-        return logFile;
+        final KafkaCacheFile logFile = this.logFile;
+        return logFile != null ? logFile : restoreLogFile();
+    }
+
+    public boolean archived()
+    {
+        return logFile == null;
+    }
+
+    public boolean cold()
+    {
+        return archiveFile != null;
+    }
+
+    public boolean restorable()
+    {
+        return restorable;
+    }
+
+    public void restore()
+    {
+        if (logFile == null)
+        {
+            restoreLogFile();
+        }
     }
 
     public KafkaCacheFile deltaFile()
@@ -178,6 +252,18 @@ public final class KafkaCacheSegment extends KafkaCacheObject<KafkaCacheSegment>
         return keysFile;
     }
 
+    public boolean mightContain(
+        int hash)
+    {
+        return bloomFile == null || bloomFile.mightContain(hash);
+    }
+
+    public boolean validate()
+    {
+        return checksumFile != null &&
+            checksumFile.matches(logFile, deltaFile, indexFile, hashFile, nullsFile, keysFile, bloomFile);
+    }
+
     public KafkaCacheSegment freeze()
     {
         logFile.freeze();
@@ -187,23 +273,96 @@ public final class KafkaCacheSegment extends KafkaCacheObject<KafkaCacheSegment>
         nullsFile.freeze();
         keysFile.freeze();
 
-        final KafkaCacheSegment frozen = new KafkaCacheSegment(location, name, id, baseOffset, lastOffset);
+        new KafkaCacheFile.Bloom(location, baseOffset, hashFile).close();
 
-        frozen.dirtySince = dirtySince;
-        frozen.dirtyBytes = dirtyBytes;
-        frozen.cleanableAt = cleanableAt;
+        final KafkaCacheSegment frozen = new KafkaCacheSegment(location, name, id, baseOffset, lastOffset);
+        frozen.inheritDirty(this);
 
         return frozen;
     }
 
+    public KafkaCacheSegment archive()
+    {
+        assert frozen;
+
+        final KafkaCacheFile.Archive archiveFile = new KafkaCacheFile.Archive(location, baseOffset, logFile());
+        final KafkaCacheSegment archived =
+            new KafkaCacheSegment(location, name, id, baseOffset, lastOffset, timestamp, archiveFile);
+        archived.inheritDirty(this);
+
+        return archived;
+    }
+
+    public KafkaCacheSegment moveTo(
+        Path newLocation)
+    {
+        assert frozen;
+        assert archiveFile == null;
+
+        close();
+
+        try
+        {
+            // checksum moves last, so recovery can finish an interrupted move while it remains staged
+            moveFile(deltaFile, newLocation);
+            moveFile(indexFile, newLocation);
+            moveFile(hashFile, newLocation);
+            moveFile(nullsFile, newLocation);
+            moveFile(keysFile, newLocation);
+            moveFile(bloomFile, newLocation);
+            moveFile(logFile, newLocation);
+            moveFile(checksumFile, newLocation);
+        }
+        catch (IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+
+        final KafkaCacheSegment moved = new KafkaCacheSegment(newLocation, name, id, baseOffset, lastOffset, timestamp);
+        moved.inheritDirty(this);
+
+        return moved;
+    }
+
+    public void inheritDirty(
+        KafkaCacheSegment segment)
+    {
+        this.dirtySince = segment.dirtySince;
+        this.dirtyBytes = segment.dirtyBytes;
+        this.cleanableAt = segment.cleanableAt;
+    }
+
     public void delete()
     {
-        logFile.delete();
+        if (logFile != null)
+        {
+            logFile.delete();
+        }
+
+        deleteArchive();
         indexFile.delete();
         hashFile.delete();
         nullsFile.delete();
         deltaFile.delete();
         keysFile.delete();
+
+        if (bloomFile != null)
+        {
+            bloomFile.delete();
+        }
+
+        if (checksumFile != null)
+        {
+            checksumFile.delete();
+        }
+    }
+
+    public void deleteArchive()
+    {
+        if (archiveFile != null)
+        {
+            archiveFile.delete();
+        }
     }
 
     public long cleanableAt()
@@ -235,10 +394,38 @@ public final class KafkaCacheSegment extends KafkaCacheObject<KafkaCacheSegment>
 
     public double cleanableDirtyRatio()
     {
-        final int capacity = logFile.capacity();
+        final int capacity = logFile != null ? logFile.capacity() : archiveFile.logBytes();
         return capacity == 0 ? 0.0 : (double) dirtyBytes / capacity;
     }
 
+    private synchronized KafkaCacheFile restoreLogFile()
+    {
+        if (logFile == null && restorable)
+        {
+            // archive is retained, so the restored log stays cold instead of being archived again
+            try
+            {
+                archiveFile.restore();
+                logFile = new KafkaCacheFile.Log(location, baseOffset);
+            }
+            catch (Exception ex)
+            {
+                // corrupt archive, readers skip this segment
+                restorable = false;
+            }
+        }
+
+        return logFile;
+    }
+
+    private static void moveFile(
+        KafkaCacheFile file,
+        Path newLocation) throws IOException
+    {
+        final Path location = file.location();
+        Files.move(location, newLocation.resolve(location.getFileName()), ATOMIC_MOVE);
+    }
+
     @Override
     public String toString()
     {
@@ -254,11 +441,30 @@ public final class KafkaCacheSegment extends KafkaCacheObject<KafkaCacheSegment>
     @Override
     protected void onClosed()
     {
-        logFile.close();
+        if (logFile != null)
+        {
+            logFile.close();
+        }
+
+        if (archiveFile != null)
+        {
+            archiveFile.close();
+        }
+
         indexFile.close();
         hashFile.close();
         nullsFile.close();
         deltaFile.close();
         keysFile.close();
+
+        if (bloomFile != null)
+        {
+            bloomFile.close();
+        }
+
+        if (checksumFile != null)
+        {
+            checksumFile.close();
+        }
     }
 }
@@ -31,6 +31,7 @@ public final class KafkaCacheTopic
     private final String cache;
     private final long maxProduceCapacity;
     private final AtomicLong produceCapacity;
+    private final AtomicLong hotBytes;
     private final String name;
     private final KafkaCacheTopicConfig config;
     private final int appendCapacity;
@@ -52,6 +53,7 @@ public final class KafkaCacheTopic
         this.cache = cache;
         this.produceCapacity = produceCapacity;
         this.maxProduceCapacity = config.cacheProduceCapacity();
+        this.hotBytes = new AtomicLong(0);
         this.name = name;
         this.partitionsById = new ConcurrentHashMap<>();
         this.partitionsByIndex = new ConcurrentHashMap<>();
@@ -96,7 +98,7 @@ public final class KafkaCacheTopic
     private KafkaCachePartition newFetchPartition(
         int id)
     {
-        return new KafkaCachePartition(location, config, cache, name, id, appendCapacity, sortSpaceRef);
+        return new KafkaCachePartition(location, config, cache, hotBytes, name, id, appendCapacity, sortSpaceRef);
     }
 
     private KafkaCachePartition newProducePartition(
@@ -49,9 +49,11 @@ public final class KafkaCacheTopicConfig
     public volatile int maxMessageBytes;
     public volatile int segmentBytes;
     public volatile int segmentIndexBytes;
+    public volatile int segmentChunkBytes;
     public volatile long segmentMillis;
     public volatile long retentionBytes;
     public volatile long retentionMillis;
+    public volatile long hotBytes;
 
     public volatile long deleteRetentionMillis;
     public volatile long minCompactionLagMillis;
@@ -84,9 +86,11 @@ public final class KafkaCacheTopicConfig
         this.maxMessageBytes = config.cacheMaxMessageBytes();
         this.segmentBytes = config.cacheSegmentBytes();
         this.segmentIndexBytes = config.cacheSegmentIndexBytes();
+        this.segmentChunkBytes = config.cacheSegmentChunkBytes();
         this.segmentMillis = config.cacheSegmentMillis();
         this.retentionBytes = config.cacheRetentionBytes();
         this.retentionMillis = config.cacheRetentionMillis();
+        this.hotBytes = config.cacheHotBytes();
         this.deleteRetentionMillis = config.cacheDeleteRetentionMillis();
         this.minCompactionLagMillis = config.cacheMinCompactionLagMillis();
         this.maxCompactionLagMillis = config.cacheMaxCompactionLagMillis();
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
 
+import io.aklivity.zilla.runtime.binding.kafka.config.KafkaCompressionConfig;
 import io.aklivity.zilla.runtime.binding.kafka.config.KafkaOptionsConfig;
 import io.aklivity.zilla.runtime.binding.kafka.config.KafkaSaslConfig;
 import io.aklivity.zilla.runtime.binding.kafka.config.KafkaServerConfig;
@@ -117,4 +118,11 @@ public final class KafkaBindingConfig
         KafkaTopicConfig config = topic(topic);
         return config != null && config.defaultOffset != null ? config.defaultOffset : HISTORICAL;
     }
+
+    public KafkaCompressionConfig supplyCompression(
+        String topic)
+    {
+        KafkaTopicConfig config = topic(topic);
+        return config != null && config.compression != null ? config.compression : KafkaCompressionConfig.NONE;
+    }
 }
@@ -20,6 +20,7 @@ import jakarta.json.JsonObject;
 import jakarta.json.JsonObjectBuilder;
 import jakarta.json.bind.adapter.JsonbAdapter;
 
+import io.aklivity.zilla.runtime.binding.kafka.config.KafkaCompressionConfig;
 import io.aklivity.zilla.runtime.binding.kafka.config.KafkaTopicConfig;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaDeltaType;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaOffsetType;
@@ -31,6 +32,7 @@ public final class KafkaTopicConfigAdapter implements JsonbAdapter<KafkaTopicCon
     private static final String NAME_NAME = "name";
     private static final String DEFAULT_OFFSET_NAME = "defaultOffset";
     private static final String DELTA_TYPE_NAME = "deltaType";
+    private static final String COMPRESSION_NAME = "compression";
     private static final String EVENT_KEY = "key";
     private static final String EVENT_VALUE = "value";
     private static final String SUBJECT = "subject";
@@ -55,6 +57,10 @@ public final class KafkaTopicConfigAdapter implements JsonbAdapter<KafkaTopicCon
         {
             object.add(DELTA_TYPE_NAME, topic.deltaType.toString().toLowerCase());
         }
+        if (topic.compression != null)
+        {
+            object.add(COMPRESSION_NAME, topic.compression.name().toLowerCase());
+        }
 
         if (topic.key != null)
         {
@@ -89,6 +95,10 @@ public final class KafkaTopicConfigAdapter implements JsonbAdapter<KafkaTopicCon
                 ? KafkaDeltaType.valueOf(object.getString(DELTA_TYPE_NAME).toUpperCase())
                 : null;
 
+        KafkaCompressionConfig compression = object.containsKey(COMPRESSION_NAME)
+                ? KafkaCompressionConfig.valueOf(object.getString(COMPRESSION_NAME).toUpperCase())
+                : null;
+
         JsonObject key = object.containsKey(EVENT_KEY)
                 ? object.getJsonObject(EVENT_KEY)
                 : null;
@@ -121,6 +131,6 @@ public final class KafkaTopicConfigAdapter implements JsonbAdapter<KafkaTopicCon
             valueConfig = validator.adaptFromJson(valueObject.build());
         }
 
-        return new KafkaTopicConfig(name, defaultOffset, deltaType, keyConfig, valueConfig);
+        return new KafkaTopicConfig(name, defaultOffset, deltaType, keyConfig, valueConfig, compression);
     }
 }
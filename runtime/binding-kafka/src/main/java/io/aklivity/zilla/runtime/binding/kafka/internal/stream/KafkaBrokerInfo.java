@@ -20,14 +20,17 @@ final class KafkaBrokerInfo
     final int brokerId;
     final String host;
     final int port;
+    final String rack;
 
     KafkaBrokerInfo(
         int brokerId,
         String host,
-        int port)
+        int port,
+        String rack)
     {
         this.brokerId = brokerId;
         this.host = host;
         this.port = port;
+        this.rack = rack;
     }
 }
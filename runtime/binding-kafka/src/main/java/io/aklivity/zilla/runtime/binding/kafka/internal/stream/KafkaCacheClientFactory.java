@@ -17,6 +17,7 @@ package io.aklivity.zilla.runtime.binding.kafka.internal.stream;
 
 import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CACHE_CLIENT_RECONNECT_DELAY;
 
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.LongFunction;
 
@@ -53,7 +54,8 @@ public final class KafkaCacheClientFactory implements KafkaStreamFactory
         KafkaConfiguration config,
         EngineContext context,
         Function<String, KafkaCache> supplyCache,
-        LongFunction<KafkaCacheRoute> supplyCacheRoute)
+        LongFunction<KafkaCacheRoute> supplyCacheRoute,
+        Executor segmentExecutor)
     {
         final Long2ObjectHashMap<KafkaBindingConfig> bindings = new Long2ObjectHashMap<>();
         final KafkaMergedBudgetAccountant accountant = new KafkaMergedBudgetAccountant(context);
@@ -74,10 +76,10 @@ public final class KafkaCacheClientFactory implements KafkaStreamFactory
             new KafkaCacheOffsetFetchFactory(config, context, bindings::get);
 
         final KafkaCacheClientFetchFactory cacheFetchFactory = new KafkaCacheClientFetchFactory(
-                config, context, bindings::get, accountant::supplyDebitor, supplyCache, supplyCacheRoute);
+                config, context, bindings::get, accountant::supplyDebitor, supplyCache, supplyCacheRoute, segmentExecutor);
 
         final KafkaCacheClientProduceFactory cacheProduceFactory = new KafkaCacheClientProduceFactory(
-                config, context, bindings::get, supplyCache, supplyCacheRoute);
+                config, context, bindings::get, supplyCache, supplyCacheRoute, segmentExecutor);
 
         final KafkaMergedFactory cacheMergedFactory = new KafkaMergedFactory(
                 config, context, bindings::get, accountant.creditor());
@@ -27,7 +27,10 @@ import static io.aklivity.zilla.runtime.engine.budget.BudgetCreditor.NO_BUDGET_I
 import static io.aklivity.zilla.runtime.engine.budget.BudgetDebitor.NO_DEBITOR_INDEX;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.LongFunction;
@@ -35,8 +38,10 @@ import java.util.function.LongSupplier;
 import java.util.function.LongUnaryOperator;
 
 import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.Int2IntHashMap;
+import org.agrona.collections.LongHashSet;
 import org.agrona.concurrent.UnsafeBuffer;
 
 import io.aklivity.zilla.runtime.binding.kafka.internal.KafkaBinding;
@@ -44,9 +49,11 @@ import io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration;
 import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCache;
 import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheCursorFactory;
 import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheCursorFactory.KafkaCacheCursor;
+import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheCursorFactory.KafkaCacheCursorMemo;
 import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheCursorFactory.KafkaFilterCondition;
 import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCachePartition;
 import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCachePartition.Node;
+import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheSegment;
 import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheTopic;
 import io.aklivity.zilla.runtime.binding.kafka.internal.config.KafkaBindingConfig;
 import io.aklivity.zilla.runtime.binding.kafka.internal.config.KafkaRouteConfig;
@@ -104,6 +111,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
     private static final int FLAG_NONE = 0x00;
 
     private static final int SIGNAL_FANOUT_REPLY_WINDOW = 1;
+    private static final int SIGNAL_SEGMENT_RESTORED = 2;
 
     private final BeginFW beginRO = new BeginFW();
     private final FlushFW flushRO = new FlushFW();
@@ -134,6 +142,8 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
     private final int kafkaTypeId;
     private final MutableDirectBuffer writeBuffer;
     private final MutableDirectBuffer extBuffer;
+    private final MutableDirectBuffer memoKeyRW = new ExpandableArrayBuffer();
+    private final DirectBuffer memoKeyRO = new UnsafeBuffer();
     private final BufferPool bufferPool;
     private final Signaler signaler;
     private final BindingHandler streamFactory;
@@ -146,6 +156,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
     private final Function<String, KafkaCache> supplyCache;
     private final LongFunction<KafkaCacheRoute> supplyCacheRoute;
     private final KafkaCacheCursorFactory cursorFactory;
+    private final Executor segmentExecutor;
 
     public KafkaCacheClientFetchFactory(
         KafkaConfiguration config,
@@ -153,7 +164,8 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
         LongFunction<KafkaBindingConfig> supplyBinding,
         LongFunction<BudgetDebitor> supplyDebitor,
         Function<String, KafkaCache> supplyCache,
-        LongFunction<KafkaCacheRoute> supplyCacheRoute)
+        LongFunction<KafkaCacheRoute> supplyCacheRoute,
+        Executor segmentExecutor)
     {
         this.kafkaTypeId = context.supplyTypeId(KafkaBinding.NAME);
         this.writeBuffer = new UnsafeBuffer(new byte[context.writeBuffer().capacity()]);
@@ -170,6 +182,24 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
         this.supplyCache = supplyCache;
         this.supplyCacheRoute = supplyCacheRoute;
         this.cursorFactory = new KafkaCacheCursorFactory(context.writeBuffer());
+        this.segmentExecutor = segmentExecutor;
+    }
+
+    private void restoreAndSignal(
+        KafkaCacheSegment segment,
+        long originId,
+        long routedId,
+        long streamId,
+        long traceId)
+    {
+        try
+        {
+            segment.restore();
+        }
+        finally
+        {
+            signaler.signalNow(originId, routedId, streamId, traceId, SIGNAL_SEGMENT_RESTORED, 0);
+        }
     }
 
     @Override
@@ -240,6 +270,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
             }
 
             final KafkaFilterCondition condition = cursorFactory.asCondition(filters, evaluation);
+            final KafkaCacheCursorMemo memo = fanout.supplyMemo(filters, evaluation);
             final long latestOffset = kafkaFetchBeginEx.partition().latestOffset();
             final KafkaOffsetType maximumOffset = KafkaOffsetType.valueOf((byte) latestOffset);
             final Int2IntHashMap leadersByPartitionId = cacheRoute.supplyLeadersByPartitionId(topicName);
@@ -255,6 +286,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
                     authorization,
                     partitionOffset,
                     condition,
+                    memo,
                     maximumOffset,
                     deltaType,
                     isolation)::onClientMessage;
@@ -509,6 +541,8 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
         private final long authorization;
         private final KafkaCachePartition partition;
         private final List<KafkaCacheClientFetchStream> members;
+        private final Map<DirectBuffer, KafkaCacheCursorMemo> memosByFilters;
+        private final LongHashSet restoring;
 
         private long leaderId;
         private long initialId;
@@ -545,10 +579,40 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
             this.stableOffset = DEFAULT_STABLE_OFFSET;
             this.latestOffset = DEFAULT_LATEST_OFFSET;
             this.members = new ArrayList<>();
+            this.memosByFilters = new HashMap<>();
+            this.restoring = new LongHashSet();
             this.leaderId = leaderId;
             this.receiver = NO_RECEIVER;
         }
 
+        private KafkaCacheCursorMemo supplyMemo(
+            ArrayFW<KafkaFilterFW> filters,
+            KafkaEvaluation evaluation)
+        {
+            KafkaCacheCursorMemo memo = null;
+
+            if (!filters.isEmpty())
+            {
+                final int memoKeyLength = Byte.BYTES + filters.sizeof();
+                memoKeyRW.putByte(0, (byte) evaluation.ordinal());
+                memoKeyRW.putBytes(Byte.BYTES, filters.buffer(), filters.offset(), filters.sizeof());
+                memoKeyRO.wrap(memoKeyRW, 0, memoKeyLength);
+
+                memo = memosByFilters.get(memoKeyRO);
+
+                if (memo == null)
+                {
+                    final MutableDirectBuffer key = new UnsafeBuffer(new byte[memoKeyLength]);
+                    key.putBytes(0, memoKeyRO, 0, memoKeyLength);
+
+                    memo = cursorFactory.newMemo(() -> memosByFilters.remove(key));
+                    memosByFilters.put(key, memo);
+                }
+            }
+
+            return memo;
+        }
+
         private void onClientFanoutMemberOpening(
             long traceId,
             KafkaCacheClientFetchStream member)
@@ -699,9 +763,37 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
             final long traceId = signal.traceId();
             final int signalId = signal.signalId();
 
-            assert signalId == SIGNAL_FANOUT_REPLY_WINDOW;
+            switch (signalId)
+            {
+            case SIGNAL_FANOUT_REPLY_WINDOW:
+                doClientFanoutReplyWindow(traceId, 0, replyMax);
+                break;
+            case SIGNAL_SEGMENT_RESTORED:
+                onClientFanoutSegmentRestored(traceId);
+                break;
+            default:
+                assert false : String.format("unexpected signal %d", signalId);
+                break;
+            }
+        }
 
-            doClientFanoutReplyWindow(traceId, 0, replyMax);
+        private void onClientFanoutSegmentRestored(
+            long traceId)
+        {
+            restoring.clear();
+
+            members.forEach(s -> s.doClientReplyDataIfNecessary(traceId));
+        }
+
+        private void doClientFanoutRestoreSegment(
+            long traceId,
+            KafkaCacheSegment segment)
+        {
+            if (restoring.add(segment.baseOffset()))
+            {
+                final long streamId = initialId;
+                segmentExecutor.execute(() -> restoreAndSignal(segment, originId, routedId, streamId, traceId));
+            }
         }
 
         private void onClientFanoutReplyBegin(
@@ -930,6 +1022,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
             long authorization,
             long initialOffset,
             KafkaFilterCondition condition,
+            KafkaCacheCursorMemo memo,
             KafkaOffsetType maximumOffset,
             KafkaDeltaType deltaType,
             KafkaIsolation isolation)
@@ -943,7 +1036,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
             this.leaderId = leaderId;
             this.authorization = authorization;
             this.initialOffset = initialOffset;
-            this.cursor = cursorFactory.newCursor(condition, deltaType);
+            this.cursor = cursorFactory.newCursor(condition, deltaType, memo);
             this.maximumOffset = maximumOffset;
             this.deltaType = deltaType;
             this.isolation = isolation;
@@ -1023,11 +1116,18 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
             final Array32FW<KafkaFilterFW> filters = kafkaFetchFlush.filters();
             final KafkaEvaluation evaluation = kafkaFetchFlush.evaluation().get();
             final KafkaFilterCondition condition = cursorFactory.asCondition(filters, evaluation);
+            final KafkaCacheCursorMemo memo = group.supplyMemo(filters, evaluation);
+
+            if (nextCursor != null)
+            {
+                nextCursor.close();
+            }
 
-            nextCursor = cursorFactory.newCursor(condition, deltaType);
+            nextCursor = cursorFactory.newCursor(condition, deltaType, memo);
             nextCursor.init(cursor);
             if (messageOffset == 0)
             {
+                cursor.close();
                 cursor = nextCursor;
                 nextCursor = null;
             }
@@ -1171,6 +1271,13 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
             {
                 final KafkaCacheEntryFW nextEntry = cursor.next(entryRO);
 
+                final KafkaCacheSegment restoring = nextEntry == null ? cursor.restoring() : null;
+                if (restoring != null)
+                {
+                    group.doClientFanoutRestoreSegment(traceId, restoring);
+                    break;
+                }
+
                 if (flushFramesSent == 0 &&
                     (nextEntry == null && group.partitionOffset >= initialIsolatedOffset ||
                     nextEntry != null && nextEntry.offset$() > initialIsolatedOffset))
@@ -1350,6 +1457,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
 
                     if (nextCursor != null)
                     {
+                        cursor.close();
                         cursor = nextCursor;
                         nextCursor = null;
                     }
@@ -1578,7 +1686,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
             doEnd(sender, originId, routedId, replyId, replySeq, replyAck, replyMax,
                     traceId, authorization, EMPTY_EXTENSION);
             cleanupDebitorIfNecessary();
-            cursor.close();
+            cleanupCursors();
         }
 
         private void doClientReplyAbort(
@@ -1588,7 +1696,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
             doAbort(sender, originId, routedId, replyId, replySeq, replyAck, replyMax,
                     traceId, authorization, EMPTY_EXTENSION);
             cleanupDebitorIfNecessary();
-            cursor.close();
+            cleanupCursors();
         }
 
         private void doClientReplyEndIfNecessary(
@@ -1601,7 +1709,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
 
             state = KafkaState.closedReply(state);
             cleanupDebitorIfNecessary();
-            cursor.close();
+            cleanupCursors();
         }
 
         private void doClientReplyAbortIfNecessary(
@@ -1614,7 +1722,7 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
 
             state = KafkaState.closedReply(state);
             cleanupDebitorIfNecessary();
-            cursor.close();
+            cleanupCursors();
         }
 
         private void onClientReplyWindow(
@@ -1667,13 +1775,24 @@ public final class KafkaCacheClientFetchFactory implements BindingHandler
 
             state = KafkaState.closedReply(state);
             cleanupDebitorIfNecessary();
-            cursor.close();
+            cleanupCursors();
 
             group.onClientFanoutMemberClosed(traceId, this);
 
             doClientInitialResetIfNecessary(traceId, EMPTY_OCTETS);
         }
 
+        private void cleanupCursors()
+        {
+            cursor.close();
+
+            if (nextCursor != null)
+            {
+                nextCursor.close();
+                nextCursor = null;
+            }
+        }
+
         private void cleanupDebitorIfNecessary()
         {
             if (replyDeb != null && replyDebIndex != NO_DEBITOR_INDEX)
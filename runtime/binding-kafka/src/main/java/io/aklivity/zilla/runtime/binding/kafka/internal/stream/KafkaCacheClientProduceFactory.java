@@ -25,6 +25,7 @@ import static java.time.Instant.now;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.LongFunction;
@@ -121,6 +122,7 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
     private static final int SIGNAL_GROUP_CLEANUP = 2;
 
     private static final int SIGNAL_RECONNECT = 3;
+    private static final int SIGNAL_SEGMENT_TASK_COMPLETE = 4;
 
     private final BeginFW beginRO = new BeginFW();
     private final DataFW dataRO = new DataFW();
@@ -153,6 +155,7 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
     private final BufferPool bufferPool;
     private final BudgetCreditor creditor;
     private final Signaler signaler;
+    private final Executor segmentExecutor;
     private final BindingHandler streamFactory;
     private final MutableDirectBuffer writeBuffer;
     private final MutableDirectBuffer extBuffer;
@@ -177,7 +180,8 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
         EngineContext context,
         LongFunction<KafkaBindingConfig> supplyBinding,
         Function<String, KafkaCache> supplyCache,
-        LongFunction<KafkaCacheRoute> supplyCacheRoute)
+        LongFunction<KafkaCacheRoute> supplyCacheRoute,
+        Executor segmentExecutor)
     {
         this.kafkaTypeId = context.supplyTypeId(KafkaBinding.NAME);
         this.writeBuffer = new UnsafeBuffer(new byte[context.writeBuffer().capacity()]);
@@ -195,6 +199,7 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
         this.supplyBinding = supplyBinding;
         this.supplyCache = supplyCache;
         this.supplyCacheRoute = supplyCacheRoute;
+        this.segmentExecutor = segmentExecutor;
         this.initialBudgetMax = bufferPool.slotCapacity();
         this.localIndex = context.index();
         this.cleanupDelay = config.cacheClientCleanupDelay();
@@ -282,6 +287,23 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
         return newStream;
     }
 
+    private void invokeAndSignal(
+        Runnable task,
+        long originId,
+        long routedId,
+        long streamId,
+        long traceId)
+    {
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            signaler.signalNow(originId, routedId, streamId, traceId, SIGNAL_SEGMENT_TASK_COMPLETE, 0);
+        }
+    }
+
     private MessageConsumer newStream(
         MessageConsumer sender,
         long originId,
@@ -656,6 +678,12 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
                         .build()
                         .sizeof()));
             state = KafkaState.openingInitial(state);
+
+            if (partition.pendingTasks())
+            {
+                // tasks still running signal the previous stream, so queue behind them to signal this one
+                doClientFanInitialSegmentTask(traceId, () -> {});
+            }
         }
 
         private void onClientInitialData(
@@ -707,8 +735,14 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
                     break init;
                 }
 
+                final KafkaCachePartition.Node head = partition.head();
                 stream.segment = partition.newHeadIfNecessary(partitionOffset, key, valueLength, headersSizeMax);
 
+                if (partition.head() != head)
+                {
+                    doClientFanInitialSegmentTask(traceId, partition.freezeTask());
+                }
+
                 if (stream.segment != null)
                 {
                     final long nextOffset = partition.nextOffset(defaultOffset);
@@ -782,8 +816,14 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
             final long traceId = flush.traceId();
             final int reserved = flush.reserved();
 
+            final KafkaCachePartition.Node head = partition.head();
             stream.segment = partition.newHeadIfNecessary(partitionOffset, EMPTY_KEY, 0, 0);
 
+            if (partition.head() != head)
+            {
+                doClientFanInitialSegmentTask(traceId, partition.freezeTask());
+            }
+
             int error = NO_ERROR;
             if (stream.segment != null)
             {
@@ -876,6 +916,8 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
             doAbort(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
                     traceId, authorization, EMPTY_EXTENSION);
 
+            partition.completeTasks();
+
             onClientFanInitialClosed();
         }
 
@@ -887,6 +929,8 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
 
             state = KafkaState.closedInitial(state);
 
+            partition.completeTasks();
+
             final KafkaResetExFW kafkaResetEx = extension.get(kafkaResetExRO::tryWrap);
             final int error = kafkaResetEx != null ? kafkaResetEx.error() : UNKNOWN_ERROR;
             doClientFanReplyResetIfNecessary(traceId);
@@ -946,25 +990,30 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
             case SIGNAL_GROUP_CLEANUP:
                 onClientFanInitialSignalCleanup(signal);
                 break;
+            case SIGNAL_SEGMENT_TASK_COMPLETE:
+                onClientFanInitialSignalSegmentTaskComplete(signal);
+                break;
             }
         }
 
         private void onClientFanInitialSignalSegmentCompact(
             SignalFW signal)
         {
+            final long traceId = signal.traceId();
             final long now = currentTimeMillis();
 
-            KafkaCachePartition.Node segmentNode = partition.sentinel().next();
-            while (!segmentNode.next().sentinel()) // avoid cleaning head
-            {
-                segmentNode.clean(now);
-                segmentNode = segmentNode.next();
-            }
+            doClientFanInitialSegmentTask(traceId, partition.cleanTask(now));
 
             this.compactAt = Long.MAX_VALUE;
             this.compactId = NO_CANCEL_ID;
         }
 
+        private void onClientFanInitialSignalSegmentTaskComplete(
+            SignalFW signal)
+        {
+            partition.completeTasks();
+        }
+
         private void onClientFanInitialSignalCleanup(
             SignalFW signal)
         {
@@ -1194,6 +1243,17 @@ public final class KafkaCacheClientProduceFactory implements BindingHandler
                     traceId, authorization, 0L, 0);
         }
 
+        private void doClientFanInitialSegmentTask(
+            long traceId,
+            Runnable task)
+        {
+            if (task != null)
+            {
+                final long streamId = initialId;
+                segmentExecutor.execute(() -> invokeAndSignal(task, originId, routedId, streamId, traceId));
+            }
+        }
+
         private long doClientFanoutInitialSignalAt(
             long timeMillis,
             long traceId,
@@ -17,6 +17,7 @@ package io.aklivity.zilla.runtime.binding.kafka.internal.stream;
 
 import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CACHE_SERVER_RECONNECT_DELAY;
 
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.function.LongFunction;
 
@@ -53,7 +54,8 @@ public final class KafkaCacheServerFactory implements KafkaStreamFactory
         KafkaConfiguration config,
         EngineContext context,
         Function<String, KafkaCache> supplyCache,
-        LongFunction<KafkaCacheRoute> supplyCacheRoute)
+        LongFunction<KafkaCacheRoute> supplyCacheRoute,
+        Executor segmentExecutor)
     {
         final Long2ObjectHashMap<KafkaBindingConfig> bindings = new Long2ObjectHashMap<>();
         final Int2ObjectHashMap<BindingHandler> factories = new Int2ObjectHashMap<>();
@@ -77,7 +79,7 @@ public final class KafkaCacheServerFactory implements KafkaStreamFactory
             new KafkaCacheOffsetFetchFactory(config, context, bindings::get);
 
         final KafkaCacheServerFetchFactory cacheFetchFactory = new KafkaCacheServerFetchFactory(
-                config, context, bindings::get, supplyCache, supplyCacheRoute);
+                config, context, bindings::get, supplyCache, supplyCacheRoute, segmentExecutor);
 
         final KafkaCacheServerProduceFactory cacheProduceFactory = new KafkaCacheServerProduceFactory(
                 config, context, bindings::get, supplyCache, supplyCacheRoute);
@@ -30,6 +30,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.LongFunction;
@@ -114,6 +115,7 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
     private static final int SIGNAL_SEGMENT_RETAIN = 2;
     private static final int SIGNAL_SEGMENT_DELETE = 3;
     private static final int SIGNAL_SEGMENT_COMPACT = 4;
+    private static final int SIGNAL_SEGMENT_TASK_COMPLETE = 5;
 
     private final BeginFW beginRO = new BeginFW();
     private final DataFW dataRO = new DataFW();
@@ -147,6 +149,7 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
     private final MutableDirectBuffer extBuffer;
     private final BufferPool bufferPool;
     private final Signaler signaler;
+    private final Executor segmentExecutor;
     private final BindingHandler streamFactory;
     private final LongUnaryOperator supplyInitialId;
     private final LongUnaryOperator supplyReplyId;
@@ -163,7 +166,8 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
         EngineContext context,
         LongFunction<KafkaBindingConfig> supplyBinding,
         Function<String, KafkaCache> supplyCache,
-        LongFunction<KafkaCacheRoute> supplyCacheRoute)
+        LongFunction<KafkaCacheRoute> supplyCacheRoute,
+        Executor segmentExecutor)
     {
         this.kafkaTypeId = context.supplyTypeId(KafkaBinding.NAME);
         this.writeBuffer = context.writeBuffer();
@@ -179,6 +183,7 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
         this.supplyBinding = supplyBinding;
         this.supplyCache = supplyCache;
         this.supplyCacheRoute = supplyCacheRoute;
+        this.segmentExecutor = segmentExecutor;
         this.reconnectDelay = config.cacheServerReconnect();
     }
 
@@ -258,6 +263,23 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
         return newStream;
     }
 
+    private void invokeAndSignal(
+        Runnable task,
+        long originId,
+        long routedId,
+        long streamId,
+        long traceId)
+    {
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            signaler.signalNow(originId, routedId, streamId, traceId, SIGNAL_SEGMENT_TASK_COMPLETE, 0);
+        }
+    }
+
     private MessageConsumer newStream(
         MessageConsumer sender,
         long originId,
@@ -612,6 +634,14 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
                         .build()
                         .sizeof()));
             state = KafkaState.openingInitial(state);
+
+            if (partition.pendingTasks())
+            {
+                // tasks still running signal the previous stream, so queue behind them to signal this one
+                doServerFanoutInitialSegmentTask(traceId, () -> {});
+            }
+
+            doServerFanoutInitialSegmentTask(traceId, partition.recoverTask());
         }
 
         private void doServerFanoutInitialEndIfNecessary(
@@ -629,6 +659,8 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
             doEnd(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
                     traceId, authorization, EMPTY_EXTENSION);
 
+            partition.completeTasks();
+
             state = KafkaState.closedInitial(state);
         }
 
@@ -647,6 +679,8 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
             doAbort(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
                     traceId, authorization, EMPTY_EXTENSION);
 
+            partition.completeTasks();
+
             state = KafkaState.closedInitial(state);
         }
 
@@ -855,6 +889,9 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
                     final long retainAt = partition.retainAt(nextHead.segment());
                     this.retainId = doServerFanoutInitialSignalAt(retainAt, traceId, SIGNAL_SEGMENT_RETAIN);
 
+                    doServerFanoutInitialSegmentTask(traceId, partition.freezeTask());
+                    doServerFanoutInitialSegmentTask(traceId, partition.archiveTask());
+
                     if (deleteId == NO_CANCEL_ID &&
                         partition.cleanupPolicy().delete() &&
                         !nextHead.previous().sentinel())
@@ -1079,6 +1116,8 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
 
             state = KafkaState.closedInitial(state);
 
+            partition.completeTasks();
+
             doServerFanoutReplyResetIfNecessary(traceId);
 
             final KafkaResetExFW kafkaResetEx = extension.get(kafkaResetExRO::tryWrap);
@@ -1157,13 +1196,21 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
             case SIGNAL_SEGMENT_COMPACT:
                 onServerFanoutInitialSignalSegmentCompact(signal);
                 break;
+            case SIGNAL_SEGMENT_TASK_COMPLETE:
+                onServerFanoutInitialSignalSegmentTaskComplete(signal);
+                break;
             }
         }
 
         private void onServerFanoutInitialSignalSegmentRetain(
             SignalFW signal)
         {
+            final long traceId = signal.traceId();
+
             partition.append(partitionOffset + 1);
+
+            doServerFanoutInitialSegmentTask(traceId, partition.freezeTask());
+            doServerFanoutInitialSegmentTask(traceId, partition.archiveTask());
         }
 
         private void onServerFanoutInitialSignalSegmentDelete(
@@ -1174,6 +1221,7 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
 
             Node segmentNode = partition.sentinel().next();
             while (segmentNode != partition.head() &&
+                    !segmentNode.busy() &&
                     partition.deleteAt(segmentNode.segment(), retentionMillisMax) <= now)
             {
                 segmentNode.remove();
@@ -1181,7 +1229,7 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
             }
             assert segmentNode != null;
 
-            if (segmentNode != partition.head())
+            if (segmentNode != partition.head() && !segmentNode.busy())
             {
                 final long deleteAt = partition.deleteAt(segmentNode.segment(), retentionMillisMax);
                 this.deleteId = doServerFanoutInitialSignalAt(deleteAt, traceId, SIGNAL_SEGMENT_DELETE);
@@ -1195,19 +1243,36 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
         private void onServerFanoutInitialSignalSegmentCompact(
             SignalFW signal)
         {
+            final long traceId = signal.traceId();
             final long now = currentTimeMillis();
 
-            Node segmentNode = partition.sentinel().next();
-            while (!segmentNode.next().sentinel()) // avoid cleaning head
-            {
-                segmentNode.clean(now);
-                segmentNode = segmentNode.next();
-            }
+            doServerFanoutInitialSegmentTask(traceId, partition.cleanTask(now));
 
             this.compactAt = Long.MAX_VALUE;
             this.compactId = NO_CANCEL_ID;
         }
 
+        private void onServerFanoutInitialSignalSegmentTaskComplete(
+            SignalFW signal)
+        {
+            final long traceId = signal.traceId();
+
+            partition.completeTasks();
+
+            final Node tail = partition.sentinel().next();
+            if (deleteId == NO_CANCEL_ID &&
+                partition.cleanupPolicy().delete() &&
+                tail != partition.head() &&
+                !tail.busy())
+            {
+                final long deleteAt = partition.deleteAt(tail.segment(), retentionMillisMax);
+                this.deleteId = doServerFanoutInitialSignalAt(deleteAt, traceId, SIGNAL_SEGMENT_DELETE);
+            }
+
+            doServerFanoutInitialSegmentTask(traceId, partition.freezeTask());
+            doServerFanoutInitialSegmentTask(traceId, partition.archiveTask());
+        }
+
         private void doServerFanoutReplyResetIfNecessary(
             long traceId)
         {
@@ -1246,6 +1311,17 @@ public final class KafkaCacheServerFetchFactory implements BindingHandler
             }
         }
 
+        private void doServerFanoutInitialSegmentTask(
+            long traceId,
+            Runnable task)
+        {
+            if (task != null)
+            {
+                final long streamId = initialId;
+                segmentExecutor.execute(() -> invokeAndSignal(task, originId, routedId, streamId, traceId));
+            }
+        }
+
         private long doServerFanoutInitialSignalAt(
             long timeMillis,
             long traceId,
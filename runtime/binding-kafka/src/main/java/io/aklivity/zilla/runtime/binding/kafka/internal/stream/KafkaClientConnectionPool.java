@@ -19,7 +19,14 @@ import static io.aklivity.zilla.runtime.engine.budget.BudgetCreditor.NO_BUDGET_I
 import static io.aklivity.zilla.runtime.engine.buffer.BufferPool.NO_SLOT;
 import static io.aklivity.zilla.runtime.engine.concurrent.Signaler.NO_CANCEL_ID;
 import static java.lang.System.currentTimeMillis;
-
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.IntConsumer;
 import java.util.function.LongFunction;
@@ -28,6 +35,7 @@ import java.util.function.LongUnaryOperator;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongArrayQueue;
@@ -44,7 +52,32 @@ import io.aklivity.zilla.runtime.binding.kafka.internal.types.Flyweight;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.OctetsFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.ProxyAddressInetFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.RequestHeaderFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.ResponseCorrelationFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.ResponseHeaderFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.FetchRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.FetchResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.FetchSessionRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.FetchSessionResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.ForgottenPartitionRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.ForgottenTopicRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.ForgottenTopicsRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.PartitionRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.PartitionResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.TopicRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.TopicResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.TransactionResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.message.RecordSetFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.produce.ProducePartitionRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.produce.ProducePartitionResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.produce.ProduceRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.produce.ProduceResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.produce.ProduceResponseTrailerFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.produce.ProduceTopicRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.produce.ProduceTopicResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.versions.ApiVersionFlexibleResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.versions.ApiVersionResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.versions.ApiVersionsFlexibleResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.versions.ApiVersionsResponseFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.stream.AbortFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.stream.BeginFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.stream.DataFW;
@@ -61,14 +94,37 @@ import io.aklivity.zilla.runtime.engine.concurrent.Signaler;
 
 public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
 {
+    private static final String CONNECTION_CLASS_SHARED = "shared";
+    private static final String CONNECTION_CLASS_FETCH = "fetch";
     private static final int ERROR_NONE = 0;
+    private static final int ERROR_UNSUPPORTED_VERSION = 35;
     private static final long NO_OFFSET = -1L;
+    private static final long NO_CORRELATION = 0L;
     private static final int KAFKA_FRAME_LENGTH_FIELD_OFFSET = 4;
     private static final int FLAG_FIN = 0x01;
     private static final int FLAG_INIT = 0x02;
     private static final int FLAG_SKIP = 0x08;
     private static final int FLAG_NONE = 0x00;
     private static final Consumer<OctetsFW.Builder> EMPTY_EXTENSION = ex -> {};
+    private static final DirectBuffer EMPTY_BUFFER = new UnsafeBuffer();
+    private static final OctetsFW EMPTY_OCTETS = new OctetsFW().wrap(EMPTY_BUFFER, 0, 0);
+
+    private static final short FETCH_API_KEY = 1;
+    private static final short FETCH_API_VERSION = 5;
+    private static final short FETCH_SESSIONLESS_API_VERSION_MAX = 6;
+    private static final short FETCH_SESSION_API_VERSION = 7;
+    private static final short PRODUCE_API_KEY = 0;
+    private static final short PRODUCE_API_VERSION = 3;
+    private static final short PRODUCE_ACKS_NONE = 0;
+    private static final String TRANSACTION_ID_NONE = null;
+    private static final short API_VERSIONS_API_KEY = 18;
+    private static final short API_VERSIONS_API_VERSION = 0;
+    private static final short API_VERSIONS_FLEXIBLE_API_VERSION = 3;
+    private static final short API_VERSION_NONE = -1;
+    private static final int API_KEY_MAX = 128;
+    private static final byte TAGGED_FIELDS_NONE = 0;
+    private static final String CLIENT_SOFTWARE_NAME = "zilla";
+    private static final String CLIENT_SOFTWARE_VERSION = "1.0";
 
     private static final int SIGNAL_STREAM_BEGIN = 0x80000001;
     private static final int SIGNAL_STREAM_DATA = 0x80000002;
@@ -78,6 +134,8 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
     private static final int SIGNAL_STREAM_WINDOW = 0x80000006;
     private static final int SIGNAL_CONNECTION_CLEANUP = 0x80000007;
     private static final int SIGNAL_NEXT_REQUEST = 0x80000008;
+    private static final int SIGNAL_FETCH_FLUSH = 0x80000009;
+    private static final int SIGNAL_PRODUCE_FLUSH = 0x8000000a;
 
     private final BeginFW beginRO = new BeginFW();
     private final DataFW dataRO = new DataFW();
@@ -88,6 +146,7 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
     private final WindowFW windowRO = new WindowFW();
     private final ProxyBeginExFW proxyBeginExRO = new ProxyBeginExFW();
     private final ResponseHeaderFW responseHeaderRO = new ResponseHeaderFW();
+    private final ResponseCorrelationFW responseCorrelationRO = new ResponseCorrelationFW();
 
     private final BeginFW.Builder beginRW = new BeginFW.Builder();
     private final DataFW.Builder dataRW = new DataFW.Builder();
@@ -99,7 +158,45 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
 
     private final RequestHeaderFW.Builder requestHeaderRW = new RequestHeaderFW.Builder();
 
+    private final ResponseHeaderFW.Builder responseHeaderRW = new ResponseHeaderFW.Builder();
+    private final FetchRequestFW.Builder fetchRequestRW = new FetchRequestFW.Builder();
+    private final TopicRequestFW.Builder fetchTopicRequestRW = new TopicRequestFW.Builder();
+    private final PartitionRequestFW.Builder fetchPartitionRequestRW = new PartitionRequestFW.Builder();
+    private final FetchSessionRequestFW.Builder fetchSessionRequestRW = new FetchSessionRequestFW.Builder();
+    private final ForgottenTopicsRequestFW.Builder forgottenTopicsRequestRW = new ForgottenTopicsRequestFW.Builder();
+    private final ForgottenTopicRequestFW.Builder forgottenTopicRequestRW = new ForgottenTopicRequestFW.Builder();
+    private final ForgottenPartitionRequestFW.Builder forgottenPartitionRequestRW = new ForgottenPartitionRequestFW.Builder();
+    private final FetchResponseFW.Builder fetchResponseRW = new FetchResponseFW.Builder();
+    private final TopicResponseFW.Builder topicResponseRW = new TopicResponseFW.Builder();
+    private final PartitionResponseFW.Builder partitionResponseRW = new PartitionResponseFW.Builder();
+    private final RecordSetFW.Builder recordSetRW = new RecordSetFW.Builder();
+    private final ProduceRequestFW.Builder produceRequestRW = new ProduceRequestFW.Builder();
+    private final ProduceTopicRequestFW.Builder produceTopicRequestRW = new ProduceTopicRequestFW.Builder();
+    private final ProduceResponseFW.Builder produceResponseRW = new ProduceResponseFW.Builder();
+    private final ProduceTopicResponseFW.Builder produceTopicResponseRW = new ProduceTopicResponseFW.Builder();
+    private final ProduceResponseTrailerFW.Builder produceResponseTrailerRW = new ProduceResponseTrailerFW.Builder();
+
     private final RequestHeaderFW requestHeaderRO = new RequestHeaderFW();
+    private final FetchRequestFW fetchRequestRO = new FetchRequestFW();
+    private final TopicRequestFW fetchTopicRequestRO = new TopicRequestFW();
+    private final PartitionRequestFW fetchPartitionRequestRO = new PartitionRequestFW();
+    private final FetchResponseFW fetchResponseRO = new FetchResponseFW();
+    private final FetchSessionResponseFW fetchSessionResponseRO = new FetchSessionResponseFW();
+    private final TopicResponseFW topicResponseRO = new TopicResponseFW();
+    private final PartitionResponseFW partitionResponseRO = new PartitionResponseFW();
+    private final TransactionResponseFW transactionResponseRO = new TransactionResponseFW();
+    private final RecordSetFW recordSetRO = new RecordSetFW();
+    private final ProduceRequestFW produceRequestRO = new ProduceRequestFW();
+    private final ProduceTopicRequestFW produceTopicRequestRO = new ProduceTopicRequestFW();
+    private final ProducePartitionRequestFW producePartitionRequestRO = new ProducePartitionRequestFW();
+    private final ProduceResponseFW produceResponseRO = new ProduceResponseFW();
+    private final ProduceTopicResponseFW produceTopicResponseRO = new ProduceTopicResponseFW();
+    private final ProducePartitionResponseFW producePartitionResponseRO = new ProducePartitionResponseFW();
+    private final ProduceResponseTrailerFW produceResponseTrailerRO = new ProduceResponseTrailerFW();
+    private final ApiVersionsResponseFW apiVersionsResponseRO = new ApiVersionsResponseFW();
+    private final ApiVersionResponseFW apiVersionResponseRO = new ApiVersionResponseFW();
+    private final ApiVersionsFlexibleResponseFW apiVersionsFlexibleResponseRO = new ApiVersionsFlexibleResponseFW();
+    private final ApiVersionFlexibleResponseFW apiVersionFlexibleResponseRO = new ApiVersionFlexibleResponseFW();
 
     private final KafkaConnectionClientDecoder decodeSaslHandshakeResponse = this::decodeSaslHandshakeResponse;
     private final KafkaConnectionClientDecoder decodeSaslHandshake = this::decodeSaslHandshake;
@@ -107,6 +204,7 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
     private final KafkaConnectionClientDecoder decodeSaslHandshakeMechanism = this::decodeSaslHandshakeMechanism;
     private final KafkaConnectionClientDecoder decodeSaslAuthenticateResponse = this::decodeSaslAuthenticateResponse;
     private final KafkaConnectionClientDecoder decodeSaslAuthenticate = this::decodeSaslAuthenticate;
+    private final KafkaConnectionClientDecoder decodeApiVersionsResponse = this::decodeApiVersionsResponse;
     private final KafkaConnectionClientDecoder decodeIgnoreAll = this::decodeIgnoreAll;
     private final KafkaConnectionClientDecoder decodeReject = this::decodeReject;
 
@@ -124,8 +222,17 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
     private final LongUnaryOperator supplyReplyId;
     private final LongSupplier supplyTraceId;
     private final Object2ObjectHashMap<String, KafkaClientConnection> connectionPool;
+    private final Object2ObjectHashMap<String, KafkaClientConnection> negotiatedByAddress;
     private final Long2ObjectHashMap<KafkaClientStream> streamsByInitialId;
     private final long connectionPoolCleanupMillis;
+    private final boolean fetchCoalesce;
+    private final boolean fetchSessions;
+    private final boolean apiVersions;
+    private final int fetchMaxBytes;
+    private final boolean produceCoalesce;
+    private final long produceLingerMillis;
+    private final int produceMaxBytes;
+    private final MutableDirectBuffer batchBuffer;
 
     public KafkaClientConnectionPool(
         KafkaConfiguration config,
@@ -148,11 +255,43 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
         this.supplyTraceId = context::supplyTraceId;
         this.creditor = creditor;
         this.connectionPool = new Object2ObjectHashMap();
+        this.negotiatedByAddress = new Object2ObjectHashMap<>();
         this.streamsByInitialId = new Long2ObjectHashMap<>();
         this.connectionPoolCleanupMillis = config.clientConnectionPoolCleanupMillis();
+        this.fetchCoalesce = config.clientFetchCoalesce();
+        this.fetchSessions = fetchCoalesce && config.clientFetchSession();
+        this.apiVersions = config.clientApiVersions();
+        this.fetchMaxBytes = config.clientFetchMaxBytes();
+        this.produceCoalesce = config.clientProduceCoalesce();
+        this.produceLingerMillis = config.clientProduceCoalesceLingerMillis();
+        this.produceMaxBytes = Math.min(config.clientProduceCoalesceMaxBytes(),
+            Math.min(encodeBuffer.capacity(), encodePool.slotCapacity()));
+        this.batchBuffer = fetchCoalesce || produceCoalesce ? new UnsafeBuffer(new byte[decodePool.slotCapacity()]) : null;
+    }
+
+    private MessageConsumer newSharedStream(
+        int msgTypeId,
+        DirectBuffer buffer,
+        int index,
+        int length,
+        MessageConsumer sender)
+    {
+        return newStream(CONNECTION_CLASS_SHARED, msgTypeId, buffer, index, length, sender);
+    }
+
+    private MessageConsumer newFetchStream(
+        int msgTypeId,
+        DirectBuffer buffer,
+        int index,
+        int length,
+        MessageConsumer sender)
+    {
+        // long-poll fetches get their own connection per broker so they never delay meta, group or produce responses
+        return newStream(CONNECTION_CLASS_FETCH, msgTypeId, buffer, index, length, sender);
     }
 
     private MessageConsumer newStream(
+        String connectionClass,
         int msgTypeId,
         DirectBuffer buffer,
         int index,
@@ -172,6 +311,7 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
 
         MessageConsumer newStream = null;
         final StringBuilder cluster = new StringBuilder();
+        String address = "";
 
         if (proxyBeginEx != null)
         {
@@ -182,6 +322,7 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
             cluster.append(host);
             cluster.append(":");
             cluster.append(port);
+            address = cluster.toString();
 
             if (proxyBeginEx.infos() != null)
             {
@@ -193,13 +334,144 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
             }
         }
 
+        cluster.append("#");
+        cluster.append(connectionClass);
+
+        final String connectionAddress = address;
         final KafkaClientConnection connection = connectionPool.computeIfAbsent(cluster.toString(), s ->
-            newConnection(originId, routedId, authorization));
+            newConnection(originId, routedId, authorization, connectionAddress));
         newStream = connection.newStream(msgTypeId, buffer, index, length, sender);
 
         return newStream;
     }
 
+    private int decodeApiVersionsResponse(
+        KafkaClientConnection client,
+        long traceId,
+        long authorization,
+        long budgetId,
+        int reserved,
+        DirectBuffer buffer,
+        int offset,
+        int progress,
+        int limit)
+    {
+        final ResponseHeaderFW responseHeader = responseHeaderRO.tryWrap(buffer, progress, limit);
+
+        if (responseHeader != null &&
+            responseHeader.limit() + responseHeader.length() <= limit)
+        {
+            final int responseOffset = responseHeader.limit();
+            final int responseLimit = responseOffset + responseHeader.length();
+
+            final short[] minVersions = new short[API_KEY_MAX];
+            final short[] maxVersions = new short[API_KEY_MAX];
+            Arrays.fill(minVersions, API_VERSION_NONE);
+            Arrays.fill(maxVersions, API_VERSION_NONE);
+
+            final int errorCode = client.apiVersionsVersion == API_VERSIONS_FLEXIBLE_API_VERSION
+                ? decodeApiVersionsFlexible(buffer, responseOffset, responseLimit, minVersions, maxVersions)
+                : decodeApiVersions(buffer, responseOffset, responseLimit, minVersions, maxVersions);
+
+            progress = responseLimit;
+
+            client.onDecodeApiVersionsResponse(traceId, errorCode, minVersions, maxVersions);
+        }
+
+        return progress;
+    }
+
+    private int decodeApiVersions(
+        DirectBuffer buffer,
+        int offset,
+        int limit,
+        short[] minVersions,
+        short[] maxVersions)
+    {
+        int errorCode = ERROR_UNSUPPORTED_VERSION;
+
+        final ApiVersionsResponseFW response = apiVersionsResponseRO.tryWrap(buffer, offset, limit);
+        if (response != null)
+        {
+            errorCode = response.errorCode();
+
+            int progress = response.limit();
+            for (int i = 0; i < response.apiKeyCount(); i++)
+            {
+                final ApiVersionResponseFW version = apiVersionResponseRO.tryWrap(buffer, progress, limit);
+                if (version == null)
+                {
+                    break;
+                }
+
+                final short apiKey = version.apiKey();
+                if (apiKey >= 0 && apiKey < maxVersions.length)
+                {
+                    minVersions[apiKey] = version.minVersion();
+                    maxVersions[apiKey] = version.maxVersion();
+                }
+
+                progress = version.limit();
+            }
+        }
+
+        return errorCode;
+    }
+
+    private int decodeApiVersionsFlexible(
+        DirectBuffer buffer,
+        int offset,
+        int limit,
+        short[] minVersions,
+        short[] maxVersions)
+    {
+        int errorCode = ERROR_UNSUPPORTED_VERSION;
+
+        final ApiVersionsFlexibleResponseFW response = apiVersionsFlexibleResponseRO.tryWrap(buffer, offset, limit);
+        if (response != null)
+        {
+            errorCode = response.errorCode();
+
+            if (errorCode == ERROR_NONE)
+            {
+                int progress = response.limit();
+                for (int i = 1; i < response.apiKeyCount(); i++)
+                {
+                    final ApiVersionFlexibleResponseFW version = apiVersionFlexibleResponseRO.tryWrap(buffer, progress, limit);
+                    if (version == null || version.taggedFieldCount() != 0)
+                    {
+                        break;
+                    }
+
+                    final short apiKey = version.apiKey();
+                    if (apiKey >= 0 && apiKey < maxVersions.length)
+                    {
+                        minVersions[apiKey] = version.minVersion();
+                        maxVersions[apiKey] = version.maxVersion();
+                    }
+
+                    progress = version.limit();
+                }
+            }
+        }
+
+        return errorCode;
+    }
+
+    private static int encodeCompactString(
+        MutableDirectBuffer buffer,
+        int offset,
+        String value)
+    {
+        final byte[] bytes = value.getBytes(US_ASCII);
+        assert bytes.length < 0x7f;
+
+        buffer.putByte(offset, (byte) (bytes.length + 1));
+        buffer.putBytes(offset + 1, bytes);
+
+        return offset + 1 + bytes.length;
+    }
+
     private int decodeReject(
         KafkaClientConnection client,
         long traceId,
@@ -233,12 +505,31 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
     private KafkaClientConnection newConnection(
         long originId,
         long routedId,
-        long authorization)
+        long authorization,
+        String address)
     {
         final KafkaBindingConfig binding = supplyBinding.apply(originId);
         final KafkaSaslConfig sasl = binding.sasl();
 
-        return new KafkaClientConnection(originId, routedId, authorization, sasl);
+        return new KafkaClientConnection(originId, routedId, authorization, address, sasl);
+    }
+
+    public short minApiVersion(
+        String host,
+        int port,
+        int apiKey)
+    {
+        final KafkaClientConnection connection = negotiatedByAddress.get(host + ":" + port);
+        return connection != null ? connection.minApiVersion(apiKey) : API_VERSION_NONE;
+    }
+
+    public short maxApiVersion(
+        String host,
+        int port,
+        int apiKey)
+    {
+        final KafkaClientConnection connection = negotiatedByAddress.get(host + ":" + port);
+        return connection != null ? connection.maxApiVersion(apiKey) : API_VERSION_NONE;
     }
 
     private MessageConsumer newNetworkStream(
@@ -550,7 +841,12 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
 
     public BindingHandler streamFactory()
     {
-        return this::newStream;
+        return this::newSharedStream;
+    }
+
+    public BindingHandler fetchStreamFactory()
+    {
+        return this::newFetchStream;
     }
 
     @FunctionalInterface
@@ -662,6 +958,61 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
         return signaler;
     }
 
+    private static long batchOffset(
+        long value)
+    {
+        return -2L - value;
+    }
+
+    private boolean isResponseExpected(
+        DirectBuffer buffer,
+        int offset,
+        int limit)
+    {
+        final RequestHeaderFW requestHeader = requestHeaderRO.tryWrap(buffer, offset, limit);
+        final ProduceRequestFW produceRequest = requestHeader != null && requestHeader.apiKey() == PRODUCE_API_KEY
+                ? produceRequestRO.tryWrap(buffer, requestHeader.limit(), limit)
+                : null;
+
+        return produceRequest == null || produceRequest.acks() != PRODUCE_ACKS_NONE;
+    }
+
+    private static KafkaProduceEntry findProduceEntry(
+        List<KafkaProduceEntry> entries,
+        int partitionId)
+    {
+        KafkaProduceEntry entry = null;
+
+        if (entries != null)
+        {
+            for (int index = 0; entry == null && index < entries.size(); index++)
+            {
+                final KafkaProduceEntry candidate = entries.get(index);
+                entry = candidate.partitionId == partitionId ? candidate : null;
+            }
+        }
+
+        return entry;
+    }
+
+    private static KafkaFetchEntry findFetchEntry(
+        List<KafkaFetchEntry> entries,
+        int partitionId)
+    {
+        KafkaFetchEntry entry = null;
+
+        if (entries != null)
+        {
+            for (int index = 0; entry == null && index < entries.size(); index++)
+            {
+                final KafkaFetchEntry candidate = entries.get(index);
+                entry = candidate.partitionId == partitionId ? candidate : null;
+            }
+        }
+
+        return entry;
+    }
+
     final class KafkaClientStream
     {
         private final KafkaClientConnection connection;
@@ -784,27 +1135,57 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
             final OctetsFW payload = data.payload();
             final OctetsFW extension = data.extension();
 
-            if (requestBytes == 0)
+            if (requestBytes == 0 &&
+                !connection.isApiVersionSupported(payload.buffer(), payload.offset(), payload.limit()))
             {
-                initialSeqOffset.add(connection.initialSeq);
-                nextRequestId++;
+                // never send a version the broker did not negotiate, it would close the shared connection
+                cleanup(traceId);
+            }
+            else if (requestBytes == 0 &&
+                initialSeqOffset.isEmpty() &&
+                (connection.doConnectionFetchIfCoalesced(initialId, traceId, payload) ||
+                 connection.doConnectionProduceIfCoalesced(initialId, traceId, payload)))
+            {
+                if (isResponseExpected(payload.buffer(), payload.offset(), payload.limit()))
+                {
+                    nextRequestId++;
+                }
 
-                final DirectBuffer buffer = payload.buffer();
-                final int offset = payload.offset();
-                final int limit = payload.limit();
+                initialSeq += reserved;
+                initialAck = initialSeq;
+                initialAckSnapshot = initialAck;
 
-                RequestHeaderFW requestHeader = requestHeaderRO.wrap(buffer, offset, limit);
-                requestBytes = requestHeader.length() + KAFKA_FRAME_LENGTH_FIELD_OFFSET;
+                doWindow(sender, originId, routedId, initialId, initialSeq, initialAck, connection.initialMax,
+                    traceId, authorization, connection.initialBudId, connection.initialPad);
             }
+            else
+            {
+                if (requestBytes == 0)
+                {
+                    initialSeqOffset.add(connection.initialSeq);
 
-            requestBytes -= payload.sizeof();
-            connection.doConnectionData(initialId, traceId, authorization, budgetId,
-                flags, reserved, payload, extension);
-            assert requestBytes >= 0;
+                    final DirectBuffer buffer = payload.buffer();
+                    final int offset = payload.offset();
+                    final int limit = payload.limit();
 
-            initialSeq += reserved;
+                    RequestHeaderFW requestHeader = requestHeaderRO.wrap(buffer, offset, limit);
+                    requestBytes = requestHeader.length() + KAFKA_FRAME_LENGTH_FIELD_OFFSET;
+
+                    if (isResponseExpected(buffer, offset, limit))
+                    {
+                        nextRequestId++;
+                    }
+                }
 
-            connection.doConnectionWindow(traceId, authorization, 0);
+                requestBytes -= payload.sizeof();
+                connection.doConnectionData(initialId, traceId, authorization, budgetId,
+                    flags, reserved, payload, extension);
+                assert requestBytes >= 0;
+
+                initialSeq += reserved;
+
+                connection.doConnectionWindow(traceId, authorization, 0);
+            }
         }
 
         private void onStreamEnd(
@@ -885,6 +1266,7 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
             state = KafkaState.openedReply(state);
 
             flushStreamWindow(traceId);
+            connection.flushBatches(traceId);
         }
 
         private void doStreamWindow(
@@ -975,12 +1357,114 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
             }
         }
 
+        private boolean doStreamResponse(
+            long traceId,
+            DirectBuffer payload,
+            int offset,
+            int length)
+        {
+            return doStreamResponseFragment(traceId, FLAG_INIT | FLAG_FIN, payload, offset, length);
+        }
+
+        private boolean doStreamResponseFragment(
+            long traceId,
+            int flags,
+            DirectBuffer payload,
+            int offset,
+            int length)
+        {
+            final boolean init = (flags & FLAG_INIT) != 0;
+            final boolean fin = (flags & FLAG_FIN) != 0;
+
+            boolean delivered = true;
+
+            if (!KafkaState.replyClosed(state) && !KafkaState.replyAborting(state))
+            {
+                final int reserved = length + replyPad;
+
+                delivered = KafkaState.replyOpened(state) &&
+                    replyMax - (int)(replySeq - replyAck) >= reserved &&
+                    (!init || isReplyBatchable());
+
+                if (delivered)
+                {
+                    if (init)
+                    {
+                        nexResponseId++;
+                    }
+
+                    doData(sender, originId, routedId, replyId, replySeq, replyAck, replyMax,
+                        traceId, authorization, flags, replyBud, reserved, payload, offset, length,
+                        EMPTY_OCTETS);
+
+                    replySeq += reserved;
+
+                    if (fin)
+                    {
+                        replySeqOffset.add(batchOffset(replySeq));
+
+                        if (KafkaState.replyClosing(state))
+                        {
+                            doStreamEnd(traceId);
+                        }
+                    }
+                }
+            }
+            else if (init)
+            {
+                nexResponseId++;
+
+                if (KafkaState.replyAborting(state))
+                {
+                    doStreamAbort(traceId);
+                }
+            }
+
+            return delivered;
+        }
+
+        private int replyWindow()
+        {
+            return KafkaState.replyClosed(state) || KafkaState.replyAborting(state)
+                ? Integer.MAX_VALUE
+                : KafkaState.replyOpened(state)
+                    ? replyMax - (int)(replySeq - replyAck) - replyPad
+                    : 0;
+        }
+
+        private void onStreamResponseFailed(
+            long traceId)
+        {
+            nexResponseId++;
+            cleanup(traceId);
+        }
+
+        private boolean isReplyBatchable()
+        {
+            boolean fetchable = true;
+
+            for (LongArrayQueue.LongIterator i = replySeqOffset.iterator(); fetchable && i.hasNext();)
+            {
+                fetchable = i.nextValue() < NO_OFFSET;
+            }
+
+            return fetchable;
+        }
+
         private void flushStreamWindow(
             long traceId)
         {
-            final long replySeqOffsetPeek = replySeqOffset.peekLong();
+            long replySeqOffsetPeek = replySeqOffset.peekLong();
+
+            while (replySeqOffsetPeek < NO_OFFSET &&
+                replyAck >= batchOffset(replySeqOffsetPeek))
+            {
+                replyAckSnapshot = batchOffset(replySeqOffsetPeek);
+                replySeqOffset.removeLong();
+                replySeqOffsetPeek = replySeqOffset.peekLong();
+            }
 
-            if (replySeqOffsetPeek != NO_OFFSET)
+            if (replySeqOffsetPeek > NO_OFFSET)
             {
                 assert replyAck >= connection.replyAck - replySeqOffsetPeek + replyAckSnapshot;
 
@@ -1166,13 +1650,17 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
     {
         private final LongLongConsumer encodeSaslHandshakeRequest = this::doEncodeSaslHandshakeRequest;
         private final LongLongConsumer encodeSaslAuthenticateRequest = this::doEncodeSaslAuthenticateRequest;
+        private final LongLongConsumer encodeApiVersionsRequest = this::doEncodeApiVersionsRequest;
 
         private final long originId;
         private final long routedId;
         private final long authorization;
+        private final String address;
         private final LongHashSet streams;
         private final LongArrayQueue requests;
-        private final LongArrayQueue responses;
+        // each stream keeps one request in flight, concurrency comes from streams sharing the connection
+        // brokers respond in request order, so responseAcks stays FIFO and correlations check each response id
+        private final Long2LongHashMap correlations;
         private final LongArrayQueue responseAcks;
         private final Long2LongHashMap signalerCorrelations;
 
@@ -1206,6 +1694,7 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
         private long reconnectAt = NO_CANCEL_ID;
         private int requestBytes;
         private int responseBytes;
+        private long responseStreamId;
 
         private int nextResponseId;
 
@@ -1213,10 +1702,44 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
         private KafkaConnectionClientDecoder decoder;
         private boolean flushable;
 
+        private short apiVersionsVersion;
+        private short[] minVersions;
+        private short[] maxVersions;
+
+        private final Long2ObjectHashMap<KafkaResponseBatch> batches;
+        private final List<KafkaResponseBatch> deliveries;
+        private long nextBatchId;
+        private Map<String, List<KafkaFetchEntry>> fetchEntries;
+        private final boolean fetchCoalescing;
+        private String fetchClientId;
+        private int fetchMaxWaitMillis;
+        private int fetchMinBytes;
+        private byte fetchIsolation;
+        private int fetchRequestBytes;
+        private int fetchEntryCount;
+
+        private final Object2ObjectHashMap<String, Int2ObjectHashMap<KafkaFetchPartition>> fetchSession;
+        private int fetchSessionId;
+        private int fetchSessionEpoch;
+        private boolean fetchSessionInFlight;
+
+        private Map<String, List<KafkaProduceEntry>> produceEntries;
+        private boolean produceCoalescing;
+        private boolean produceLingering;
+        private long produceFlushId = NO_CANCEL_ID;
+        private String produceClientId;
+        private short produceAcks;
+        private int produceTimeout;
+        private int produceRequestBytes;
+        private int produceEntryCount;
+        private int produceSlot = NO_SLOT;
+        private int produceSlotLimit;
+
         private KafkaClientConnection(
             long originId,
             long routedId,
             long authorization,
+            String address,
             KafkaSaslConfig sasl)
         {
             super(sasl, originId, routedId);
@@ -1224,17 +1747,27 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
             this.originId = originId;
             this.routedId = routedId;
             this.authorization = authorization;
+            this.address = address;
             this.replyMax = decodePool.slotCapacity();
             this.streams = new LongHashSet();
             this.requests = new LongArrayQueue();
-            this.responses = new LongArrayQueue();
+            this.correlations = new Long2LongHashMap(NO_CORRELATION);
             this.responseAcks = new LongArrayQueue();
             this.signalerCorrelations = new Long2LongHashMap(-1L);
 
-            this.flushable = sasl == null;
+            this.flushable = sasl == null && !apiVersions;
 
-            this.encoder = sasl != null ? encodeSaslHandshakeRequest : null;
+            this.encoder = apiVersions ? encodeApiVersionsRequest : sasl != null ? encodeSaslHandshakeRequest : null;
             this.decoder = decodeReject;
+            this.apiVersionsVersion = API_VERSIONS_FLEXIBLE_API_VERSION;
+
+            this.batches = new Long2ObjectHashMap<>();
+            this.deliveries = new ArrayList<>();
+            this.fetchEntries = new LinkedHashMap<>();
+            this.fetchCoalescing = fetchCoalesce;
+            this.fetchSession = new Object2ObjectHashMap<>();
+            this.produceEntries = new LinkedHashMap<>();
+            this.produceCoalescing = produceCoalesce;
         }
 
         private void doConnectionBegin(
@@ -1252,9 +1785,12 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
                 initialBudId = NO_BUDGET_ID;
                 nextRequestId = 0;
                 nextResponseId = 0;
-                flushable = sasl == null;
-                this.encoder = sasl != null ? encodeSaslHandshakeRequest : null;
+                flushable = sasl == null && !apiVersions;
+                this.encoder = apiVersions ? encodeApiVersionsRequest : sasl != null ? encodeSaslHandshakeRequest : null;
                 this.decoder = decodeReject;
+                this.apiVersionsVersion = API_VERSIONS_FLEXIBLE_API_VERSION;
+                this.minVersions = null;
+                this.maxVersions = null;
             }
 
             if (!KafkaState.initialOpening(state))
@@ -1286,14 +1822,18 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
             {
                 final int requestId = nextRequestId++;
 
-                requests.add(streamId);
-                responses.add(streamId);
-                responseAcks.add(streamId);
-
                 final DirectBuffer buffer = payload.buffer();
                 final int offset = payload.offset();
                 final int limit = payload.limit();
 
+                requests.add(streamId);
+
+                if (isResponseExpected(buffer, offset, limit))
+                {
+                    correlations.put(requestId, streamId);
+                    responseAcks.add(streamId);
+                }
+
                 RequestHeaderFW requestHeader = requestHeaderRO.wrap(buffer, offset, limit);
                 requestBytes = requestHeader.length() + KAFKA_FRAME_LENGTH_FIELD_OFFSET;
 
@@ -1327,764 +1867,2624 @@ public final class KafkaClientConnectionPool extends KafkaClientSaslHandshaker
             initialSeq += reserved;
 
             assert initialSeq <= initialAck + initialMax;
+
+            if (requestBytes == 0)
+            {
+                doEncodeFetchIfNecessary(traceId);
+                doEncodeProduceIfNecessary(traceId);
+            }
         }
 
-        private void doConnectionEnd(
-            long traceId)
+        private boolean doConnectionFetchIfCoalesced(
+            long streamId,
+            long traceId,
+            OctetsFW payload)
         {
-            if (!KafkaState.initialClosed(state))
+            boolean coalesced = false;
+
+            if (fetchCoalescing && flushable)
             {
-                doEnd(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
-                    traceId, authorization, EMPTY_EXTENSION);
+                final DirectBuffer buffer = payload.buffer();
+                final int offset = payload.offset();
+                final int limit = payload.limit();
 
-                state = KafkaState.closedInitial(state);
+                final RequestHeaderFW requestHeader = requestHeaderRO.tryWrap(buffer, offset, limit);
+                final FetchRequestFW fetchRequest = requestHeader != null &&
+                    requestHeader.apiKey() == FETCH_API_KEY &&
+                    requestHeader.apiVersion() == FETCH_API_VERSION &&
+                    requestHeader.length() + KAFKA_FRAME_LENGTH_FIELD_OFFSET == payload.sizeof()
+                        ? fetchRequestRO.tryWrap(buffer, requestHeader.limit(), limit)
+                        : null;
+                final TopicRequestFW topicRequest = fetchRequest != null && fetchRequest.topicCount() == 1
+                        ? fetchTopicRequestRO.tryWrap(buffer, fetchRequest.limit(), limit)
+                        : null;
+                final PartitionRequestFW partitionRequest = topicRequest != null && topicRequest.partitionCount() == 1
+                        ? fetchPartitionRequestRO.tryWrap(buffer, topicRequest.limit(), limit)
+                        : null;
+
+                final String topic = partitionRequest != null ? topicRequest.name().asString() : null;
+                final int partitionId = partitionRequest != null ? partitionRequest.partitionId() : -1;
+
+                if (partitionRequest != null &&
+                    findFetchEntry(fetchEntries.get(topic), partitionId) != null)
+                {
+                    doEncodeFetchIfNecessary(traceId);
+                }
+
+                if (partitionRequest != null &&
+                    (fetchEntries.isEmpty() || fetchIsolation == fetchRequest.isolationLevel()) &&
+                    findFetchEntry(fetchEntries.get(topic), partitionId) == null &&
+                    fetchRequestBytes + payload.sizeof() <= encodeBuffer.capacity())
+                {
+                    if (fetchEntries.isEmpty())
+                    {
+                        fetchClientId = requestHeader.clientId().asString();
+                        fetchMaxWaitMillis = fetchRequest.maxWaitTimeMillis();
+                        fetchMinBytes = fetchRequest.minBytes();
+                        fetchIsolation = fetchRequest.isolationLevel();
+                        fetchRequestBytes = requestHeader.sizeof() + fetchRequest.sizeof();
+
+                        signaler.delegate.signalNow(originId, routedId, initialId, traceId, SIGNAL_FETCH_FLUSH, 0);
+                    }
+                    else
+                    {
+                        fetchMaxWaitMillis = Math.min(fetchMaxWaitMillis, fetchRequest.maxWaitTimeMillis());
+                        fetchMinBytes = Math.min(fetchMinBytes, fetchRequest.minBytes());
+                    }
+
+                    final List<KafkaFetchEntry> entries = fetchEntries.computeIfAbsent(topic, t -> new ArrayList<>());
+
+                    entries.add(new KafkaFetchEntry(streamId, topic,
+                        partitionId,
+                        partitionRequest.fetchOffset(),
+                        partitionRequest.logStartOffset(),
+                        partitionRequest.maxBytes()));
+
+                    fetchRequestBytes += topicRequest.sizeof() + partitionRequest.sizeof();
+                    fetchEntryCount++;
+                    coalesced = true;
+                }
             }
 
-            cleanupBudgetCreditorIfNecessary();
+            return coalesced;
         }
 
-        private void doConnectionAbort(
+        private void doEncodeFetchIfNecessary(
             long traceId)
         {
-            if (!KafkaState.initialClosed(state))
+            if (!fetchEntries.isEmpty() &&
+                !fetchSessionInFlight &&
+                requestBytes == 0 &&
+                KafkaState.initialOpened(state) &&
+                !KafkaState.initialClosed(state))
             {
-                doAbort(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
-                    traceId, authorization, EMPTY_EXTENSION);
+                final short version = selectFetchApiVersion();
+                final boolean sessions = version >= FETCH_SESSION_API_VERSION;
+                final boolean batched = sessions || fetchEntryCount > 1;
+                final int requestId = nextRequestId;
 
-                state = KafkaState.closedInitial(state);
-            }
+                if (sessions)
+                {
+                    updateFetchSession();
+                }
 
-            cleanupBudgetCreditorIfNecessary();
-        }
+                final int length = sessions
+                    ? encodeFetchSessionRequest(requestId)
+                    : encodeFetchRequest(requestId, version);
+                final int reserved = length + initialPad;
+                final int initialWin = initialMax - (int)(initialSeq - initialAck);
 
-        private void doConnectionSignalNow(
-            long streamId,
-            long traceId,
-            int signalId)
-        {
-            nextContextId++;
-            signalerCorrelations.put(nextContextId, streamId);
-            signaler.delegate.signalNow(originId, routedId, this.initialId, traceId, signalId, nextContextId);
-        }
+                if (reserved <= initialWin)
+                {
+                    nextRequestId++;
 
-        private void doConnectionSignalNow(
-            long streamId,
-            long traceId,
-            int signalId,
-            DirectBuffer buffer,
-            int offset,
-            int length)
-        {
-            nextContextId++;
-            signalerCorrelations.put(nextContextId, streamId);
-            signaler.delegate.signalNow(originId, routedId, this.initialId, traceId, signalId, nextContextId,
-                buffer, offset, length);
-        }
+                    if (sessions)
+                    {
+                        commitFetchSession();
+                        fetchSessionInFlight = true;
+                    }
 
-        private long doConnectionSignalAt(
-            long streamId,
-            long traceId,
-            long timeMillis,
-            int signalId)
-        {
-            nextContextId++;
-            signalerCorrelations.put(nextContextId, streamId);
-            return signaler.delegate.signalAt(
-                timeMillis, originId, routedId, this.initialId, traceId, signalId, nextContextId);
-        }
+                    if (batched)
+                    {
+                        final KafkaFetchBatch batch =
+                            new KafkaFetchBatch(this, --nextBatchId, fetchEntries, sessions);
+                        batches.put(batch.batchId, batch);
+                        correlations.put(requestId, batch.batchId);
+                        responseAcks.add(batch.batchId);
+                        fetchEntries = new LinkedHashMap<>();
+                    }
+                    else
+                    {
+                        final KafkaFetchEntry entry = fetchEntries.values().iterator().next().get(0);
+                        correlations.put(requestId, entry.streamId);
+                        responseAcks.add(entry.streamId);
+                        fetchEntries.clear();
+                    }
 
-        private void doConnectionReset(
-            long traceId)
-        {
-            if (!KafkaState.replyClosed(state))
-            {
-                doReset(receiver, originId, routedId, replyId, replySeq, replyAck, replyMax,
-                    traceId, authorization);
+                    fetchRequestBytes = 0;
+                    fetchEntryCount = 0;
 
-                state = KafkaState.closedReply(state);
+                    doData(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
+                        traceId, authorization, 0L, reserved, encodeBuffer, 0, length, EMPTY_EXTENSION);
+
+                    initialSeq += reserved;
+
+                    assert initialSeq <= initialAck + initialMax;
+                }
             }
         }
 
-        private void doConnectionWindow(
+        private boolean doConnectionProduceIfCoalesced(
+            long streamId,
             long traceId,
-            long authorization,
-            long budgetId)
+            OctetsFW payload)
         {
-            long maxReplyAck = replyAck;
-            int maxReplyPad = replyPad;
-            int minReplyMax = replyMax;
+            boolean coalesced = false;
 
-            if (!responseAcks.isEmpty())
+            if (produceCoalescing && flushable)
             {
-                final int streamsSize = streamsByInitialId.size();
+                final DirectBuffer buffer = payload.buffer();
+                final int offset = payload.offset();
+                final int limit = payload.limit();
 
-                ack:
-                for (LongArrayQueue.LongIterator i = responseAcks.iterator(); i.hasNext();)
+                final RequestHeaderFW requestHeader = requestHeaderRO.tryWrap(buffer, offset, limit);
+                final ProduceRequestFW produceRequest = requestHeader != null &&
+                    requestHeader.apiKey() == PRODUCE_API_KEY &&
+                    requestHeader.apiVersion() == PRODUCE_API_VERSION &&
+                    requestHeader.length() + KAFKA_FRAME_LENGTH_FIELD_OFFSET == payload.sizeof()
+                        ? produceRequestRO.tryWrap(buffer, requestHeader.limit(), limit)
+                        : null;
+                final ProduceTopicRequestFW topicRequest = produceRequest != null &&
+                    produceRequest.transactionalId().length() == -1 &&
+                    produceRequest.topicCount() == 1
+                        ? produceTopicRequestRO.tryWrap(buffer, produceRequest.limit(), limit)
+                        : null;
+                final ProducePartitionRequestFW partitionRequest = topicRequest != null && topicRequest.partitionCount() == 1
+                        ? producePartitionRequestRO.tryWrap(buffer, topicRequest.limit(), limit)
+                        : null;
+
+                if (partitionRequest != null &&
+                    partitionRequest.limit() + partitionRequest.recordSetLength() == limit)
                 {
-                    long responseAck = i.nextValue();
-                    KafkaClientStream stream = streamsByInitialId.get(responseAck);
+                    final String topic = topicRequest.topic().asString();
+                    final int partitionId = partitionRequest.partitionId();
+                    final short acks = produceRequest.acks();
+                    final int partitionOffset = partitionRequest.offset();
+                    final int partitionBytes = limit - partitionOffset;
+                    final int produceWin = Math.min(produceMaxBytes, initialMax - initialPad);
+
+                    if (!produceEntries.isEmpty() &&
+                        (produceAcks != acks ||
+                         findProduceEntry(produceEntries.get(topic), partitionId) != null ||
+                         produceRequestBytes + topicRequest.sizeof() + partitionBytes > produceWin))
+                    {
+                        produceLingering = false;
+                        doEncodeProduceIfNecessary(traceId);
+                    }
 
-                    maxReplyPad = stream.replyPad;
-                    minReplyMax = stream.replyMax;
+                    final int requestBytes = produceEntries.isEmpty()
+                        ? requestHeader.sizeof() + produceRequest.sizeof()
+                        : produceRequestBytes;
+                    final int topicBytes = produceEntries.containsKey(topic) ? 0 : topicRequest.sizeof();
 
-                    if (stream.replyAck < stream.replySeq || stream.replyAckOffset.isEmpty())
+                    if (produceSlot == NO_SLOT)
+                    {
+                        produceSlot = encodePool.acquire(initialId);
+                    }
+
+                    if (produceSlot != NO_SLOT &&
+                        (produceEntries.isEmpty() || produceAcks == acks) &&
+                        findProduceEntry(produceEntries.get(topic), partitionId) == null &&
+                        requestBytes + topicBytes + partitionBytes <= produceWin)
                     {
-                        if (!stream.replySeqOffset.isEmpty())
+                        if (produceEntries.isEmpty())
                         {
-                            maxReplyAck = stream.replySeqOffset.peekLong() + stream.replyAck - stream.replyAckSnapshot;
+                            produceClientId = requestHeader.clientId().asString();
+                            produceAcks = acks;
+                            produceTimeout = produceRequest.timeout();
+                            produceLingering = true;
+
+                            if (produceLingerMillis == 0L)
+                            {
+                                signaler.delegate.signalNow(originId, routedId, initialId, traceId, SIGNAL_PRODUCE_FLUSH, 0);
+                            }
+                            else
+                            {
+                                produceFlushId = signaler.delegate.signalAt(currentTimeMillis() + produceLingerMillis,
+                                    originId, routedId, initialId, traceId, SIGNAL_PRODUCE_FLUSH, 0);
+                            }
+                        }
+                        else
+                        {
+                            produceTimeout = Math.max(produceTimeout, produceRequest.timeout());
                         }
-                        break ack;
-                    }
-                    maxReplyAck = stream.replyAckOffset.removeLong();
 
-                    if (KafkaState.closed(stream.state) && stream.replyAckOffset.isEmpty())
+                        final MutableDirectBuffer produceBuffer = encodePool.buffer(produceSlot);
+                        produceBuffer.putBytes(produceSlotLimit, buffer, partitionOffset, partitionBytes);
+
+                        final List<KafkaProduceEntry> entries =
+                            produceEntries.computeIfAbsent(topic, t -> new ArrayList<>());
+                        entries.add(new KafkaProduceEntry(streamId, topic,
+                            partitionId, produceSlotLimit, partitionBytes));
+
+                        produceSlotLimit += partitionBytes;
+                        produceRequestBytes = requestBytes + topicBytes + partitionBytes;
+                        produceEntryCount++;
+                        coalesced = true;
+
+                        if (produceRequestBytes >= produceWin)
+                        {
+                            produceLingering = false;
+                            doEncodeProduceIfNecessary(traceId);
+                        }
+                    }
+                    else if (produceEntries.isEmpty())
                     {
-                        streamsByInitialId.remove(responseAck);
+                        cleanupProduceSlotIfNecessary();
                     }
-
-                    responseAcks.removeLong();
                 }
+            }
 
-                if (streamsByInitialId.size() != streamsSize)
+            return coalesced;
+        }
+
+        private void doEncodeProduceIfNecessary(
+            long traceId)
+        {
+            if (!produceEntries.isEmpty() &&
+                !produceLingering &&
+                requestBytes == 0 &&
+                KafkaState.initialOpened(state) &&
+                !KafkaState.initialClosed(state))
+            {
+                final int requestId = nextRequestId;
+                final int length = encodeProduceRequest(requestId);
+                final int reserved = length + initialPad;
+                final int initialWin = initialMax - (int)(initialSeq - initialAck);
+
+                if (reserved <= initialWin)
                 {
-                    doSignalStreamCleanup();
+                    nextRequestId++;
+
+                    if (produceFlushId != NO_CANCEL_ID)
+                    {
+                        signaler.delegate.cancel(produceFlushId);
+                        produceFlushId = NO_CANCEL_ID;
+                    }
+
+                    if (produceAcks == PRODUCE_ACKS_NONE)
+                    {
+                        produceEntries.clear();
+                    }
+                    else if (produceEntryCount > 1)
+                    {
+                        final KafkaProduceBatch batch = new KafkaProduceBatch(this, --nextBatchId, produceEntries);
+                        batches.put(batch.batchId, batch);
+                        correlations.put(requestId, batch.batchId);
+                        responseAcks.add(batch.batchId);
+                        produceEntries = new LinkedHashMap<>();
+                    }
+                    else
+                    {
+                        final KafkaProduceEntry entry = produceEntries.values().iterator().next().get(0);
+                        correlations.put(requestId, entry.streamId);
+                        responseAcks.add(entry.streamId);
+                        produceEntries.clear();
+                    }
+
+                    produceRequestBytes = 0;
+                    produceEntryCount = 0;
+                    cleanupProduceSlotIfNecessary();
+
+                    doData(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
+                        traceId, authorization, 0L, reserved, encodeBuffer, 0, length, EMPTY_EXTENSION);
+
+                    initialSeq += reserved;
+
+                    assert initialSeq <= initialAck + initialMax;
                 }
             }
+        }
 
-            final long newReplyAck = Math.max(maxReplyAck, replyAck);
+        private int encodeProduceRequest(
+            int requestId)
+        {
+            final MutableDirectBuffer encodeBuffer = KafkaClientConnectionPool.this.encodeBuffer;
+            final int encodeLimit = encodeBuffer.capacity();
+            final MutableDirectBuffer produceBuffer = encodePool.buffer(produceSlot);
 
-            if (newReplyAck > replyAck || minReplyMax > replyMax || !KafkaState.replyOpened(state))
+            int encodeProgress = 0;
+
+            final RequestHeaderFW requestHeader = requestHeaderRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                    .length(0)
+                    .apiKey(PRODUCE_API_KEY)
+                    .apiVersion(PRODUCE_API_VERSION)
+                    .correlationId(requestId)
+                    .clientId(produceClientId)
+                    .build();
+
+            encodeProgress = requestHeader.limit();
+
+            final ProduceRequestFW produceRequest = produceRequestRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                    .transactionalId(TRANSACTION_ID_NONE)
+                    .acks(produceAcks)
+                    .timeout(produceTimeout)
+                    .topicCount(produceEntries.size())
+                    .build();
+
+            encodeProgress = produceRequest.limit();
+
+            for (Map.Entry<String, List<KafkaProduceEntry>> topicEntries : produceEntries.entrySet())
             {
-                replyAck = newReplyAck;
-                assert replyAck <= replySeq;
+                final List<KafkaProduceEntry> entries = topicEntries.getValue();
 
-                replyMax = minReplyMax;
+                final ProduceTopicRequestFW topicRequest = produceTopicRequestRW
+                        .wrap(encodeBuffer, encodeProgress, encodeLimit)
+                        .topic(topicEntries.getKey())
+                        .partitionCount(entries.size())
+                        .build();
 
-                state = KafkaState.openedReply(state);
+                encodeProgress = topicRequest.limit();
 
-                doWindow(receiver, originId, routedId, replyId, replySeq, replyAck, replyMax,
-                    traceId, authorization, budgetId, maxReplyPad);
+                for (int index = 0; index < entries.size(); index++)
+                {
+                    final KafkaProduceEntry entry = entries.get(index);
+
+                    encodeBuffer.putBytes(encodeProgress, produceBuffer, entry.requestOffset, entry.requestLength);
+                    encodeProgress += entry.requestLength;
+                }
             }
+
+            requestHeaderRW.wrap(encodeBuffer, requestHeader.offset(), requestHeader.limit())
+                    .length(encodeProgress - KAFKA_FRAME_LENGTH_FIELD_OFFSET)
+                    .apiKey(requestHeader.apiKey())
+                    .apiVersion(requestHeader.apiVersion())
+                    .correlationId(requestId)
+                    .clientId(requestHeader.clientId())
+                    .build();
+
+            return encodeProgress;
         }
 
-        private void onConnectionMessage(
-            int msgTypeId,
-            DirectBuffer buffer,
-            int index,
-            int length)
+        private void cleanupProduceSlotIfNecessary()
         {
-            switch (msgTypeId)
+            if (produceSlot != NO_SLOT)
             {
-            case BeginFW.TYPE_ID:
-                final BeginFW begin = beginRO.wrap(buffer, index, index + length);
-                onConnectionBegin(begin);
-                break;
-            case DataFW.TYPE_ID:
-                final DataFW data = dataRO.wrap(buffer, index, index + length);
-                onConnectionData(data);
-                break;
-            case EndFW.TYPE_ID:
-                final EndFW end = endRO.wrap(buffer, index, index + length);
-                onConnectionEnd(end);
-                break;
-            case AbortFW.TYPE_ID:
-                final AbortFW abort = abortRO.wrap(buffer, index, index + length);
-                onConnectionAbort(abort);
-                break;
-            case SignalFW.TYPE_ID:
-                final SignalFW signal = signalRO.wrap(buffer, index, index + length);
-                onConnectionSignal(signal);
-                break;
-            case ResetFW.TYPE_ID:
-                final ResetFW reset = resetRO.wrap(buffer, index, index + length);
-                onConnectionReset(reset);
-                break;
-            case WindowFW.TYPE_ID:
-                final WindowFW window = windowRO.wrap(buffer, index, index + length);
-                onConnectionWindow(window);
-                break;
-            default:
-                break;
+                encodePool.release(produceSlot);
+                produceSlot = NO_SLOT;
+                produceSlotLimit = 0;
             }
         }
 
-        private void onConnectionBegin(
-            BeginFW begin)
+        private int encodeFetchRequest(
+            int requestId,
+            short version)
         {
-            final long authorization = begin.authorization();
-            final long traceId = begin.traceId();
+            final MutableDirectBuffer encodeBuffer = KafkaClientConnectionPool.this.encodeBuffer;
+            final int encodeLimit = encodeBuffer.capacity();
 
-            state = KafkaState.openingReply(state);
+            int encodeProgress = 0;
 
-            doConnectionWindow(traceId, authorization, 0);
-        }
+            final RequestHeaderFW requestHeader = requestHeaderRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                    .length(0)
+                    .apiKey(FETCH_API_KEY)
+                    .apiVersion(version)
+                    .correlationId(requestId)
+                    .clientId(fetchClientId)
+                    .build();
 
-        private void onConnectionData(
-            DataFW data)
-        {
-            final long sequence = data.sequence();
-            final long acknowledge = data.acknowledge();
-            final long traceId = data.traceId();
-            final int flags = data.flags();
-            final OctetsFW payload = data.payload();
-            final OctetsFW extension = data.extension();
+            encodeProgress = requestHeader.limit();
 
-            int reserved = data.reserved();
-            int offset = payload.offset();
-            int limit = payload.limit();
+            final FetchRequestFW fetchRequest = fetchRequestRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                    .maxWaitTimeMillis(fetchMaxWaitMillis)
+                    .minBytes(fetchMinBytes)
+                    .maxBytes(fetchMaxBytes)
+                    .isolationLevel(fetchIsolation)
+                    .topicCount(fetchEntries.size())
+                    .build();
 
-            assert acknowledge <= sequence;
-            assert sequence >= replySeq;
+            encodeProgress = fetchRequest.limit();
 
-            replySeq = sequence + reserved;
+            for (Map.Entry<String, List<KafkaFetchEntry>> topicEntries : fetchEntries.entrySet())
+            {
+                final List<KafkaFetchEntry> entries = topicEntries.getValue();
 
-            assert replyAck <= replySeq;
-            assert replySeq <= replyAck + replyMax;
+                final TopicRequestFW topicRequest = fetchTopicRequestRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                        .name(topicEntries.getKey())
+                        .partitionCount(entries.size())
+                        .build();
 
-            if (!flushable)
-            {
-                if (decodeSlot == NO_SLOT)
-                {
-                    decodeSlot = decodePool.acquire(initialId);
-                }
+                encodeProgress = topicRequest.limit();
 
-                if (decodeSlot == NO_SLOT)
-                {
-                    cleanupConnection(traceId);
-                }
-                else
+                for (int index = 0; index < entries.size(); index++)
                 {
-                    final MutableDirectBuffer buffer = decodePool.buffer(decodeSlot);
-                    buffer.putBytes(decodeSlotOffset, payload.buffer(), offset, limit - offset);
-                    decodeSlotOffset += limit - offset;
-                    decodeSlotReserved += reserved;
+                    final KafkaFetchEntry entry = entries.get(index);
 
-                    offset = 0;
-                    limit = decodeSlotOffset;
-                    reserved = decodeSlotReserved;
+                    final PartitionRequestFW partitionRequest = fetchPartitionRequestRW
+                            .wrap(encodeBuffer, encodeProgress, encodeLimit)
+                            .partitionId(entry.partitionId)
+                            .fetchOffset(entry.fetchOffset)
+                            .logStartOffset(entry.logStartOffset)
+                            .maxBytes(entry.maxBytes)
+                            .build();
 
-                    decodeNetwork(traceId, authorization, initialBudId, reserved, buffer, offset, limit);
+                    encodeProgress = partitionRequest.limit();
                 }
             }
-            else
-            {
-                final DirectBuffer buffer = payload.buffer();
-                int progress = payload.offset();
 
-                while (progress < limit)
-                {
-                    if (responseBytes == 0)
-                    {
-                        final ResponseHeaderFW responseHeader = responseHeaderRO.wrap(buffer, progress, limit);
-                        responseBytes = responseHeader.length() + KAFKA_FRAME_LENGTH_FIELD_OFFSET;
-                    }
+            requestHeaderRW.wrap(encodeBuffer, requestHeader.offset(), requestHeader.limit())
+                    .length(encodeProgress - KAFKA_FRAME_LENGTH_FIELD_OFFSET)
+                    .apiKey(requestHeader.apiKey())
+                    .apiVersion(requestHeader.apiVersion())
+                    .correlationId(requestId)
+                    .clientId(requestHeader.clientId())
+                    .build();
 
-                    final int responseBytesMin = Math.min(responseBytes, payload.sizeof());
-                    responseBytes -= responseBytesMin;
-                    assert responseBytes >= 0;
+            return encodeProgress;
+        }
 
-                    long initialId = responses.peekLong();
+        private int encodeFetchSessionRequest(
+            int requestId)
+        {
+            final MutableDirectBuffer encodeBuffer = KafkaClientConnectionPool.this.encodeBuffer;
+            final int encodeLimit = encodeBuffer.capacity();
+            final boolean full = fetchSessionEpoch == 0;
 
-                    KafkaClientStream stream = streamsByInitialId.get(initialId);
+            int topicCount = 0;
+            int forgottenTopicCount = 0;
+            for (Int2ObjectHashMap<KafkaFetchPartition> partitions : fetchSession.values())
+            {
+                topicCount += countFetchSessionChanges(full, partitions) != 0 ? 1 : 0;
+                forgottenTopicCount += !full && countFetchSessionForgotten(partitions) != 0 ? 1 : 0;
+            }
 
-                    stream.doStreamData(traceId, flags | FLAG_INIT | FLAG_FIN,
-                        reserved, buffer, progress, responseBytesMin, extension);
+            int encodeProgress = 0;
 
-                    progress += responseBytesMin;
+            final RequestHeaderFW requestHeader = requestHeaderRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                    .length(0)
+                    .apiKey(FETCH_API_KEY)
+                    .apiVersion(FETCH_SESSION_API_VERSION)
+                    .correlationId(requestId)
+                    .clientId(fetchClientId)
+                    .build();
 
-                    if (responseBytes == 0)
-                    {
-                        responses.removeLong();
-                    }
+            encodeProgress = requestHeader.limit();
+
+            final FetchSessionRequestFW fetchRequest = fetchSessionRequestRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                    .maxWaitTimeMillis(fetchMaxWaitMillis)
+                    .minBytes(fetchMinBytes)
+                    .maxBytes(fetchMaxBytes)
+                    .isolationLevel(fetchIsolation)
+                    .sessionId(fetchSessionId)
+                    .sessionEpoch(fetchSessionEpoch)
+                    .topicCount(topicCount)
+                    .build();
+
+            encodeProgress = fetchRequest.limit();
+
+            for (Map.Entry<String, Int2ObjectHashMap<KafkaFetchPartition>> sessionTopic : fetchSession.entrySet())
+            {
+                final Int2ObjectHashMap<KafkaFetchPartition> partitions = sessionTopic.getValue();
+                final int partitionCount = countFetchSessionChanges(full, partitions);
+
+                if (partitionCount != 0)
+                {
+                    final TopicRequestFW topicRequest = fetchTopicRequestRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                            .name(sessionTopic.getKey())
+                            .partitionCount(partitionCount)
+                            .build();
+
+                    encodeProgress = topicRequest.limit();
+
+                    for (KafkaFetchPartition partition : partitions.values())
+                    {
+                        if (!partition.forgotten && (full || partition.changed))
+                        {
+                            final PartitionRequestFW partitionRequest = fetchPartitionRequestRW
+                                    .wrap(encodeBuffer, encodeProgress, encodeLimit)
+                                    .partitionId(partition.partitionId)
+                                    .fetchOffset(partition.fetchOffset)
+                                    .logStartOffset(partition.logStartOffset)
+                                    .maxBytes(partition.maxBytes)
+                                    .build();
+
+                            encodeProgress = partitionRequest.limit();
+                        }
+                    }
+                }
+            }
+
+            final ForgottenTopicsRequestFW forgottenTopics = forgottenTopicsRequestRW
+                    .wrap(encodeBuffer, encodeProgress, encodeLimit)
+                    .topicCount(forgottenTopicCount)
+                    .build();
+
+            encodeProgress = forgottenTopics.limit();
+
+            for (Map.Entry<String, Int2ObjectHashMap<KafkaFetchPartition>> sessionTopic : fetchSession.entrySet())
+            {
+                final Int2ObjectHashMap<KafkaFetchPartition> partitions = sessionTopic.getValue();
+                final int partitionCount = full ? 0 : countFetchSessionForgotten(partitions);
+
+                if (partitionCount != 0)
+                {
+                    final ForgottenTopicRequestFW forgottenTopic = forgottenTopicRequestRW
+                            .wrap(encodeBuffer, encodeProgress, encodeLimit)
+                            .name(sessionTopic.getKey())
+                            .partitionCount(partitionCount)
+                            .build();
+
+                    encodeProgress = forgottenTopic.limit();
+
+                    for (KafkaFetchPartition partition : partitions.values())
+                    {
+                        if (partition.forgotten)
+                        {
+                            final ForgottenPartitionRequestFW forgottenPartition = forgottenPartitionRequestRW
+                                    .wrap(encodeBuffer, encodeProgress, encodeLimit)
+                                    .partitionId(partition.partitionId)
+                                    .build();
+
+                            encodeProgress = forgottenPartition.limit();
+                        }
+                    }
+                }
+            }
+
+            requestHeaderRW.wrap(encodeBuffer, requestHeader.offset(), requestHeader.limit())
+                    .length(encodeProgress - KAFKA_FRAME_LENGTH_FIELD_OFFSET)
+                    .apiKey(requestHeader.apiKey())
+                    .apiVersion(requestHeader.apiVersion())
+                    .correlationId(requestId)
+                    .clientId(requestHeader.clientId())
+                    .build();
+
+            return encodeProgress;
+        }
+
+        private int countFetchSessionChanges(
+            boolean full,
+            Int2ObjectHashMap<KafkaFetchPartition> partitions)
+        {
+            int changes = 0;
+
+            for (KafkaFetchPartition partition : partitions.values())
+            {
+                changes += !partition.forgotten && (full || partition.changed) ? 1 : 0;
+            }
+
+            return changes;
+        }
+
+        private int countFetchSessionForgotten(
+            Int2ObjectHashMap<KafkaFetchPartition> partitions)
+        {
+            int forgotten = 0;
+
+            for (KafkaFetchPartition partition : partitions.values())
+            {
+                forgotten += partition.forgotten ? 1 : 0;
+            }
+
+            return forgotten;
+        }
+
+        private void updateFetchSession()
+        {
+            for (Map.Entry<String, List<KafkaFetchEntry>> topicEntries : fetchEntries.entrySet())
+            {
+                final List<KafkaFetchEntry> entries = topicEntries.getValue();
+                final Int2ObjectHashMap<KafkaFetchPartition> partitions =
+                    fetchSession.computeIfAbsent(topicEntries.getKey(), t -> new Int2ObjectHashMap<>());
+
+                for (int index = 0; index < entries.size(); index++)
+                {
+                    final KafkaFetchEntry entry = entries.get(index);
+                    final KafkaFetchPartition partition = partitions.computeIfAbsent(entry.partitionId, KafkaFetchPartition::new);
+
+                    partition.changed |= partition.forgotten ||
+                        partition.fetchOffset != entry.fetchOffset ||
+                        partition.logStartOffset != entry.logStartOffset ||
+                        partition.maxBytes != entry.maxBytes;
+                    partition.forgotten = false;
+                    partition.streamId = entry.streamId;
+                    partition.fetchOffset = entry.fetchOffset;
+                    partition.logStartOffset = entry.logStartOffset;
+                    partition.maxBytes = entry.maxBytes;
+
+                    entry.partition = partition;
+                }
+            }
+
+            for (Map.Entry<String, Int2ObjectHashMap<KafkaFetchPartition>> sessionTopic : fetchSession.entrySet())
+            {
+                final List<KafkaFetchEntry> entries = fetchEntries.get(sessionTopic.getKey());
+
+                for (KafkaFetchPartition partition : sessionTopic.getValue().values())
+                {
+                    if (findFetchEntry(entries, partition.partitionId) == null)
+                    {
+                        final KafkaClientStream stream = streamsByInitialId.get(partition.streamId);
+
+                        if (stream == null || KafkaState.closed(stream.state))
+                        {
+                            partition.forgotten = true;
+                        }
+                        else if (partition.maxBytes != 0)
+                        {
+                            // idle until its stream fetches again, keep in session without returning records
+                            partition.maxBytes = 0;
+                            partition.changed = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        private void commitFetchSession()
+        {
+            for (Iterator<Int2ObjectHashMap<KafkaFetchPartition>> i = fetchSession.values().iterator(); i.hasNext();)
+            {
+                final Int2ObjectHashMap<KafkaFetchPartition> partitions = i.next();
+
+                partitions.values().removeIf(p -> p.forgotten);
+                partitions.values().forEach(p -> p.changed = false);
+
+                if (partitions.isEmpty())
+                {
+                    i.remove();
+                }
+            }
+        }
+
+        private void onFetchSessionResponse(
+            int errorCode,
+            int sessionId)
+        {
+            if (errorCode != ERROR_NONE || sessionId == 0)
+            {
+                fetchSessionId = 0;
+                fetchSessionEpoch = 0;
+            }
+            else if (sessionId != fetchSessionId)
+            {
+                fetchSessionId = sessionId;
+                fetchSessionEpoch = 1;
+            }
+            else
+            {
+                fetchSessionEpoch = fetchSessionEpoch == Integer.MAX_VALUE ? 1 : fetchSessionEpoch + 1;
+            }
+        }
+
+        private void flushBatches(
+            long traceId)
+        {
+            if (!deliveries.isEmpty())
+            {
+                for (int index = 0; index < deliveries.size(); index++)
+                {
+                    deliveries.get(index).flush(traceId);
+                }
+
+                deliveries.removeIf(KafkaResponseBatch::isDelivered);
+            }
+        }
+
+        private void cleanupBatches()
+        {
+            batches.values().forEach(KafkaResponseBatch::cleanup);
+            batches.clear();
+            deliveries.clear();
+
+            cleanupFetches();
+            cleanupProduces();
+        }
+
+        private void cleanupProduces()
+        {
+            if (produceFlushId != NO_CANCEL_ID)
+            {
+                signaler.delegate.cancel(produceFlushId);
+                produceFlushId = NO_CANCEL_ID;
+            }
+
+            produceEntries.clear();
+            produceRequestBytes = 0;
+            produceEntryCount = 0;
+            produceLingering = false;
+            cleanupProduceSlotIfNecessary();
+        }
+
+        private void cleanupFetches()
+        {
+            fetchEntries.clear();
+            fetchRequestBytes = 0;
+            fetchEntryCount = 0;
+            fetchSession.clear();
+            fetchSessionId = 0;
+            fetchSessionEpoch = 0;
+            fetchSessionInFlight = false;
+        }
+
+        private void doConnectionEnd(
+            long traceId)
+        {
+            if (!KafkaState.initialClosed(state))
+            {
+                doEnd(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
+                    traceId, authorization, EMPTY_EXTENSION);
+
+                state = KafkaState.closedInitial(state);
+            }
+
+            cleanupBudgetCreditorIfNecessary();
+        }
+
+        private void doConnectionAbort(
+            long traceId)
+        {
+            if (!KafkaState.initialClosed(state))
+            {
+                doAbort(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
+                    traceId, authorization, EMPTY_EXTENSION);
+
+                state = KafkaState.closedInitial(state);
+            }
+
+            cleanupBudgetCreditorIfNecessary();
+        }
+
+        private void doConnectionSignalNow(
+            long streamId,
+            long traceId,
+            int signalId)
+        {
+            nextContextId++;
+            signalerCorrelations.put(nextContextId, streamId);
+            signaler.delegate.signalNow(originId, routedId, this.initialId, traceId, signalId, nextContextId);
+        }
+
+        private void doConnectionSignalNow(
+            long streamId,
+            long traceId,
+            int signalId,
+            DirectBuffer buffer,
+            int offset,
+            int length)
+        {
+            nextContextId++;
+            signalerCorrelations.put(nextContextId, streamId);
+            signaler.delegate.signalNow(originId, routedId, this.initialId, traceId, signalId, nextContextId,
+                buffer, offset, length);
+        }
+
+        private long doConnectionSignalAt(
+            long streamId,
+            long traceId,
+            long timeMillis,
+            int signalId)
+        {
+            nextContextId++;
+            signalerCorrelations.put(nextContextId, streamId);
+            return signaler.delegate.signalAt(
+                timeMillis, originId, routedId, this.initialId, traceId, signalId, nextContextId);
+        }
+
+        private void doConnectionReset(
+            long traceId)
+        {
+            if (!KafkaState.replyClosed(state))
+            {
+                doReset(receiver, originId, routedId, replyId, replySeq, replyAck, replyMax,
+                    traceId, authorization);
+
+                state = KafkaState.closedReply(state);
+            }
+        }
+
+        private void doConnectionWindow(
+            long traceId,
+            long authorization,
+            long budgetId)
+        {
+            long maxReplyAck = replyAck;
+            int maxReplyPad = replyPad;
+            int minReplyMax = replyMax;
+
+            if (!responseAcks.isEmpty())
+            {
+                final int streamsSize = streamsByInitialId.size();
+
+                ack:
+                for (LongArrayQueue.LongIterator i = responseAcks.iterator(); i.hasNext();)
+                {
+                    long responseAck = i.nextValue();
+                    KafkaResponseBatch batch = batches.get(responseAck);
+
+                    if (batch != null)
+                    {
+                        maxReplyAck = Math.max(maxReplyAck, batch.replyAck);
+
+                        if (!batch.isConsumed())
+                        {
+                            break ack;
+                        }
+
+                        batch.acknowledged = true;
+                        if (batch.delivered)
+                        {
+                            batches.remove(responseAck);
+                        }
+
+                        responseAcks.removeLong();
+                        continue;
+                    }
+
+                    KafkaClientStream stream = streamsByInitialId.get(responseAck);
+
+                    maxReplyPad = stream.replyPad;
+                    minReplyMax = stream.replyMax;
+
+                    if (stream.replyAck < stream.replySeq || stream.replyAckOffset.isEmpty())
+                    {
+                        if (stream.replySeqOffset.peekLong() > NO_OFFSET)
+                        {
+                            maxReplyAck = stream.replySeqOffset.peekLong() + stream.replyAck - stream.replyAckSnapshot;
+                        }
+                        break ack;
+                    }
+                    maxReplyAck = stream.replyAckOffset.removeLong();
+
+                    if (KafkaState.closed(stream.state) && stream.replyAckOffset.isEmpty())
+                    {
+                        streamsByInitialId.remove(responseAck);
+                    }
+
+                    responseAcks.removeLong();
+                }
+
+                if (streamsByInitialId.size() != streamsSize)
+                {
+                    doSignalStreamCleanup();
+                }
+            }
+
+            final long newReplyAck = Math.max(maxReplyAck, replyAck);
+
+            if (newReplyAck > replyAck || minReplyMax > replyMax || !KafkaState.replyOpened(state))
+            {
+                replyAck = newReplyAck;
+                assert replyAck <= replySeq;
+
+                replyMax = minReplyMax;
+
+                state = KafkaState.openedReply(state);
+
+                doWindow(receiver, originId, routedId, replyId, replySeq, replyAck, replyMax,
+                    traceId, authorization, budgetId, maxReplyPad);
+            }
+        }
+
+        private void onConnectionMessage(
+            int msgTypeId,
+            DirectBuffer buffer,
+            int index,
+            int length)
+        {
+            switch (msgTypeId)
+            {
+            case BeginFW.TYPE_ID:
+                final BeginFW begin = beginRO.wrap(buffer, index, index + length);
+                onConnectionBegin(begin);
+                break;
+            case DataFW.TYPE_ID:
+                final DataFW data = dataRO.wrap(buffer, index, index + length);
+                onConnectionData(data);
+                break;
+            case EndFW.TYPE_ID:
+                final EndFW end = endRO.wrap(buffer, index, index + length);
+                onConnectionEnd(end);
+                break;
+            case AbortFW.TYPE_ID:
+                final AbortFW abort = abortRO.wrap(buffer, index, index + length);
+                onConnectionAbort(abort);
+                break;
+            case SignalFW.TYPE_ID:
+                final SignalFW signal = signalRO.wrap(buffer, index, index + length);
+                onConnectionSignal(signal);
+                break;
+            case ResetFW.TYPE_ID:
+                final ResetFW reset = resetRO.wrap(buffer, index, index + length);
+                onConnectionReset(reset);
+                break;
+            case WindowFW.TYPE_ID:
+                final WindowFW window = windowRO.wrap(buffer, index, index + length);
+                onConnectionWindow(window);
+                break;
+            default:
+                break;
+            }
+        }
+
+        private void onConnectionBegin(
+            BeginFW begin)
+        {
+            final long authorization = begin.authorization();
+            final long traceId = begin.traceId();
+
+            state = KafkaState.openingReply(state);
+
+            doConnectionWindow(traceId, authorization, 0);
+        }
+
+        private void onConnectionData(
+            DataFW data)
+        {
+            final long sequence = data.sequence();
+            final long acknowledge = data.acknowledge();
+            final long traceId = data.traceId();
+            final int flags = data.flags();
+            final OctetsFW payload = data.payload();
+            final OctetsFW extension = data.extension();
+
+            int reserved = data.reserved();
+            int offset = payload.offset();
+            int limit = payload.limit();
+
+            assert acknowledge <= sequence;
+            assert sequence >= replySeq;
+
+            replySeq = sequence + reserved;
+
+            assert replyAck <= replySeq;
+            assert replySeq <= replyAck + replyMax;
+
+            if (!flushable)
+            {
+                if (decodeSlot == NO_SLOT)
+                {
+                    decodeSlot = decodePool.acquire(initialId);
+                }
+
+                if (decodeSlot == NO_SLOT)
+                {
+                    cleanupConnection(traceId);
+                }
+                else
+                {
+                    final MutableDirectBuffer buffer = decodePool.buffer(decodeSlot);
+                    buffer.putBytes(decodeSlotOffset, payload.buffer(), offset, limit - offset);
+                    decodeSlotOffset += limit - offset;
+                    decodeSlotReserved += reserved;
+
+                    offset = 0;
+                    limit = decodeSlotOffset;
+                    reserved = decodeSlotReserved;
+
+                    decodeNetwork(traceId, authorization, initialBudId, reserved, buffer, offset, limit);
+                }
+            }
+            else
+            {
+                final DirectBuffer buffer = payload.buffer();
+                int progress = payload.offset();
+
+                boolean fetched = false;
+
+                while (progress < limit)
+                {
+                    final boolean responseInit = responseBytes == 0;
+
+                    if (responseInit)
+                    {
+                        final ResponseCorrelationFW response = responseCorrelationRO.wrap(buffer, progress, limit);
+                        responseStreamId = correlations.remove(response.correlationId());
+
+                        if (responseStreamId == NO_CORRELATION)
+                        {
+                            doConnectionAbort(traceId);
+                            doConnectionReset(traceId);
+                            cleanupStreams(traceId);
+                            break;
+                        }
+
+                        responseBytes = response.length() + KAFKA_FRAME_LENGTH_FIELD_OFFSET;
+                    }
+
+                    final KafkaResponseBatch batch = batches.get(responseStreamId);
+
+                    if (batch != null && responseInit)
+                    {
+                        batch.onResponseBegin(responseBytes);
+                    }
+
+                    final int responseBytesMin = Math.min(responseBytes, limit - progress);
+                    responseBytes -= responseBytesMin;
+                    assert responseBytes >= 0;
+
+                    if (batch != null)
+                    {
+                        final long responseAck = progress + responseBytesMin == limit
+                            ? replySeq
+                            : replySeq - reserved + progress + responseBytesMin - offset;
+
+                        batch.onResponseData(traceId, buffer, progress, responseBytesMin, responseAck);
+                        fetched = true;
+                    }
+                    else
+                    {
+                        KafkaClientStream stream = streamsByInitialId.get(responseStreamId);
+
+                        stream.doStreamData(traceId, flags | FLAG_INIT | FLAG_FIN,
+                            reserved, buffer, progress, responseBytesMin, extension);
+                    }
+
+                    progress += responseBytesMin;
+
+                    if (responseBytes == 0)
+                    {
+                        if (batch != null)
+                        {
+                            batch.onResponseEnd(traceId);
+                        }
+                    }
+                }
+
+                if (fetched)
+                {
+                    doConnectionWindow(traceId, authorization, 0);
+                }
+            }
+        }
+
+        private void onConnectionEnd(
+            EndFW end)
+        {
+            final long sequence = end.sequence();
+            final long acknowledge = end.acknowledge();
+            final long traceId = end.traceId();
+
+            assert acknowledge <= sequence;
+            assert sequence >= replySeq;
+
+            replySeq = sequence;
+            state = KafkaState.closedReply(state);
+
+            assert replyAck <= replySeq;
+
+            doConnectionEnd(traceId);
+
+            cleanupStreams(traceId);
+        }
+
+        private void onConnectionAbort(
+            AbortFW abort)
+        {
+            final long traceId = abort.traceId();
+
+            state = KafkaState.closedReply(state);
+
+            doConnectionAbort(traceId);
+
+            cleanupStreams(traceId);
+        }
+
+        private void cleanupStreams(
+            long traceId)
+        {
+            cleanupBatches();
+            requests.clear();
+            correlations.clear();
+            responseAcks.clear();
+            streams.forEach(s ->
+            {
+                KafkaClientStream stream = streamsByInitialId.get(s);
+                stream.cleanup(traceId);
+                streamsByInitialId.remove(s);
+            });
+            streams.clear();
+        }
+
+        private void onConnectionSignal(
+            SignalFW signal)
+        {
+            final long traceId = signal.traceId();
+            final int signalId = signal.signalId();
+
+            if (signalId == SIGNAL_NEXT_REQUEST)
+            {
+                doEncodeRequestIfNecessary(traceId, 0L);
+            }
+            else if (signalId == SIGNAL_FETCH_FLUSH)
+            {
+                doEncodeFetchIfNecessary(traceId);
+            }
+            else if (signalId == SIGNAL_PRODUCE_FLUSH)
+            {
+                produceFlushId = NO_CANCEL_ID;
+                produceLingering = false;
+                doEncodeProduceIfNecessary(traceId);
+            }
+            else
+            {
+                assert signalId != SIGNAL_CONNECTION_CLEANUP;
+
+                final int contextId = signal.contextId();
+
+                long initialId = signalerCorrelations.remove(contextId);
+                KafkaClientStream stream = streamsByInitialId.get(initialId);
+
+                if (stream != null)
+                {
+                    stream.onStreamSignal(signal);
+                }
+            }
+        }
+
+        private void onConnectionReset(
+            ResetFW reset)
+        {
+            final long traceId = reset.traceId();
+
+            state = KafkaState.closedInitial(state);
+
+            doConnectionReset(traceId);
+
+            cleanupBudgetCreditorIfNecessary();
+
+            cleanupStreams(traceId);
+        }
+
+        private void onConnectionWindow(
+            WindowFW window)
+        {
+            final long sequence = window.sequence();
+            final long acknowledge = window.acknowledge();
+            final int maximum = window.maximum();
+            final long traceId = window.traceId();
+            final long budgetId = window.budgetId();
+            final int padding = window.padding();
+            final int minimum = window.minimum();
+
+            assert acknowledge <= sequence;
+            assert sequence <= initialSeq;
+            assert acknowledge >= initialAck;
+            assert maximum >= initialMax;
+
+            int credit = (int)(acknowledge - initialAck) + (maximum - initialMax);
+            assert credit >= 0;
+
+            this.initialAck = acknowledge;
+            this.initialMax = maximum;
+            this.initialMin = minimum;
+            this.initialPad = padding;
+
+            assert replyAck <= replySeq;
+
+            if (KafkaState.initialOpening(state))
+            {
+                if (initialBudId == NO_BUDGET_ID)
+                {
+                    initialBudId = creditor.acquire(initialId, budgetId);
+                }
+            }
+
+            state = KafkaState.openedInitial(state);
+
+            if (!flushable)
+            {
+                doEncodeRequestIfNecessary(traceId, authorization);
+            }
+            else
+            {
+                doStreamWindow(traceId, credit);
+                doEncodeFetchIfNecessary(traceId);
+                doEncodeProduceIfNecessary(traceId);
+            }
+        }
+
+        private void doStreamWindow(
+            long traceId,
+            int credit)
+        {
+            if (initialBudId != NO_BUDGET_ID && credit > 0)
+            {
+                creditor.credit(traceId, initialBudId, credit);
+            }
+
+            if (requests.isEmpty())
+            {
+                streams.forEach(s -> streamsByInitialId.get(s).doStreamWindow(authorization, traceId));
+            }
+
+            while (credit > 0 && !requests.isEmpty())
+            {
+                final long streamId = requests.peekLong();
+                KafkaClientStream stream = streamsByInitialId.get(streamId);
+
+                long streamAck = stream.initialAck;
+
+                stream.doStreamWindow(authorization, traceId);
+
+                credit = Math.max(credit - (int)(streamAck - stream.initialAck), 0);
+
+                if (stream.initialAck != stream.initialSeq)
+                {
+                    break;
+                }
+
+                requests.removeLong();
+            }
+        }
+
+        private void doSignalStreamCleanup()
+        {
+            if (reconnectAt != NO_CANCEL_ID)
+            {
+                signaler.delegate.cancel(reconnectAt);
+                reconnectAt = NO_CANCEL_ID;
+            }
+
+            this.reconnectAt = signaler.delegate.signalAt(
+                currentTimeMillis() + connectionPoolCleanupMillis,
+                SIGNAL_CONNECTION_CLEANUP, this::onStreamCleanupSignal);
+        }
+
+
+        private void onStreamCleanupSignal(
+            int signalId)
+        {
+            assert signalId == SIGNAL_CONNECTION_CLEANUP;
+
+            if (streams.isEmpty())
+            {
+                final long traceId = supplyTraceId.getAsLong();
+                cleanupConnection(traceId);
+            }
+        }
+
+        private void cleanupConnection(
+            long traceId)
+        {
+            doConnectionAbort(traceId);
+            doConnectionReset(traceId);
+
+            cleanupBatches();
+            streams.clear();
+            requests.clear();
+            correlations.clear();
+            responseAcks.clear();
+            signalerCorrelations.clear();
+        }
+
+        private void cleanupBudgetCreditorIfNecessary()
+        {
+            if (initialBudId != NO_BUDGET_ID)
+            {
+                creditor.release(initialBudId);
+                initialBudId = NO_BUDGET_ID;
+            }
+        }
+
+        private void onStreamClosed(
+            long streamId)
+        {
+            streams.remove(streamId);
+
+            if (!responseAcks.contains(streamId))
+            {
+                KafkaClientStream stream = streamsByInitialId.get(streamId);
+                if (stream != null && stream.initialAck == stream.initialSeq)
+                {
+                    streamsByInitialId.remove(streamId);
+                    doSignalStreamCleanup();
+                }
+            }
+        }
+
+        @Override
+        public MessageConsumer newStream(
+            int msgTypeId,
+            DirectBuffer buffer,
+            int index,
+            int length,
+            MessageConsumer sender)
+        {
+            final BeginFW begin = beginRO.wrap(buffer, index, index + length);
+            final long originId = begin.originId();
+            final long routedId = begin.routedId();
+            final long initialId = begin.streamId();
+            final long authorization = begin.authorization();
+
+            KafkaClientStream stream = new KafkaClientStream(this, sender, originId, routedId, initialId, authorization);
+            streamsByInitialId.put(initialId, stream);
+            streams.add(initialId);
+
+            return stream::onStreamMessage;
+        }
+
+        private void cleanupDecodeSlotIfNecessary()
+        {
+            if (decodeSlot != NO_SLOT)
+            {
+                decodePool.release(decodeSlot);
+                decodeSlot = NO_SLOT;
+                decodeSlotOffset = 0;
+                decodeSlotReserved = 0;
+            }
+        }
+
+        private void cleanupEncodeSlotIfNecessary()
+        {
+            if (encodeSlot != NO_SLOT)
+            {
+                encodePool.release(encodeSlot);
+                encodeSlot = NO_SLOT;
+                encodeSlotOffset = 0;
+                encodeSlotLimit = 0;
+            }
+        }
+
+        private void doEncodeRequestIfNecessary(
+            long traceId,
+            long budget)
+        {
+            if (nextRequestId == nextResponseId && !flushable)
+            {
+                encoder.accept(traceId, budget);
+            }
+        }
+
+        private void encodeNetwork(
+            long traceId,
+            long authorization,
+            long budgetId,
+            DirectBuffer buffer,
+            int offset,
+            int limit)
+        {
+            final int maxLength = limit - offset;
+            final int initialWin = initialMax - (int)(initialSeq - initialAck);
+            final int length = Math.max(Math.min(initialWin - initialPad, maxLength), 0);
+
+            if (length > 0)
+            {
+                final int reserved = length + initialPad;
+
+                doData(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
+                    traceId, authorization, budgetId, reserved, buffer, offset, length, EMPTY_EXTENSION);
+
+                initialSeq += reserved;
+
+                assert initialAck <= initialSeq;
+            }
+
+            final int remaining = maxLength - length;
+            if (remaining > 0)
+            {
+                if (encodeSlot == NO_SLOT)
+                {
+                    encodeSlot = encodePool.acquire(initialId);
+                }
+
+                if (encodeSlot == NO_SLOT)
+                {
+                    cleanupConnection(traceId);
+                }
+                else
+                {
+                    final MutableDirectBuffer encodeBuffer = encodePool.buffer(encodeSlot);
+                    encodeBuffer.putBytes(0, buffer, offset + length, remaining);
+                    encodeSlotOffset = remaining;
+                }
+            }
+            else
+            {
+                cleanupEncodeSlotIfNecessary();
+            }
+        }
+
+        private void decodeNetwork(
+            long traceId,
+            long authorization,
+            long budgetId,
+            int reserved,
+            MutableDirectBuffer buffer,
+            int offset,
+            int limit)
+        {
+            KafkaConnectionClientDecoder previous = null;
+            int progress = offset;
+            while (progress <= limit && previous != decoder)
+            {
+                previous = decoder;
+                progress = decoder.decode(this, traceId, authorization, budgetId, reserved, buffer, offset, progress, limit);
+            }
+
+            if (progress < limit)
+            {
+                if (decodeSlot == NO_SLOT)
+                {
+                    decodeSlot = decodePool.acquire(initialId);
+                }
+
+                if (decodeSlot == NO_SLOT)
+                {
+                    cleanupConnection(traceId);
+                }
+                else
+                {
+                    final MutableDirectBuffer decodeBuffer = decodePool.buffer(decodeSlot);
+                    decodeBuffer.putBytes(0, buffer, progress, limit - progress);
+                    decodeSlotOffset = limit - progress;
+                    decodeSlotReserved = (limit - progress) * reserved / (limit - offset);
                 }
+
+                doConnectionWindow(traceId, authorization, budgetId);
+            }
+            else
+            {
+                cleanupDecodeSlotIfNecessary();
+
+                doConnectionWindow(traceId, authorization, budgetId);
             }
         }
 
-        private void onConnectionEnd(
-            EndFW end)
+        @Override
+        protected void doNetworkData(
+            long traceId,
+            long budgetId,
+            DirectBuffer buffer,
+            int offset,
+            int limit)
         {
-            final long sequence = end.sequence();
-            final long acknowledge = end.acknowledge();
-            final long traceId = end.traceId();
+            if (encodeSlot != NO_SLOT)
+            {
+                final MutableDirectBuffer encodeBuffer = encodePool.buffer(encodeSlot);
+                encodeBuffer.putBytes(encodeSlotLimit, buffer, offset, limit - offset);
+                encodeSlotLimit += limit - offset;
 
-            assert acknowledge <= sequence;
-            assert sequence >= replySeq;
+                buffer = encodeBuffer;
+                offset = encodeSlotOffset;
+                limit = encodeSlotLimit;
+            }
 
-            replySeq = sequence;
-            state = KafkaState.closedReply(state);
+            encodeNetwork(traceId, authorization, budgetId, buffer, offset, limit);
+        }
 
-            assert replyAck <= replySeq;
+        private short selectFetchApiVersion()
+        {
+            short version = fetchSessions ? FETCH_SESSION_API_VERSION : FETCH_API_VERSION;
 
-            doConnectionEnd(traceId);
+            if (maxVersions != null)
+            {
+                // highest version the fetch encoders can write within the negotiated range, v6 shares the v5 layout
+                final short maxVersion = fetchSessions ? FETCH_SESSION_API_VERSION : FETCH_SESSIONLESS_API_VERSION_MAX;
+                version = (short) Math.max(Math.min(maxVersion, maxApiVersion(FETCH_API_KEY)), FETCH_API_VERSION);
+            }
 
-            cleanupStreams(traceId);
+            return version;
         }
 
-        private void onConnectionAbort(
-            AbortFW abort)
+        private boolean isApiVersionSupported(
+            DirectBuffer buffer,
+            int offset,
+            int limit)
         {
-            final long traceId = abort.traceId();
+            final RequestHeaderFW requestHeader = requestHeaderRO.tryWrap(buffer, offset, limit);
 
-            state = KafkaState.closedReply(state);
+            return requestHeader == null || isApiVersionSupported(requestHeader.apiKey(), requestHeader.apiVersion());
+        }
 
-            doConnectionAbort(traceId);
+        private short minApiVersion(
+            int apiKey)
+        {
+            return minVersions != null && apiKey >= 0 && apiKey < API_KEY_MAX ? minVersions[apiKey] : API_VERSION_NONE;
+        }
 
-            cleanupStreams(traceId);
+        private short maxApiVersion(
+            int apiKey)
+        {
+            return maxVersions != null && apiKey >= 0 && apiKey < API_KEY_MAX ? maxVersions[apiKey] : API_VERSION_NONE;
         }
 
-        private void cleanupStreams(
-            long traceId)
+        private boolean isApiVersionSupported(
+            int apiKey,
+            int apiVersion)
         {
-            requests.clear();
-            responses.clear();
-            responseAcks.clear();
-            streams.forEach(s ->
-            {
-                KafkaClientStream stream = streamsByInitialId.get(s);
-                stream.cleanup(traceId);
-                streamsByInitialId.remove(s);
-            });
-            streams.clear();
+            return maxVersions == null ||
+                apiKey >= 0 && apiKey < API_KEY_MAX &&
+                minVersions[apiKey] <= apiVersion && apiVersion <= maxVersions[apiKey];
         }
 
-        private void onConnectionSignal(
-            SignalFW signal)
+        private void doEncodeApiVersionsRequest(
+            long traceId,
+            long budgetId)
         {
-            final long traceId = signal.traceId();
-            final int signalId = signal.signalId();
+            final MutableDirectBuffer encodeBuffer = writeBuffer;
+            final int encodeOffset = DataFW.FIELD_OFFSET_PAYLOAD;
+            final int encodeLimit = encodeBuffer.capacity();
+            final boolean flexible = apiVersionsVersion == API_VERSIONS_FLEXIBLE_API_VERSION;
+
+            int encodeProgress = encodeOffset;
+
+            final RequestHeaderFW requestHeader = requestHeaderRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                    .length(0)
+                    .apiKey(API_VERSIONS_API_KEY)
+                    .apiVersion(apiVersionsVersion)
+                    .correlationId(0)
+                    .clientId(clientId)
+                    .build();
 
-            if (signalId == SIGNAL_NEXT_REQUEST)
+            encodeProgress = requestHeader.limit();
+
+            if (flexible)
             {
-                doEncodeRequestIfNecessary(traceId, 0L);
+                encodeBuffer.putByte(encodeProgress++, TAGGED_FIELDS_NONE);
+                encodeProgress = encodeCompactString(encodeBuffer, encodeProgress, CLIENT_SOFTWARE_NAME);
+                encodeProgress = encodeCompactString(encodeBuffer, encodeProgress, CLIENT_SOFTWARE_VERSION);
+                encodeBuffer.putByte(encodeProgress++, TAGGED_FIELDS_NONE);
             }
-            else
+
+            final int requestId = nextRequestId++;
+            final int requestSize = encodeProgress - encodeOffset - RequestHeaderFW.FIELD_OFFSET_API_KEY;
+
+            requestHeaderRW.wrap(encodeBuffer, requestHeader.offset(), requestHeader.limit())
+                    .length(requestSize)
+                    .apiKey(requestHeader.apiKey())
+                    .apiVersion(requestHeader.apiVersion())
+                    .correlationId(requestId)
+                    .clientId(requestHeader.clientId())
+                    .build();
+
+            if (KafkaConfiguration.DEBUG)
             {
-                assert signalId != SIGNAL_CONNECTION_CLEANUP;
+                System.out.format("[0x%016x] API VERSIONS v%d\n", replyId, apiVersionsVersion);
+            }
 
-                final int contextId = signal.contextId();
+            doNetworkData(traceId, budgetId, encodeBuffer, encodeOffset, encodeProgress);
 
-                long initialId = signalerCorrelations.remove(contextId);
-                KafkaClientStream stream = streamsByInitialId.get(initialId);
+            decoder = decodeApiVersionsResponse;
+        }
 
-                if (stream != null)
+        private void onDecodeApiVersionsResponse(
+            long traceId,
+            int errorCode,
+            short[] minVersions,
+            short[] maxVersions)
+        {
+            nextResponseId++;
+
+            switch (errorCode)
+            {
+            case ERROR_NONE:
+                this.minVersions = minVersions;
+                this.maxVersions = maxVersions;
+                negotiatedByAddress.put(address, this);
+                decoder = decodeIgnoreAll;
+
+                if (sasl != null)
                 {
-                    stream.onStreamSignal(signal);
+                    encoder = encodeSaslHandshakeRequest;
+                    signaler.delegate.signalNow(originId, routedId, initialId, traceId, SIGNAL_NEXT_REQUEST, 0);
+                }
+                else
+                {
+                    flushable = true;
+                    doStreamWindow(traceId, initialMax);
+                }
+                break;
+            case ERROR_UNSUPPORTED_VERSION:
+                if (apiVersionsVersion != API_VERSIONS_API_VERSION)
+                {
+                    apiVersionsVersion = API_VERSIONS_API_VERSION;
+                    signaler.delegate.signalNow(originId, routedId, initialId, traceId, SIGNAL_NEXT_REQUEST, 0);
+                    break;
                 }
+                // fall through
+            default:
+                cleanupConnection(traceId);
+                break;
             }
         }
 
-        private void onConnectionReset(
-            ResetFW reset)
+        @Override
+        protected void onDecodeSaslHandshakeResponse(
+            long traceId,
+            long authorization,
+            int errorCode)
         {
-            final long traceId = reset.traceId();
+            switch (errorCode)
+            {
+            case ERROR_NONE:
+                encoder = encodeSaslAuthenticateRequest;
+                decoder = decodeSaslAuthenticateResponse;
+                break;
+            default:
+                cleanupConnection(traceId);
+                break;
+            }
+        }
+
+        @Override
+        protected void onDecodeSaslAuthenticateResponse(
+            long traceId,
+            long authorization,
+            int errorCode)
+        {
+            switch (errorCode)
+            {
+            case ERROR_NONE:
+                flushable = true;
+                doStreamWindow(traceId, initialMax);
+                break;
+            default:
+                cleanupConnection(traceId);
+                break;
+            }
+        }
+
+        @Override
+        protected void onDecodeSaslResponse(
+            long traceId)
+        {
+            nextResponseId++;
+            signaler.delegate.signalNow(originId, routedId, initialId, traceId, SIGNAL_NEXT_REQUEST, 0);
+        }
+
+        @Override
+        protected void doDecodeSaslHandshakeResponse(
+            long traceId)
+        {
+            decoder = decodeSaslHandshakeResponse;
+        }
+
+        @Override
+        protected void doDecodeSaslAuthenticateResponse(
+            long traceId)
+        {
+            decoder = decodeSaslAuthenticateResponse;
+        }
+
+        @Override
+        protected void doDecodeSaslAuthenticate(
+            long traceId)
+        {
+            decoder = decodeSaslAuthenticate;
+        }
+
+        @Override
+        protected void doDecodeSaslHandshake(
+            long traceId)
+        {
+            decoder = decodeSaslHandshake;
+        }
+
+        @Override
+        protected void doDecodeSaslHandshakeMechanisms(
+            long traceId)
+        {
+            decoder = decodeSaslHandshakeMechanisms;
+        }
+
+        @Override
+        protected void doDecodeSaslHandshakeMechansim(
+            long traceId)
+        {
+            decoder = decodeSaslHandshakeMechanism;
+        }
+    }
+
+    private abstract class KafkaResponseBatch
+    {
+        protected final KafkaClientConnection connection;
+        protected final long batchId;
+
+        protected int slot = NO_SLOT;
+        protected int slotLimit;
+        protected boolean overflow;
+        protected long replyAck;
+        protected boolean received;
+        protected boolean delivered;
+        protected boolean acknowledged;
+
+        protected KafkaResponseBatch(
+            KafkaClientConnection connection,
+            long batchId)
+        {
+            this.connection = connection;
+            this.batchId = batchId;
+        }
+
+        protected void onResponseBegin(
+            int responseBytes)
+        {
+            overflow = responseBytes > decodePool.slotCapacity();
+
+            if (!overflow)
+            {
+                slot = decodePool.acquire(connection.initialId);
+                overflow = slot == NO_SLOT;
+            }
+        }
+
+        protected void onResponseData(
+            long traceId,
+            DirectBuffer buffer,
+            int offset,
+            int length,
+            long replyAck)
+        {
+            if (!overflow)
+            {
+                final MutableDirectBuffer slotBuffer = decodePool.buffer(slot);
+                slotBuffer.putBytes(slotLimit, buffer, offset, length);
+                slotLimit += length;
+            }
+
+            this.replyAck = replyAck;
+        }
 
-            state = KafkaState.closedInitial(state);
+        protected abstract void onResponseEnd(
+            long traceId);
 
-            doConnectionReset(traceId);
+        protected abstract void flush(
+            long traceId);
 
-            cleanupBudgetCreditorIfNecessary();
+        protected boolean isConsumed()
+        {
+            return received;
+        }
 
-            cleanupStreams(traceId);
+        protected final boolean isDelivered()
+        {
+            return delivered;
         }
 
-        private void onConnectionWindow(
-            WindowFW window)
+        protected final void cleanup()
         {
-            final long sequence = window.sequence();
-            final long acknowledge = window.acknowledge();
-            final int maximum = window.maximum();
-            final long traceId = window.traceId();
-            final long budgetId = window.budgetId();
-            final int padding = window.padding();
-            final int minimum = window.minimum();
+            if (slot != NO_SLOT)
+            {
+                decodePool.release(slot);
+                slot = NO_SLOT;
+                slotLimit = 0;
+            }
+        }
+    }
 
-            assert acknowledge <= sequence;
-            assert sequence <= initialSeq;
-            assert acknowledge >= initialAck;
-            assert maximum >= initialMax;
+    @FunctionalInterface
+    private interface KafkaFetchBatchDecoder
+    {
+        int decode(
+            long traceId,
+            DirectBuffer buffer,
+            int progress,
+            int limit);
+    }
 
-            int credit = (int)(acknowledge - initialAck) + (maximum - initialMax);
-            assert credit >= 0;
+    private final class KafkaFetchBatch extends KafkaResponseBatch
+    {
+        private final KafkaFetchBatchDecoder decodeHeader = this::decodeHeader;
+        private final KafkaFetchBatchDecoder decodeTopic = this::decodeTopic;
+        private final KafkaFetchBatchDecoder decodePartition = this::decodePartition;
+        private final KafkaFetchBatchDecoder decodeRecords = this::decodeRecords;
+        private final KafkaFetchBatchDecoder decodeIgnore = this::decodeIgnore;
+
+        private final Map<String, List<KafkaFetchEntry>> entries;
+        private final boolean session;
+
+        private KafkaFetchBatchDecoder decoder;
+        private long receivedAck;
+        private boolean stalled;
+
+        private int correlationId;
+        private int throttleTimeMillis;
+        private int topicCount;
+        private int partitionCount;
+        private int recordsBytes;
+        private List<KafkaFetchEntry> topicEntries;
+        private KafkaFetchEntry entry;
+
+        private KafkaFetchBatch(
+            KafkaClientConnection connection,
+            long batchId,
+            Map<String, List<KafkaFetchEntry>> entries,
+            boolean session)
+        {
+            super(connection, batchId);
+            this.entries = entries;
+            this.session = session;
+            this.decoder = decodeHeader;
+        }
 
-            this.initialAck = acknowledge;
-            this.initialMax = maximum;
-            this.initialMin = minimum;
-            this.initialPad = padding;
+        @Override
+        protected void onResponseBegin(
+            int responseBytes)
+        {
+        }
 
-            assert replyAck <= replySeq;
+        @Override
+        protected void onResponseData(
+            long traceId,
+            DirectBuffer buffer,
+            int offset,
+            int length,
+            long replyAck)
+        {
+            receivedAck = replyAck;
 
-            if (KafkaState.initialOpening(state))
+            if (slotLimit == 0)
             {
-                if (initialBudId == NO_BUDGET_ID)
+                final int progress = decode(traceId, buffer, offset, offset + length);
+                final int remaining = offset + length - progress;
+
+                if (remaining > 0)
                 {
-                    initialBudId = creditor.acquire(initialId, budgetId);
+                    slot = slot == NO_SLOT ? decodePool.acquire(connection.initialId) : slot;
+
+                    if (slot == NO_SLOT || remaining > decodePool.slotCapacity())
+                    {
+                        onDecodeFailed(traceId);
+                    }
+                    else
+                    {
+                        decodePool.buffer(slot).putBytes(0, buffer, progress, remaining);
+                        slotLimit = remaining;
+                    }
                 }
             }
-
-            state = KafkaState.openedInitial(state);
-
-            if (!flushable)
+            else if (slotLimit + length > decodePool.slotCapacity())
             {
-                doEncodeRequestIfNecessary(traceId, authorization);
+                onDecodeFailed(traceId);
             }
             else
             {
-                doStreamWindow(traceId, credit);
+                decodePool.buffer(slot).putBytes(slotLimit, buffer, offset, length);
+                slotLimit += length;
+
+                decodeSlot(traceId);
+            }
+
+            this.replyAck = receivedAck - slotLimit;
+
+            if (stalled && !connection.deliveries.contains(this))
+            {
+                connection.deliveries.add(this);
             }
         }
 
-        private void doStreamWindow(
-            long traceId,
-            int credit)
+        @Override
+        protected void onResponseEnd(
+            long traceId)
         {
-            if (initialBudId != NO_BUDGET_ID && credit > 0)
+            received = true;
+
+            if (session)
             {
-                creditor.credit(traceId, initialBudId, credit);
+                connection.fetchSessionInFlight = false;
             }
 
-            if (requests.isEmpty())
+            flush(traceId);
+
+            if (!delivered && !connection.deliveries.contains(this))
             {
-                streams.forEach(s -> streamsByInitialId.get(s).doStreamWindow(authorization, traceId));
+                connection.deliveries.add(this);
             }
 
-            while (credit > 0 && !requests.isEmpty())
+            if (session)
             {
-                final long streamId = requests.peekLong();
-                KafkaClientStream stream = streamsByInitialId.get(streamId);
+                connection.doEncodeFetchIfNecessary(traceId);
+            }
+        }
 
-                long streamAck = stream.initialAck;
+        @Override
+        protected boolean isConsumed()
+        {
+            return received && slotLimit == 0;
+        }
 
-                stream.doStreamWindow(authorization, traceId);
+        @Override
+        protected void flush(
+            long traceId)
+        {
+            if (slotLimit != 0)
+            {
+                final long replyAck = this.replyAck;
 
-                credit = Math.max(credit - (int)(streamAck - stream.initialAck), 0);
+                decodeSlot(traceId);
 
-                if (stream.initialAck != stream.initialSeq)
+                this.replyAck = receivedAck - slotLimit;
+
+                if (this.replyAck != replyAck)
                 {
-                    break;
+                    connection.doConnectionWindow(traceId, connection.authorization, 0);
                 }
-
-                requests.removeLong();
             }
-        }
 
-        private void doSignalStreamCleanup()
-        {
-            if (reconnectAt != NO_CANCEL_ID)
+            if (received && !stalled)
             {
-                signaler.delegate.cancel(reconnectAt);
-                reconnectAt = NO_CANCEL_ID;
-            }
+                if (slotLimit != 0 || decoder != decodeIgnore)
+                {
+                    onDecodeFailed(traceId);
+                }
 
-            this.reconnectAt = signaler.delegate.signalAt(
-                currentTimeMillis() + connectionPoolCleanupMillis,
-                SIGNAL_CONNECTION_CLEANUP, this::onStreamCleanupSignal);
-        }
+                boolean flushed = true;
 
+                for (List<KafkaFetchEntry> topicEntries : entries.values())
+                {
+                    for (int index = 0; index < topicEntries.size(); index++)
+                    {
+                        final KafkaFetchEntry entry = topicEntries.get(index);
 
-        private void onStreamCleanupSignal(
-            int signalId)
-        {
-            assert signalId == SIGNAL_CONNECTION_CLEANUP;
+                        if (!entry.delivered)
+                        {
+                            entry.delivered = entry.responded || entry.partition == null || !entry.partition.cached
+                                ? onEntryFailed(traceId, entry)
+                                : onEntryResponse(traceId, entry);
+                            flushed &= entry.delivered;
+                        }
+                    }
+                }
 
-            if (streams.isEmpty())
-            {
-                final long traceId = supplyTraceId.getAsLong();
-                cleanupConnection(traceId);
+                if (flushed)
+                {
+                    cleanup();
+                    delivered = true;
+
+                    if (acknowledged)
+                    {
+                        connection.batches.remove(batchId);
+                    }
+                }
             }
         }
 
-        private void cleanupConnection(
+        private void decodeSlot(
             long traceId)
         {
-            doConnectionAbort(traceId);
-            doConnectionReset(traceId);
-
-            streams.clear();
-            requests.clear();
-            responses.clear();
-            responseAcks.clear();
-            signalerCorrelations.clear();
-        }
+            final MutableDirectBuffer slotBuffer = decodePool.buffer(slot);
+            final int progress = decode(traceId, slotBuffer, 0, slotLimit);
 
-        private void cleanupBudgetCreditorIfNecessary()
-        {
-            if (initialBudId != NO_BUDGET_ID)
+            if (slot != NO_SLOT)
             {
-                creditor.release(initialBudId);
-                initialBudId = NO_BUDGET_ID;
+                slotLimit -= progress;
+                slotBuffer.putBytes(0, slotBuffer, progress, slotLimit);
+
+                if (slotLimit == 0)
+                {
+                    cleanup();
+                }
             }
         }
 
-        private void onStreamClosed(
-            long streamId)
+        private int decode(
+            long traceId,
+            DirectBuffer buffer,
+            int offset,
+            int limit)
         {
-            streams.remove(streamId);
+            stalled = false;
 
-            if (!responseAcks.contains(streamId))
+            int progress = offset;
+
+            while (progress < limit)
             {
-                KafkaClientStream stream = streamsByInitialId.get(streamId);
-                if (stream != null && stream.initialAck == stream.initialSeq)
+                final int decoded = decoder.decode(traceId, buffer, progress, limit);
+
+                if (decoded == progress)
                 {
-                    streamsByInitialId.remove(streamId);
-                    doSignalStreamCleanup();
+                    break;
                 }
+
+                progress = decoded;
             }
+
+            return progress;
         }
 
-        @Override
-        public MessageConsumer newStream(
-            int msgTypeId,
+        private int decodeHeader(
+            long traceId,
             DirectBuffer buffer,
-            int index,
-            int length,
-            MessageConsumer sender)
+            int progress,
+            int limit)
         {
-            final BeginFW begin = beginRO.wrap(buffer, index, index + length);
-            final long originId = begin.originId();
-            final long routedId = begin.routedId();
-            final long initialId = begin.streamId();
-            final long authorization = begin.authorization();
+            final ResponseHeaderFW responseHeader = responseHeaderRO.tryWrap(buffer, progress, limit);
 
-            KafkaClientStream stream = new KafkaClientStream(this, sender, originId, routedId, initialId, authorization);
-            streamsByInitialId.put(initialId, stream);
-            streams.add(initialId);
+            if (responseHeader != null && session)
+            {
+                final FetchSessionResponseFW fetchResponse =
+                    fetchSessionResponseRO.tryWrap(buffer, responseHeader.limit(), limit);
 
-            return stream::onStreamMessage;
-        }
+                if (fetchResponse != null)
+                {
+                    correlationId = fetchResponse.correlationId();
+                    throttleTimeMillis = fetchResponse.throttleTimeMillis();
+                    topicCount = fetchResponse.topicCount();
+                    progress = fetchResponse.limit();
 
-        private void cleanupDecodeSlotIfNecessary()
-        {
-            if (decodeSlot != NO_SLOT)
+                    connection.onFetchSessionResponse(fetchResponse.errorCode(), fetchResponse.sessionId());
+                    decoder = nextTopic();
+                }
+            }
+            else if (responseHeader != null)
             {
-                decodePool.release(decodeSlot);
-                decodeSlot = NO_SLOT;
-                decodeSlotOffset = 0;
-                decodeSlotReserved = 0;
+                final FetchResponseFW fetchResponse = fetchResponseRO.tryWrap(buffer, responseHeader.limit(), limit);
+
+                if (fetchResponse != null)
+                {
+                    correlationId = fetchResponse.correlationId();
+                    throttleTimeMillis = fetchResponse.throttleTimeMillis();
+                    topicCount = fetchResponse.topicCount();
+                    progress = fetchResponse.limit();
+
+                    decoder = nextTopic();
+                }
             }
+
+            return progress;
         }
 
-        private void cleanupEncodeSlotIfNecessary()
+        private int decodeTopic(
+            long traceId,
+            DirectBuffer buffer,
+            int progress,
+            int limit)
         {
-            if (encodeSlot != NO_SLOT)
+            final TopicResponseFW topicResponse = topicResponseRO.tryWrap(buffer, progress, limit);
+
+            if (topicResponse != null)
             {
-                encodePool.release(encodeSlot);
-                encodeSlot = NO_SLOT;
-                encodeSlotOffset = 0;
-                encodeSlotLimit = 0;
+                topicEntries = entries.get(topicResponse.name().asString());
+                partitionCount = topicResponse.partitionCount();
+                progress = topicResponse.limit();
+
+                decoder = nextPartition();
             }
+
+            return progress;
         }
 
-        private void doEncodeRequestIfNecessary(
+        private int decodePartition(
             long traceId,
-            long budget)
+            DirectBuffer buffer,
+            int progress,
+            int limit)
         {
-            if (nextRequestId == nextResponseId && !flushable)
+            final PartitionResponseFW partitionResponse = partitionResponseRO.tryWrap(buffer, progress, limit);
+
+            int partitionLimit = partitionResponse != null ? partitionResponse.limit() : limit;
+
+            for (int index = 0;
+                 partitionResponse != null && partitionLimit < limit && index < partitionResponse.abortedTransactionCount();
+                 index++)
             {
-                encoder.accept(traceId, budget);
+                final TransactionResponseFW transactionResponse = transactionResponseRO.tryWrap(buffer, partitionLimit, limit);
+                partitionLimit = transactionResponse != null ? transactionResponse.limit() : limit;
+            }
+
+            final RecordSetFW recordSet = partitionResponse != null && partitionLimit < limit
+                ? recordSetRO.tryWrap(buffer, partitionLimit, limit)
+                : null;
+
+            decode:
+            if (recordSet != null)
+            {
+                final KafkaFetchEntry entry = findFetchEntry(topicEntries, partitionResponse.partitionId());
+                final KafkaClientStream stream = entry != null && !entry.responded
+                    ? streamsByInitialId.get(entry.streamId)
+                    : null;
+                final int recordsBytes = Math.max(recordSet.length(), 0);
+
+                if (stream != null)
+                {
+                    final MutableDirectBuffer fetchBuffer = KafkaClientConnectionPool.this.batchBuffer;
+                    final int fetchLimit = fetchBuffer.capacity();
+
+                    final ResponseHeaderFW responseHeader = responseHeaderRW.wrap(fetchBuffer, 0, fetchLimit)
+                        .length(0)
+                        .build();
+
+                    final FetchResponseFW fetchResponse = fetchResponseRW.wrap(fetchBuffer, responseHeader.limit(), fetchLimit)
+                        .correlationId(correlationId)
+                        .throttleTimeMillis(throttleTimeMillis)
+                        .topicCount(1)
+                        .build();
+
+                    final TopicResponseFW topicResponse = topicResponseRW.wrap(fetchBuffer, fetchResponse.limit(), fetchLimit)
+                        .name(entry.topic)
+                        .partitionCount(1)
+                        .build();
+
+                    final int partitionBytes = recordSet.limit() - progress;
+                    final int length = topicResponse.limit() + partitionBytes;
+
+                    if (length > fetchLimit)
+                    {
+                        onDecodeFailed(traceId);
+                        progress = limit;
+                        break decode;
+                    }
+
+                    fetchBuffer.putBytes(topicResponse.limit(), buffer, progress, partitionBytes);
+
+                    responseHeaderRW.wrap(fetchBuffer, 0, responseHeader.limit())
+                        .length(length + recordsBytes - KAFKA_FRAME_LENGTH_FIELD_OFFSET)
+                        .build();
+
+                    final int flags = recordsBytes == 0 ? FLAG_INIT | FLAG_FIN : FLAG_INIT;
+
+                    if (!stream.doStreamResponseFragment(traceId, flags, fetchBuffer, 0, length))
+                    {
+                        stalled = true;
+                        break decode;
+                    }
+                }
+
+                if (entry != null && !entry.responded)
+                {
+                    entry.responded = true;
+                    entry.delivered = recordsBytes == 0;
+
+                    if (entry.partition != null)
+                    {
+                        entry.partition.highWatermark = partitionResponse.highWatermark();
+                        entry.partition.lastStableOffset = partitionResponse.lastStableOffset();
+                        entry.partition.leaderLogStartOffset = partitionResponse.logStartOffset();
+                        entry.partition.cached = true;
+                    }
+                }
+
+                this.entry = stream != null ? entry : null;
+                this.recordsBytes = recordsBytes;
+                progress = recordSet.limit();
+
+                decoder = recordsBytes != 0 ? decodeRecords : nextPartition();
             }
+
+            return progress;
         }
 
-        private void encodeNetwork(
+        private int decodeRecords(
             long traceId,
-            long authorization,
-            long budgetId,
             DirectBuffer buffer,
-            int offset,
+            int progress,
             int limit)
         {
-            final int maxLength = limit - offset;
-            final int initialWin = initialMax - (int)(initialSeq - initialAck);
-            final int length = Math.max(Math.min(initialWin - initialPad, maxLength), 0);
-
-            if (length > 0)
-            {
-                final int reserved = length + initialPad;
-
-                doData(receiver, originId, routedId, initialId, initialSeq, initialAck, initialMax,
-                    traceId, authorization, budgetId, reserved, buffer, offset, length, EMPTY_EXTENSION);
-
-                initialSeq += reserved;
+            final KafkaClientStream stream = entry != null ? streamsByInitialId.get(entry.streamId) : null;
 
-                assert initialAck <= initialSeq;
-            }
+            int length = Math.min(limit - progress, recordsBytes);
 
-            final int remaining = maxLength - length;
-            if (remaining > 0)
+            if (stream != null)
             {
-                if (encodeSlot == NO_SLOT)
-                {
-                    encodeSlot = encodePool.acquire(initialId);
-                }
+                length = Math.min(length, stream.replyWindow());
 
-                if (encodeSlot == NO_SLOT)
+                if (length > 0)
                 {
-                    cleanupConnection(traceId);
+                    final int flags = length == recordsBytes ? FLAG_FIN : 0;
+                    stream.doStreamResponseFragment(traceId, flags, buffer, progress, length);
                 }
                 else
                 {
-                    final MutableDirectBuffer encodeBuffer = encodePool.buffer(encodeSlot);
-                    encodeBuffer.putBytes(0, buffer, offset + length, remaining);
-                    encodeSlotOffset = remaining;
+                    stalled = true;
                 }
             }
-            else
+
+            if (length > 0)
             {
-                cleanupEncodeSlotIfNecessary();
+                recordsBytes -= length;
+                progress += length;
+
+                if (recordsBytes == 0)
+                {
+                    if (entry != null)
+                    {
+                        entry.delivered = true;
+                        entry = null;
+                    }
+
+                    decoder = nextPartition();
+                }
             }
+
+            return progress;
         }
 
-        private void decodeNetwork(
+        private int decodeIgnore(
             long traceId,
-            long authorization,
-            long budgetId,
-            int reserved,
-            MutableDirectBuffer buffer,
-            int offset,
+            DirectBuffer buffer,
+            int progress,
             int limit)
         {
-            KafkaConnectionClientDecoder previous = null;
-            int progress = offset;
-            while (progress <= limit && previous != decoder)
-            {
-                previous = decoder;
-                progress = decoder.decode(this, traceId, authorization, budgetId, reserved, buffer, offset, progress, limit);
-            }
+            return limit;
+        }
 
-            if (progress < limit)
+        private KafkaFetchBatchDecoder nextTopic()
+        {
+            return topicCount-- > 0 ? decodeTopic : decodeIgnore;
+        }
+
+        private KafkaFetchBatchDecoder nextPartition()
+        {
+            return partitionCount-- > 0 ? decodePartition : nextTopic();
+        }
+
+        private void onDecodeFailed(
+            long traceId)
+        {
+            connection.onFetchSessionResponse(ERROR_NONE, 0);
+
+            if (entry != null)
             {
-                if (decodeSlot == NO_SLOT)
-                {
-                    decodeSlot = decodePool.acquire(initialId);
-                }
+                final KafkaClientStream stream = streamsByInitialId.get(entry.streamId);
 
-                if (decodeSlot == NO_SLOT)
-                {
-                    cleanupConnection(traceId);
-                }
-                else
+                if (stream != null)
                 {
-                    final MutableDirectBuffer decodeBuffer = decodePool.buffer(decodeSlot);
-                    decodeBuffer.putBytes(0, buffer, progress, limit - progress);
-                    decodeSlotOffset = limit - progress;
-                    decodeSlotReserved = (limit - progress) * reserved / (limit - offset);
+                    stream.cleanup(traceId);
                 }
 
-                doConnectionWindow(traceId, authorization, budgetId);
+                entry.delivered = true;
+                entry = null;
             }
-            else
-            {
-                cleanupDecodeSlotIfNecessary();
 
-                doConnectionWindow(traceId, authorization, budgetId);
-            }
+            decoder = decodeIgnore;
+            stalled = false;
+            cleanup();
         }
 
-        @Override
-        protected void doNetworkData(
+        private boolean onEntryResponse(
             long traceId,
-            long budgetId,
-            DirectBuffer buffer,
-            int offset,
-            int limit)
+            KafkaFetchEntry entry)
         {
-            if (encodeSlot != NO_SLOT)
+            final KafkaClientStream stream = streamsByInitialId.get(entry.streamId);
+
+            boolean delivered = true;
+
+            if (stream != null)
             {
-                final MutableDirectBuffer encodeBuffer = encodePool.buffer(encodeSlot);
-                encodeBuffer.putBytes(encodeSlotLimit, buffer, offset, limit - offset);
-                encodeSlotLimit += limit - offset;
+                final MutableDirectBuffer fetchBuffer = KafkaClientConnectionPool.this.batchBuffer;
+                final int fetchLimit = fetchBuffer.capacity();
+                final KafkaFetchPartition partition = entry.partition;
 
-                buffer = encodeBuffer;
-                offset = encodeSlotOffset;
-                limit = encodeSlotLimit;
+                final ResponseHeaderFW responseHeader = responseHeaderRW.wrap(fetchBuffer, 0, fetchLimit)
+                    .length(0)
+                    .build();
+
+                final FetchResponseFW fetchResponse = fetchResponseRW.wrap(fetchBuffer, responseHeader.limit(), fetchLimit)
+                    .correlationId(correlationId)
+                    .throttleTimeMillis(throttleTimeMillis)
+                    .topicCount(1)
+                    .build();
+
+                final TopicResponseFW topicResponse = topicResponseRW.wrap(fetchBuffer, fetchResponse.limit(), fetchLimit)
+                    .name(entry.topic)
+                    .partitionCount(1)
+                    .build();
+
+                final PartitionResponseFW partitionResponse =
+                    partitionResponseRW.wrap(fetchBuffer, topicResponse.limit(), fetchLimit)
+                        .partitionId(entry.partitionId)
+                        .errorCode((short) ERROR_NONE)
+                        .highWatermark(partition.highWatermark)
+                        .lastStableOffset(partition.lastStableOffset)
+                        .logStartOffset(partition.leaderLogStartOffset)
+                        .abortedTransactionCount(-1)
+                        .build();
+
+                final RecordSetFW recordSet = recordSetRW.wrap(fetchBuffer, partitionResponse.limit(), fetchLimit)
+                    .length(0)
+                    .build();
+
+                final int length = recordSet.limit();
+
+                responseHeaderRW.wrap(fetchBuffer, 0, responseHeader.limit())
+                    .length(length - KAFKA_FRAME_LENGTH_FIELD_OFFSET)
+                    .build();
+
+                delivered = stream.doStreamResponse(traceId, fetchBuffer, 0, length);
             }
 
-            encodeNetwork(traceId, authorization, budgetId, buffer, offset, limit);
+            return delivered;
         }
 
-        @Override
-        protected void onDecodeSaslHandshakeResponse(
+        private boolean onEntryFailed(
             long traceId,
-            long authorization,
-            int errorCode)
+            KafkaFetchEntry entry)
         {
-            switch (errorCode)
+            final KafkaClientStream stream = streamsByInitialId.get(entry.streamId);
+
+            if (stream != null)
             {
-            case ERROR_NONE:
-                encoder = encodeSaslAuthenticateRequest;
-                decoder = decodeSaslAuthenticateResponse;
-                break;
-            default:
-                cleanupConnection(traceId);
-                break;
+                stream.onStreamResponseFailed(traceId);
             }
+
+            return true;
         }
+    }
 
-        @Override
-        protected void onDecodeSaslAuthenticateResponse(
-            long traceId,
-            long authorization,
-            int errorCode)
+    private static final class KafkaFetchEntry
+    {
+        private final long streamId;
+        private final String topic;
+        private final int partitionId;
+        private final long fetchOffset;
+        private final long logStartOffset;
+        private final int maxBytes;
+
+        private boolean responded;
+        private boolean delivered;
+        private KafkaFetchPartition partition;
+
+        private KafkaFetchEntry(
+            long streamId,
+            String topic,
+            int partitionId,
+            long fetchOffset,
+            long logStartOffset,
+            int maxBytes)
         {
-            switch (errorCode)
-            {
-            case ERROR_NONE:
-                flushable = true;
-                doStreamWindow(traceId, initialMax);
-                break;
-            default:
-                cleanupConnection(traceId);
-                break;
-            }
+            this.streamId = streamId;
+            this.topic = topic;
+            this.partitionId = partitionId;
+            this.fetchOffset = fetchOffset;
+            this.logStartOffset = logStartOffset;
+            this.maxBytes = maxBytes;
         }
+    }
 
-        @Override
-        protected void onDecodeSaslResponse(
-            long traceId)
+    private static final class KafkaFetchPartition
+    {
+        private final int partitionId;
+
+        private long streamId;
+        private long fetchOffset;
+        private long logStartOffset;
+        private int maxBytes;
+        private boolean changed;
+        private boolean forgotten;
+
+        private boolean cached;
+        private long highWatermark;
+        private long lastStableOffset;
+        private long leaderLogStartOffset;
+
+        private KafkaFetchPartition(
+            int partitionId)
         {
-            nextResponseId++;
-            signaler.delegate.signalNow(originId, routedId, initialId, traceId, SIGNAL_NEXT_REQUEST, 0);
+            this.partitionId = partitionId;
+            this.changed = true;
         }
+    }
 
-        @Override
-        protected void doDecodeSaslHandshakeResponse(
-            long traceId)
+    private final class KafkaProduceBatch extends KafkaResponseBatch
+    {
+        private final Map<String, List<KafkaProduceEntry>> entries;
+
+        private int correlationId;
+        private int throttleTimeMillis;
+
+        private KafkaProduceBatch(
+            KafkaClientConnection connection,
+            long batchId,
+            Map<String, List<KafkaProduceEntry>> entries)
         {
-            decoder = decodeSaslHandshakeResponse;
+            super(connection, batchId);
+            this.entries = entries;
         }
 
         @Override
-        protected void doDecodeSaslAuthenticateResponse(
+        protected void onResponseEnd(
             long traceId)
         {
-            decoder = decodeSaslAuthenticateResponse;
+            received = true;
+
+            if (overflow || !decodeResponse())
+            {
+                connection.produceCoalescing = false;
+                entries.values().forEach(es -> es.forEach(e -> onEntryFailed(traceId, e)));
+                cleanup();
+                delivered = true;
+            }
+            else
+            {
+                flush(traceId);
+
+                if (!delivered)
+                {
+                    connection.deliveries.add(this);
+                }
+            }
         }
 
-        @Override
-        protected void doDecodeSaslAuthenticate(
-            long traceId)
+        private boolean decodeResponse()
         {
-            decoder = decodeSaslAuthenticate;
+            final DirectBuffer buffer = decodePool.buffer(slot);
+            final int limit = slotLimit;
+
+            final ResponseHeaderFW responseHeader = responseHeaderRO.tryWrap(buffer, 0, limit);
+            final ProduceResponseFW produceResponse = responseHeader != null
+                ? produceResponseRO.tryWrap(buffer, responseHeader.limit(), limit)
+                : null;
+
+            boolean decoded = produceResponse != null;
+
+            if (decoded)
+            {
+                correlationId = produceResponse.correlationId();
+                int progress = produceResponse.limit();
+
+                for (int topicIndex = 0; decoded && topicIndex < produceResponse.topicCount(); topicIndex++)
+                {
+                    final ProduceTopicResponseFW topicResponse = produceTopicResponseRO.tryWrap(buffer, progress, limit);
+                    decoded = topicResponse != null;
+
+                    if (decoded)
+                    {
+                        final List<KafkaProduceEntry> topicEntries = entries.get(topicResponse.topic().asString());
+                        progress = topicResponse.limit();
+
+                        for (int partitionIndex = 0;
+                             decoded && partitionIndex < topicResponse.partitionCount();
+                             partitionIndex++)
+                        {
+                            final ProducePartitionResponseFW partitionResponse =
+                                producePartitionResponseRO.tryWrap(buffer, progress, limit);
+                            decoded = partitionResponse != null;
+
+                            if (decoded)
+                            {
+                                final KafkaProduceEntry entry =
+                                    findProduceEntry(topicEntries, partitionResponse.partitionId());
+                                if (entry != null)
+                                {
+                                    entry.responseOffset = partitionResponse.offset();
+                                    entry.responseLimit = partitionResponse.limit();
+                                }
+
+                                progress = partitionResponse.limit();
+                            }
+                        }
+                    }
+                }
+
+                final ProduceResponseTrailerFW trailer = decoded
+                    ? produceResponseTrailerRO.tryWrap(buffer, progress, limit)
+                    : null;
+                decoded = trailer != null;
+
+                if (decoded)
+                {
+                    throttleTimeMillis = trailer.throttleTimeMillis();
+                }
+            }
+
+            return decoded;
         }
 
         @Override
-        protected void doDecodeSaslHandshake(
+        protected void flush(
             long traceId)
         {
-            decoder = decodeSaslHandshake;
+            boolean flushed = true;
+
+            for (List<KafkaProduceEntry> topicEntries : entries.values())
+            {
+                for (int index = 0; index < topicEntries.size(); index++)
+                {
+                    final KafkaProduceEntry entry = topicEntries.get(index);
+
+                    if (!entry.delivered)
+                    {
+                        entry.delivered = entry.responseLimit == 0
+                            ? onEntryFailed(traceId, entry)
+                            : onEntryResponse(traceId, entry);
+                        flushed &= entry.delivered;
+                    }
+                }
+            }
+
+            if (flushed)
+            {
+                cleanup();
+                delivered = true;
+
+                if (acknowledged)
+                {
+                    connection.batches.remove(batchId);
+                }
+            }
         }
 
-        @Override
-        protected void doDecodeSaslHandshakeMechanisms(
-            long traceId)
+        private boolean onEntryResponse(
+            long traceId,
+            KafkaProduceEntry entry)
         {
-            decoder = decodeSaslHandshakeMechanisms;
+            final KafkaClientStream stream = streamsByInitialId.get(entry.streamId);
+
+            boolean delivered = true;
+
+            if (stream != null)
+            {
+                final MutableDirectBuffer produceBuffer = KafkaClientConnectionPool.this.batchBuffer;
+                final int produceLimit = produceBuffer.capacity();
+
+                final ResponseHeaderFW responseHeader = responseHeaderRW.wrap(produceBuffer, 0, produceLimit)
+                    .length(0)
+                    .build();
+
+                final ProduceResponseFW produceResponse = produceResponseRW
+                    .wrap(produceBuffer, responseHeader.limit(), produceLimit)
+                    .correlationId(correlationId)
+                    .topicCount(1)
+                    .build();
+
+                final ProduceTopicResponseFW topicResponse = produceTopicResponseRW
+                    .wrap(produceBuffer, produceResponse.limit(), produceLimit)
+                    .topic(entry.topic)
+                    .partitionCount(1)
+                    .build();
+
+                int length = topicResponse.limit();
+
+                final int partitionBytes = entry.responseLimit - entry.responseOffset;
+                produceBuffer.putBytes(length, decodePool.buffer(slot), entry.responseOffset, partitionBytes);
+                length += partitionBytes;
+
+                final ProduceResponseTrailerFW trailer = produceResponseTrailerRW.wrap(produceBuffer, length, produceLimit)
+                    .throttleTimeMillis(throttleTimeMillis)
+                    .build();
+
+                length = trailer.limit();
+
+                responseHeaderRW.wrap(produceBuffer, 0, responseHeader.limit())
+                    .length(length - KAFKA_FRAME_LENGTH_FIELD_OFFSET)
+                    .build();
+
+                delivered = stream.doStreamResponse(traceId, produceBuffer, 0, length);
+            }
+
+            return delivered;
         }
 
-        @Override
-        protected void doDecodeSaslHandshakeMechansim(
-            long traceId)
+        private boolean onEntryFailed(
+            long traceId,
+            KafkaProduceEntry entry)
         {
-            decoder = decodeSaslHandshakeMechanism;
+            final KafkaClientStream stream = streamsByInitialId.get(entry.streamId);
+
+            if (stream != null)
+            {
+                stream.onStreamResponseFailed(traceId);
+            }
+
+            return true;
+        }
+    }
+
+    private static final class KafkaProduceEntry
+    {
+        private final long streamId;
+        private final String topic;
+        private final int partitionId;
+        private final int requestOffset;
+        private final int requestLength;
+
+        private int responseOffset;
+        private int responseLimit;
+        private boolean delivered;
+
+        private KafkaProduceEntry(
+            long streamId,
+            String topic,
+            int partitionId,
+            int requestOffset,
+            int requestLength)
+        {
+            this.streamId = streamId;
+            this.topic = topic;
+            this.partitionId = partitionId;
+            this.requestOffset = requestOffset;
+            this.requestLength = requestLength;
         }
     }
 }
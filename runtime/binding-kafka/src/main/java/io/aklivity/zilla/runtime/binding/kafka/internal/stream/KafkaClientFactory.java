@@ -79,11 +79,23 @@ public final class KafkaClientFactory implements KafkaStreamFactory
             config, context, bindings::get, accountant::supplyDebitor, signaler, streamFactory,
             resolveSasl, supplyClientRoute);
 
+        // meta, describe, group and offset streams always use the pool, coalescing also routes fetch and produce through it
+        final boolean fetchPooled = config.clientConnectionPool() && config.clientFetchCoalesce();
+
         final KafkaClientFetchFactory clientFetchFactory = new KafkaClientFetchFactory(
-                config, context, bindings::get, accountant::supplyDebitor, supplyClientRoute);
+                config, context, bindings::get, accountant::supplyDebitor, supplyClientRoute,
+                fetchPooled ? signaler : context.signaler(),
+                fetchPooled ? connectionPool.fetchStreamFactory() : context.streamFactory(),
+                fetchPooled ? resolveSasl : UnaryOperator.identity(),
+                connectionPool);
+
+        final boolean producePooled = config.clientConnectionPool() && config.clientProduceCoalesce();
 
         final KafkaClientProduceFactory clientProduceFactory = new KafkaClientProduceFactory(
-                config, context, bindings::get, supplyClientRoute);
+                config, context, bindings::get, supplyClientRoute,
+                producePooled ? signaler : context.signaler(),
+                producePooled ? streamFactory : context.streamFactory(),
+                producePooled ? resolveSasl : UnaryOperator.identity());
 
         final KafkaClientOffsetFetchFactory clientOffsetFetchFactory = new KafkaClientOffsetFetchFactory(
             config, context, bindings::get, accountant::supplyDebitor, signaler, streamFactory, resolveSasl);
@@ -23,10 +23,15 @@ import static java.util.Objects.requireNonNull;
 
 import java.util.function.Consumer;
 import java.util.function.LongFunction;
+import java.util.function.UnaryOperator;
 
 import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.Int2IntHashMap;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntArrayList;
+import org.agrona.collections.IntHashSet;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.collections.LongLongConsumer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -52,8 +57,14 @@ import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.Contro
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.ControlRecordKeyType;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.FetchRequestFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.FetchResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.FetchSessionRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.FetchSessionResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.ForgottenTopicsRequestFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.PartitionRackRequestFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.PartitionRequestFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.PartitionResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.PreferredReplicaResponseFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.RackRequestFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.TopicRequestFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.TopicResponseFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.fetch.TransactionResponseFW;
@@ -97,6 +108,8 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
     private static final int ERROR_NONE = 0;
     private static final int ERROR_OFFSET_OUT_OF_RANGE = 1;
     private static final int ERROR_NOT_LEADER_FOR_PARTITION = 6;
+    private static final int ERROR_REPLICA_NOT_AVAILABLE = 9;
+    private static final int ERROR_OFFSET_NOT_AVAILABLE = 78;
 
     private static final int FLAG_CONT = 0x00;
     private static final int FLAG_FIN = 0x01;
@@ -108,7 +121,7 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
 
     private static final int SIGNAL_NEXT_REQUEST = 1;
 
-    private static final DirectBuffer EMPTY_BUFFER = new UnsafeBuffer();
+    private static final MutableDirectBuffer EMPTY_BUFFER = new UnsafeBuffer();
     private static final OctetsFW EMPTY_OCTETS = new OctetsFW().wrap(EMPTY_BUFFER, 0, 0);
     private static final Consumer<OctetsFW.Builder> EMPTY_EXTENSION = ex -> {};
 
@@ -117,6 +130,12 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
 
     private static final short FETCH_API_KEY = 1;
     private static final short FETCH_API_VERSION = 5;
+    private static final short FETCH_RACK_API_VERSION = 11;
+
+    private static final short API_VERSION_NONE = -1;
+
+    private static final int FETCH_SESSION_ID_NONE = 0;
+    private static final int FETCH_SESSION_EPOCH_FINAL = -1;
 
     private final BeginFW beginRO = new BeginFW();
     private final DataFW dataRO = new DataFW();
@@ -148,15 +167,21 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
     private final FetchRequestFW.Builder fetchRequestRW = new FetchRequestFW.Builder();
     private final TopicRequestFW.Builder fetchTopicRequestRW = new TopicRequestFW.Builder();
     private final PartitionRequestFW.Builder fetchPartitionRequestRW = new PartitionRequestFW.Builder();
+    private final FetchSessionRequestFW.Builder fetchSessionRequestRW = new FetchSessionRequestFW.Builder();
+    private final PartitionRackRequestFW.Builder fetchPartitionRackRequestRW = new PartitionRackRequestFW.Builder();
+    private final ForgottenTopicsRequestFW.Builder forgottenTopicsRequestRW = new ForgottenTopicsRequestFW.Builder();
+    private final RackRequestFW.Builder rackRequestRW = new RackRequestFW.Builder();
 
     private final ResponseHeaderFW responseHeaderRO = new ResponseHeaderFW();
     private final OffsetsResponseFW offsetsResponseRO = new OffsetsResponseFW();
     private final OffsetsTopicResponseFW offsetsTopicResponseRO = new OffsetsTopicResponseFW();
     private final OffsetsPartitionResponseFW offsetsPartitionResponseRO = new OffsetsPartitionResponseFW();
     private final FetchResponseFW fetchResponseRO = new FetchResponseFW();
+    private final FetchSessionResponseFW fetchSessionResponseRO = new FetchSessionResponseFW();
     private final TopicResponseFW topicResponseRO = new TopicResponseFW();
     private final PartitionResponseFW partitionResponseRO = new PartitionResponseFW();
     private final TransactionResponseFW transactionResponseRO = new TransactionResponseFW();
+    private final PreferredReplicaResponseFW preferredReplicaResponseRO = new PreferredReplicaResponseFW();
     private final RecordSetFW recordSetRO = new RecordSetFW();
     private final RecordBatchFW recordBatchRO = new RecordBatchFW();
     private final Varint32FW recordLengthRO = new Varint32FW();
@@ -181,11 +206,15 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
     private final KafkaFetchClientDecoder decodeOffsetsPartition = this::decodeOffsetsPartition;
     private final KafkaFetchClientDecoder decodeFetchResponse = this::decodeFetchResponse;
     private final KafkaFetchClientDecoder decodeFetch = this::decodeFetch;
+    private final KafkaFetchClientDecoder decodeFetchRack = this::decodeFetchRack;
     private final KafkaFetchClientDecoder decodeFetchTopic = this::decodeFetchTopic;
     private final KafkaFetchClientDecoder decodeFetchPartition = this::decodeFetchPartition;
     private final KafkaFetchClientDecoder decodeFetchTransaction = this::decodeFetchTransaction;
+    private final KafkaFetchClientDecoder decodeFetchPreferredReplica = this::decodeFetchPreferredReplica;
     private final KafkaFetchClientDecoder decodeFetchRecordSet = this::decodeFetchRecordSet;
     private final KafkaFetchClientDecoder decodeFetchRecordBatch = this::decodeFetchRecordBatch;
+    private final KafkaFetchClientDecoder decodeFetchRecordBatchCompressed = this::decodeFetchRecordBatchCompressed;
+    private final KafkaFetchClientDecoder decodeFetchRecordBatchCompressedLarge = this::decodeFetchRecordBatchCompressedLarge;
     private final KafkaFetchClientDecoder decodeFetchRecordLength = this::decodeFetchRecordLength;
     private final KafkaFetchClientDecoder decodeFetchRecord = this::decodeFetchRecord;
     private final KafkaFetchClientDecoder decodeFetchRecordInit = this::decodeFetchRecordInit;
@@ -199,6 +228,7 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
     private final int fetchMaxBytes;
     private final int fetchMaxWaitMillis;
     private final int partitionMaxBytes;
+    private final String clientRack;
     private final int kafkaTypeId;
     private final int proxyTypeId;
     private final MutableDirectBuffer extBuffer;
@@ -206,35 +236,48 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
     private final BufferPool encodePool;
     private final Signaler signaler;
     private final BindingHandler streamFactory;
+    private final UnaryOperator<KafkaSaslConfig> resolveSasl;
+    private final KafkaClientConnectionPool connectionPool;
     private final LongFunction<MessageConsumer> supplyReceiver;
     private final LongFunction<KafkaBindingConfig> supplyBinding;
     private final LongFunction<BudgetDebitor> supplyDebitor;
     private final LongFunction<KafkaClientRoute> supplyClientRoute;
     private final int decodeMaxBytes;
+    private final KafkaCompressionCodec compressionCodec;
+    private final ExpandableArrayBuffer decompressBuffer;
 
     public KafkaClientFetchFactory(
         KafkaConfiguration config,
         EngineContext context,
         LongFunction<KafkaBindingConfig> supplyBinding,
         LongFunction<BudgetDebitor> supplyDebitor,
-        LongFunction<KafkaClientRoute> supplyClientRoute)
+        LongFunction<KafkaClientRoute> supplyClientRoute,
+        Signaler signaler,
+        BindingHandler streamFactory,
+        UnaryOperator<KafkaSaslConfig> resolveSasl,
+        KafkaClientConnectionPool connectionPool)
     {
         super(config, context);
         this.fetchMaxBytes = config.clientFetchMaxBytes();
         this.fetchMaxWaitMillis = config.clientFetchMaxWaitMillis();
         this.partitionMaxBytes = config.clientFetchPartitionMaxBytes();
+        this.clientRack = config.clientRack();
         this.kafkaTypeId = context.supplyTypeId(KafkaBinding.NAME);
         this.proxyTypeId = context.supplyTypeId("proxy");
-        this.signaler = context.signaler();
+        this.signaler = signaler;
         this.extBuffer = new UnsafeBuffer(new byte[context.writeBuffer().capacity()]);
         this.decodePool = context.bufferPool();
         this.encodePool = context.bufferPool();
-        this.streamFactory = context.streamFactory();
+        this.streamFactory = streamFactory;
+        this.resolveSasl = resolveSasl;
+        this.connectionPool = connectionPool;
         this.supplyReceiver = context::supplyReceiver;
         this.supplyBinding = supplyBinding;
         this.supplyDebitor = supplyDebitor;
         this.supplyClientRoute = supplyClientRoute;
         this.decodeMaxBytes = decodePool.slotCapacity();
+        this.compressionCodec = new KafkaCompressionCodec();
+        this.decompressBuffer = new ExpandableArrayBuffer();
     }
 
     @Override
@@ -276,7 +319,7 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                 final long initialOffset = partition.partitionOffset();
                 final long latestOffset = partition.latestOffset();
                 final KafkaIsolation isolation = kafkaFetchBeginEx.isolation().get();
-                final KafkaSaslConfig sasl = binding.sasl();
+                final KafkaSaslConfig sasl = resolveSasl.apply(binding.sasl());
 
                 newStream = new KafkaFetchStream(
                     application,
@@ -794,7 +837,7 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
             {
                 progress = responseHeader.limit();
                 client.decodableResponseBytes = responseHeader.length();
-                client.decoder = decodeFetch;
+                client.decoder = client.isFollower() ? decodeFetchRack : decodeFetch;
             }
         }
 
@@ -832,6 +875,50 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
         return progress;
     }
 
+    private int decodeFetchRack(
+        KafkaFetchStream.KafkaFetchClient client,
+        long traceId,
+        long authorization,
+        long budgetId,
+        int reserved,
+        DirectBuffer buffer,
+        int offset,
+        int progress,
+        int limit)
+    {
+        final int length = limit - progress;
+
+        decode:
+        if (length != 0)
+        {
+            final FetchSessionResponseFW fetchResponse = fetchSessionResponseRO.tryWrap(buffer, progress, limit);
+
+            if (fetchResponse == null)
+            {
+                break decode;
+            }
+
+            final int errorCode = fetchResponse.errorCode();
+
+            progress = fetchResponse.limit();
+
+            client.decodableTopics = fetchResponse.topicCount();
+            client.decodableResponseBytes -= fetchResponse.sizeof();
+            assert client.decodableResponseBytes >= 0;
+
+            if (errorCode != ERROR_NONE)
+            {
+                client.onDecodeFetchReplicaError(traceId, authorization, errorCode);
+                client.decoder = decodeIgnoreAll;
+                break decode;
+            }
+
+            client.decoder = decodeFetchTopic;
+        }
+
+        return progress;
+    }
+
     private int decodeFetchTopic(
         KafkaFetchStream.KafkaFetchClient client,
         long traceId,
@@ -941,7 +1028,7 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
         decode:
         if (client.decodableTransactions <= 0)
         {
-            client.decoder = decodeFetchRecordSet;
+            client.decoder = client.isFollower() ? decodeFetchPreferredReplica : decodeFetchRecordSet;
             break decode;
         }
         else if (length != 0)
@@ -966,6 +1053,35 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
         return progress;
     }
 
+    private int decodeFetchPreferredReplica(
+        KafkaFetchStream.KafkaFetchClient client,
+        long traceId,
+        long authorization,
+        long budgetId,
+        int reserved,
+        DirectBuffer buffer,
+        int offset,
+        int progress,
+        int limit)
+    {
+        final int length = limit - progress;
+
+        if (length != 0)
+        {
+            final PreferredReplicaResponseFW preferredReplica = preferredReplicaResponseRO.tryWrap(buffer, progress, limit);
+            if (preferredReplica != null)
+            {
+                progress = preferredReplica.limit();
+
+                client.decodableResponseBytes -= preferredReplica.sizeof();
+                assert client.decodableResponseBytes >= 0;
+                client.decoder = decodeFetchRecordSet;
+            }
+        }
+
+        return progress;
+    }
+
     private int decodeFetchRecordSet(
         KafkaFetchStream.KafkaFetchClient client,
         long traceId,
@@ -1078,6 +1194,8 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                 client.decodeRecordBatchAborted = client.decodeAbortedTransactions.get(baseOffset) == producerId;
                 client.decodeRecordBatchAttributes = attributes;
                 client.decodableRecords = recordBatch.recordCount();
+                client.decompressedRecordsLimit = -1;
+                client.compressedRecordsLimit = 0;
 
                 client.decodableResponseBytes -= recordSetProgress;
                 assert client.decodableResponseBytes >= 0;
@@ -1094,12 +1212,22 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                 client.decodableRecordBatchBytes -= recordBatchProgress;
                 assert client.decodableRecordBatchBytes >= 0;
 
-                if (isCompressedBatch(attributes) || isControlBatch(attributes) && !isTransactionalBatch(attributes))
+                if (isControlBatch(attributes) && !isTransactionalBatch(attributes))
                 {
                     client.decoder = decodeIgnoreRecordBatch;
                     break decode;
                 }
 
+                if (isCompressedBatch(attributes))
+                {
+                    client.decoder = client.decodableRecordBatchBytes > client.decodableRecordSetBytes
+                        ? decodeIgnoreRecordBatch
+                        : client.decodableRecordBatchBytes <= decodeMaxBytes
+                            ? decodeFetchRecordBatchCompressed
+                            : decodeFetchRecordBatchCompressedLarge;
+                    break decode;
+                }
+
                 client.decoder = decodeFetchRecordLength;
             }
         }
@@ -1107,6 +1235,291 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
         return progress;
     }
 
+    private int decodeFetchRecordBatchCompressed(
+        KafkaFetchStream.KafkaFetchClient client,
+        long traceId,
+        long authorization,
+        long budgetId,
+        int reserved,
+        DirectBuffer buffer,
+        int offset,
+        int progress,
+        int limit)
+    {
+        final int length = limit - progress;
+        final int recordsSize = client.decodableRecordBatchBytes;
+
+        decode:
+        if (length >= recordsSize)
+        {
+            DirectBuffer records = client.decompressedRecords;
+            int recordsLimit = client.decompressedRecordsLimit;
+
+            if (recordsLimit == -1)
+            {
+                final int compression = client.decodeRecordBatchAttributes & KafkaCompressionCodec.COMPRESSION_MASK;
+                recordsLimit = compressionCodec.decompress(compression, buffer, progress, recordsSize, decompressBuffer,
+                    fetchMaxBytes);
+                records = decompressBuffer;
+
+                if (KafkaConfiguration.DEBUG)
+                {
+                    System.out.format("[client] [0x%016x] %s[%d] FETCH RecordBatch compressed %d %d %d\n",
+                        client.replyId, client.topic, client.partitionId, compression, recordsSize, recordsLimit);
+                }
+
+                if (recordsLimit == -1)
+                {
+                    client.onDecodeFetchRecordBatchCorrupt(traceId, authorization);
+                    client.decoder = decodeIgnoreRecordBatch;
+                    break decode;
+                }
+
+                client.decompressedRecordsProgress = 0;
+                client.decompressedRecord = 0;
+                client.decompressedRecordValueProgress = 0;
+            }
+
+            if (!decodeFetchRecordsDecompressed(client, traceId, records, recordsLimit))
+            {
+                break decode;
+            }
+
+            client.decompressedRecordsLimit = -1;
+
+            progress += recordsSize;
+
+            client.nextOffset = Math.max(client.nextOffset, client.decodeRecordBatchLastOffset + 1);
+
+            client.decodableResponseBytes -= recordsSize;
+            assert client.decodableResponseBytes >= 0;
+
+            client.decodableRecordSetBytes -= recordsSize;
+            assert client.decodableRecordSetBytes >= 0;
+
+            client.decodableRecordBatchBytes = 0;
+            client.decodableRecords = 0;
+
+            client.decoder = decodeFetchRecordBatch;
+        }
+
+        return progress;
+    }
+
+    private int decodeFetchRecordBatchCompressedLarge(
+        KafkaFetchStream.KafkaFetchClient client,
+        long traceId,
+        long authorization,
+        long budgetId,
+        int reserved,
+        DirectBuffer buffer,
+        int offset,
+        int progress,
+        int limit)
+    {
+        final int length = Math.min(limit - progress, client.decodableRecordBatchBytes);
+
+        if (length != 0)
+        {
+            client.retainCompressedRecords(buffer, progress, length);
+
+            progress += length;
+
+            client.decodableResponseBytes -= length;
+            assert client.decodableResponseBytes >= 0;
+
+            client.decodableRecordSetBytes -= length;
+            assert client.decodableRecordSetBytes >= 0;
+
+            client.decodableRecordBatchBytes -= length;
+            assert client.decodableRecordBatchBytes >= 0;
+        }
+
+        decode:
+        if (client.decodableRecordBatchBytes == 0)
+        {
+            DirectBuffer records = client.decompressedRecords;
+            int recordsLimit = client.decompressedRecordsLimit;
+
+            if (recordsLimit == -1)
+            {
+                final int compression = client.decodeRecordBatchAttributes & KafkaCompressionCodec.COMPRESSION_MASK;
+                final int recordsSize = client.compressedRecordsLimit;
+                recordsLimit = compressionCodec.decompress(compression, client.compressedRecords, 0, recordsSize,
+                    decompressBuffer, fetchMaxBytes);
+                records = decompressBuffer;
+
+                if (KafkaConfiguration.DEBUG)
+                {
+                    System.out.format("[client] [0x%016x] %s[%d] FETCH RecordBatch compressed %d %d %d\n",
+                        client.replyId, client.topic, client.partitionId, compression, recordsSize, recordsLimit);
+                }
+
+                client.compressedRecordsLimit = 0;
+
+                if (recordsLimit == -1)
+                {
+                    client.onDecodeFetchRecordBatchCorrupt(traceId, authorization);
+                    client.decodableRecords = 0;
+                    client.decoder = decodeFetchRecordBatch;
+                    break decode;
+                }
+
+                client.decompressedRecordsProgress = 0;
+                client.decompressedRecord = 0;
+                client.decompressedRecordValueProgress = 0;
+            }
+
+            if (!decodeFetchRecordsDecompressed(client, traceId, records, recordsLimit))
+            {
+                break decode;
+            }
+
+            client.decompressedRecordsLimit = -1;
+
+            client.nextOffset = Math.max(client.nextOffset, client.decodeRecordBatchLastOffset + 1);
+
+            client.decodableRecords = 0;
+
+            client.decoder = decodeFetchRecordBatch;
+        }
+
+        return progress;
+    }
+
+    private boolean decodeFetchRecordsDecompressed(
+        KafkaFetchStream.KafkaFetchClient client,
+        long traceId,
+        DirectBuffer records,
+        int recordsLimit)
+    {
+        int recordProgress = client.decompressedRecordsProgress;
+        boolean suspended = false;
+
+        for (int record = client.decompressedRecord; record < client.decodableRecords; record++)
+        {
+            final RecordHeaderFW recordHeader = recordHeaderRO.tryWrap(records, recordProgress, recordsLimit);
+            if (recordHeader == null)
+            {
+                break;
+            }
+
+            final Varint32FW recordLength = recordLengthRO.wrap(records, recordProgress, recordsLimit);
+            final int sizeofRecord = recordLength.sizeof() + recordLength.value();
+            final int recordLimit = recordHeader.offset() + sizeofRecord;
+
+            if (recordLimit > recordsLimit)
+            {
+                break;
+            }
+
+            final long offsetAbs = client.decodeRecordBatchOffset + recordHeader.offsetDelta();
+
+            if (offsetAbs >= client.nextOffset)
+            {
+                final long timestampAbs = client.decodeRecordBatchTimestamp + recordHeader.timestampDelta();
+                final int valueLength = recordHeader.valueLength();
+                final int valueOffset = recordHeader.limit();
+                final int valueSize = Math.max(valueLength, 0);
+
+                final int trailerOffset = valueOffset + valueSize;
+                final RecordTrailerFW recordTrailer = recordTrailerRO.wrap(records, trailerOffset, recordLimit);
+                final int headerCount = recordTrailer.headerCount();
+                final int headersOffset = recordTrailer.limit();
+                final int headersLength = recordLimit - headersOffset;
+                final DirectBuffer headers = wrapHeaders(records, headersOffset, headersLength);
+
+                // fragment values that exceed a decode slot, consistent with uncompressed record values
+                final int valueFragmentMax = Math.max(decodeMaxBytes - (sizeofRecord - valueSize), 1);
+                int valueProgress = client.decompressedRecordValueProgress;
+
+                if (valueProgress == 0 && valueSize <= valueFragmentMax)
+                {
+                    final int valueReserved = valueSize + client.stream.replyPad;
+
+                    if (valueReserved > client.stream.replyBudget())
+                    {
+                        suspended = true;
+                    }
+                    else if (valueReserved != 0 && client.stream.replyDebIndex != NO_DEBITOR_INDEX)
+                    {
+                        final int valueClaimed = client.stream.replyDeb.claim(traceId, client.stream.replyDebIndex,
+                                client.stream.replyId, valueReserved, valueReserved, 0);
+
+                        suspended = valueClaimed == 0;
+                    }
+
+                    if (!suspended)
+                    {
+                        final OctetsFW value =
+                                valueLength != -1 ? valueRO.wrap(records, valueOffset, valueOffset + valueLength) : null;
+
+                        client.onDecodeFetchRecord(traceId, client.decodeRecordBatchAborted, valueReserved, offsetAbs,
+                                timestampAbs, client.decodeRecordBatchProducerId, recordHeader.key(), value, headerCount,
+                                headers);
+                    }
+                }
+                else
+                {
+                    while (valueProgress < valueSize)
+                    {
+                        final int valueFragmentSize = Math.min(valueSize - valueProgress, valueFragmentMax);
+                        final int valueReservedMax = Math.min(valueFragmentSize + client.stream.replyPad,
+                                client.stream.replyBudget());
+
+                        int valueClaimed = valueReservedMax > client.stream.replyPad ? valueReservedMax : 0;
+                        if (valueClaimed != 0 && client.stream.replyDebIndex != NO_DEBITOR_INDEX)
+                        {
+                            final int minimum = Math.min(valueReservedMax, 1024);
+                            valueClaimed = client.stream.replyDeb.claim(traceId, client.stream.replyDebIndex,
+                                    client.stream.replyId, minimum, valueReservedMax, 0);
+                        }
+
+                        if (valueClaimed <= client.stream.replyPad)
+                        {
+                            suspended = true;
+                            break;
+                        }
+
+                        final int valueFragmentOffset = valueOffset + valueProgress;
+                        final int valueFragmentLimit = valueFragmentOffset + valueClaimed - client.stream.replyPad;
+                        final OctetsFW valueFragment = valueRO.wrap(records, valueFragmentOffset, valueFragmentLimit);
+
+                        if (valueProgress == 0)
+                        {
+                            client.onDecodeFetchRecordValueInit(traceId, client.decodeRecordBatchAborted, valueClaimed,
+                                    valueLength - valueFragment.sizeof(), offsetAbs, timestampAbs, headersLength + 3,
+                                    client.decodeRecordBatchProducerId, recordHeader.key(), valueFragment);
+                        }
+                        else if (valueFragmentLimit < trailerOffset)
+                        {
+                            client.onDecodeFetchRecordValueCont(traceId, valueClaimed, valueFragment);
+                        }
+                        else
+                        {
+                            client.onDecodeFetchRecordValueFin(traceId, valueClaimed, offsetAbs, valueFragment,
+                                    headerCount, headers);
+                        }
+
+                        valueProgress += valueFragment.sizeof();
+                    }
+                }
+
+                if (suspended)
+                {
+                    client.retainDecompressedRecords(records, recordsLimit, recordProgress, record, valueProgress);
+                    break;
+                }
+
+                client.decompressedRecordValueProgress = 0;
+            }
+
+            recordProgress = recordLimit;
+        }
+
+        return !suspended;
+    }
+
     private int decodeFetchRecordLength(
         KafkaFetchStream.KafkaFetchClient client,
         long traceId,
@@ -1817,7 +2230,8 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
             }
             else
             {
-                client.doNetworkBegin(traceId, authorization, leaderId);
+                client.replicaId = client.resolveReplicaId();
+                client.doNetworkBegin(traceId, authorization, client.replicaId);
             }
         }
 
@@ -2152,9 +2566,13 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
             private final KafkaFetchStream stream;
             private final String topic;
             private final Int2IntHashMap topicPartitions;
+            private final Int2ObjectHashMap<IntArrayList> topicReplicas;
+            private final IntHashSet topicLeaders;
             private final int partitionId;
             private final KafkaIsolation isolation;
 
+            private long replicaId;
+
             private long nextOffset;
             private long stableOffset;
             private long latestOffset;
@@ -2200,6 +2618,13 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
             private boolean decodeRecordBatchAborted;
             private int decodeRecordBatchAttributes;
             private int decodableRecords;
+            private ExpandableArrayBuffer decompressedRecords;
+            private int decompressedRecordsLimit = -1;
+            private int decompressedRecordsProgress;
+            private int decompressedRecord;
+            private int decompressedRecordValueProgress;
+            private ExpandableArrayBuffer compressedRecords;
+            private int compressedRecordsLimit;
             private long decodeRecordOffset;
             private int decodableRecordBytes;
             private int decodableRecordValueBytes;
@@ -2223,7 +2648,10 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                 this.stream = KafkaFetchStream.this;
                 this.topic = requireNonNull(topic);
                 this.topicPartitions = clientRoute.supplyPartitions(topic);
+                this.topicReplicas = clientRoute.supplyReplicas(topic);
+                this.topicLeaders = clientRoute.supplyLeaders(topic);
                 this.partitionId = partitionId;
+                this.replicaId = leaderId;
                 this.nextOffset = initialOffset;
                 this.latestOffset = latestOffset;
                 this.isolation = isolation;
@@ -2346,13 +2774,15 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
             {
                 final long traceId = end.traceId();
 
+                doLeaderFetchIfFollowerClosed();
+
                 state = KafkaState.closingReply(state);
 
                 if (!isApplicationReplyOpen())
                 {
                     cleanupNetwork(traceId);
                 }
-                else if (decodeSlot == NO_SLOT)
+                else if (decodeSlot == NO_SLOT && decompressedRecordsLimit == -1)
                 {
                     doApplicationEnd(traceId);
                 }
@@ -2369,6 +2799,8 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                         replyId, topic, partitionId, networkBytesReceived);
                 }
 
+                doLeaderFetchIfFollowerClosed();
+
                 state = KafkaState.closedReply(state);
 
                 cleanupNetwork(traceId);
@@ -2385,6 +2817,8 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                         replyId, topic, partitionId, networkBytesReceived);
                 }
 
+                doLeaderFetchIfFollowerClosed();
+
                 state = KafkaState.closedInitial(state);
 
                 cleanupNetwork(traceId);
@@ -2696,6 +3130,20 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
             private void doEncodeFetchRequest(
                 long traceId,
                 long budgetId)
+            {
+                if (isFollower())
+                {
+                    doEncodeFetchRackRequest(traceId, budgetId);
+                }
+                else
+                {
+                    doEncodeFetchLeaderRequest(traceId, budgetId);
+                }
+            }
+
+            private void doEncodeFetchLeaderRequest(
+                long traceId,
+                long budgetId)
             {
                 final MutableDirectBuffer encodeBuffer = writeBuffer;
                 final int encodeOffset = DataFW.FIELD_OFFSET_PAYLOAD;
@@ -2760,6 +3208,89 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                 this.decoder = decodeFetchResponse;
             }
 
+            private void doEncodeFetchRackRequest(
+                long traceId,
+                long budgetId)
+            {
+                final MutableDirectBuffer encodeBuffer = writeBuffer;
+                final int encodeOffset = DataFW.FIELD_OFFSET_PAYLOAD;
+                final int encodeLimit = encodeBuffer.capacity();
+
+                int encodeProgress = encodeOffset;
+
+                final RequestHeaderFW requestHeader = requestHeaderRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                        .length(0)
+                        .apiKey(FETCH_API_KEY)
+                        .apiVersion(FETCH_RACK_API_VERSION)
+                        .correlationId(0)
+                        .clientId(clientId)
+                        .build();
+
+                encodeProgress = requestHeader.limit();
+
+                final FetchSessionRequestFW fetchRequest = fetchSessionRequestRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                        .maxWaitTimeMillis(!KafkaState.replyOpened(stream.state) ? 0 : fetchMaxWaitMillis)
+                        .minBytes(1)
+                        .maxBytes(fetchMaxBytes)
+                        .isolationLevel((byte) isolation.ordinal())
+                        .sessionId(FETCH_SESSION_ID_NONE)
+                        .sessionEpoch(FETCH_SESSION_EPOCH_FINAL)
+                        .topicCount(1)
+                        .build();
+
+                encodeProgress = fetchRequest.limit();
+
+                final TopicRequestFW topicRequest = fetchTopicRequestRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                        .name(topic)
+                        .partitionCount(1)
+                        .build();
+
+                encodeProgress = topicRequest.limit();
+
+                final PartitionRackRequestFW partitionRequest = fetchPartitionRackRequestRW
+                        .wrap(encodeBuffer, encodeProgress, encodeLimit)
+                        .partitionId(partitionId)
+                        .fetchOffset(nextOffset)
+                        .maxBytes(partitionMaxBytes)
+                        .build();
+
+                encodeProgress = partitionRequest.limit();
+
+                final ForgottenTopicsRequestFW forgottenTopics = forgottenTopicsRequestRW
+                        .wrap(encodeBuffer, encodeProgress, encodeLimit)
+                        .topicCount(0)
+                        .build();
+
+                encodeProgress = forgottenTopics.limit();
+
+                final RackRequestFW rackRequest = rackRequestRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
+                        .rackId(clientRack)
+                        .build();
+
+                encodeProgress = rackRequest.limit();
+
+                final int requestId = nextRequestId++;
+                final int requestSize = encodeProgress - encodeOffset - RequestHeaderFW.FIELD_OFFSET_API_KEY;
+
+                requestHeaderRW.wrap(encodeBuffer, requestHeader.offset(), requestHeader.limit())
+                        .length(requestSize)
+                        .apiKey(requestHeader.apiKey())
+                        .apiVersion(requestHeader.apiVersion())
+                        .correlationId(requestId)
+                        .clientId(requestHeader.clientId())
+                        .build();
+
+                if (KafkaConfiguration.DEBUG)
+                {
+                    System.out.format("[0x%016x] %s[%d] FETCH %d from replica %d\n", replyId, topic, partitionId, nextOffset,
+                            replicaId);
+                }
+
+                doNetworkData(traceId, budgetId, encodeBuffer, encodeOffset, encodeProgress);
+
+                this.decoder = decodeFetchResponse;
+            }
+
             private void encodeNetwork(
                 long traceId,
                 long authorization,
@@ -2827,6 +3358,11 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
 
                     decodeNetwork(traceId, authorization, budgetId, reserved, buffer, offset, limit);
                 }
+                else if (decompressedRecordsLimit != -1)
+                {
+                    // large compressed batch already consumed from network, resume delivery of retained records
+                    decodeNetwork(traceId, authorization, 0L, 0, EMPTY_BUFFER, 0, 0);
+                }
             }
 
             private void decodeNetwork(
@@ -2872,7 +3408,7 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                 {
                     cleanupDecodeSlotIfNecessary();
 
-                    if (KafkaState.replyClosing(state))
+                    if (KafkaState.replyClosing(state) && decompressedRecordsLimit == -1)
                     {
                         doApplicationEnd(traceId);
                     }
@@ -2954,39 +3490,141 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                 long authorization,
                 int partitionId,
                 int errorCode)
+            {
+                if (errorCode != ERROR_NONE && isFollower())
+                {
+                    onDecodeFetchReplicaError(traceId, authorization, errorCode);
+                }
+                else
+                {
+                    switch (errorCode)
+                    {
+                    case ERROR_NONE:
+                        assert partitionId == this.partitionId;
+                        doApplicationWindow(traceId, 0L, 0, 0, 0);
+                        doApplicationBeginIfNecessary(traceId, authorization, topic, partitionId,
+                                nextOffset, stableOffset, latestOffset, isolation);
+                        break;
+                    case ERROR_OFFSET_OUT_OF_RANGE:
+                        assert partitionId == this.partitionId;
+                        // TODO: recover at EARLIEST or LATEST ?
+                        nextOffset = OFFSET_HISTORICAL;
+                        client.encoder = client.encodeOffsetsRequest;
+                        doEncodeRequestIfNecessary(traceId, initialBudgetId);
+                        break;
+                    default:
+                        if (errorCode == ERROR_NOT_LEADER_FOR_PARTITION)
+                        {
+                            doMetaFlush(traceId, authorization);
+                        }
+
+                        cleanupApplication(traceId, errorCode);
+                        doNetworkEnd(traceId, authorization);
+                        break;
+                    }
+                }
+            }
+
+            private void onDecodeFetchReplicaError(
+                long traceId,
+                long authorization,
+                int errorCode)
             {
                 switch (errorCode)
                 {
-                case ERROR_NONE:
-                    assert partitionId == this.partitionId;
-                    doApplicationWindow(traceId, 0L, 0, 0, 0);
-                    doApplicationBeginIfNecessary(traceId, authorization, topic, partitionId,
-                            nextOffset, stableOffset, latestOffset, isolation);
-                    break;
                 case ERROR_OFFSET_OUT_OF_RANGE:
-                    assert partitionId == this.partitionId;
-                    // TODO: recover at EARLIEST or LATEST ?
-                    nextOffset = OFFSET_HISTORICAL;
-                    client.encoder = client.encodeOffsetsRequest;
-                    doEncodeRequestIfNecessary(traceId, initialBudgetId);
+                case ERROR_OFFSET_NOT_AVAILABLE:
+                    // follower is still catching up, retry at the leader which can also resolve offsets
+                    topicLeaders.add(partitionId);
                     break;
                 default:
+                    final IntArrayList inSyncReplicas = topicReplicas.get(partitionId);
+                    if (inSyncReplicas != null)
+                    {
+                        inSyncReplicas.removeInt((int) replicaId);
+                    }
+
                     if (errorCode == ERROR_NOT_LEADER_FOR_PARTITION)
                     {
-                        final long metaInitialId = clientRoute.metaInitialId;
-                        if (metaInitialId != 0L)
+                        doMetaFlush(traceId, authorization);
+                    }
+                    break;
+                }
+
+                cleanupApplication(traceId, ERROR_REPLICA_NOT_AVAILABLE);
+                doNetworkEnd(traceId, authorization);
+            }
+
+            private void doMetaFlush(
+                long traceId,
+                long authorization)
+            {
+                final long metaInitialId = clientRoute.metaInitialId;
+                if (metaInitialId != 0L)
+                {
+                    final MessageConsumer metaInitial = supplyReceiver.apply(metaInitialId);
+                    // TODO: improve coordination with meta stream
+                    doFlush(metaInitial, originId, routedId, metaInitialId, 0, 0, 0,
+                            traceId, authorization, 0, EMPTY_OCTETS);
+                }
+            }
+
+            private boolean isFollower()
+            {
+                return replicaId != leaderId;
+            }
+
+            private void doLeaderFetchIfFollowerClosed()
+            {
+                // a follower closing first, such as on an unsupported fetch version, sends the retry to the leader
+                if (isFollower() && !KafkaState.initialClosing(state))
+                {
+                    topicLeaders.add(partitionId);
+                }
+            }
+
+            private long resolveReplicaId()
+            {
+                long resolvedId = leaderId;
+
+                final KafkaBrokerInfo leader = clientRoute.brokers.get(leaderId);
+                final IntArrayList inSyncReplicas = topicReplicas.get(partitionId);
+
+                if (clientRack != null &&
+                    nextOffset != OFFSET_LIVE &&
+                    nextOffset != OFFSET_HISTORICAL &&
+                    leader != null &&
+                    !clientRack.equals(leader.rack) &&
+                    inSyncReplicas != null &&
+                    !topicLeaders.remove(partitionId))
+                {
+                    for (int index = 0; index < inSyncReplicas.size(); index++)
+                    {
+                        final int brokerId = inSyncReplicas.getInt(index);
+                        final KafkaBrokerInfo broker = clientRoute.brokers.get(brokerId);
+
+                        if (broker != null &&
+                            clientRack.equals(broker.rack) &&
+                            isRackFetchSupported(broker))
                         {
-                            final MessageConsumer metaInitial = supplyReceiver.apply(metaInitialId);
-                            // TODO: improve coordination with meta stream
-                            doFlush(metaInitial, originId, routedId, metaInitialId, 0, 0, 0,
-                                    traceId, authorization, 0, EMPTY_OCTETS);
+                            resolvedId = brokerId;
+                            break;
                         }
                     }
-
-                    cleanupApplication(traceId, errorCode);
-                    doNetworkEnd(traceId, authorization);
-                    break;
                 }
+
+                return resolvedId;
+            }
+
+            private boolean isRackFetchSupported(
+                KafkaBrokerInfo broker)
+            {
+                final short minVersion = connectionPool.minApiVersion(broker.host, broker.port, FETCH_API_KEY);
+                final short maxVersion = connectionPool.maxApiVersion(broker.host, broker.port, FETCH_API_KEY);
+
+                // no negotiated range yet tries the follower, a rejected fetch then falls back to the leader
+                return maxVersion == API_VERSION_NONE ||
+                    minVersion <= FETCH_RACK_API_VERSION && FETCH_RACK_API_VERSION <= maxVersion;
             }
 
             private void onDecodeFetchTransactionAbort(
@@ -3037,6 +3675,64 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
                 doApplicationFlush(traceId, authorization, 0, kafkaFlushEx);
             }
 
+            private void onDecodeFetchRecordBatchCorrupt(
+                long traceId,
+                long authorization)
+            {
+                // skip batch that cannot be decompressed, otherwise the same offset is fetched again forever
+                this.nextOffset = Math.max(nextOffset, decodeRecordBatchLastOffset + 1);
+
+                final KafkaFlushExFW kafkaFlushEx = kafkaFlushExRW.wrap(extBuffer, 0, extBuffer.capacity())
+                        .typeId(kafkaTypeId)
+                        .fetch(f -> f
+                            .partition(p -> p
+                                .partitionId(decodePartitionId)
+                                .partitionOffset(decodeRecordBatchLastOffset)
+                                .stableOffset(stableOffset)
+                                .latestOffset(latestOffset)))
+                        .build();
+
+                doApplicationFlush(traceId, authorization, 0, kafkaFlushEx);
+            }
+
+            private void retainCompressedRecords(
+                DirectBuffer buffer,
+                int index,
+                int length)
+            {
+                if (compressedRecords == null)
+                {
+                    compressedRecords = new ExpandableArrayBuffer(decodableRecordBatchBytes);
+                }
+
+                compressedRecords.putBytes(compressedRecordsLimit, buffer, index, length);
+                compressedRecordsLimit += length;
+            }
+
+            private void retainDecompressedRecords(
+                DirectBuffer records,
+                int recordsLimit,
+                int recordsProgress,
+                int record,
+                int recordValueProgress)
+            {
+                // shared decompress buffer is reused by other partitions, so keep a copy until fully delivered
+                if (records != decompressedRecords)
+                {
+                    if (decompressedRecords == null)
+                    {
+                        decompressedRecords = new ExpandableArrayBuffer(recordsLimit);
+                    }
+
+                    decompressedRecords.putBytes(0, records, 0, recordsLimit);
+                }
+
+                decompressedRecordsLimit = recordsLimit;
+                decompressedRecordsProgress = recordsProgress;
+                decompressedRecord = record;
+                decompressedRecordValueProgress = recordValueProgress;
+            }
+
             private void onDecodeFetchRecord(
                 long traceId,
                 boolean aborted,
@@ -3273,8 +3969,8 @@ public final class KafkaClientFetchFactory extends KafkaClientSaslHandshaker imp
     private static boolean isCompressedBatch(
         int attributes)
     {
-        // 0 = NONE, 1 = GZIP, 2 = SNAPPY, 3 = LZ4
-        return (attributes & 0x07) != 0;
+        // 0 = NONE, 1 = GZIP, 2 = SNAPPY, 3 = LZ4, 4 = ZSTD
+        return (attributes & KafkaCompressionCodec.COMPRESSION_MASK) != 0;
     }
 
     private static boolean isControlBatch(
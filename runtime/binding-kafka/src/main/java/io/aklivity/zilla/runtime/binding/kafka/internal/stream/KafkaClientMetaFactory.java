@@ -23,9 +23,11 @@ import static io.aklivity.zilla.runtime.engine.concurrent.Signaler.NO_CANCEL_ID;
 import static java.lang.System.currentTimeMillis;
 import static java.util.Objects.requireNonNull;
 
+import java.nio.ByteOrder;
 import java.security.SecureRandom;
 import java.util.List;
 import java.util.Objects;
+import java.util.PrimitiveIterator;
 import java.util.function.Consumer;
 import java.util.function.LongFunction;
 import java.util.function.UnaryOperator;
@@ -33,6 +35,8 @@ import java.util.function.UnaryOperator;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.Int2IntHashMap;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntArrayList;
 import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongLongConsumer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -85,6 +89,8 @@ public final class KafkaClientMetaFactory extends KafkaClientSaslHandshaker impl
     private static final OctetsFW EMPTY_OCTETS = new OctetsFW().wrap(EMPTY_BUFFER, 0, 0);
     private static final Consumer<OctetsFW.Builder> EMPTY_EXTENSION = ex -> {};
 
+    private static final boolean NATIVE_BIG_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+
     private static final short METADATA_API_KEY = 3;
     private static final short METADATA_API_VERSION = 5;
 
@@ -598,8 +604,9 @@ public final class KafkaClientMetaFactory extends KafkaClientSaslHandshaker impl
             final int brokerId = broker.nodeId();
             final String host = broker.host().asString();
             final int port = broker.port();
+            final String rack = broker.rack().asString();
 
-            client.onDecodeBroker(brokerId, host, port);
+            client.onDecodeBroker(brokerId, host, port, rack);
 
             progress = broker.limit();
 
@@ -767,8 +774,9 @@ public final class KafkaClientMetaFactory extends KafkaClientSaslHandshaker impl
             final int partitionError = partition.errorCode();
             final int partitionId = partition.partitionId();
             final int leaderId = partition.leader();
+            final PrimitiveIterator.OfInt inSyncReplicas = partition.inSyncReplicas();
 
-            client.onDecodePartition(traceId, partitionId, leaderId, partitionError);
+            client.onDecodePartition(traceId, partitionId, leaderId, inSyncReplicas, partitionError);
 
             progress = partition.limit();
 
@@ -1130,10 +1138,12 @@ public final class KafkaClientMetaFactory extends KafkaClientSaslHandshaker impl
             private MessageConsumer network;
             private final String topic;
             private final Int2IntHashMap topicPartitions;
+            private final Int2ObjectHashMap<IntArrayList> topicReplicas;
             private final List<KafkaServerConfig> servers;
 
             private final Long2ObjectHashMap<KafkaBrokerInfo> newBrokers;
             private final Int2IntHashMap newPartitions;
+            private final Int2ObjectHashMap<IntArrayList> newReplicas;
 
             private int state;
             private long authorization;
@@ -1182,9 +1192,11 @@ public final class KafkaClientMetaFactory extends KafkaClientSaslHandshaker impl
                 super(sasl, originId, routedId);
                 this.topic = requireNonNull(topic);
                 this.topicPartitions = clientRoute.supplyPartitions(topic);
+                this.topicReplicas = clientRoute.supplyReplicas(topic);
                 this.servers = servers;
                 this.newBrokers = new Long2ObjectHashMap<>();
                 this.newPartitions = new Int2IntHashMap(-1);
+                this.newReplicas = new Int2ObjectHashMap<>();
 
                 this.encoder = sasl != null ? encodeSaslHandshakeRequest : encodeMetaRequest;
                 this.decoder = decodeReject;
@@ -1792,9 +1804,10 @@ public final class KafkaClientMetaFactory extends KafkaClientSaslHandshaker impl
             private void onDecodeBroker(
                 int brokerId,
                 String host,
-                int port)
+                int port,
+                String rack)
             {
-                newBrokers.put(brokerId, new KafkaBrokerInfo(brokerId, host, port));
+                newBrokers.put(brokerId, new KafkaBrokerInfo(brokerId, host, port, rack));
             }
 
             private void onDecodeBrokers()
@@ -1816,6 +1829,7 @@ public final class KafkaClientMetaFactory extends KafkaClientSaslHandshaker impl
                 case ERROR_UNKNOWN_TOPIC:
                     assert topic.equals(this.topic);
                     newPartitions.clear();
+                    newReplicas.clear();
                     break;
                 default:
                     final KafkaResetExFW resetEx = kafkaResetExRW.wrap(extBuffer, 0, extBuffer.capacity())
@@ -1832,11 +1846,21 @@ public final class KafkaClientMetaFactory extends KafkaClientSaslHandshaker impl
                 long traceId,
                 int partitionId,
                 int leaderId,
+                PrimitiveIterator.OfInt inSyncReplicas,
                 int partitionError)
             {
                 if (partitionError == ERROR_NONE)
                 {
                     newPartitions.put(partitionId, leaderId);
+
+                    final IntArrayList replicas = new IntArrayList();
+                    while (inSyncReplicas != null && inSyncReplicas.hasNext())
+                    {
+                        // int32 array items are accessed in native byte order
+                        final int replicaId = inSyncReplicas.nextInt();
+                        replicas.addInt(NATIVE_BIG_ENDIAN ? replicaId : Integer.reverseBytes(replicaId));
+                    }
+                    newReplicas.put(partitionId, replicas);
                 }
             }
 
@@ -1862,6 +1886,13 @@ public final class KafkaClientMetaFactory extends KafkaClientSaslHandshaker impl
                     newPartitions.forEach(sharedPartitions::put);
                 }
 
+                final Int2ObjectHashMap<IntArrayList> sharedReplicas = topicReplicas;
+                if (!sharedReplicas.equals(newReplicas))
+                {
+                    sharedReplicas.clear();
+                    sharedReplicas.putAll(newReplicas);
+                }
+
                 if (!Objects.equals(partitions, newPartitions))
                 {
                     if (partitions == null)
@@ -16,6 +16,7 @@
 package io.aklivity.zilla.runtime.binding.kafka.internal.stream;
 
 import static io.aklivity.zilla.runtime.binding.kafka.internal.stream.KafkaChecksum.combineCRC32C;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.stream.KafkaCompressionCodec.COMPRESSION_NONE;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaOffsetType.LIVE;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.types.ProxyAddressProtocol.STREAM;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.types.codec.RequestHeaderFW.FIELD_OFFSET_API_KEY;
@@ -30,10 +31,12 @@ import static java.util.Objects.requireNonNull;
 import java.nio.ByteBuffer;
 import java.util.function.Consumer;
 import java.util.function.LongFunction;
+import java.util.function.UnaryOperator;
 import java.util.zip.CRC32C;
 
 import org.agrona.BitUtil;
 import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.LongLongConsumer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -186,17 +189,23 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
     private final BufferPool encodePool;
     private final Signaler signaler;
     private final BindingHandler streamFactory;
+    private final UnaryOperator<KafkaSaslConfig> resolveSasl;
     private final LongFunction<KafkaBindingConfig> supplyBinding;
     private final LongFunction<KafkaClientRoute> supplyClientRoute;
     private final int decodeMaxBytes;
     private final int encodeMaxBytes;
     private final CRC32C crc32c;
+    private final KafkaCompressionCodec compressionCodec;
+    private final ExpandableArrayBuffer compressBuffer;
 
     public KafkaClientProduceFactory(
         KafkaConfiguration config,
         EngineContext context,
         LongFunction<KafkaBindingConfig> supplyBinding,
-        LongFunction<KafkaClientRoute> supplyClientRoute)
+        LongFunction<KafkaClientRoute> supplyClientRoute,
+        Signaler signaler,
+        BindingHandler streamFactory,
+        UnaryOperator<KafkaSaslConfig> resolveSasl)
     {
         super(config, context);
         this.produceMaxWaitMillis = config.clientProduceMaxResponseMillis();
@@ -204,8 +213,9 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
         this.produceRequestMaxDelay = config.clientProduceMaxRequestMillis();
         this.kafkaTypeId = context.supplyTypeId(KafkaBinding.NAME);
         this.proxyTypeId = context.supplyTypeId("proxy");
-        this.signaler = context.signaler();
-        this.streamFactory = context.streamFactory();
+        this.signaler = signaler;
+        this.streamFactory = streamFactory;
+        this.resolveSasl = resolveSasl;
         this.writeBuffer = new UnsafeBuffer(new byte[context.writeBuffer().capacity()]);
         this.extBuffer = new UnsafeBuffer(new byte[context.writeBuffer().capacity()]);
         this.decodePool = context.bufferPool();
@@ -216,6 +226,8 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
         this.encodeMaxBytes = Math.min(config.clientProduceMaxBytes(),
                 encodePool.slotCapacity() - PRODUCE_REQUEST_RECORDS_OFFSET_MAX);
         this.crc32c = new CRC32C();
+        this.compressionCodec = new KafkaCompressionCodec();
+        this.compressBuffer = new ExpandableArrayBuffer();
     }
 
     @Override
@@ -252,7 +264,8 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
             {
                 final long resolvedId = resolved.id;
                 final int partitionId = kafkaProduceBeginEx.partition().partitionId();
-                final KafkaSaslConfig sasl = binding.sasl();
+                final KafkaSaslConfig sasl = resolveSasl.apply(binding.sasl());
+                final int compression = KafkaCompressionCodec.compression(binding.supplyCompression(topicName));
 
                 newStream = new KafkaProduceStream(
                         application,
@@ -263,7 +276,8 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
                         resolvedId,
                         topicName,
                         partitionId,
-                        sasl)::onApplication;
+                        sasl,
+                        compression)::onApplication;
             }
         }
 
@@ -900,7 +914,8 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
             long resolvedId,
             String topic,
             int partitionId,
-            KafkaSaslConfig sasl)
+            KafkaSaslConfig sasl,
+            int compression)
         {
             this.application = application;
             this.originId = originId;
@@ -908,7 +923,7 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
             this.initialId = initialId;
             this.replyId = supplyReplyId.applyAsLong(initialId);
             this.affinity = affinity;
-            this.client = new KafkaProduceClient(this, resolvedId, topic, partitionId, sasl);
+            this.client = new KafkaProduceClient(this, resolvedId, topic, partitionId, sasl, compression);
         }
 
         private void onApplication(
@@ -1184,6 +1199,7 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
             private final KafkaProduceStream stream;
             private final String topic;
             private final int partitionId;
+            private final int compression;
             private final KafkaClientRoute clientRoute;
 
             private KafkaAckMode encodeableAckMode;
@@ -1242,12 +1258,14 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
                 long resolvedId,
                 String topic,
                 int partitionId,
-                KafkaSaslConfig sasl)
+                KafkaSaslConfig sasl,
+                int compression)
             {
                 super(sasl, stream.routedId, resolvedId);
                 this.stream = stream;
                 this.topic = requireNonNull(topic);
                 this.partitionId = partitionId;
+                this.compression = compression;
                 this.flusher = flushRecord;
                 this.clientRoute = supplyClientRoute.apply(resolvedId);
                 this.encodeableRecordBatchTimestamp = TIMESTAMP_NONE;
@@ -1860,6 +1878,7 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
 
                 encodeProgress = topicRequest.limit();
 
+                final int recordBatchCompression = doEncodeRecordsCompressionIfNecessary();
                 final int recordBatchLength = FIELD_OFFSET_RECORD_COUNT - FIELD_OFFSET_LENGTH + encodeableRecordBytes;
                 final int recordSetLength = FIELD_OFFSET_LENGTH + BitUtil.SIZE_OF_INT + recordBatchLength;
 
@@ -1874,9 +1893,9 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
                 final int crcOffset = encodeProgress - encodeOffset + RecordBatchFW.FIELD_OFFSET_CRC;
                 final int crcLimit = encodeProgress - encodeOffset + RecordBatchFW.FIELD_OFFSET_ATTRIBUTES;
 
-                final short attributes = encodeableRecordBatchTimestampMax == 0L
+                final short attributes = (short) (recordBatchCompression | (encodeableRecordBatchTimestampMax == 0L
                         ? RECORD_BATCH_ATTRIBUTES_NO_TIMESTAMP
-                        : RECORD_BATCH_ATTRIBUTES_NONE;
+                        : RECORD_BATCH_ATTRIBUTES_NONE));
 
                 final RecordBatchFW recordBatch = recordBatchRW.wrap(encodeBuffer, encodeProgress, encodeLimit)
                         .baseOffset(0)
@@ -1951,6 +1970,30 @@ public final class KafkaClientProduceFactory extends KafkaClientSaslHandshaker i
                 decoder = decodeProduceResponse;
             }
 
+            private int doEncodeRecordsCompressionIfNecessary()
+            {
+                int recordBatchCompression = COMPRESSION_NONE;
+
+                if (compression != COMPRESSION_NONE &&
+                    flushFlags == FLAGS_FIN &&
+                    encodeableRecordBytes == encodeSlotLimit - encodeSlotOffset)
+                {
+                    final MutableDirectBuffer encodeSlotBuffer = encodePool.buffer(encodeSlot);
+                    final int compressedBytes = compressionCodec.compress(compression, encodeSlotBuffer, encodeSlotOffset,
+                            encodeableRecordBytes, compressBuffer);
+
+                    if (compressedBytes != -1 && compressedBytes < encodeableRecordBytes)
+                    {
+                        encodeSlotBuffer.putBytes(encodeSlotOffset, compressBuffer, 0, compressedBytes);
+                        encodeSlotLimit = encodeSlotOffset + compressedBytes;
+                        encodeableRecordBytes = compressedBytes;
+                        recordBatchCompression = compression;
+                    }
+                }
+
+                return recordBatchCompression;
+            }
+
             private long computeChecksum(
                 MutableDirectBuffer encodeBuffer,
                 int encodeLimit,
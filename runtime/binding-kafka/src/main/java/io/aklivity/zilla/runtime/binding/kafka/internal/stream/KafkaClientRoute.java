@@ -17,6 +17,8 @@ package io.aklivity.zilla.runtime.binding.kafka.internal.stream;
 
 import org.agrona.collections.Int2IntHashMap;
 import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntArrayList;
+import org.agrona.collections.IntHashSet;
 import org.agrona.collections.Long2ObjectHashMap;
 
 public final class KafkaClientRoute
@@ -24,6 +26,8 @@ public final class KafkaClientRoute
     public final long resolvedId;
     public final Long2ObjectHashMap<KafkaBrokerInfo> brokers;
     public final Int2ObjectHashMap<Int2IntHashMap> partitions;
+    public final Int2ObjectHashMap<Int2ObjectHashMap<IntArrayList>> replicas;
+    public final Int2ObjectHashMap<IntHashSet> leaders;
 
     public volatile long metaInitialId;
 
@@ -33,6 +37,8 @@ public final class KafkaClientRoute
         this.resolvedId = resolvedId;
         this.brokers = new Long2ObjectHashMap<>();
         this.partitions = new Int2ObjectHashMap<>();
+        this.replicas = new Int2ObjectHashMap<>();
+        this.leaders = new Int2ObjectHashMap<>();
     }
 
     public Int2IntHashMap supplyPartitions(
@@ -41,4 +47,18 @@ public final class KafkaClientRoute
         int topicKey = System.identityHashCode(topic.intern());
         return partitions.computeIfAbsent(topicKey, k -> new Int2IntHashMap(-1));
     }
+
+    public Int2ObjectHashMap<IntArrayList> supplyReplicas(
+        String topic)
+    {
+        int topicKey = System.identityHashCode(topic.intern());
+        return replicas.computeIfAbsent(topicKey, k -> new Int2ObjectHashMap<>());
+    }
+
+    public IntHashSet supplyLeaders(
+        String topic)
+    {
+        int topicKey = System.identityHashCode(topic.intern());
+        return leaders.computeIfAbsent(topicKey, k -> new IntHashSet());
+    }
 }
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.binding.kafka.internal.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.LangUtil;
+import org.agrona.io.DirectBufferInputStream;
+import org.agrona.io.ExpandableDirectBufferOutputStream;
+import org.xerial.snappy.SnappyInputStream;
+import org.xerial.snappy.SnappyOutputStream;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+
+import io.aklivity.zilla.runtime.binding.kafka.config.KafkaCompressionConfig;
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+public final class KafkaCompressionCodec
+{
+    public static final int COMPRESSION_NONE = 0;
+    public static final int COMPRESSION_GZIP = 1;
+    public static final int COMPRESSION_SNAPPY = 2;
+    public static final int COMPRESSION_LZ4 = 3;
+    public static final int COMPRESSION_ZSTD = 4;
+    public static final int COMPRESSION_MASK = 0x07;
+
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int GZIP_FLAG_FHCRC = 0x02;
+    private static final int GZIP_FLAG_FEXTRA = 0x04;
+    private static final int GZIP_FLAG_FNAME = 0x08;
+    private static final int GZIP_FLAG_FCOMMENT = 0x10;
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, 0x08, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+    private static final int INFLATE_CHUNK_SIZE = 8192;
+
+    private final ExpandableArrayBuffer input;
+    private final Inflater inflater;
+    private final Deflater deflater;
+    private final CRC32 crc32;
+    private final DirectBufferInputStream in;
+    private final ExpandableDirectBufferOutputStream out;
+
+    public KafkaCompressionCodec()
+    {
+        this.input = new ExpandableArrayBuffer();
+        this.inflater = new Inflater(true);
+        this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        this.crc32 = new CRC32();
+        this.in = new DirectBufferInputStream();
+        this.out = new ExpandableDirectBufferOutputStream();
+    }
+
+    public static int compression(
+        KafkaCompressionConfig config)
+    {
+        int compression = COMPRESSION_NONE;
+
+        if (config != null)
+        {
+            switch (config)
+            {
+            case GZIP:
+                compression = COMPRESSION_GZIP;
+                break;
+            case SNAPPY:
+                compression = COMPRESSION_SNAPPY;
+                break;
+            case LZ4:
+                compression = COMPRESSION_LZ4;
+                break;
+            default:
+                break;
+            }
+        }
+
+        return compression;
+    }
+
+    public int decompress(
+        int compression,
+        DirectBuffer buffer,
+        int offset,
+        int length,
+        ExpandableArrayBuffer target,
+        int maxLength)
+    {
+        int written;
+
+        try
+        {
+            in.wrap(buffer, offset, length);
+
+            switch (compression)
+            {
+            case COMPRESSION_GZIP:
+                input.putBytes(0, buffer, offset, length);
+                written = gunzip(input.byteArray(), 0, length, target, maxLength);
+                break;
+            case COMPRESSION_SNAPPY:
+                written = inflate(new SnappyInputStream(in), target, maxLength);
+                break;
+            case COMPRESSION_LZ4:
+                written = inflate(new LZ4FrameInputStream(in), target, maxLength);
+                break;
+            case COMPRESSION_ZSTD:
+                written = inflate(new ZstdInputStreamNoFinalizer(in), target, maxLength);
+                break;
+            default:
+                written = -1;
+                break;
+            }
+        }
+        catch (IOException | DataFormatException | RuntimeException ex)
+        {
+            // malformed or truncated compressed records
+            written = -1;
+        }
+
+        return written;
+    }
+
+    public int compress(
+        int compression,
+        DirectBuffer buffer,
+        int offset,
+        int length,
+        ExpandableArrayBuffer target)
+    {
+        input.putBytes(0, buffer, offset, length);
+
+        final byte[] source = input.byteArray();
+
+        int written;
+
+        try
+        {
+            out.wrap(target);
+
+            switch (compression)
+            {
+            case COMPRESSION_GZIP:
+                written = gzip(source, 0, length, target);
+                break;
+            case COMPRESSION_SNAPPY:
+                written = deflate(new SnappyOutputStream(out), source, length);
+                break;
+            case COMPRESSION_LZ4:
+                written = deflate(new LZ4FrameOutputStream(out, LZ4FrameOutputStream.BLOCKSIZE.SIZE_64KB), source, length);
+                break;
+            default:
+                written = -1;
+                break;
+            }
+        }
+        catch (IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+            written = -1;
+        }
+
+        return written;
+    }
+
+    private int gunzip(
+        byte[] source,
+        int offset,
+        int limit,
+        ExpandableArrayBuffer target,
+        int maxLength) throws DataFormatException
+    {
+        int progress = offset;
+        int written = 0;
+
+        while (progress < limit)
+        {
+            if (limit - progress < GZIP_HEADER_SIZE + GZIP_TRAILER_SIZE ||
+                source[progress] != GZIP_HEADER[0] ||
+                source[progress + 1] != GZIP_HEADER[1] ||
+                source[progress + 2] != GZIP_HEADER[2])
+            {
+                written = -1;
+                break;
+            }
+
+            final int flags = source[progress + 3] & 0xff;
+            progress += GZIP_HEADER_SIZE;
+
+            if ((flags & GZIP_FLAG_FEXTRA) != 0)
+            {
+                progress += Short.BYTES + getShortLE(source, progress);
+            }
+
+            if ((flags & GZIP_FLAG_FNAME) != 0)
+            {
+                progress = skipZeroTerminated(source, progress);
+            }
+
+            if ((flags & GZIP_FLAG_FCOMMENT) != 0)
+            {
+                progress = skipZeroTerminated(source, progress);
+            }
+
+            if ((flags & GZIP_FLAG_FHCRC) != 0)
+            {
+                progress += Short.BYTES;
+            }
+
+            final int memberOffset = written;
+
+            inflater.reset();
+            inflater.setInput(source, progress, limit - progress);
+
+            while (!inflater.finished())
+            {
+                target.checkLimit(written + INFLATE_CHUNK_SIZE);
+
+                final int inflated = inflater.inflate(target.byteArray(), written, target.capacity() - written);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    return -1;
+                }
+
+                written += inflated;
+
+                if (written > maxLength)
+                {
+                    return -1;
+                }
+            }
+
+            final int trailerOffset = limit - inflater.getRemaining();
+            if (limit - trailerOffset < GZIP_TRAILER_SIZE)
+            {
+                return -1;
+            }
+
+            crc32.reset();
+            crc32.update(target.byteArray(), memberOffset, written - memberOffset);
+
+            if (getIntLE(source, trailerOffset) != (int) crc32.getValue() ||
+                getIntLE(source, trailerOffset + Integer.BYTES) != written - memberOffset)
+            {
+                return -1;
+            }
+
+            progress = trailerOffset + GZIP_TRAILER_SIZE;
+        }
+
+        return written;
+    }
+
+    private int gzip(
+        byte[] source,
+        int offset,
+        int length,
+        ExpandableArrayBuffer target)
+    {
+        target.checkLimit(GZIP_HEADER_SIZE + INFLATE_CHUNK_SIZE);
+        target.putBytes(0, GZIP_HEADER);
+
+        int written = GZIP_HEADER_SIZE;
+
+        deflater.reset();
+        deflater.setInput(source, offset, length);
+        deflater.finish();
+
+        while (!deflater.finished())
+        {
+            target.checkLimit(written + INFLATE_CHUNK_SIZE);
+            written += deflater.deflate(target.byteArray(), written, target.capacity() - written);
+        }
+
+        crc32.reset();
+        crc32.update(source, offset, length);
+
+        target.checkLimit(written + GZIP_TRAILER_SIZE);
+        final byte[] output = target.byteArray();
+        putIntLE(output, written, (int) crc32.getValue());
+        putIntLE(output, written + Integer.BYTES, length);
+        written += GZIP_TRAILER_SIZE;
+
+        return written;
+    }
+
+    private static int inflate(
+        InputStream in,
+        ExpandableArrayBuffer target,
+        int maxLength) throws IOException
+    {
+        int written = 0;
+
+        try (in)
+        {
+            int read;
+            do
+            {
+                target.checkLimit(written + INFLATE_CHUNK_SIZE);
+                read = in.read(target.byteArray(), written, target.capacity() - written);
+                written += Math.max(read, 0);
+            } while (read != -1 && written <= maxLength);
+        }
+
+        return written <= maxLength ? written : -1;
+    }
+
+    private int deflate(
+        OutputStream compressor,
+        byte[] source,
+        int length) throws IOException
+    {
+        try (compressor)
+        {
+            compressor.write(source, 0, length);
+        }
+
+        return out.position();
+    }
+
+    private static int skipZeroTerminated(
+        byte[] source,
+        int progress)
+    {
+        while (source[progress] != 0)
+        {
+            progress++;
+        }
+
+        return progress + 1;
+    }
+
+    private static int getShortLE(
+        byte[] source,
+        int offset)
+    {
+        return (source[offset] & 0xff) | (source[offset + 1] & 0xff) << 8;
+    }
+
+    private static int getIntLE(
+        byte[] source,
+        int offset)
+    {
+        return (source[offset] & 0xff) |
+               (source[offset + 1] & 0xff) << 8 |
+               (source[offset + 2] & 0xff) << 16 |
+               (source[offset + 3] & 0xff) << 24;
+    }
+
+    private static void putIntLE(
+        byte[] output,
+        int offset,
+        int value)
+    {
+        output[offset] = (byte) value;
+        output[offset + 1] = (byte) (value >>> 8);
+        output[offset + 2] = (byte) (value >>> 16);
+        output[offset + 3] = (byte) (value >>> 24);
+    }
+}
@@ -16,6 +16,9 @@
 module io.aklivity.zilla.runtime.binding.kafka
 {
     requires io.aklivity.zilla.runtime.engine;
+    requires com.github.luben.zstd_jni;
+    requires org.lz4.java;
+    requires snappy.java;
 
     exports io.aklivity.zilla.runtime.binding.kafka.config;
 
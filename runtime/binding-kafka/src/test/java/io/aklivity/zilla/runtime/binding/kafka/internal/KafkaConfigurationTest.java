@@ -16,16 +16,29 @@
 package io.aklivity.zilla.runtime.binding.kafka.internal;
 
 import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CACHE_CLIENT_CLEANUP_DELAY;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CACHE_HOT_BYTES;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CACHE_SEGMENT_CHUNK_BYTES;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CACHE_SERVER_RECONNECT_DELAY;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_API_VERSIONS;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_CONNECTION_POOL_CLEANUP_MILLIS;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_FETCH_COALESCE;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_FETCH_SESSION;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_INSTANCE_ID;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_PRODUCE_COALESCE;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_PRODUCE_COALESCE_LINGER_MILLIS;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_PRODUCE_COALESCE_MAX_BYTES;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_PRODUCE_MAX_BYTES;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_PRODUCE_MAX_REQUEST_MILLIS;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_RACK;
 import static io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration.KAFKA_CLIENT_SASL_SCRAM_NONCE;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Properties;
+
 import org.junit.Test;
 
+import io.aklivity.zilla.runtime.engine.Configuration;
+
 public class KafkaConfigurationTest
 {
     public static final String KAFKA_CLIENT_PRODUCE_MAX_REQUEST_MILLIS_NAME =
@@ -37,6 +50,17 @@ public class KafkaConfigurationTest
     public static final String KAFKA_CACHE_CLIENT_CLEANUP_DELAY_NAME = "zilla.binding.kafka.cache.client.cleanup.delay";
     public static final String KAFKA_CLIENT_SASL_SCRAM_NONCE_NAME = "zilla.binding.kafka.client.sasl.scram.nonce";
     public static final String KAFKA_CLIENT_INSTANCE_ID_NAME = "zilla.binding.kafka.client.instance.id";
+    public static final String KAFKA_CLIENT_FETCH_COALESCE_NAME = "zilla.binding.kafka.client.fetch.coalesce";
+    public static final String KAFKA_CLIENT_FETCH_SESSION_NAME = "zilla.binding.kafka.client.fetch.session";
+    public static final String KAFKA_CLIENT_PRODUCE_COALESCE_NAME = "zilla.binding.kafka.client.produce.coalesce";
+    public static final String KAFKA_CLIENT_PRODUCE_COALESCE_LINGER_MILLIS_NAME =
+        "zilla.binding.kafka.client.produce.coalesce.linger.millis";
+    public static final String KAFKA_CLIENT_PRODUCE_COALESCE_MAX_BYTES_NAME =
+        "zilla.binding.kafka.client.produce.coalesce.max.bytes";
+    public static final String KAFKA_CLIENT_API_VERSIONS_NAME = "zilla.binding.kafka.client.api.versions";
+    public static final String KAFKA_CLIENT_RACK_NAME = "zilla.binding.kafka.client.rack";
+    public static final String KAFKA_CACHE_SEGMENT_CHUNK_BYTES_NAME = "zilla.binding.kafka.cache.segment.chunk.bytes";
+    public static final String KAFKA_CACHE_HOT_BYTES_NAME = "zilla.binding.kafka.cache.hot.bytes";
 
     @Test
     public void shouldVerifyConstants() throws Exception
@@ -48,5 +72,23 @@ public class KafkaConfigurationTest
         assertEquals(KAFKA_CACHE_CLIENT_CLEANUP_DELAY.name(), KAFKA_CACHE_CLIENT_CLEANUP_DELAY_NAME);
         assertEquals(KAFKA_CLIENT_SASL_SCRAM_NONCE.name(), KAFKA_CLIENT_SASL_SCRAM_NONCE_NAME);
         assertEquals(KAFKA_CLIENT_INSTANCE_ID.name(), KAFKA_CLIENT_INSTANCE_ID_NAME);
+        assertEquals(KAFKA_CLIENT_FETCH_COALESCE.name(), KAFKA_CLIENT_FETCH_COALESCE_NAME);
+        assertEquals(KAFKA_CLIENT_FETCH_SESSION.name(), KAFKA_CLIENT_FETCH_SESSION_NAME);
+        assertEquals(KAFKA_CLIENT_PRODUCE_COALESCE.name(), KAFKA_CLIENT_PRODUCE_COALESCE_NAME);
+        assertEquals(KAFKA_CLIENT_PRODUCE_COALESCE_LINGER_MILLIS.name(), KAFKA_CLIENT_PRODUCE_COALESCE_LINGER_MILLIS_NAME);
+        assertEquals(KAFKA_CLIENT_PRODUCE_COALESCE_MAX_BYTES.name(), KAFKA_CLIENT_PRODUCE_COALESCE_MAX_BYTES_NAME);
+        assertEquals(KAFKA_CLIENT_API_VERSIONS.name(), KAFKA_CLIENT_API_VERSIONS_NAME);
+        assertEquals(KAFKA_CLIENT_RACK.name(), KAFKA_CLIENT_RACK_NAME);
+        assertEquals(KAFKA_CACHE_SEGMENT_CHUNK_BYTES.name(), KAFKA_CACHE_SEGMENT_CHUNK_BYTES_NAME);
+        assertEquals(KAFKA_CACHE_HOT_BYTES.name(), KAFKA_CACHE_HOT_BYTES_NAME);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSegmentChunkBytesNotPowerOfTwo() throws Exception
+    {
+        Properties properties = new Properties();
+        properties.setProperty(KAFKA_CACHE_SEGMENT_CHUNK_BYTES_NAME, "0");
+
+        new KafkaConfiguration(new Configuration(properties)).cacheSegmentChunkBytes();
     }
 }
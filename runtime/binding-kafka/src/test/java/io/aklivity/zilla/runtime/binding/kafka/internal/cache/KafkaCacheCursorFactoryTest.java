@@ -0,0 +1,235 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.binding.kafka.internal.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.MutableInteger;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.aklivity.zilla.runtime.binding.kafka.internal.KafkaConfiguration;
+import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheCursorFactory.KafkaCacheCursor;
+import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheCursorFactory.KafkaCacheCursorMemo;
+import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheCursorFactory.KafkaFilterCondition;
+import io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCachePartition.Node;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.Array32FW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaConditionFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaDeltaType;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaEvaluation;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaFilterFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaHeaderFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaKeyFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.OctetsFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.cache.KafkaCacheEntryFW;
+
+public class KafkaCacheCursorFactoryTest
+{
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final MutableDirectBuffer writeBuffer = new UnsafeBuffer(ByteBuffer.allocate(8192));
+    private final MutableDirectBuffer filtersBuffer = new UnsafeBuffer(ByteBuffer.allocate(1024));
+    private final KafkaCacheCursorFactory cursorFactory = new KafkaCacheCursorFactory(new UnsafeBuffer(new byte[8192]));
+    private final KafkaCacheEntryFW entryRO = new KafkaCacheEntryFW();
+
+    private KafkaCachePartition partition;
+    private Node head10;
+
+    @Before
+    public void initPartition() throws Exception
+    {
+        Path location = tempFolder.newFolder().toPath();
+        KafkaCacheTopicConfig config = new KafkaCacheTopicConfig(new KafkaConfiguration());
+        partition = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+        head10 = partition.append(10L);
+    }
+
+    @Test
+    public void shouldHitMemoForFilteredCursors() throws Exception
+    {
+        writeEntry(10L, "a");
+        writeEntry(11L, "b");
+        writeEntry(12L, "a");
+        writeEntry(13L, "b");
+
+        Array32FW<KafkaFilterFW> filters = filters(c -> c.key(k -> key(k, "a")));
+
+        KafkaCacheCursorMemo memo = cursorFactory.newMemo(() -> {});
+        CountingCondition condition1 = new CountingCondition(cursorFactory.asCondition(filters, KafkaEvaluation.LAZY));
+        CountingCondition condition2 = new CountingCondition(cursorFactory.asCondition(filters, KafkaEvaluation.LAZY));
+        KafkaCacheCursor cursor1 = newCursor(condition1, memo);
+        KafkaCacheCursor cursor2 = newCursor(condition2, memo);
+
+        assertEquals(List.of(10L, 12L), nextOffsets(cursor1));
+        assertEquals(List.of(10L, 12L), nextOffsets(cursor2));
+
+        assertEquals(2, condition1.tests);
+        assertEquals(0, condition2.tests);
+        assertTrue(condition2.nexts < condition1.nexts);
+    }
+
+    @Test
+    public void shouldMissMemoForFilteredCursorsAfterAppend() throws Exception
+    {
+        writeEntry(10L, "a");
+        writeEntry(11L, "b");
+        writeEntry(12L, "a");
+
+        Array32FW<KafkaFilterFW> filters = filters(c -> c.not(n -> n.condition(nc -> nc.key(k -> key(k, "a")))));
+
+        MutableInteger released = new MutableInteger();
+        KafkaCacheCursorMemo memo = cursorFactory.newMemo(() -> released.value++);
+        CountingCondition condition1 = new CountingCondition(cursorFactory.asCondition(filters, KafkaEvaluation.LAZY));
+        CountingCondition condition2 = new CountingCondition(cursorFactory.asCondition(filters, KafkaEvaluation.LAZY));
+        KafkaCacheCursor cursor1 = newCursor(condition1, memo);
+        KafkaCacheCursor cursor2 = newCursor(condition2, memo);
+
+        assertEquals(List.of(11L), nextOffsets(cursor1));
+        assertEquals(List.of(11L), nextOffsets(cursor2));
+        assertEquals(0, condition2.tests);
+
+        writeEntry(13L, "b");
+        writeEntry(14L, "a");
+        writeEntry(15L, "b");
+
+        assertEquals(List.of(13L, 15L), nextOffsets(cursor2));
+        assertEquals(3, condition2.tests);
+
+        assertEquals(List.of(13L, 15L), nextOffsets(cursor1));
+        assertTrue(condition1.tests < 6);
+
+        cursor1.close();
+        assertEquals(0, released.value);
+
+        cursor2.close();
+        assertEquals(1, released.value);
+    }
+
+    private KafkaCacheCursor newCursor(
+        KafkaFilterCondition condition,
+        KafkaCacheCursorMemo memo)
+    {
+        KafkaCacheCursor cursor = cursorFactory.newCursor(condition, KafkaDeltaType.NONE, memo);
+        cursor.init(head10, 10L, Long.MAX_VALUE);
+        return cursor;
+    }
+
+    private List<Long> nextOffsets(
+        KafkaCacheCursor cursor)
+    {
+        List<Long> offsets = new ArrayList<>();
+
+        KafkaCacheEntryFW entry = cursor.next(entryRO);
+        while (entry != null)
+        {
+            final long offset = entry.offset$();
+            offsets.add(offset);
+            cursor.advance(offset + 1);
+            entry = cursor.next(entryRO);
+        }
+
+        return offsets;
+    }
+
+    private void writeEntry(
+        long offset,
+        String keyText)
+    {
+        KafkaKeyFW key = key(new KafkaKeyFW.Builder().wrap(writeBuffer, 0, writeBuffer.capacity()), keyText).build();
+
+        Array32FW<KafkaHeaderFW> headers = new Array32FW.Builder<>(new KafkaHeaderFW.Builder(), new KafkaHeaderFW())
+                .wrap(writeBuffer, key.limit(), writeBuffer.capacity())
+                .build();
+
+        OctetsFW value = new OctetsFW.Builder()
+                .wrap(writeBuffer, headers.limit(), writeBuffer.capacity())
+                .set("value".getBytes(UTF_8))
+                .build();
+
+        partition.writeEntry(offset, 0L, -1L, key, headers, value, null, 0x00, KafkaDeltaType.NONE, null);
+    }
+
+    private Array32FW<KafkaFilterFW> filters(
+        Consumer<KafkaConditionFW.Builder> condition)
+    {
+        return new Array32FW.Builder<>(new KafkaFilterFW.Builder(), new KafkaFilterFW())
+                .wrap(filtersBuffer, 0, filtersBuffer.capacity())
+                .item(f -> f.conditionsItem(condition))
+                .build();
+    }
+
+    private static KafkaKeyFW.Builder key(
+        KafkaKeyFW.Builder builder,
+        String text)
+    {
+        return builder
+                .length(text.length())
+                .value(v -> v.set(text.getBytes(UTF_8)));
+    }
+
+    private static final class CountingCondition extends KafkaFilterCondition
+    {
+        private final KafkaFilterCondition delegate;
+
+        private int nexts;
+        private int tests;
+
+        private CountingCondition(
+            KafkaFilterCondition delegate)
+        {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int reset(
+            KafkaCacheSegment segment,
+            long offset,
+            long latestOffset,
+            int position)
+        {
+            return delegate.reset(segment, offset, latestOffset, position);
+        }
+
+        @Override
+        public int next(
+            int position)
+        {
+            nexts++;
+            return delegate.next(position);
+        }
+
+        @Override
+        public long test(
+            KafkaCacheEntryFW cacheEntry)
+        {
+            tests++;
+            return delegate.test(cacheEntry);
+        }
+    }
+}
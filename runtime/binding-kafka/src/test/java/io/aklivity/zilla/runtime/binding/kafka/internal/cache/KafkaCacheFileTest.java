@@ -42,7 +42,7 @@ public class KafkaCacheFileTest
         int capacity = 1024;
         MutableDirectBuffer appendBuf = new UnsafeBuffer(ByteBuffer.allocate(1024));
 
-        try (KafkaCacheFile file = new KafkaCacheFile(location, capacity, appendBuf))
+        try (KafkaCacheFile file = new KafkaCacheFile(location, capacity, capacity, appendBuf))
         {
             file.appendBytes(new UnsafeBuffer("Hello, world".getBytes(UTF_8)));
         }
@@ -57,7 +57,7 @@ public class KafkaCacheFileTest
         int capacity = 1024;
         MutableDirectBuffer appendBuf = new UnsafeBuffer(ByteBuffer.allocate(1024));
 
-        try (KafkaCacheFile file = new KafkaCacheFile(location, capacity, appendBuf))
+        try (KafkaCacheFile file = new KafkaCacheFile(location, capacity, capacity, appendBuf))
         {
             file.appendBytes(new UnsafeBuffer("Hello, world".getBytes(UTF_8)));
             file.freeze();
@@ -68,6 +68,27 @@ public class KafkaCacheFileTest
         assertEquals("Hello, world", new String(Files.readAllBytes(location), UTF_8));
     }
 
+    @Test
+    public void shouldAppendBytesBeyondChunk() throws Exception
+    {
+        Path location = tempFolder.newFile().toPath();
+        int capacity = 1024;
+        int chunkBytes = 8;
+        MutableDirectBuffer appendBuf = new UnsafeBuffer(ByteBuffer.allocate(1024));
+
+        try (KafkaCacheFile file = new KafkaCacheFile(location, capacity, chunkBytes, appendBuf))
+        {
+            file.appendBytes(new UnsafeBuffer("Hello, ".getBytes(UTF_8)));
+            file.appendBytes(new UnsafeBuffer("world".getBytes(UTF_8)));
+            file.appendLong(0L);
+
+            assertEquals(20, file.capacity());
+            assertEquals(1004, file.available());
+            assertEquals("Hello, world", file.readBytes(0, (b, i, l) -> b.getStringWithoutLengthAscii(i, 12)));
+            assertEquals(20, Files.size(location));
+        }
+    }
+
     @Test
     public void shouldWriteBytes() throws Exception
     {
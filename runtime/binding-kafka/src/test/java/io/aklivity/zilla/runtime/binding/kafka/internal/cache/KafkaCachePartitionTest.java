@@ -18,13 +18,23 @@ package io.aklivity.zilla.runtime.binding.kafka.internal.cache;
 import static io.aklivity.zilla.runtime.engine.EngineConfiguration.ENGINE_BUFFER_SLOT_CAPACITY;
 import static java.lang.System.currentTimeMillis;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.stream.Collectors.toList;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
@@ -38,7 +48,9 @@ import io.aklivity.zilla.runtime.binding.kafka.internal.types.Array32FW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaDeltaType;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaHeaderFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaKeyFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.KafkaOffsetType;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.OctetsFW;
+import io.aklivity.zilla.runtime.binding.kafka.internal.types.cache.KafkaCacheDeltaFW;
 import io.aklivity.zilla.runtime.binding.kafka.internal.types.cache.KafkaCacheEntryFW;
 
 public class KafkaCachePartitionTest
@@ -146,6 +158,9 @@ public class KafkaCachePartitionTest
         Node node30 = partition.append(30);
         KafkaCacheSegment node30s = node30.segment();
 
+        partition.freezeTask().run();
+        partition.completeTasks();
+
         assertNotSame(node10s, node10.segment());
         assertNotSame(node20s, node20.segment());
         assertSame(node30s, node30.segment());
@@ -233,11 +248,20 @@ public class KafkaCachePartitionTest
             Node head15 = partition.append(15L);
             KafkaCacheSegment head15s = head15.segment();
             Node tail10 = head15.previous();
+
+            partition.freezeTask().run();
+            partition.completeTasks();
+
             KafkaCacheSegment tail10s = tail10.segment();
 
             long now = currentTimeMillis();
             tail10s.cleanableAt(now);
-            tail10.clean(now);
+            Runnable cleanTask = partition.cleanTask(now);
+            assertTrue(tail10.busy());
+
+            cleanTask.run();
+            partition.completeTasks();
+            assertFalse(tail10.busy());
 
             KafkaCacheSegment clean10s = tail10.segment();
 
@@ -289,6 +313,289 @@ public class KafkaCachePartitionTest
             assertEquals(seek10, tail10);
         }
 
+        @Test
+        public void shouldRecoverFrozenSegment() throws Exception
+        {
+            Path location = tempFolder.newFolder().toPath();
+            KafkaCacheTopicConfig config = new KafkaCacheTopicConfig(new KafkaConfiguration());
+
+            KafkaCachePartition partition = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            writeEntries(partition);
+
+            KafkaCachePartition recovered = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            Node head13 = recovered.head();
+            assertSame(head13, recovered.sentinel().next());
+
+            Runnable task = recovered.recoverTask();
+            assertNotNull(task);
+            task.run();
+            recovered.completeTasks();
+
+            Node tail10 = recovered.sentinel().next();
+
+            assertTrue(tail10.segment().frozen());
+            assertEquals(10L, tail10.segment().baseOffset());
+            assertEquals(12L, tail10.segment().lastOffset());
+            assertSame(head13, tail10.next());
+            assertFalse(head13.segment().frozen());
+            assertEquals(13L, recovered.nextOffset(KafkaOffsetType.LIVE));
+        }
+
+        @Test
+        public void shouldDiscardCorruptSegment() throws Exception
+        {
+            Path location = tempFolder.newFolder().toPath();
+            KafkaCacheTopicConfig config = new KafkaCacheTopicConfig(new KafkaConfiguration());
+
+            KafkaCachePartition partition = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            writeEntries(partition);
+
+            Path logFile = partition.sentinel().next().segment().logFile().location();
+            try (FileChannel channel = FileChannel.open(logFile, WRITE))
+            {
+                channel.write(ByteBuffer.wrap(new byte[] { 0x7f }), 0L);
+            }
+
+            KafkaCachePartition recovered = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            assertTrue(Files.exists(logFile));
+
+            Runnable task = recovered.recoverTask();
+            assertNotNull(task);
+            task.run();
+            recovered.completeTasks();
+
+            assertSame(recovered.head(), recovered.sentinel().next());
+            assertEquals(13L, recovered.nextOffset(KafkaOffsetType.LIVE));
+            assertFalse(Files.exists(logFile));
+        }
+
+        @Test
+        public void shouldRecoverInterruptedCleanMove() throws Exception
+        {
+            Path location = tempFolder.newFolder().toPath();
+            KafkaCacheTopicConfig config = new KafkaCacheTopicConfig(new KafkaConfiguration());
+
+            KafkaCachePartition partition = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            writeEntries(partition);
+
+            Path logFile = partition.sentinel().next().segment().logFile().location();
+            Path partitionLocation = logFile.getParent();
+            Path cleanLocation = Files.createDirectories(partitionLocation.resolve(".clean"));
+            try (Stream<Path> files = Files.list(partitionLocation))
+            {
+                for (Path file : files.filter(f -> f.getFileName().toString().startsWith(String.format("%019d.", 10L)))
+                                      .collect(toList()))
+                {
+                    Files.copy(file, cleanLocation.resolve(file.getFileName()));
+                }
+            }
+            Files.delete(logFile);
+
+            KafkaCachePartition recovered = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            recovered.recoverTask().run();
+            recovered.completeTasks();
+
+            Node tail10 = recovered.sentinel().next();
+            assertEquals(10L, tail10.segment().baseOffset());
+            assertEquals(12L, tail10.segment().lastOffset());
+            assertTrue(Files.exists(logFile));
+            assertFalse(Files.exists(cleanLocation));
+        }
+
+        @Test
+        public void shouldArchiveAndRestoreFrozenSegment() throws Exception
+        {
+            Path location = tempFolder.newFolder().toPath();
+            KafkaCacheTopicConfig config = new KafkaCacheTopicConfig(new KafkaConfiguration());
+            config.hotBytes = 0L;
+
+            KafkaCachePartition partition = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            writeEntries(partition);
+
+            Node tail10 = partition.sentinel().next();
+            Path logFile = tail10.segment().logFile().location();
+            byte[] logBytes = Files.readAllBytes(logFile);
+
+            Runnable task = partition.archiveTask();
+            assertNotNull(task);
+            task.run();
+            partition.completeTasks();
+
+            assertTrue(tail10.segment().archived());
+            assertFalse(Files.exists(logFile));
+
+            KafkaCachePartition recovered = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            recovered.recoverTask().run();
+            recovered.completeTasks();
+            KafkaCacheSegment segment = recovered.sentinel().next().segment();
+
+            assertTrue(segment.archived());
+            assertEquals(10L, segment.baseOffset());
+
+            segment.restore();
+
+            assertFalse(segment.archived());
+            assertTrue(segment.cold());
+            assertEquals(logBytes.length, segment.logFile().capacity());
+            assertTrue(Files.exists(logFile));
+            assertArrayEquals(logBytes, Files.readAllBytes(logFile));
+            assertNull(recovered.archiveTask());
+        }
+
+        @Test
+        public void shouldNotRestoreCorruptArchive() throws Exception
+        {
+            Path location = tempFolder.newFolder().toPath();
+            KafkaCacheTopicConfig config = new KafkaCacheTopicConfig(new KafkaConfiguration());
+            config.hotBytes = 0L;
+
+            KafkaCachePartition partition = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            writeEntries(partition);
+
+            Node tail10 = partition.sentinel().next();
+            Path logFile = tail10.segment().logFile().location();
+            Path archiveFile = logFile.resolveSibling(String.format("%019d.archive", 10L));
+
+            Runnable task = partition.archiveTask();
+            assertNotNull(task);
+            task.run();
+            partition.completeTasks();
+
+            byte[] archiveBytes = Files.readAllBytes(archiveFile);
+            archiveBytes[archiveBytes.length - 1] ^= 0xff;
+            Files.write(archiveFile, archiveBytes);
+
+            KafkaCachePartition recovered = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            recovered.recoverTask().run();
+            recovered.completeTasks();
+            KafkaCacheSegment segment = recovered.sentinel().next().segment();
+
+            segment.restore();
+
+            assertTrue(segment.archived());
+            assertFalse(segment.restorable());
+            assertFalse(Files.exists(logFile));
+        }
+
+        @Test
+        public void shouldShareHotBytesAcrossTopicPartitions() throws Exception
+        {
+            Path location = tempFolder.newFolder().toPath();
+            KafkaCacheTopicConfig config = new KafkaCacheTopicConfig(new KafkaConfiguration());
+            AtomicLong topicHotBytes = new AtomicLong();
+
+            KafkaCachePartition partition0 =
+                new KafkaCachePartition(location, config, "cache", topicHotBytes, "test", 0, 65536, long[]::new);
+            KafkaCachePartition partition1 =
+                new KafkaCachePartition(location, config, "cache", topicHotBytes, "test", 1, 65536, long[]::new);
+            writeEntries(partition0);
+            writeEntries(partition1);
+
+            assertNull(partition0.archiveTask());
+            config.hotBytes = 3 * topicHotBytes.get() / 2;
+            assertNull(partition0.archiveTask());
+
+            Runnable task = partition1.archiveTask();
+            assertNotNull(task);
+            task.run();
+            partition1.completeTasks();
+
+            assertFalse(partition0.sentinel().next().segment().archived());
+            assertTrue(partition1.sentinel().next().segment().archived());
+        }
+
+        private static void writeEntries(
+            KafkaCachePartition partition)
+        {
+            MutableDirectBuffer writeBuffer = new UnsafeBuffer(ByteBuffer.allocate(1024));
+
+            KafkaKeyFW key = new KafkaKeyFW.Builder().wrap(writeBuffer, 0, writeBuffer.capacity())
+                .length(4)
+                .value(k -> k.set("test".getBytes(UTF_8)))
+                .build();
+
+            Array32FW<KafkaHeaderFW> headers = new Array32FW.Builder<>(new KafkaHeaderFW.Builder(), new KafkaHeaderFW())
+                    .wrap(writeBuffer, key.limit(), writeBuffer.capacity())
+                    .build();
+
+            OctetsFW value = new OctetsFW.Builder()
+                    .wrap(writeBuffer, headers.limit(), writeBuffer.capacity())
+                    .set("value".getBytes(UTF_8))
+                    .build();
+
+            KafkaCacheEntryFW ancestorRO = new KafkaCacheEntryFW();
+
+            Node head10 = partition.append(10L);
+            partition.writeEntry(11L, 0L, -1L, key, headers, value, null, 0x00, KafkaDeltaType.NONE, null);
+
+            long keyHash = partition.computeKeyHash(key);
+            KafkaCacheEntryFW ancestor = head10.findAndMarkAncestor(key, keyHash, 11L, ancestorRO);
+            partition.writeEntry(12L, 0L, -1L, key, headers, value, ancestor, 0x00, KafkaDeltaType.NONE, null);
+
+            partition.append(15L);
+            partition.writeEntry(16L, 0L, -1L, key, headers, value, null, 0x00, KafkaDeltaType.NONE, null);
+
+            partition.freezeTask().run();
+            partition.completeTasks();
+        }
+
+        @Test
+        public void shouldWriteJsonPatchDelta() throws Exception
+        {
+            Path location = tempFolder.newFolder().toPath();
+            KafkaCacheTopicConfig config = new KafkaCacheTopicConfig(new KafkaConfiguration());
+
+            MutableDirectBuffer writeBuffer = new UnsafeBuffer(ByteBuffer.allocate(1024));
+
+            KafkaKeyFW key = new KafkaKeyFW.Builder().wrap(writeBuffer, 0, writeBuffer.capacity())
+                .length(4)
+                .value(k -> k.set("test".getBytes(UTF_8)))
+                .build();
+
+            Array32FW<KafkaHeaderFW> headers = new Array32FW.Builder<>(new KafkaHeaderFW.Builder(), new KafkaHeaderFW())
+                    .wrap(writeBuffer, key.limit(), writeBuffer.capacity())
+                    .build();
+
+            OctetsFW value = new OctetsFW.Builder()
+                    .wrap(writeBuffer, headers.limit(), writeBuffer.capacity())
+                    .set("{\"name\":\"value\"}".getBytes(UTF_8))
+                    .build();
+
+            OctetsFW empty = new OctetsFW.Builder()
+                    .wrap(writeBuffer, value.limit(), writeBuffer.capacity())
+                    .set("{}".getBytes(UTF_8))
+                    .build();
+
+            KafkaCacheEntryFW ancestorRO = new KafkaCacheEntryFW();
+            KafkaCacheEntryFW entryRO = new KafkaCacheEntryFW();
+            KafkaCacheDeltaFW deltaRO = new KafkaCacheDeltaFW();
+
+            KafkaCachePartition partition = new KafkaCachePartition(location, config, "cache", "test", 0, 65536, long[]::new);
+            Node head10 = partition.append(10L);
+            KafkaCacheSegment head10s = head10.segment();
+            long keyHash = partition.computeKeyHash(key);
+
+            partition.writeEntry(11L, 0L, -1L, key, headers, value, null, 0x00, KafkaDeltaType.JSON_PATCH, null);
+
+            KafkaCacheEntryFW ancestor11 = head10.findAndMarkAncestor(key, keyHash, 11L, ancestorRO);
+            partition.writeEntry(12L, 0L, -1L, key, headers, value, ancestor11, 0x00, KafkaDeltaType.JSON_PATCH, null);
+
+            KafkaCacheEntryFW ancestor12 = head10.findAndMarkAncestor(key, keyHash, 12L, ancestorRO);
+            partition.writeEntry(13L, 0L, -1L, key, headers, empty, ancestor12, 0x00, KafkaDeltaType.JSON_PATCH, null);
+
+            KafkaCacheFile logFile = head10s.logFile();
+            KafkaCacheEntryFW entry11 = logFile.readBytes(0, entryRO::wrap);
+            KafkaCacheEntryFW entry12 = logFile.readBytes(entry11.limit(), entryRO::wrap);
+            int deltaPosition12 = entry12.deltaPosition();
+            KafkaCacheEntryFW entry13 = logFile.readBytes(entry12.limit(), entryRO::wrap);
+            int deltaPosition13 = entry13.deltaPosition();
+
+            KafkaCacheDeltaFW delta12 = head10s.deltaFile().readBytes(deltaPosition12, deltaRO::wrap);
+
+            assertEquals("[]", delta12.value().buffer().getStringWithoutLengthUtf8(delta12.value().offset(), delta12.length()));
+            assertEquals(-1, deltaPosition13);
+        }
+
         @Test
         public void shouldDescribeObject() throws Exception
         {
@@ -15,8 +15,11 @@
  */
 package io.aklivity.zilla.runtime.binding.kafka.internal.cache;
 
+import static io.aklivity.zilla.runtime.binding.kafka.internal.cache.KafkaCacheIndexRecord.indexEntry;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
@@ -61,6 +64,29 @@ public class KafkaCacheSegmentTest
         }
     }
 
+    @Test
+    public void shouldFilterHashesAfterFreeze() throws Exception
+    {
+        KafkaCacheTopicConfig config = new KafkaCacheTopicConfig(new KafkaConfiguration());
+        Path location = tempFolder.getRoot().toPath();
+        MutableDirectBuffer appendBuf = new UnsafeBuffer(ByteBuffer.allocate(1024));
+
+        try (KafkaCacheSegment head = new KafkaCacheSegment(location, config, "test", 0, 1L, appendBuf, long[]::new))
+        {
+            head.hashFile().appendLong(indexEntry(0x12345678, 0));
+            head.hashFile().appendLong(indexEntry(0x9abcdef0, 0));
+
+            assertTrue(head.mightContain(0x0fedcba9));
+
+            try (KafkaCacheSegment tail = head.freeze())
+            {
+                assertTrue(tail.mightContain(0x12345678));
+                assertTrue(tail.mightContain(0x9abcdef0));
+                assertFalse(tail.mightContain(0x0fedcba9));
+            }
+        }
+    }
+
     @Test
     public void shouldDescribeObject() throws Exception
     {
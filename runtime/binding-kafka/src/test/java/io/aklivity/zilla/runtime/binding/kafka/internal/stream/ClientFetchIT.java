@@ -238,39 +238,46 @@ public class ClientFetchIT
         k3po.finish();
     }
 
-    @Ignore("TODO")
     @Test
     @Configuration("client.when.topic.yaml")
     @Specification({
-        "${app}/message.value.gzip/client",
+        "${app}/message.value/client",
         "${net}/message.value.gzip/server"})
     public void shouldReceiveMessageValueGzip() throws Exception
     {
         k3po.finish();
     }
 
-    @Ignore("TODO")
     @Test
     @Configuration("client.when.topic.yaml")
     @Specification({
-        "${app}/message.value.snappy/client",
+        "${app}/message.value/client",
         "${net}/message.value.snappy/server"})
     public void shouldReceiveMessageValueSnappy() throws Exception
     {
         k3po.finish();
     }
 
-    @Ignore("TODO")
     @Test
     @Configuration("client.when.topic.yaml")
     @Specification({
-        "${app}/message.value.lz4/client",
+        "${app}/message.value/client",
         "${net}/message.value.lz4/server"})
     public void shouldReceiveMessageValueLz4() throws Exception
     {
         k3po.finish();
     }
 
+    @Test
+    @Configuration("client.when.topic.yaml")
+    @Specification({
+        "${app}/message.value.10k/client",
+        "${net}/message.value.lz4.10k/server"})
+    public void shouldReceiveMessageValueLz410k() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Configuration("client.when.topic.yaml")
     @Specification({
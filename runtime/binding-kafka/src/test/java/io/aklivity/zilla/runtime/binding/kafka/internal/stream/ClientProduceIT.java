@@ -20,7 +20,6 @@ import static io.aklivity.zilla.runtime.engine.EngineConfiguration.ENGINE_DRAIN_
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.rules.RuleChain.outerRule;
 
-import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.DisableOnDebug;
@@ -192,33 +191,30 @@ public class ClientProduceIT
         k3po.finish();
     }
 
-    @Ignore("TODO")
     @Test
-    @Configuration("client.when.topic.yaml")
+    @Configuration("client.options.compression.gzip.yaml")
     @Specification({
-        "${app}/message.value.gzip/client",
+        "${app}/message.value.compressible/client",
         "${net}/message.value.gzip/server"})
     public void shouldSendMessageValueGzip() throws Exception
     {
         k3po.finish();
     }
 
-    @Ignore("TODO")
     @Test
-    @Configuration("client.when.topic.yaml")
+    @Configuration("client.options.compression.snappy.yaml")
     @Specification({
-        "${app}/message.value.snappy/client",
+        "${app}/message.value.compressible/client",
         "${net}/message.value.snappy/server"})
     public void shouldSendMessageValueSnappy() throws Exception
     {
         k3po.finish();
     }
 
-    @Ignore("TODO")
     @Test
-    @Configuration("client.when.topic.yaml")
+    @Configuration("client.options.compression.lz4.yaml")
     @Specification({
-        "${app}/message.value.lz4/client",
+        "${app}/message.value.compressible/client",
         "${net}/message.value.lz4/server"})
     public void shouldSendMessageValueLz4() throws Exception
     {
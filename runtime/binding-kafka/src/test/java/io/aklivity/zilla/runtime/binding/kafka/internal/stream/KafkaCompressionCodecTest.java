@@ -0,0 +1,274 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.binding.kafka.internal.stream;
+
+import static io.aklivity.zilla.runtime.binding.kafka.internal.stream.KafkaCompressionCodec.COMPRESSION_GZIP;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.stream.KafkaCompressionCodec.COMPRESSION_LZ4;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.stream.KafkaCompressionCodec.COMPRESSION_NONE;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.stream.KafkaCompressionCodec.COMPRESSION_SNAPPY;
+import static io.aklivity.zilla.runtime.binding.kafka.internal.stream.KafkaCompressionCodec.COMPRESSION_ZSTD;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+import io.aklivity.zilla.runtime.binding.kafka.config.KafkaCompressionConfig;
+
+public class KafkaCompressionCodecTest
+{
+    private final KafkaCompressionCodec codec = new KafkaCompressionCodec();
+
+    @Test
+    public void shouldMapCompressionConfig()
+    {
+        assertEquals(COMPRESSION_NONE, KafkaCompressionCodec.compression(null));
+        assertEquals(COMPRESSION_NONE, KafkaCompressionCodec.compression(KafkaCompressionConfig.NONE));
+        assertEquals(COMPRESSION_GZIP, KafkaCompressionCodec.compression(KafkaCompressionConfig.GZIP));
+        assertEquals(COMPRESSION_SNAPPY, KafkaCompressionCodec.compression(KafkaCompressionConfig.SNAPPY));
+        assertEquals(COMPRESSION_LZ4, KafkaCompressionCodec.compression(KafkaCompressionConfig.LZ4));
+    }
+
+    @Test
+    public void shouldCompressAndDecompressGzip()
+    {
+        assertRoundTrip(COMPRESSION_GZIP);
+    }
+
+    @Test
+    public void shouldCompressAndDecompressSnappy()
+    {
+        assertRoundTrip(COMPRESSION_SNAPPY);
+    }
+
+    @Test
+    public void shouldCompressAndDecompressLz4()
+    {
+        assertRoundTrip(COMPRESSION_LZ4);
+    }
+
+    @Test
+    public void shouldNotCompressZstd()
+    {
+        final byte[] records = repetitive(100);
+        final ExpandableArrayBuffer compressed = new ExpandableArrayBuffer();
+
+        assertEquals(-1, codec.compress(COMPRESSION_ZSTD, new UnsafeBuffer(records), 0, records.length, compressed));
+    }
+
+    @Test
+    public void shouldDecompressGzipStream() throws Exception
+    {
+        final byte[] records = repetitive(10000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed))
+        {
+            out.write(records);
+        }
+
+        assertDecompressed(COMPRESSION_GZIP, compressed.toByteArray(), records);
+    }
+
+    @Test
+    public void shouldCompressGzipStream() throws Exception
+    {
+        final byte[] records = repetitive(10000);
+        final ExpandableArrayBuffer compressed = new ExpandableArrayBuffer();
+        final int compressedSize = codec.compress(COMPRESSION_GZIP, new UnsafeBuffer(records), 0, records.length, compressed);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.byteArray(), 0, compressedSize)))
+        {
+            assertArrayEquals(records, in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void shouldRejectGzipWithCorruptTrailer() throws Exception
+    {
+        final byte[] records = repetitive(10000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed))
+        {
+            out.write(records);
+        }
+
+        final byte[] corruptCrc = compressed.toByteArray();
+        corruptCrc[corruptCrc.length - 8] ^= 0x01;
+
+        final byte[] corruptSize = compressed.toByteArray();
+        corruptSize[corruptSize.length - 4] ^= 0x01;
+
+        final byte[] truncated = Arrays.copyOf(corruptCrc, corruptCrc.length - 4);
+
+        final ExpandableArrayBuffer decompressed = new ExpandableArrayBuffer();
+        assertEquals(-1, decompress(COMPRESSION_GZIP, corruptCrc, decompressed, Integer.MAX_VALUE));
+        assertEquals(-1, decompress(COMPRESSION_GZIP, corruptSize, decompressed, Integer.MAX_VALUE));
+        assertEquals(-1, decompress(COMPRESSION_GZIP, truncated, decompressed, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldDecompressZstdStream() throws Exception
+    {
+        final byte[] records = repetitive(10000);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ZstdOutputStream out = new ZstdOutputStream(compressed))
+        {
+            out.write(records);
+        }
+
+        assertDecompressed(COMPRESSION_ZSTD, compressed.toByteArray(), records);
+    }
+
+    @Test
+    public void shouldDecompressSnappyBlock()
+    {
+        final byte[] compressed = {
+            0x0c, 0x0c, 'a', 'b', 'c', 'd', 0x11, 0x04
+        };
+
+        assertDecompressed(COMPRESSION_SNAPPY, compressed, "abcdabcdabcd".getBytes(UTF_8));
+    }
+
+    @Test
+    public void shouldEncodeLz4FrameDescriptor()
+    {
+        final byte[] records = repetitive(100);
+        final ExpandableArrayBuffer compressed = new ExpandableArrayBuffer();
+        codec.compress(COMPRESSION_LZ4, new UnsafeBuffer(records), 0, records.length, compressed);
+
+        final byte[] descriptor = new byte[7];
+        compressed.getBytes(0, descriptor);
+
+        assertArrayEquals(new byte[] { 0x04, 0x22, 0x4d, 0x18, 0x60, 0x40, (byte) 0x82 }, descriptor);
+    }
+
+    @Test
+    public void shouldRejectMalformedRecords()
+    {
+        final byte[] malformed = "not compressed".getBytes(UTF_8);
+        final ExpandableArrayBuffer decompressed = new ExpandableArrayBuffer();
+
+        assertEquals(-1, decompress(COMPRESSION_GZIP, malformed, decompressed, Integer.MAX_VALUE));
+        assertEquals(-1, decompress(COMPRESSION_SNAPPY, malformed, decompressed, Integer.MAX_VALUE));
+        assertEquals(-1, decompress(COMPRESSION_LZ4, malformed, decompressed, Integer.MAX_VALUE));
+        assertEquals(-1, decompress(COMPRESSION_ZSTD, malformed, decompressed, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldRejectRecordsExceedingMaxLength() throws Exception
+    {
+        final byte[] records = repetitive(200000);
+
+        for (int compression : new int[] { COMPRESSION_GZIP, COMPRESSION_SNAPPY, COMPRESSION_LZ4 })
+        {
+            final ExpandableArrayBuffer compressed = new ExpandableArrayBuffer();
+            final int compressedSize = codec.compress(compression, new UnsafeBuffer(records), 0, records.length, compressed);
+            final byte[] compressedBytes = new byte[compressedSize];
+            compressed.getBytes(0, compressedBytes);
+
+            final ExpandableArrayBuffer decompressed = new ExpandableArrayBuffer();
+            assertEquals(-1, decompress(compression, compressedBytes, decompressed, records.length - 1));
+            assertEquals(records.length, decompress(compression, compressedBytes, decompressed, records.length));
+        }
+
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (ZstdOutputStream out = new ZstdOutputStream(compressed))
+        {
+            out.write(records);
+        }
+
+        final ExpandableArrayBuffer decompressed = new ExpandableArrayBuffer();
+        assertEquals(-1, decompress(COMPRESSION_ZSTD, compressed.toByteArray(), decompressed, records.length - 1));
+        assertEquals(records.length, decompress(COMPRESSION_ZSTD, compressed.toByteArray(), decompressed, records.length));
+    }
+
+    private int decompress(
+        int compression,
+        byte[] compressed,
+        ExpandableArrayBuffer decompressed,
+        int maxLength)
+    {
+        return codec.decompress(compression, new UnsafeBuffer(compressed), 0, compressed.length, decompressed, maxLength);
+    }
+
+    private void assertRoundTrip(
+        int compression)
+    {
+        final Random random = new Random(compression);
+        final byte[] noise = new byte[200000];
+        random.nextBytes(noise);
+
+        for (byte[] records : new byte[][] { new byte[0], "a".getBytes(UTF_8), repetitive(200000), noise })
+        {
+            final ExpandableArrayBuffer compressed = new ExpandableArrayBuffer();
+            final int compressedSize = codec.compress(compression, new UnsafeBuffer(records), 0, records.length, compressed);
+            assertTrue(compressedSize > 0);
+
+            if (records.length == 200000 && records != noise)
+            {
+                assertTrue(compressedSize < records.length / 10);
+            }
+
+            final byte[] compressedBytes = new byte[compressedSize];
+            compressed.getBytes(0, compressedBytes);
+
+            assertDecompressed(compression, compressedBytes, records);
+        }
+    }
+
+    private void assertDecompressed(
+        int compression,
+        byte[] compressed,
+        byte[] expected)
+    {
+        final byte[] framed = new byte[compressed.length + 16];
+        System.arraycopy(compressed, 0, framed, 8, compressed.length);
+
+        final ExpandableArrayBuffer decompressed = new ExpandableArrayBuffer(16);
+        final int decompressedSize =
+            codec.decompress(compression, new UnsafeBuffer(framed), 8, compressed.length, decompressed, Integer.MAX_VALUE);
+
+        final byte[] actual = new byte[Math.max(decompressedSize, 0)];
+        decompressed.getBytes(0, actual);
+
+        assertEquals(expected.length, decompressedSize);
+        assertArrayEquals(expected, actual);
+    }
+
+    private static byte[] repetitive(
+        int length)
+    {
+        final byte[] pattern = "{\"id\":\"key\",\"value\":\"message value\"}".getBytes(UTF_8);
+        final byte[] records = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            records[i] = pattern[i % pattern.length];
+        }
+        return records;
+    }
+}
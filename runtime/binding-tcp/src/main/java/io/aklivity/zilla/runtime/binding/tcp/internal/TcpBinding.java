@@ -23,6 +23,8 @@ import io.aklivity.zilla.runtime.binding.tcp.internal.config.TcpServerBindingCon
 import io.aklivity.zilla.runtime.engine.EngineContext;
 import io.aklivity.zilla.runtime.engine.binding.Binding;
 import io.aklivity.zilla.runtime.engine.binding.BindingContext;
+import io.aklivity.zilla.runtime.engine.binding.WorkerSelection;
+import io.aklivity.zilla.runtime.engine.config.KindConfig;
 
 public final class TcpBinding implements Binding
 {
@@ -59,6 +61,14 @@ public final class TcpBinding implements Binding
         return new TcpBindingContext(config, context, this::supplyServer);
     }
 
+    @Override
+    public WorkerSelection selection(
+        KindConfig kind)
+    {
+        // outbound connections follow zilla.engine.worker.selection unless overridden for tcp clients
+        return kind == KindConfig.CLIENT ? config.clientWorkerSelection() : null;
+    }
+
     private TcpServerBindingConfig supplyServer(
         long bindingId)
     {
@@ -16,11 +16,14 @@
 package io.aklivity.zilla.runtime.binding.tcp.internal;
 
 import io.aklivity.zilla.runtime.engine.Configuration;
+import io.aklivity.zilla.runtime.engine.binding.WorkerSelection;
 
 public class TcpConfiguration extends Configuration
 {
     public static final IntPropertyDef TCP_WINDOW_THRESHOLD;
     public static final IntPropertyDef TCP_MAX_CONNECTIONS;
+    public static final BooleanPropertyDef TCP_REUSE_PORT;
+    public static final PropertyDef<WorkerSelection> TCP_CLIENT_WORKER_SELECTION;
 
     private static final ConfigurationDef TCP_CONFIG;
 
@@ -29,6 +32,9 @@ public class TcpConfiguration extends Configuration
         ConfigurationDef config = new ConfigurationDef("zilla.binding.tcp");
         TCP_WINDOW_THRESHOLD = config.property("window.threshold", 0);
         TCP_MAX_CONNECTIONS = config.property("max.connections", Integer.MAX_VALUE);
+        TCP_REUSE_PORT = config.property("reuse.port", false);
+        TCP_CLIENT_WORKER_SELECTION = config.property(WorkerSelection.class, "client.worker.selection",
+                WorkerSelection::of, (WorkerSelection) null);
         TCP_CONFIG = config;
     }
 
@@ -49,4 +55,14 @@ public class TcpConfiguration extends Configuration
     {
         return TCP_MAX_CONNECTIONS.getAsInt(this);
     }
+
+    public boolean reusePort()
+    {
+        return TCP_REUSE_PORT.getAsBoolean(this);
+    }
+
+    public WorkerSelection clientWorkerSelection()
+    {
+        return TCP_CLIENT_WORKER_SELECTION.get(this);
+    }
 }
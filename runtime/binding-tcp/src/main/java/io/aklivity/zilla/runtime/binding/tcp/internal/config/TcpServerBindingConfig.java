@@ -57,23 +57,7 @@ public final class TcpServerBindingConfig
             {
                 assert channels == null;
 
-                int size = options.ports != null ? options.ports.length : 0;
-                channels = new ServerSocketChannel[size];
-
-                for (int i = 0; i < size; i++)
-                {
-                    ServerSocketChannel channel = ServerSocketChannel.open();
-
-                    InetAddress address = InetAddress.getByName(options.host);
-                    InetSocketAddress local = new InetSocketAddress(address, options.ports[i]);
-
-                    channel.setOption(SO_REUSEADDR, true);
-                    channel.setOption(SO_REUSEPORT, true);
-                    channel.bind(local, options.backlog);
-                    channel.configureBlocking(false);
-
-                    channels[i] = channel;
-                }
+                channels = open(options);
             }
         }
         catch (IOException ex)
@@ -97,10 +81,7 @@ public final class TcpServerBindingConfig
             if (binds.decrementAndGet() == 0L)
             {
                 assert channels != null;
-                for (ServerSocketChannel channel : channels)
-                {
-                    quietClose(channel);
-                }
+                close(channels);
                 channels = null;
             }
         }
@@ -109,4 +90,44 @@ public final class TcpServerBindingConfig
             lock.unlock();
         }
     }
+
+    public static ServerSocketChannel[] open(
+        TcpOptionsConfig options) throws IOException
+    {
+        int size = options.ports != null ? options.ports.length : 0;
+        ServerSocketChannel[] channels = new ServerSocketChannel[size];
+
+        try
+        {
+            for (int i = 0; i < size; i++)
+            {
+                ServerSocketChannel channel = ServerSocketChannel.open();
+                channels[i] = channel;
+
+                InetAddress address = InetAddress.getByName(options.host);
+                InetSocketAddress local = new InetSocketAddress(address, options.ports[i]);
+
+                channel.setOption(SO_REUSEADDR, true);
+                channel.setOption(SO_REUSEPORT, true);
+                channel.bind(local, options.backlog);
+                channel.configureBlocking(false);
+            }
+        }
+        catch (IOException ex)
+        {
+            close(channels);
+            throw ex;
+        }
+
+        return channels;
+    }
+
+    public static void close(
+        ServerSocketChannel[] channels)
+    {
+        for (ServerSocketChannel channel : channels)
+        {
+            quietClose(channel);
+        }
+    }
 }
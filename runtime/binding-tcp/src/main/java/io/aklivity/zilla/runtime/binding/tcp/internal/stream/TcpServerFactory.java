@@ -17,6 +17,7 @@ package io.aklivity.zilla.runtime.binding.tcp.internal.stream;
 
 import static io.aklivity.zilla.runtime.binding.tcp.internal.TcpBinding.WRITE_SPIN_COUNT;
 import static io.aklivity.zilla.runtime.binding.tcp.internal.util.IpUtil.proxyAddress;
+import static io.aklivity.zilla.runtime.engine.binding.function.MessageConsumer.NO_CLAIM;
 import static io.aklivity.zilla.runtime.engine.buffer.BufferPool.NO_SLOT;
 import static java.net.StandardSocketOptions.SO_KEEPALIVE;
 import static java.net.StandardSocketOptions.TCP_NODELAY;
@@ -353,7 +354,7 @@ public class TcpServerFactory implements TcpStreamFactory
                 {
                     if (writeSlot == NO_SLOT)
                     {
-                        writeSlot = bufferPool.acquire(replyId);
+                        writeSlot = bufferPool.acquire(replyId, length - bytesWritten);
                     }
 
                     if (writeSlot == NO_SLOT)
@@ -505,31 +506,37 @@ public class TcpServerFactory implements TcpStreamFactory
                 assert reserved == length;
                 assert length > 0;
 
-                ByteBuffer byteBuffer;
-
                 if (writeSlot != NO_SLOT)
                 {
-                    final MutableDirectBuffer slotBuffer = bufferPool.buffer(writeSlot);
-                    slotBuffer.putBytes(writeSlotOffset, buffer, offset, length);
-                    writeSlotOffset += length;
+                    final int newWriteSlot = bufferPool.grow(writeSlot, writeSlotOffset + length);
+
+                    if (newWriteSlot == NO_SLOT)
+                    {
+                        doAppReset(traceId);
+                        cleanup(traceId);
+                    }
+                    else
+                    {
+                        writeSlot = newWriteSlot;
+
+                        final MutableDirectBuffer slotBuffer = bufferPool.buffer(writeSlot);
+                        slotBuffer.putBytes(writeSlotOffset, buffer, offset, length);
+                        writeSlotOffset += length;
 
-                    final ByteBuffer slotByteBuffer = bufferPool.byteBuffer(writeSlot);
-                    slotByteBuffer.limit(slotByteBuffer.position() + writeSlotOffset);
+                        final ByteBuffer slotByteBuffer = bufferPool.byteBuffer(writeSlot);
+                        slotByteBuffer.limit(slotByteBuffer.position() + writeSlotOffset);
 
-                    buffer = slotBuffer;
-                    offset = 0;
-                    length = writeSlotOffset;
-                    byteBuffer = slotByteBuffer;
+                        doNetWrite(slotBuffer, 0, writeSlotOffset, slotByteBuffer, traceId);
+                    }
                 }
                 else
                 {
                     writeByteBuffer.clear();
                     buffer.getBytes(offset, writeByteBuffer, length);
                     writeByteBuffer.flip();
-                    byteBuffer = writeByteBuffer;
-                }
 
-                doNetWrite(buffer, offset, length, byteBuffer, traceId);
+                    doNetWrite(buffer, offset, length, writeByteBuffer, traceId);
+                }
             }
         }
 
@@ -790,20 +797,47 @@ public class TcpServerFactory implements TcpStreamFactory
         int offset,
         int length)
     {
-        DataFW data = dataRW.wrap(writeBuffer, 0, writeBuffer.capacity())
-                .originId(originId)
-                .routedId(routedId)
-                .streamId(streamId)
-                .sequence(sequence)
-                .acknowledge(acknowledge)
-                .maximum(maximum)
-                .traceId(traceId)
-                .budgetId(budgetId)
-                .reserved(reserved)
-                .payload(payload, offset, length)
-                .build();
+        final int claimLength = DataFW.FIELD_OFFSET_PAYLOAD + length;
+        final int claimIndex = stream.claim(DataFW.TYPE_ID, claimLength);
+        final boolean claimed = claimIndex != NO_CLAIM;
+
+        final MutableDirectBuffer buffer = claimed ? stream.claimBuffer() : writeBuffer;
+        final int index = claimed ? claimIndex : 0;
+        final int limit = claimed ? claimIndex + claimLength : writeBuffer.capacity();
 
-        stream.accept(data.typeId(), data.buffer(), data.offset(), data.sizeof());
+        boolean pending = claimed;
+        try
+        {
+            DataFW data = dataRW.wrap(buffer, index, limit)
+                    .originId(originId)
+                    .routedId(routedId)
+                    .streamId(streamId)
+                    .sequence(sequence)
+                    .acknowledge(acknowledge)
+                    .maximum(maximum)
+                    .traceId(traceId)
+                    .budgetId(budgetId)
+                    .reserved(reserved)
+                    .payload(payload, offset, length)
+                    .build();
+
+            if (claimed)
+            {
+                pending = false;
+                stream.commit(data.typeId(), claimIndex, data.sizeof());
+            }
+            else
+            {
+                stream.accept(data.typeId(), data.buffer(), data.offset(), data.sizeof());
+            }
+        }
+        finally
+        {
+            if (pending)
+            {
+                stream.abort(claimIndex);
+            }
+        }
     }
 
     private void doEnd(
@@ -27,6 +27,7 @@ import java.util.function.LongFunction;
 import java.util.function.ToIntFunction;
 
 import org.agrona.CloseHelper;
+import org.agrona.LangUtil;
 import org.agrona.collections.Long2ObjectHashMap;
 
 import io.aklivity.zilla.runtime.binding.tcp.internal.TcpConfiguration;
@@ -41,6 +42,8 @@ public final class TcpServerRouter
     private final ToIntFunction<PollerKey> acceptHandler;
     private final Function<SelectableChannel, PollerKey> supplyPollerKey;
     private final LongFunction<TcpServerBindingConfig> lookupServer;
+    private final boolean reusePort;
+    private final Long2ObjectHashMap<ServerSocketChannel[]> channelsById;
 
     private int remainingConnections;
     private boolean unbound;
@@ -56,6 +59,8 @@ public final class TcpServerRouter
         this.supplyPollerKey = context::supplyPollerKey;
         this.acceptHandler = acceptHandler;
         this.lookupServer = lookupServer;
+        this.reusePort = config.reusePort();
+        this.channelsById = new Long2ObjectHashMap<>();
     }
 
     public void attach(
@@ -130,8 +135,9 @@ public final class TcpServerRouter
     private void register(
         TcpBindingConfig binding)
     {
-        TcpServerBindingConfig server = lookupServer.apply(binding.id);
-        ServerSocketChannel[] channels = server.bind(binding.options);
+        ServerSocketChannel[] channels = reusePort
+            ? bindLocal(binding)
+            : lookupServer.apply(binding.id).bind(binding.options);
 
         PollerKey[] acceptKeys = new PollerKey[channels.length];
         for (int i = 0; i < channels.length; i++)
@@ -158,7 +164,41 @@ public final class TcpServerRouter
             }
         }
 
-        TcpServerBindingConfig server = lookupServer.apply(binding.id);
-        server.unbind();
+        if (reusePort)
+        {
+            unbindLocal(binding);
+        }
+        else
+        {
+            lookupServer.apply(binding.id).unbind();
+        }
+    }
+
+    private ServerSocketChannel[] bindLocal(
+        TcpBindingConfig binding)
+    {
+        ServerSocketChannel[] channels = null;
+
+        try
+        {
+            channels = TcpServerBindingConfig.open(binding.options);
+            channelsById.put(binding.id, channels);
+        }
+        catch (IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+
+        return channels;
+    }
+
+    private void unbindLocal(
+        TcpBindingConfig binding)
+    {
+        ServerSocketChannel[] channels = channelsById.remove(binding.id);
+        if (channels != null)
+        {
+            TcpServerBindingConfig.close(channels);
+        }
     }
 }
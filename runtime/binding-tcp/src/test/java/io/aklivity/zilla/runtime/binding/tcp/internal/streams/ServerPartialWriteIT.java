@@ -48,12 +48,15 @@ import io.aklivity.zilla.runtime.binding.tcp.internal.SocketChannelHelper.Handle
 import io.aklivity.zilla.runtime.binding.tcp.internal.SocketChannelHelper.OnDataHelper;
 import io.aklivity.zilla.runtime.engine.test.EngineRule;
 import io.aklivity.zilla.runtime.engine.test.annotation.Configuration;
+import io.aklivity.zilla.runtime.engine.test.annotation.Configure;
 
 @RunWith(org.jboss.byteman.contrib.bmunit.BMUnitRunner.class)
 @BMUnitConfig(loadDirectory = "src/test/resources")
 @BMScript(value = "SocketChannelHelper.btm")
 public class ServerPartialWriteIT
 {
+    private static final String ENGINE_BUFFER_SLOT_MIN_CAPACITY_NAME = "zilla.engine.buffer.slot.min.capacity";
+
     private final K3poRule k3po = new K3poRule()
         .addScriptRoot("client", "io/aklivity/zilla/specs/binding/tcp/streams/network/rfc793")
         .addScriptRoot("server", "io/aklivity/zilla/specs/binding/tcp/streams/application/rfc793");
@@ -146,6 +149,23 @@ public class ServerPartialWriteIT
         k3po.finish();
     }
 
+    @Test
+    @Configuration("server.yaml")
+    @Specification({
+        "${server}/server.sent.data.multiple.frames/server",
+        "${client}/server.sent.data.multiple.frames/client"
+    })
+    @Configure(name = ENGINE_BUFFER_SLOT_MIN_CAPACITY_NAME, value = "8")
+    public void shouldGrowSizedSlotWhenMoreDataArrivesWhileAwaitingSocketWritable() throws Exception
+    {
+        AtomicBoolean finishWrite = new AtomicBoolean(false);
+
+        OnDataHelper.fragmentWrites(concat(of(5), generate(() -> finishWrite.getAndSet(true) ? 0 : 15)));
+        HandleWriteHelper.fragmentWrites(generate(() -> finishWrite.get() ? ALL : 0));
+
+        k3po.finish();
+    }
+
     @Test
     @Configuration("server.yaml")
     @Specification({
@@ -71,6 +71,7 @@ import io.aklivity.zilla.runtime.engine.internal.Info;
 import io.aklivity.zilla.runtime.engine.internal.LabelManager;
 import io.aklivity.zilla.runtime.engine.internal.Tuning;
 import io.aklivity.zilla.runtime.engine.internal.layouts.BindingsLayout;
+import io.aklivity.zilla.runtime.engine.internal.layouts.LoadLayout;
 import io.aklivity.zilla.runtime.engine.internal.registry.ConfigurationManager;
 import io.aklivity.zilla.runtime.engine.internal.registry.EngineWorker;
 import io.aklivity.zilla.runtime.engine.internal.registry.FileWatcherTask;
@@ -89,6 +90,7 @@ public final class Engine implements Collector, AutoCloseable
     private final ExecutorService tasks;
     private final Collection<AgentRunner> runners;
     private final Tuning tuning;
+    private final LoadLayout loadLayout;
     private final List<EngineExtSpi> extensions;
     private final ContextImpl context;
 
@@ -163,11 +165,18 @@ public final class Engine implements Collector, AutoCloseable
         }
         this.tuning = tuning;
 
+        LoadLayout loadLayout = new LoadLayout.Builder()
+            .path(config.directory().resolve("load"))
+            .capacity(workerCount)
+            .readonly(readonly)
+            .build();
+        this.loadLayout = loadLayout;
+
         List<EngineWorker> workers = new ArrayList<>(workerCount);
         for (int coreIndex = 0; coreIndex < workerCount; coreIndex++)
         {
             EngineWorker worker =
-                new EngineWorker(config, tasks, labels, errorHandler, tuning::affinity,
+                new EngineWorker(config, tasks, labels, errorHandler, tuning::affinity, loadLayout,
                         bindings, exporters, guards, vaults, catalogs, metricGroups, validatorFactory,
                     this, coreIndex, readonly);
             workers.add(worker);
@@ -282,6 +291,7 @@ public final class Engine implements Collector, AutoCloseable
         }
 
         tuning.close();
+        loadLayout.close();
 
         extensions.forEach(e -> e.onUnregistered(context));
 
@@ -308,16 +318,18 @@ public final class Engine implements Collector, AutoCloseable
         {
             writeBindingsLayout(newNamespace);
             NamespaceConfig oldNamespace = namespaces.get(configURL);
-            configurationManager.unregister(oldNamespace);
             try
             {
-                configurationManager.register(newNamespace);
+                configurationManager.reconfigure(oldNamespace, newNamespace);
                 namespaces.put(configURL, newNamespace);
             }
             catch (Exception ex)
             {
                 context.onError(ex);
-                configurationManager.register(oldNamespace);
+                if (oldNamespace != null)
+                {
+                    writeBindingsLayout(oldNamespace);
+                }
                 namespaces.put(configURL, oldNamespace);
             }
         }
@@ -34,6 +34,7 @@ import java.util.function.Function;
 
 import org.agrona.LangUtil;
 
+import io.aklivity.zilla.runtime.engine.binding.WorkerSelection;
 import io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout;
 
 public class EngineConfiguration extends Configuration
@@ -49,10 +50,13 @@ public class EngineConfiguration extends Configuration
     public static final IntPropertyDef ENGINE_WORKER_CAPACITY;
     public static final IntPropertyDef ENGINE_BUFFER_POOL_CAPACITY;
     public static final IntPropertyDef ENGINE_BUFFER_SLOT_CAPACITY;
+    public static final IntPropertyDef ENGINE_BUFFER_SLOT_MIN_CAPACITY;
     public static final IntPropertyDef ENGINE_STREAMS_BUFFER_CAPACITY;
+    public static final IntPropertyDef ENGINE_STREAMS_SPILL_CAPACITY;
     public static final IntPropertyDef ENGINE_COUNTERS_BUFFER_CAPACITY;
     public static final IntPropertyDef ENGINE_BUDGETS_BUFFER_CAPACITY;
     public static final BooleanPropertyDef ENGINE_TIMESTAMPS;
+    public static final BooleanPropertyDef ENGINE_TIMESTAMPS_HIGH_RESOLUTION;
     public static final IntPropertyDef ENGINE_MAXIMUM_MESSAGES_PER_READ;
     public static final IntPropertyDef ENGINE_MAXIMUM_EXPIRATIONS_PER_POLL;
     public static final IntPropertyDef ENGINE_TASK_PARALLELISM;
@@ -60,6 +64,8 @@ public class EngineConfiguration extends Configuration
     public static final LongPropertyDef ENGINE_BACKOFF_MAX_YIELDS;
     public static final LongPropertyDef ENGINE_BACKOFF_MIN_PARK_NANOS;
     public static final LongPropertyDef ENGINE_BACKOFF_MAX_PARK_NANOS;
+    public static final PropertyDef<String> ENGINE_IDLE_STRATEGY;
+    public static final PropertyDef<String> ENGINE_POLLER;
     public static final BooleanPropertyDef ENGINE_DRAIN_ON_CLOSE;
     public static final BooleanPropertyDef ENGINE_SYNTHETIC_ABORT;
     public static final LongPropertyDef ENGINE_ROUTED_DELAY_MILLIS;
@@ -67,6 +73,7 @@ public class EngineConfiguration extends Configuration
     public static final BooleanPropertyDef ENGINE_VERBOSE;
     public static final BooleanPropertyDef ENGINE_VERBOSE_SCHEMA;
     public static final IntPropertyDef ENGINE_WORKERS;
+    public static final PropertyDef<WorkerSelection> ENGINE_WORKER_SELECTION;
     public static final BooleanPropertyDef ENGINE_CONFIG_RESOLVE_EXPRESSIONS;
 
     private static final ConfigurationDef ENGINE_CONFIG;
@@ -85,12 +92,17 @@ public class EngineConfiguration extends Configuration
         ENGINE_WORKER_CAPACITY = config.property("worker.capacity", 64);
         ENGINE_BUFFER_POOL_CAPACITY = config.property("buffer.pool.capacity", EngineConfiguration::defaultBufferPoolCapacity);
         ENGINE_BUFFER_SLOT_CAPACITY = config.property("buffer.slot.capacity", 64 * 1024);
+        ENGINE_BUFFER_SLOT_MIN_CAPACITY = config.property("buffer.slot.min.capacity",
+                EngineConfiguration::defaultBufferSlotMinCapacity);
         ENGINE_STREAMS_BUFFER_CAPACITY = config.property("streams.buffer.capacity",
                 EngineConfiguration::defaultStreamsBufferCapacity);
+        ENGINE_STREAMS_SPILL_CAPACITY = config.property("streams.spill.capacity",
+                EngineConfiguration::defaultStreamsSpillCapacity);
         ENGINE_BUDGETS_BUFFER_CAPACITY = config.property("budgets.buffer.capacity",
                 EngineConfiguration::defaultBudgetsBufferCapacity);
         ENGINE_COUNTERS_BUFFER_CAPACITY = config.property("counters.buffer.capacity", 1024 * 1024);
         ENGINE_TIMESTAMPS = config.property("timestamps", true);
+        ENGINE_TIMESTAMPS_HIGH_RESOLUTION = config.property("timestamps.high.resolution", false);
         ENGINE_MAXIMUM_MESSAGES_PER_READ = config.property("maximum.messages.per.read", Integer.MAX_VALUE);
         ENGINE_MAXIMUM_EXPIRATIONS_PER_POLL = config.property("maximum.expirations.per.poll", Integer.MAX_VALUE);
         ENGINE_TASK_PARALLELISM = config.property("task.parallelism", 1);
@@ -98,6 +110,8 @@ public class EngineConfiguration extends Configuration
         ENGINE_BACKOFF_MAX_YIELDS = config.property("backoff.idle.strategy.max.yields", 64L);
         ENGINE_BACKOFF_MIN_PARK_NANOS = config.property("backoff.min.park.nanos", NANOSECONDS.toNanos(64L));
         ENGINE_BACKOFF_MAX_PARK_NANOS = config.property("backoff.max.park.nanos", MILLISECONDS.toNanos(100L));
+        ENGINE_IDLE_STRATEGY = config.property("idle.strategy", "backoff");
+        ENGINE_POLLER = config.property("poller", "selected.keys");
         ENGINE_DRAIN_ON_CLOSE = config.property("drain.on.close", false);
         ENGINE_SYNTHETIC_ABORT = config.property("synthetic.abort", false);
         ENGINE_ROUTED_DELAY_MILLIS = config.property("routed.delay.millis", 0L);
@@ -105,6 +119,8 @@ public class EngineConfiguration extends Configuration
         ENGINE_VERBOSE = config.property("verbose", false);
         ENGINE_VERBOSE_SCHEMA = config.property("verbose.schema", false);
         ENGINE_WORKERS = config.property("workers", Runtime.getRuntime().availableProcessors());
+        ENGINE_WORKER_SELECTION = config.property(WorkerSelection.class, "worker.selection",
+                WorkerSelection::of, WorkerSelection.ROUND_ROBIN);
         ENGINE_CONFIG_RESOLVE_EXPRESSIONS = config.property("config.resolve.expressions", true);
         ENGINE_CONFIG = config;
     }
@@ -169,6 +185,11 @@ public class EngineConfiguration extends Configuration
         return ENGINE_BUFFER_SLOT_CAPACITY.getAsInt(this);
     }
 
+    public int bufferSlotMinCapacity()
+    {
+        return ENGINE_BUFFER_SLOT_MIN_CAPACITY.getAsInt(this);
+    }
+
     public int budgetsBufferCapacity()
     {
         return ENGINE_BUDGETS_BUFFER_CAPACITY.getAsInt(this);
@@ -179,6 +200,11 @@ public class EngineConfiguration extends Configuration
         return ENGINE_STREAMS_BUFFER_CAPACITY.getAsInt(this);
     }
 
+    public int streamsSpillCapacity()
+    {
+        return ENGINE_STREAMS_SPILL_CAPACITY.getAsInt(this);
+    }
+
     public int countersBufferCapacity()
     {
         return ENGINE_COUNTERS_BUFFER_CAPACITY.getAsInt(this);
@@ -204,6 +230,11 @@ public class EngineConfiguration extends Configuration
         return ENGINE_TIMESTAMPS.getAsBoolean(this);
     }
 
+    public boolean timestampsHighResolution()
+    {
+        return ENGINE_TIMESTAMPS_HIGH_RESOLUTION.getAsBoolean(this);
+    }
+
     public long maxSpins()
     {
         return ENGINE_BACKOFF_MAX_SPINS.getAsLong(this);
@@ -224,6 +255,19 @@ public class EngineConfiguration extends Configuration
         return ENGINE_BACKOFF_MAX_PARK_NANOS.getAsLong(this);
     }
 
+    public String idleStrategy(
+        int index)
+    {
+        // comma-separated by worker index, last entry applies to remaining workers
+        final String[] idleStrategies = ENGINE_IDLE_STRATEGY.get(this).split(",");
+        return idleStrategies[Math.min(index, idleStrategies.length - 1)].trim();
+    }
+
+    public String poller()
+    {
+        return ENGINE_POLLER.get(this);
+    }
+
     public boolean drainOnClose()
     {
         return ENGINE_DRAIN_ON_CLOSE.getAsBoolean(this);
@@ -259,6 +303,11 @@ public class EngineConfiguration extends Configuration
         return ENGINE_WORKERS.getAsInt(this);
     }
 
+    public WorkerSelection workerSelection()
+    {
+        return ENGINE_WORKER_SELECTION.get(this);
+    }
+
     public boolean configResolveExpressions()
     {
         return ENGINE_CONFIG_RESOLVE_EXPRESSIONS.getAsBoolean(this);
@@ -275,12 +324,24 @@ public class EngineConfiguration extends Configuration
         return ENGINE_BUFFER_SLOT_CAPACITY.get(config) * ENGINE_WORKER_CAPACITY.getAsInt(config);
     }
 
+    private static int defaultBufferSlotMinCapacity(
+        Configuration config)
+    {
+        return ENGINE_BUFFER_SLOT_CAPACITY.get(config);
+    }
+
     private static int defaultStreamsBufferCapacity(
         Configuration config)
     {
         return ENGINE_BUFFER_SLOT_CAPACITY.get(config) * ENGINE_WORKER_CAPACITY.getAsInt(config);
     }
 
+    private static int defaultStreamsSpillCapacity(
+        Configuration config)
+    {
+        return ENGINE_STREAMS_BUFFER_CAPACITY.getAsInt(config);
+    }
+
     private static int defaultBudgetsBufferCapacity(
         Configuration config)
     {
@@ -75,6 +75,9 @@ public interface EngineContext
     void detachStreams(
         long bindingId);
 
+    boolean congested(
+        long streamId);
+
     BudgetCreditor creditor();
 
     BudgetDebitor supplyDebitor(
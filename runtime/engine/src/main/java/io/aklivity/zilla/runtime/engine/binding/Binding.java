@@ -49,4 +49,17 @@ public interface Binding
     {
         return Integer.MAX_VALUE;
     }
+
+    /**
+     * Returns the policy used to select the worker for new streams to this binding.
+     *
+     * @param kind  the binding kind
+     *
+     * @return the worker selection policy, or {@code null} to use the engine default
+     */
+    default WorkerSelection selection(
+        KindConfig kind)
+    {
+        return null;
+    }
 }
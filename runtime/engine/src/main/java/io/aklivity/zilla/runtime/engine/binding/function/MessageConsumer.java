@@ -24,6 +24,8 @@ import org.agrona.concurrent.MessageHandler;
 @FunctionalInterface
 public interface MessageConsumer extends MessageHandler, AutoCloseable
 {
+    int NO_CLAIM = -1;
+
     MessageConsumer NOOP = new MessageConsumer()
     {
         @Override
@@ -50,6 +52,41 @@ public interface MessageConsumer extends MessageHandler, AutoCloseable
         int index,
         int length);
 
+    default int claim(
+        int msgTypeId,
+        int length)
+    {
+        return NO_CLAIM;
+    }
+
+    default MutableDirectBuffer claimBuffer()
+    {
+        return null;
+    }
+
+    default void commit(
+        int msgTypeId,
+        int index,
+        int length)
+    {
+        commit(msgTypeId, index, length, NOOP);
+    }
+
+    default void commit(
+        int msgTypeId,
+        int index,
+        int length,
+        MessageConsumer observer)
+    {
+        // no claim to commit
+    }
+
+    default void abort(
+        int index)
+    {
+        // no claim to abort
+    }
+
     @Override
     default void onMessage(
         int msgTypeId,
@@ -69,10 +106,51 @@ public interface MessageConsumer extends MessageHandler, AutoCloseable
         MessageConsumer after)
     {
         requireNonNull(after);
-        return (int msgTypeId, DirectBuffer buffer, int index, int length) ->
+        final MessageConsumer before = this;
+        return new MessageConsumer()
         {
-            accept(msgTypeId, buffer, index, length);
-            after.accept(msgTypeId, buffer, index, length);
+            @Override
+            public void accept(
+                int msgTypeId,
+                DirectBuffer buffer,
+                int index,
+                int length)
+            {
+                before.accept(msgTypeId, buffer, index, length);
+                after.accept(msgTypeId, buffer, index, length);
+            }
+
+            @Override
+            public int claim(
+                int msgTypeId,
+                int length)
+            {
+                return before.claim(msgTypeId, length);
+            }
+
+            @Override
+            public MutableDirectBuffer claimBuffer()
+            {
+                return before.claimBuffer();
+            }
+
+            @Override
+            public void commit(
+                int msgTypeId,
+                int index,
+                int length,
+                MessageConsumer observer)
+            {
+                final MessageConsumer observers = observer == NOOP ? after : after.andThen(observer);
+                before.commit(msgTypeId, index, length, observers);
+            }
+
+            @Override
+            public void abort(
+                int index)
+            {
+                before.abort(index);
+            }
         };
     }
 }
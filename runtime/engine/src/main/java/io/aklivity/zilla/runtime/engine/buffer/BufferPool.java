@@ -39,6 +39,50 @@ public interface BufferPool
      */
     int acquire(long streamId);
 
+    /**
+     * Reserves a slot with at least the given capacity for use by the given stream
+     *
+     * @param streamId  the stream identifier
+     * @param minCapacity  the minimum required slot capacity
+     *
+     * @return  reference to the acquired slot, or {@code NO_SLOT} if no slot of sufficient capacity is available
+     */
+    default int acquire(
+        long streamId,
+        int minCapacity)
+    {
+        return minCapacity <= slotCapacity() ? acquire(streamId) : NO_SLOT;
+    }
+
+    /**
+     * Returns the capacity of the given slot
+     *
+     * @param slot  reference to a previously acquired slot
+     *
+     * @return  the capacity of the slot
+     */
+    default int capacity(
+        int slot)
+    {
+        return slotCapacity();
+    }
+
+    /**
+     * Ensures a slot has at least the given capacity, moving its content to a larger slot if necessary
+     *
+     * @param slot  reference to a previously acquired slot
+     * @param minCapacity  the minimum required slot capacity
+     *
+     * @return  reference to the slot now holding the content, or {@code NO_SLOT} if no slot of sufficient
+     *          capacity is available, in which case the original slot remains acquired
+     */
+    default int grow(
+        int slot,
+        int minCapacity)
+    {
+        return minCapacity <= capacity(slot) ? slot : NO_SLOT;
+    }
+
     /**
      * Returns a buffer which can be used to write data into the given slot
      *
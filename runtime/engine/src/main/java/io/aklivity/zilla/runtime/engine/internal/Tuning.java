@@ -29,6 +29,7 @@ import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.BitSet;
 
 import org.agrona.IoUtil;
 import org.agrona.LangUtil;
@@ -36,7 +37,8 @@ import org.agrona.collections.Long2LongHashMap;
 
 public final class Tuning implements AutoCloseable
 {
-    private final int available;
+    private final BitSet available;
+    private final int maskWords;
     private final Long2LongHashMap affinities;
     private final Path tuning;
 
@@ -46,7 +48,9 @@ public final class Tuning implements AutoCloseable
         Path directory,
         int count)
     {
-        this.available = (1 << count) - 1;
+        this.available = new BitSet(count);
+        this.available.set(0, count);
+        this.maskWords = maskWords(count);
         this.affinities = new Long2LongHashMap(-1L);
         this.tuning = directory.resolve("tuning");
     }
@@ -59,7 +63,7 @@ public final class Tuning implements AutoCloseable
             Files.createDirectories(tuning.getParent());
             Files.createFile(tuning);
 
-            mappedByteBuf = mapCreateReadWrite(tuning, 10 * 1024);
+            mappedByteBuf = mapCreateReadWrite(tuning, 10 * 1024 * maskWords);
         }
         catch (IOException ex)
         {
@@ -69,9 +73,9 @@ public final class Tuning implements AutoCloseable
 
     public void affinity(
         long bindingId,
-        long mask)
+        BitSet mask)
     {
-        assert (mask & ~available) == 0 || mask == 1L << (Long.SIZE - 1);
+        assert mask.length() <= maskWords * Long.SIZE;
 
         long offset = affinities.get(bindingId);
 
@@ -82,10 +86,13 @@ public final class Tuning implements AutoCloseable
                 offset = channel.position() + Long.BYTES;
 
                 ByteBuffer byteBuf = ByteBuffer
-                        .wrap(new byte[Long.BYTES + Long.BYTES])
+                        .wrap(new byte[Long.BYTES + Long.BYTES * maskWords])
                         .order(nativeOrder());
                 byteBuf.putLong(bindingId);
-                byteBuf.putLong(0L);
+                for (int index = 0; index < maskWords; index++)
+                {
+                    byteBuf.putLong(0L);
+                }
                 byteBuf.flip();
 
                 while (byteBuf.hasRemaining())
@@ -105,15 +112,42 @@ public final class Tuning implements AutoCloseable
         offset = affinities.get(bindingId);
         assert offset != affinities.missingValue();
 
-        mappedByteBuf.putLong((int) offset, mask);
+        final long[] words = mask.toLongArray();
+        for (int index = 0; index < maskWords; index++)
+        {
+            final long word = index < words.length ? words[index] : 0L;
+            mappedByteBuf.putLong((int) offset + index * Long.BYTES, word);
+        }
     }
 
-    public long affinity(
+    public BitSet affinity(
         long bindingId)
     {
         long offset = affinities.get(bindingId);
 
-        return offset != affinities.missingValue() ? mappedByteBuf.getLong((int) offset) : available;
+        BitSet mask;
+
+        if (offset != affinities.missingValue())
+        {
+            final long[] words = new long[maskWords];
+            for (int index = 0; index < maskWords; index++)
+            {
+                words[index] = mappedByteBuf.getLong((int) offset + index * Long.BYTES);
+            }
+            mask = BitSet.valueOf(words);
+        }
+        else
+        {
+            mask = (BitSet) available.clone();
+        }
+
+        return mask;
+    }
+
+    public static int maskWords(
+        int count)
+    {
+        return Math.max((count + Long.SIZE - 1) / Long.SIZE, 1);
     }
 
     @Override
@@ -15,6 +15,7 @@
  */
 package io.aklivity.zilla.runtime.engine.internal.budget;
 
+import static io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout.BUDGET_WATCHERS_WORDS;
 import static io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout.budgetIdOffset;
 import static io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout.budgetRemainingOffset;
 import static io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout.budgetWatchersOffset;
@@ -36,7 +37,7 @@ public class DefaultBudgetCreditor implements BudgetCreditor, AutoCloseable
 {
     public interface BudgetFlusher
     {
-        void flush(long traceId, long budgetId, long watchers);
+        void flush(long traceId, long budgetId, int watcherIndex);
     }
 
     private final long budgetMask;
@@ -100,7 +101,10 @@ public class DefaultBudgetCreditor implements BudgetCreditor, AutoCloseable
             if (storage.compareAndSetLong(budgetIdOffset, 0L, budgetId))
             {
                 storage.putLong(budgetRemainingOffset(index), 0L);
-                storage.putLong(budgetWatchersOffset(index), 0L);
+                for (int word = 0; word < BUDGET_WATCHERS_WORDS; word++)
+                {
+                    storage.putLong(budgetWatchersOffset(index, word), 0L);
+                }
                 budgetIndex = budgetMask | (long) index;
                 break;
             }
@@ -141,11 +145,16 @@ public class DefaultBudgetCreditor implements BudgetCreditor, AutoCloseable
                     System.nanoTime(), traceId, budgetId, credit, previous, previous + credit);
         }
 
-        final long watchers = storage.getLongVolatile(budgetWatchersOffset(index));
-        if (watchers != 0)
+        for (int word = 0; word < BUDGET_WATCHERS_WORDS; word++)
         {
-            final long budgetId = storage.getLong(budgetIdOffset(index));
-            flusher.flush(traceId, budgetId, watchers);
+            for (long watchers = storage.getLongVolatile(budgetWatchersOffset(index, word));
+                    watchers != 0L;
+                    watchers &= watchers - 1L)
+            {
+                final long budgetId = storage.getLong(budgetIdOffset(index));
+                final int watcherIndex = (word << 6) + Long.numberOfTrailingZeros(watchers);
+                flusher.flush(traceId, budgetId, watcherIndex);
+            }
         }
 
         return previous;
@@ -165,7 +174,10 @@ public class DefaultBudgetCreditor implements BudgetCreditor, AutoCloseable
 
         final long budgetId = storage.getAndSetLong(budgetIdOffset(index), 0L);
         storage.putLong(budgetRemainingOffset(index), 0L);
-        storage.putLongOrdered(budgetWatchersOffset(index), 0L);
+        for (int word = 0; word < BUDGET_WATCHERS_WORDS; word++)
+        {
+            storage.putLongOrdered(budgetWatchersOffset(index, word), 0L);
+        }
 
         assert budgetId != 0L;
 
@@ -243,9 +255,17 @@ public class DefaultBudgetCreditor implements BudgetCreditor, AutoCloseable
     void watchers(
         long budgetIndex,
         long watchers)
+    {
+        watchers(budgetIndex, 0, watchers);
+    }
+
+    void watchers(
+        long budgetIndex,
+        int word,
+        long watchers)
     {
         assert (budgetIndex & budgetMask) == budgetMask;
         final int index = (int) (budgetIndex & ~budgetMask);
-        storage.putLongVolatile(budgetWatchersOffset(index), watchers);
+        storage.putLongVolatile(budgetWatchersOffset(index, word), watchers);
     }
 }
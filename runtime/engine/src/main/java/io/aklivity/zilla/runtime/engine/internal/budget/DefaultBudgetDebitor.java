@@ -15,6 +15,7 @@
  */
 package io.aklivity.zilla.runtime.engine.internal.budget;
 
+import static io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout.MAX_BUDGET_WATCHERS;
 import static io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout.budgetIdOffset;
 import static io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout.budgetRemainingOffset;
 import static io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout.budgetWatchersOffset;
@@ -39,6 +40,7 @@ public final class DefaultBudgetDebitor implements BudgetDebitor, AutoCloseable
     private final AtomicBuffer storage;
     private final int entries;
     private final long budgetMask;
+    private final int watcherWord;
     private final long watcherMask;
     private final Long2LongHashMap budgetIdByIndex;
     private final Long2ObjectHashMap<Long2ObjectHashMap<LongConsumer>> flushersByBudgetId;
@@ -56,7 +58,9 @@ public final class DefaultBudgetDebitor implements BudgetDebitor, AutoCloseable
         assert isPowerOfTwo(entries);
         this.entries = entries;
         this.budgetMask = budgetMask(ownerIndex);
-        this.watcherMask = 1L << watcherIndex;
+        assert watcherIndex < MAX_BUDGET_WATCHERS;
+        this.watcherWord = watcherIndex >> 6;
+        this.watcherMask = 1L << (watcherIndex & 0x3f);
         this.budgetIdByIndex = new Long2LongHashMap(-1L);
         this.flushersByBudgetId = new Long2ObjectHashMap<>();
         this.watcherIdsByBudgetId = new Long2ObjectHashMap<>();
@@ -254,10 +258,17 @@ public final class DefaultBudgetDebitor implements BudgetDebitor, AutoCloseable
 
     long watchers(
         long budgetIndex)
+    {
+        return watchers(budgetIndex, 0);
+    }
+
+    long watchers(
+        long budgetIndex,
+        int word)
     {
         assert (budgetIndex & budgetMask) == budgetMask;
         final int index = (int) (budgetIndex & ~budgetMask);
-        return storage.getLongVolatile(budgetWatchersOffset(index));
+        return storage.getLongVolatile(budgetWatchersOffset(index, word));
     }
 
     long budgetId(
@@ -276,7 +287,7 @@ public final class DefaultBudgetDebitor implements BudgetDebitor, AutoCloseable
         final LongHashSet watcherIds = watcherIdsByBudgetId.computeIfAbsent(budgetId, id -> new LongHashSet());
         watcherIds.add(watcherId);
 
-        final int watchersOffset = budgetWatchersOffset(index);
+        final int watchersOffset = budgetWatchersOffset(index, watcherWord);
         for (long watchers = storage.getLongVolatile(watchersOffset);
                 (watchers & watcherMask) == 0L &&
                 !storage.compareAndSetLong(watchersOffset, watchers, watchers | watcherMask);
@@ -300,7 +311,7 @@ public final class DefaultBudgetDebitor implements BudgetDebitor, AutoCloseable
             {
                 watcherIdsByBudgetId.remove(budgetId);
 
-                final int watchersOffset = budgetWatchersOffset(index);
+                final int watchersOffset = budgetWatchersOffset(index, watcherWord);
                 for (long watchers = storage.getLongVolatile(watchersOffset);
                         (watchers & watcherMask) != 0L &&
                         !storage.compareAndSetLong(watchersOffset, watchers, watchers & ~watcherMask);
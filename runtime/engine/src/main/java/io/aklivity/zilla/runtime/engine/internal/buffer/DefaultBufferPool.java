@@ -174,6 +174,13 @@ public class DefaultBufferPool implements BufferPool
         poolBuffer.putLongOrdered(usedIndex + (slot << 3), 0L);
     }
 
+    public long streamId(
+        int slot)
+    {
+        assert used.get(slot);
+        return poolBuffer.getLong(usedIndex + (slot << 3));
+    }
+
     @Override
     public BufferPool duplicate()
     {
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.buffer;
+
+import java.nio.ByteBuffer;
+
+import org.agrona.MutableDirectBuffer;
+
+import io.aklivity.zilla.runtime.engine.buffer.BufferPool;
+
+/**
+ * A buffer pool composed of one {@link DefaultBufferPool} per size class, with slot capacities doubling from
+ * the smallest class up to the largest. Slots are acquired from the smallest class of sufficient capacity,
+ * falling back to larger classes when exhausted, and can be grown into a larger class on demand.
+ * <b>Each instance of this class is assumed to be used by one and only one thread.</b>
+ */
+public final class SizeClassedBufferPool implements BufferPool
+{
+    private static final int SIZE_CLASS_SHIFT = 24;
+    private static final int SLOT_INDEX_MASK = (1 << SIZE_CLASS_SHIFT) - 1;
+
+    private final DefaultBufferPool[] pools;
+
+    public SizeClassedBufferPool(
+        DefaultBufferPool[] pools)
+    {
+        for (int sizeClass = 1; sizeClass < pools.length; sizeClass++)
+        {
+            if (pools[sizeClass].slotCapacity() != pools[sizeClass - 1].slotCapacity() << 1)
+            {
+                throw new IllegalArgumentException("size class capacities are not consecutive powers of 2");
+            }
+        }
+
+        this.pools = pools;
+    }
+
+    public int sizeClasses()
+    {
+        return pools.length;
+    }
+
+    public int sizeClassCapacity(
+        int sizeClass)
+    {
+        return pools[sizeClass].slotCapacity();
+    }
+
+    public int acquiredSlots(
+        int sizeClass)
+    {
+        return pools[sizeClass].acquiredSlots();
+    }
+
+    @Override
+    public int acquiredSlots()
+    {
+        int acquiredSlots = 0;
+        for (int sizeClass = 0; sizeClass < pools.length; sizeClass++)
+        {
+            acquiredSlots += pools[sizeClass].acquiredSlots();
+        }
+        return acquiredSlots;
+    }
+
+    @Override
+    public int slotCapacity()
+    {
+        return pools[pools.length - 1].slotCapacity();
+    }
+
+    @Override
+    public int acquire(
+        long streamId)
+    {
+        return acquire(streamId, slotCapacity());
+    }
+
+    @Override
+    public int acquire(
+        long streamId,
+        int minCapacity)
+    {
+        int slot = NO_SLOT;
+
+        for (int sizeClass = minSizeClass(minCapacity); slot == NO_SLOT && sizeClass < pools.length; sizeClass++)
+        {
+            final int index = pools[sizeClass].acquire(streamId);
+            if (index != NO_SLOT)
+            {
+                slot = (sizeClass << SIZE_CLASS_SHIFT) | index;
+            }
+        }
+
+        return slot;
+    }
+
+    @Override
+    public int capacity(
+        int slot)
+    {
+        return pools[sizeClass(slot)].slotCapacity();
+    }
+
+    @Override
+    public int grow(
+        int slot,
+        int minCapacity)
+    {
+        final DefaultBufferPool pool = pools[sizeClass(slot)];
+        final int index = index(slot);
+
+        int newSlot = slot;
+
+        if (minCapacity > pool.slotCapacity())
+        {
+            newSlot = acquire(pool.streamId(index), minCapacity);
+
+            if (newSlot != NO_SLOT)
+            {
+                final MutableDirectBuffer newBuffer = pools[sizeClass(newSlot)].buffer(index(newSlot));
+                newBuffer.putBytes(0, pool.buffer(index), 0, pool.slotCapacity());
+                pool.release(index);
+            }
+        }
+
+        return newSlot;
+    }
+
+    @Override
+    public MutableDirectBuffer buffer(
+        int slot)
+    {
+        return pools[sizeClass(slot)].buffer(index(slot));
+    }
+
+    @Override
+    public ByteBuffer byteBuffer(
+        int slot)
+    {
+        return pools[sizeClass(slot)].byteBuffer(index(slot));
+    }
+
+    @Override
+    public MutableDirectBuffer buffer(
+        int slot,
+        int offset)
+    {
+        return pools[sizeClass(slot)].buffer(index(slot), offset);
+    }
+
+    @Override
+    public void release(
+        int slot)
+    {
+        pools[sizeClass(slot)].release(index(slot));
+    }
+
+    @Override
+    public BufferPool duplicate()
+    {
+        final DefaultBufferPool[] duplicates = new DefaultBufferPool[pools.length];
+        for (int sizeClass = 0; sizeClass < pools.length; sizeClass++)
+        {
+            duplicates[sizeClass] = (DefaultBufferPool) pools[sizeClass].duplicate();
+        }
+        return new SizeClassedBufferPool(duplicates);
+    }
+
+    private int minSizeClass(
+        int minCapacity)
+    {
+        int sizeClass = 0;
+        while (sizeClass < pools.length && pools[sizeClass].slotCapacity() < minCapacity)
+        {
+            sizeClass++;
+        }
+        return sizeClass;
+    }
+
+    private static int sizeClass(
+        int slot)
+    {
+        return slot >>> SIZE_CLASS_SHIFT;
+    }
+
+    private static int index(
+        int slot)
+    {
+        return slot & SLOT_INDEX_MASK;
+    }
+}
@@ -357,6 +357,40 @@ public class ManyToOneRingBuffer implements RingBuffer
         buffer.putIntOrdered(lengthOffset(recordIndex), -recordLength);
     }
 
+    /**
+     * Commit a message previously claimed by {@link #tryClaim(int, int)}, releasing any unused
+     * claimed capacity as padding when the encoded message is shorter than the claimed length.
+     *
+     * @param index  at which the encoded message starts.
+     * @param length of the encoded message, no greater than the claimed length.
+     * @throws IllegalArgumentException if the length exceeds the claimed length.
+     */
+    public void commit(final int index, final int length)
+    {
+        final int recordIndex = computeRecordIndex(index);
+        final AtomicBuffer buffer = this.buffer;
+        final int claimedLength = -verifyClaimedSpaceNotReleased(buffer, recordIndex);
+        final int recordLength = length + HEADER_LENGTH;
+
+        if (length < 0 || recordLength > claimedLength)
+        {
+            throw new IllegalArgumentException(String.format(
+                "committed length exceeds claimed length of %d, length=%d", claimedLength - HEADER_LENGTH, length));
+        }
+
+        final int alignedRecordLength = align(recordLength, ALIGNMENT);
+        final int paddingLength = align(claimedLength, ALIGNMENT) - alignedRecordLength;
+
+        if (paddingLength != 0)
+        {
+            final int paddingIndex = recordIndex + alignedRecordLength;
+            buffer.putInt(typeOffset(paddingIndex), PADDING_MSG_TYPE_ID);
+            buffer.putIntOrdered(lengthOffset(paddingIndex), paddingLength);
+        }
+
+        buffer.putIntOrdered(lengthOffset(recordIndex), recordLength);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -369,6 +403,7 @@ public class ManyToOneRingBuffer implements RingBuffer
         buffer.putInt(typeOffset(recordIndex), PADDING_MSG_TYPE_ID);
         buffer.putIntOrdered(lengthOffset(recordIndex), -recordLength);
     }
+
     private static boolean scanBackToConfirmStillZeroed(final AtomicBuffer buffer, final int from, final int limit)
     {
         int i = from - ALIGNMENT;
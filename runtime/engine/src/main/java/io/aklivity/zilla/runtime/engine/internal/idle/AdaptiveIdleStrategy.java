@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.idle;
+
+import java.util.concurrent.locks.LockSupport;
+
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.hints.ThreadHints;
+
+public final class AdaptiveIdleStrategy implements IdleStrategy
+{
+    public static final String ALIAS = "adaptive";
+
+    private static final int WORK_INTERVAL_SHIFT = 3;
+
+    private final long maxSpins;
+    private final long minParkNanos;
+    private final long maxParkNanos;
+
+    private long spins;
+    private long parkNanos;
+    private long workAt;
+    private long workIntervalNanos;
+
+    public AdaptiveIdleStrategy(
+        long maxSpins,
+        long minParkNanos,
+        long maxParkNanos)
+    {
+        this.maxSpins = maxSpins;
+        this.minParkNanos = minParkNanos;
+        this.maxParkNanos = maxParkNanos;
+        this.parkNanos = minParkNanos;
+        this.workAt = System.nanoTime();
+        this.workIntervalNanos = maxParkNanos << 1;
+    }
+
+    @Override
+    public void idle(
+        int workCount)
+    {
+        if (workCount > 0)
+        {
+            final long now = System.nanoTime();
+            final long interval = now - workAt;
+            workIntervalNanos += (interval - workIntervalNanos) >> WORK_INTERVAL_SHIFT;
+            workAt = now;
+
+            reset();
+        }
+        else
+        {
+            idle();
+        }
+    }
+
+    @Override
+    public void idle()
+    {
+        if (spins < maxSpins)
+        {
+            ThreadHints.onSpinWait();
+            spins++;
+        }
+        else
+        {
+            LockSupport.parkNanos(parkNanos);
+            parkNanos = Math.min(parkNanos << 1, maxParkNanos());
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        spins = 0L;
+        parkNanos = minParkNanos;
+    }
+
+    @Override
+    public String alias()
+    {
+        return ALIAS;
+    }
+
+    long maxParkNanos()
+    {
+        // park no longer than half the observed interval between units of work
+        return Math.max(minParkNanos, Math.min(workIntervalNanos >> 1, maxParkNanos));
+    }
+}
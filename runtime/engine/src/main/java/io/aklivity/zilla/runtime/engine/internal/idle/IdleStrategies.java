@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.idle;
+
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.YieldingIdleStrategy;
+
+import io.aklivity.zilla.runtime.engine.EngineConfiguration;
+
+public final class IdleStrategies
+{
+    public static final String IDLE_STRATEGY_SPIN = "spin";
+    public static final String IDLE_STRATEGY_YIELD = "yield";
+    public static final String IDLE_STRATEGY_BACKOFF = "backoff";
+    public static final String IDLE_STRATEGY_ADAPTIVE = AdaptiveIdleStrategy.ALIAS;
+
+    public static IdleStrategy newIdleStrategy(
+        EngineConfiguration config,
+        String name)
+    {
+        IdleStrategy idleStrategy;
+
+        switch (name)
+        {
+        case IDLE_STRATEGY_SPIN:
+            idleStrategy = new BusySpinIdleStrategy();
+            break;
+        case IDLE_STRATEGY_YIELD:
+            idleStrategy = new YieldingIdleStrategy();
+            break;
+        case IDLE_STRATEGY_BACKOFF:
+            idleStrategy = new BackoffIdleStrategy(
+                config.maxSpins(),
+                config.maxYields(),
+                config.minParkNanos(),
+                config.maxParkNanos());
+            break;
+        case IDLE_STRATEGY_ADAPTIVE:
+            idleStrategy = new AdaptiveIdleStrategy(
+                config.maxSpins(),
+                config.minParkNanos(),
+                config.maxParkNanos());
+            break;
+        default:
+            throw new IllegalArgumentException(String.format("Unrecognized idle strategy: %s", name));
+        }
+
+        return idleStrategy;
+    }
+
+    private IdleStrategies()
+    {
+    }
+}
@@ -41,7 +41,9 @@ public final class BudgetsLayout implements AutoCloseable
     public static final int SIZEOF_BUDGET_REMAINING = Long.BYTES;
     public static final int LIMIT_BUDGET_REMAINING = OFFSET_BUDGET_REMAINING + SIZEOF_BUDGET_REMAINING;
     public static final int OFFSET_BUDGET_WATCHERS = LIMIT_BUDGET_REMAINING;
-    public static final int SIZEOF_BUDGET_WATCHERS = Long.BYTES;
+    public static final int BUDGET_WATCHERS_WORDS = 2;
+    public static final int SIZEOF_BUDGET_WATCHERS = BUDGET_WATCHERS_WORDS * Long.BYTES;
+    public static final int MAX_BUDGET_WATCHERS = BUDGET_WATCHERS_WORDS * Long.SIZE;
     public static final int LIMIT_BUDGET_WATCHERS = OFFSET_BUDGET_WATCHERS + SIZEOF_BUDGET_WATCHERS;
 
     public static final int SIZEOF_BUDGET_ENTRY =
@@ -90,9 +92,10 @@ public final class BudgetsLayout implements AutoCloseable
     }
 
     public static int budgetWatchersOffset(
-        int index)
+        int index,
+        int word)
     {
-        return budgetEntryOffset(index) + OFFSET_BUDGET_WATCHERS;
+        return budgetEntryOffset(index) + OFFSET_BUDGET_WATCHERS + (word << 3);
     }
 
     private static int budgetEntryOffset(
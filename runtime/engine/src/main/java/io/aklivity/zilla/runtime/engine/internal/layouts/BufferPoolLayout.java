@@ -15,11 +15,13 @@
  */
 package io.aklivity.zilla.runtime.engine.internal.layouts;
 
+import static org.agrona.BitUtil.isPowerOfTwo;
 import static org.agrona.IoUtil.createEmptyFile;
 import static org.agrona.IoUtil.mapExistingFile;
 import static org.agrona.IoUtil.unmap;
 
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.file.Path;
 
@@ -27,14 +29,18 @@ import org.agrona.CloseHelper;
 
 import io.aklivity.zilla.runtime.engine.buffer.BufferPool;
 import io.aklivity.zilla.runtime.engine.internal.buffer.DefaultBufferPool;
+import io.aklivity.zilla.runtime.engine.internal.buffer.SizeClassedBufferPool;
 
 public final class BufferPoolLayout implements AutoCloseable
 {
-    private final DefaultBufferPool bufferPool;
+    private final MappedByteBuffer mapped;
+    private final BufferPool bufferPool;
 
     private BufferPoolLayout(
-        DefaultBufferPool bufferPool)
+        MappedByteBuffer mapped,
+        BufferPool bufferPool)
     {
+        this.mapped = mapped;
         this.bufferPool = bufferPool;
     }
 
@@ -46,13 +52,14 @@ public final class BufferPoolLayout implements AutoCloseable
     @Override
     public void close()
     {
-        unmap(bufferPool.poolBuffer().byteBuffer());
+        unmap(mapped);
     }
 
     public static final class Builder
     {
         private int slotCount;
         private int slotCapacity;
+        private int minSlotCapacity;
         private Path path;
         private boolean readonly;
 
@@ -70,6 +77,13 @@ public final class BufferPoolLayout implements AutoCloseable
             return this;
         }
 
+        public Builder minSlotCapacity(
+            int minSlotCapacity)
+        {
+            this.minSlotCapacity = minSlotCapacity;
+            return this;
+        }
+
         public Builder path(
             Path path)
         {
@@ -88,20 +102,73 @@ public final class BufferPoolLayout implements AutoCloseable
         {
             final File layoutFile = path.toFile();
 
+            if (minSlotCapacity == 0 || minSlotCapacity >= slotCapacity)
+            {
+                if (!readonly)
+                {
+                    final int slotCountIndex = (slotCapacity + Long.BYTES) * slotCount;
+                    final int totalLength = slotCountIndex + Integer.BYTES;
+                    CloseHelper.close(createEmptyFile(layoutFile, totalLength));
+
+                    MappedByteBuffer metadata =
+                        mapExistingFile(layoutFile, "slotCount", totalLength - Integer.BYTES, Integer.BYTES);
+                    metadata.putInt(0, slotCount);
+                    unmap(metadata);
+                }
+
+                final MappedByteBuffer mapped = mapExistingFile(layoutFile, "bufferPool");
+
+                return new BufferPoolLayout(mapped, new DefaultBufferPool(slotCapacity, slotCount, mapped));
+            }
+
+            if (slotCapacity % minSlotCapacity != 0 || !isPowerOfTwo(slotCapacity / minSlotCapacity))
+            {
+                throw new IllegalArgumentException("slot capacity is not a power of 2 multiple of min slot capacity");
+            }
+
+            final int sizeClasses = Integer.numberOfTrailingZeros(slotCapacity / minSlotCapacity) + 1;
+            final long poolLength = (long) slotCapacity * slotCount;
+
+            final int[] slotCounts = new int[sizeClasses];
+            final int[] regionLengths = new int[sizeClasses];
+            int totalLength = 0;
+            for (int sizeClass = 0; sizeClass < sizeClasses; sizeClass++)
+            {
+                // largest class keeps half the pool for unsized acquire, each smaller class half the remainder
+                final int weightShift = Math.min(sizeClasses - sizeClass, sizeClasses - 1);
+                final long sizeClassLength = poolLength >> weightShift;
+                final int sizeClassCapacity = minSlotCapacity << sizeClass;
+                slotCounts[sizeClass] = Integer.highestOneBit((int) (sizeClassLength / sizeClassCapacity));
+                regionLengths[sizeClass] = (sizeClassCapacity + Long.BYTES) * slotCounts[sizeClass] + Integer.BYTES;
+                totalLength += regionLengths[sizeClass];
+            }
+
             if (!readonly)
             {
-                final int slotCountIndex = (slotCapacity + Long.BYTES) * slotCount;
-                final int totalLength = slotCountIndex + Integer.BYTES;
                 CloseHelper.close(createEmptyFile(layoutFile, totalLength));
-
-                MappedByteBuffer metadata = mapExistingFile(layoutFile, "slotCount", totalLength - Integer.BYTES, Integer.BYTES);
-                metadata.putInt(0, slotCount);
-                unmap(metadata);
             }
 
             final MappedByteBuffer mapped = mapExistingFile(layoutFile, "bufferPool");
 
-            return new BufferPoolLayout(new DefaultBufferPool(slotCapacity, slotCount, mapped));
+            final DefaultBufferPool[] pools = new DefaultBufferPool[sizeClasses];
+            int regionOffset = 0;
+            for (int sizeClass = 0; sizeClass < sizeClasses; sizeClass++)
+            {
+                final int regionLength = regionLengths[sizeClass];
+                final ByteBuffer region = mapped.duplicate();
+                region.limit(regionOffset + regionLength).position(regionOffset);
+
+                final ByteBuffer slice = region.slice();
+                if (!readonly)
+                {
+                    slice.putInt(regionLength - Integer.BYTES, slotCounts[sizeClass]);
+                }
+
+                pools[sizeClass] = new DefaultBufferPool(minSlotCapacity << sizeClass, slotCounts[sizeClass], slice);
+                regionOffset += regionLength;
+            }
+
+            return new BufferPoolLayout(mapped, new SizeClassedBufferPool(pools));
         }
     }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.layouts;
+
+import static org.agrona.BitUtil.CACHE_LINE_LENGTH;
+import static org.agrona.BitUtil.align;
+import static org.agrona.IoUtil.createEmptyFile;
+import static org.agrona.IoUtil.mapExistingFile;
+import static org.agrona.IoUtil.unmap;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+public final class LoadLayout implements AutoCloseable
+{
+    public static final int OFFSET_STREAMS = 0;
+    public static final int SIZEOF_STREAMS = Long.BYTES;
+    public static final int LIMIT_STREAMS = OFFSET_STREAMS + SIZEOF_STREAMS;
+    public static final int OFFSET_BUFFER_SLOTS = LIMIT_STREAMS;
+    public static final int SIZEOF_BUFFER_SLOTS = Long.BYTES;
+    public static final int LIMIT_BUFFER_SLOTS = OFFSET_BUFFER_SLOTS + SIZEOF_BUFFER_SLOTS;
+    public static final int MAX_SIZE_CLASSES = 16;
+    public static final int OFFSET_SIZE_CLASS_SLOTS = LIMIT_BUFFER_SLOTS;
+    public static final int SIZEOF_SIZE_CLASS_SLOTS = Long.BYTES * MAX_SIZE_CLASSES;
+    public static final int LIMIT_SIZE_CLASS_SLOTS = OFFSET_SIZE_CLASS_SLOTS + SIZEOF_SIZE_CLASS_SLOTS;
+
+    public static final int SIZEOF_LOAD_ENTRY = align(LIMIT_SIZE_CLASS_SLOTS - OFFSET_STREAMS, CACHE_LINE_LENGTH);
+
+    private final AtomicBuffer buffer;
+
+    private LoadLayout(
+        AtomicBuffer buffer)
+    {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public void close()
+    {
+        final ByteBuffer byteBuffer = buffer.byteBuffer();
+        if (byteBuffer instanceof MappedByteBuffer)
+        {
+            unmap((MappedByteBuffer) byteBuffer);
+        }
+    }
+
+    public int entries()
+    {
+        return buffer.capacity() / SIZEOF_LOAD_ENTRY;
+    }
+
+    public long streams(
+        int index)
+    {
+        return buffer.getLongVolatile(loadEntryOffset(index) + OFFSET_STREAMS);
+    }
+
+    public void streams(
+        int index,
+        long streams)
+    {
+        buffer.putLongOrdered(loadEntryOffset(index) + OFFSET_STREAMS, streams);
+    }
+
+    public long bufferSlots(
+        int index)
+    {
+        return buffer.getLongVolatile(loadEntryOffset(index) + OFFSET_BUFFER_SLOTS);
+    }
+
+    public void bufferSlots(
+        int index,
+        long bufferSlots)
+    {
+        buffer.putLongOrdered(loadEntryOffset(index) + OFFSET_BUFFER_SLOTS, bufferSlots);
+    }
+
+    public long bufferSlots(
+        int index,
+        int sizeClass)
+    {
+        return buffer.getLongVolatile(sizeClassEntryOffset(index, sizeClass));
+    }
+
+    public void bufferSlots(
+        int index,
+        int sizeClass,
+        long bufferSlots)
+    {
+        buffer.putLongOrdered(sizeClassEntryOffset(index, sizeClass), bufferSlots);
+    }
+
+    private static int loadEntryOffset(
+        int index)
+    {
+        return index * SIZEOF_LOAD_ENTRY;
+    }
+
+    private static int sizeClassEntryOffset(
+        int index,
+        int sizeClass)
+    {
+        assert sizeClass >= 0 && sizeClass < MAX_SIZE_CLASSES;
+        return loadEntryOffset(index) + OFFSET_SIZE_CLASS_SLOTS + sizeClass * Long.BYTES;
+    }
+
+    public static final class Builder
+    {
+        private Path path;
+        private int capacity;
+        private boolean readonly;
+
+        public Builder path(
+            Path path)
+        {
+            this.path = path;
+            return this;
+        }
+
+        public Builder capacity(
+            int capacity)
+        {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder readonly(
+            boolean readonly)
+        {
+            this.readonly = readonly;
+            return this;
+        }
+
+        public LoadLayout build()
+        {
+            final File load = path.toFile();
+
+            if (!readonly)
+            {
+                CloseHelper.close(createEmptyFile(load, (long) capacity * SIZEOF_LOAD_ENTRY));
+            }
+
+            final AtomicBuffer buffer = readonly && !load.exists()
+                ? new UnsafeBuffer(ByteBuffer.allocateDirect(capacity * SIZEOF_LOAD_ENTRY))
+                : new UnsafeBuffer(mapExistingFile(load, "load"));
+
+            return new LoadLayout(buffer);
+        }
+    }
+}
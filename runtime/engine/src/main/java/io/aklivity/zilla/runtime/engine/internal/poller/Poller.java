@@ -15,98 +15,40 @@
  */
 package io.aklivity.zilla.runtime.engine.internal.poller;
 
-import static org.agrona.CloseHelper.quietClose;
-
-import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SelectableChannel;
-import java.nio.channels.SelectionKey;
-import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
 
-import org.agrona.LangUtil;
-import org.agrona.nio.TransportPoller;
-
-public final class Poller extends TransportPoller
+public interface Poller
 {
-    private final ToIntFunction<SelectionKey> selectHandler;
+    String POLLER_SELECTED_KEYS = "selected.keys";
+    String POLLER_SELECT_ACTION = "select.action";
 
-    public Poller()
-    {
-        this.selectHandler = this::handleSelect;
-    }
+    int doWork();
 
-    public int doWork()
-    {
-        int workDone = 0;
+    void onClose();
 
-        try
-        {
-            if (selector.selectNow() != 0)
-            {
-                workDone = selectedKeySet.forEach(selectHandler);
-            }
-        }
-        catch (Throwable ex)
-        {
-            selectedKeySet.reset();
-            LangUtil.rethrowUnchecked(ex);
-        }
+    PollerKeyImpl register(
+        SelectableChannel channel);
 
-        return workDone;
-    }
+    Stream<PollerKeyImpl> keys();
 
-    public void onClose()
+    static Poller newPoller(
+        String name)
     {
-        for (SelectionKey key : selector.keys())
-        {
-            quietClose(key.channel());
-        }
-
-        // Allow proper cleanup on platforms like Windows
-        selectNowWithoutProcessing();
-
-        super.close();
-    }
+        Poller poller;
 
-    public PollerKeyImpl register(
-        SelectableChannel channel)
-    {
-        PollerKeyImpl pollerKey = null;
-
-        try
+        switch (name)
         {
-            SelectionKey key = channel.keyFor(selector);
-            if (key == null)
-            {
-                key = channel.register(selector, 0, null);
-                key.attach(new PollerKeyImpl(key));
-            }
-
-            pollerKey = attachment(key);
+        case POLLER_SELECTED_KEYS:
+            poller = new SelectedKeysPoller();
+            break;
+        case POLLER_SELECT_ACTION:
+            poller = new SelectActionPoller();
+            break;
+        default:
+            throw new IllegalArgumentException(String.format("Unrecognized poller: %s", name));
         }
-        catch (ClosedChannelException ex)
-        {
-            LangUtil.rethrowUnchecked(ex);
-        }
-
-        return pollerKey;
-    }
 
-    public Stream<PollerKeyImpl> keys()
-    {
-        return selector.keys().stream().map(k -> attachment(k));
-    }
-
-    private int handleSelect(
-        SelectionKey key)
-    {
-        final PollerKeyImpl attachment = attachment(key);
-        return attachment.handleSelect(key);
-    }
-
-    private static PollerKeyImpl attachment(
-        SelectionKey key)
-    {
-        return (PollerKeyImpl) key.attachment();
+        return poller;
     }
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.poller;
+
+import static org.agrona.CloseHelper.quietClose;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.agrona.LangUtil;
+
+/**
+ * Dispatches ready keys directly from the selector via {@link Selector#selectNow(Consumer)},
+ * bypassing the selected-key set entirely, so no reflective access to selector internals is needed
+ * and no per-cycle key set iteration or clearing takes place.
+ */
+public final class SelectActionPoller implements Poller
+{
+    private final Selector selector;
+    private final Consumer<SelectionKey> selectAction;
+
+    private int workDone;
+
+    public SelectActionPoller()
+    {
+        Selector selector = null;
+
+        try
+        {
+            selector = Selector.open();
+        }
+        catch (IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+
+        this.selector = selector;
+        this.selectAction = this::handleSelect;
+    }
+
+    @Override
+    public int doWork()
+    {
+        workDone = 0;
+
+        try
+        {
+            selector.selectNow(selectAction);
+        }
+        catch (IOException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+
+        return workDone;
+    }
+
+    @Override
+    public void onClose()
+    {
+        for (SelectionKey key : selector.keys())
+        {
+            quietClose(key.channel());
+        }
+
+        try
+        {
+            // Allow proper cleanup on platforms like Windows
+            selector.selectNow();
+        }
+        catch (IOException ex)
+        {
+            // ignore
+        }
+
+        quietClose(selector);
+    }
+
+    @Override
+    public PollerKeyImpl register(
+        SelectableChannel channel)
+    {
+        PollerKeyImpl pollerKey = null;
+
+        try
+        {
+            SelectionKey key = channel.keyFor(selector);
+            if (key == null)
+            {
+                key = channel.register(selector, 0, null);
+                key.attach(new PollerKeyImpl(key));
+            }
+
+            pollerKey = attachment(key);
+        }
+        catch (ClosedChannelException ex)
+        {
+            LangUtil.rethrowUnchecked(ex);
+        }
+
+        return pollerKey;
+    }
+
+    @Override
+    public Stream<PollerKeyImpl> keys()
+    {
+        return selector.keys().stream().map(k -> attachment(k));
+    }
+
+    private void handleSelect(
+        SelectionKey key)
+    {
+        final PollerKeyImpl attachment = attachment(key);
+        workDone += attachment.handleSelect(key);
+    }
+
+    private static PollerKeyImpl attachment(
+        SelectionKey key)
+    {
+        return (PollerKeyImpl) key.attachment();
+    }
+}
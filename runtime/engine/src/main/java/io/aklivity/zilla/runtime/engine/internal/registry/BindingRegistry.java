@@ -100,6 +100,11 @@ final class BindingRegistry
         return receivedRoutedMetricHandler;
     }
 
+    public String type()
+    {
+        return binding.type;
+    }
+
     public KindConfig kind()
     {
         return binding.kind;
@@ -18,9 +18,12 @@ package io.aklivity.zilla.runtime.engine.internal.registry;
 import java.io.StringReader;
 import java.net.URL;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
@@ -32,6 +35,9 @@ import java.util.function.LongPredicate;
 import java.util.function.ToIntFunction;
 import java.util.regex.Pattern;
 
+import jakarta.json.JsonObject;
+import jakarta.json.spi.JsonProvider;
+
 import io.aklivity.zilla.runtime.engine.EngineConfiguration;
 import io.aklivity.zilla.runtime.engine.config.BindingConfig;
 import io.aklivity.zilla.runtime.engine.config.CatalogConfig;
@@ -68,6 +74,7 @@ public class ConfigurationManager
     private final List<EngineExtSpi> extensions;
     private final BiFunction<URL, String, String> readURL;
     private final ExpressionResolver expressions;
+    private final Map<NamespaceConfig, JsonObject> sources;
 
     public ConfigurationManager(
         Collection<URL> schemaTypes,
@@ -94,6 +101,7 @@ public class ConfigurationManager
         this.extensions = extensions;
         this.readURL = readURL;
         this.expressions = ExpressionResolver.instantiate();
+        this.sources = new IdentityHashMap<>();
     }
 
     public NamespaceConfig parse(
@@ -196,16 +204,18 @@ public class ConfigurationManager
 
                 binding.metricIds = resolveMetricIds(namespace, binding);
 
-                long affinity = tuning.affinity(binding.id);
+                BitSet affinity = tuning.affinity(binding.id);
 
                 final long maxbits = maxWorkers.apply(binding.type.intern().hashCode()).applyAsInt(binding.kind);
-                for (int bitindex = 0; Long.bitCount(affinity) > maxbits; bitindex++)
+                while (affinity.cardinality() > maxbits)
                 {
-                    affinity &= ~(1 << bitindex);
+                    affinity.clear(affinity.nextSetBit(0));
                 }
 
                 tuning.affinity(binding.id, affinity);
             }
+
+            sources.put(namespace, JsonProvider.provider().createReader(new StringReader(configText)).readObject());
         }
         catch (Throwable ex)
         {
@@ -252,6 +262,72 @@ public class ConfigurationManager
         extensions.forEach(e -> e.onRegistered(context));
     }
 
+    public void reconfigure(
+        NamespaceConfig oldNamespace,
+        NamespaceConfig newNamespace)
+    {
+        final NamespaceDiff diff = oldNamespace != null
+            ? NamespaceDiff.of(sources.get(oldNamespace), sources.get(newNamespace))
+            : null;
+
+        try
+        {
+            if (diff != null)
+            {
+                dispatchers.stream()
+                    .map(d -> d.reconfigure(newNamespace, diff))
+                    .reduce(CompletableFuture::allOf)
+                    .ifPresent(CompletableFuture::join);
+                extensions.forEach(e -> e.onUnregistered(context));
+                extensions.forEach(e -> e.onRegistered(context));
+            }
+            else
+            {
+                unregister(oldNamespace);
+                register(newNamespace);
+            }
+
+            sources.remove(oldNamespace);
+        }
+        catch (RuntimeException ex)
+        {
+            try
+            {
+                rollback(oldNamespace, newNamespace, diff);
+            }
+            catch (RuntimeException suppressed)
+            {
+                ex.addSuppressed(suppressed);
+            }
+
+            sources.remove(newNamespace);
+            throw ex;
+        }
+    }
+
+    private void rollback(
+        NamespaceConfig oldNamespace,
+        NamespaceConfig newNamespace,
+        NamespaceDiff diff)
+    {
+        if (diff != null)
+        {
+            // the diff is symmetric, so reapplying it toward the old namespace reattaches only what was changed
+            dispatchers.stream()
+                .map(d -> d.reconfigure(oldNamespace, diff))
+                .reduce(CompletableFuture::allOf)
+                .ifPresent(CompletableFuture::join);
+        }
+        else
+        {
+            unregister(newNamespace);
+            if (oldNamespace != null)
+            {
+                register(oldNamespace);
+            }
+        }
+    }
+
     public void unregister(
         NamespaceConfig namespace)
     {
@@ -262,6 +338,7 @@ public class ConfigurationManager
                 .reduce(CompletableFuture::allOf)
                 .ifPresent(CompletableFuture::join);
             extensions.forEach(e -> e.onUnregistered(context));
+            sources.remove(namespace);
         }
     }
 
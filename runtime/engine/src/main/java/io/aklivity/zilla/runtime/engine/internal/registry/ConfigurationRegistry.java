@@ -90,6 +90,13 @@ public class ConfigurationRegistry
         return new NamespaceTask(namespace, this::detachNamespace);
     }
 
+    public NamespaceTask reconfigure(
+        NamespaceConfig namespace,
+        NamespaceDiff diff)
+    {
+        return new NamespaceTask(namespace, n -> reconfigureNamespace(n, diff));
+    }
+
     public BindingRegistry resolveBinding(
         long bindingId)
     {
@@ -173,11 +180,23 @@ public class ConfigurationRegistry
         registry.attach();
     }
 
+    private void reconfigureNamespace(
+        NamespaceConfig namespace,
+        NamespaceDiff diff)
+    {
+        int namespaceId = supplyLabelId.applyAsInt(namespace.name);
+        NamespaceRegistry registry = namespacesById.get(namespaceId);
+        registry.reconfigure(namespace, diff);
+    }
+
     protected void detachNamespace(
         NamespaceConfig namespace)
     {
         int namespaceId = supplyLabelId.applyAsInt(namespace.name);
         NamespaceRegistry registry = namespacesById.remove(namespaceId);
-        registry.detach();
+        if (registry != null)
+        {
+            registry.detach();
+        }
     }
 }
@@ -15,8 +15,10 @@
  */
 package io.aklivity.zilla.runtime.engine.internal.registry;
 
+import static io.aklivity.zilla.runtime.engine.binding.WorkerSelection.LEAST_LOADED;
 import static io.aklivity.zilla.runtime.engine.budget.BudgetCreditor.NO_BUDGET_ID;
 import static io.aklivity.zilla.runtime.engine.concurrent.Signaler.NO_CANCEL_ID;
+import static io.aklivity.zilla.runtime.engine.internal.idle.IdleStrategies.IDLE_STRATEGY_BACKOFF;
 import static io.aklivity.zilla.runtime.engine.internal.registry.MetricHandlerKind.ORIGIN;
 import static io.aklivity.zilla.runtime.engine.internal.registry.MetricHandlerKind.ROUTED;
 import static io.aklivity.zilla.runtime.engine.internal.stream.BudgetId.ownerIndex;
@@ -43,6 +45,8 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.channels.SelectableChannel;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Deque;
@@ -59,7 +63,6 @@ import java.util.function.IntFunction;
 import java.util.function.LongConsumer;
 import java.util.function.LongFunction;
 import java.util.function.LongSupplier;
-import java.util.function.LongUnaryOperator;
 import java.util.function.ToLongFunction;
 
 import org.agrona.DeadlineTimerWheel;
@@ -67,6 +70,7 @@ import org.agrona.DeadlineTimerWheel.TimerHandler;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.ArrayListUtil;
 import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
@@ -74,9 +78,11 @@ import org.agrona.collections.Object2ObjectHashMap;
 import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentRunner;
 import org.agrona.concurrent.AgentTerminationException;
-import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.CachedNanoClock;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.MessageHandler;
+import org.agrona.concurrent.NanoClock;
+import org.agrona.concurrent.SystemNanoClock;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.ringbuffer.RingBuffer;
 import org.agrona.hints.ThreadHints;
@@ -86,6 +92,7 @@ import io.aklivity.zilla.runtime.engine.EngineContext;
 import io.aklivity.zilla.runtime.engine.binding.Binding;
 import io.aklivity.zilla.runtime.engine.binding.BindingContext;
 import io.aklivity.zilla.runtime.engine.binding.BindingHandler;
+import io.aklivity.zilla.runtime.engine.binding.WorkerSelection;
 import io.aklivity.zilla.runtime.engine.binding.function.MessageConsumer;
 import io.aklivity.zilla.runtime.engine.budget.BudgetCreditor;
 import io.aklivity.zilla.runtime.engine.budget.BudgetDebitor;
@@ -106,9 +113,12 @@ import io.aklivity.zilla.runtime.engine.guard.GuardHandler;
 import io.aklivity.zilla.runtime.engine.internal.LabelManager;
 import io.aklivity.zilla.runtime.engine.internal.budget.DefaultBudgetCreditor;
 import io.aklivity.zilla.runtime.engine.internal.budget.DefaultBudgetDebitor;
+import io.aklivity.zilla.runtime.engine.internal.buffer.SizeClassedBufferPool;
 import io.aklivity.zilla.runtime.engine.internal.exporter.ExporterAgent;
+import io.aklivity.zilla.runtime.engine.internal.idle.IdleStrategies;
 import io.aklivity.zilla.runtime.engine.internal.layouts.BudgetsLayout;
 import io.aklivity.zilla.runtime.engine.internal.layouts.BufferPoolLayout;
+import io.aklivity.zilla.runtime.engine.internal.layouts.LoadLayout;
 import io.aklivity.zilla.runtime.engine.internal.layouts.StreamsLayout;
 import io.aklivity.zilla.runtime.engine.internal.layouts.metrics.HistogramsLayout;
 import io.aklivity.zilla.runtime.engine.internal.layouts.metrics.ScalarsLayout;
@@ -144,6 +154,9 @@ public class EngineWorker implements EngineContext, Agent
 
     private static final int SHIFT_SIZE = 56;
 
+    private static final int MAX_WORKERS = 1 << 7;
+    private static final long LOAD_PUBLISH_INTERVAL_MILLIS = 100L;
+
     private static final int SIGNAL_TASK_QUEUED = 1;
 
     private final FrameFW frameRO = new FrameFW();
@@ -164,6 +177,8 @@ public class EngineWorker implements EngineContext, Agent
     private final String agentName;
     private final Function<String, InetAddress[]> resolveHost;
     private final boolean timestamps;
+    private final CachedNanoClock cachedClock;
+    private final NanoClock clock;
     private final Object2ObjectHashMap<Metric.Kind, LongLongFunction<LongConsumer>> metricWriterSuppliers;
     private final Map<String, MetricGroup> metricGroupsByName;
     private final StreamsLayout streamsLayout;
@@ -175,7 +190,9 @@ public class EngineWorker implements EngineContext, Agent
     private final Int2ObjectHashMap<MessageConsumer>[] throttles;
     private final Int2ObjectHashMap<MessageConsumer> writersByIndex;
     private final Int2ObjectHashMap<Target> targetsByIndex;
+    private final ArrayList<Target> congestedTargets;
     private final BufferPool bufferPool;
+    private final SizeClassedBufferPool sizeClassedPool;
     private final long mask;
     private final MessageHandler readHandler;
     private final TimerHandler expireHandler;
@@ -201,9 +218,11 @@ public class EngineWorker implements EngineContext, Agent
 
     private final ConfigurationRegistry configuration;
     private final Deque<Runnable> taskQueue;
-    private final LongUnaryOperator affinityMask;
+    private final LongFunction<BitSet> affinityMask;
+    private final LoadLayout loadLayout;
+    private final Map<String, Binding> bindingsByName;
+    private final long[] assignedByIndex;
     private final AgentRunner runner;
-    private final IdleStrategy idleStrategy;
     private final ErrorHandler errorHandler;
     private final ScalarsLayout countersLayout;
     private final ScalarsLayout gaugesLayout;
@@ -216,13 +235,15 @@ public class EngineWorker implements EngineContext, Agent
     private long authorizedId;
 
     private long lastReadStreamId;
+    private long loadPublishedAt;
 
     public EngineWorker(
         EngineConfiguration config,
         ExecutorService executor,
         LabelManager labels,
         ErrorHandler errorHandler,
-        LongUnaryOperator affinityMask,
+        LongFunction<BitSet> affinityMask,
+        LoadLayout loadLayout,
         Collection<Binding> bindings,
         Collection<Exporter> exporters,
         Collection<Guard> guards,
@@ -239,12 +260,10 @@ public class EngineWorker implements EngineContext, Agent
         this.configURL = config.configURL();
         this.labels = labels;
         this.affinityMask = affinityMask;
+        this.loadLayout = loadLayout;
+        this.assignedByIndex = new long[MAX_WORKERS];
 
-        final IdleStrategy idleStrategy = new BackoffIdleStrategy(
-                config.maxSpins(),
-                config.maxYields(),
-                config.minParkNanos(),
-                config.maxParkNanos());
+        final IdleStrategy idleStrategy = IdleStrategies.newIdleStrategy(config, config.idleStrategy(index));
 
         this.countersLayout = new ScalarsLayout.Builder()
                 .path(config.directory().resolve(String.format("metrics/counters%d", index)))
@@ -280,6 +299,7 @@ public class EngineWorker implements EngineContext, Agent
         final BufferPoolLayout bufferPoolLayout = new BufferPoolLayout.Builder()
                 .path(config.directory().resolve(String.format("buffers%d", index)))
                 .slotCapacity(config.bufferSlotCapacity())
+                .minSlotCapacity(config.bufferSlotMinCapacity())
                 .slotCount(config.bufferPoolCapacity() / config.bufferSlotCapacity())
                 .readonly(readonly)
                 .build();
@@ -291,6 +311,9 @@ public class EngineWorker implements EngineContext, Agent
 
         this.resolveHost = config.hostResolver();
         this.timestamps = config.timestamps();
+        this.cachedClock = new CachedNanoClock();
+        this.cachedClock.update(System.nanoTime());
+        this.clock = config.timestampsHighResolution() ? SystemNanoClock.INSTANCE : cachedClock;
         this.readLimit = config.maximumMessagesPerRead();
         this.expireLimit = config.maximumExpirationsPerPoll();
         this.streamsBuffer = streamsLayout.streamsBuffer();
@@ -306,13 +329,14 @@ public class EngineWorker implements EngineContext, Agent
         this.affinityByBindingId = new Long2ObjectHashMap<>();
         this.targetsByIndex = new Int2ObjectHashMap<>();
         this.writersByIndex = new Int2ObjectHashMap<>();
+        this.congestedTargets = new ArrayList<>();
 
         this.timerWheel = new DeadlineTimerWheel(MILLISECONDS, currentTimeMillis(), 512, 1024);
         this.tasksByTimerId = new Long2ObjectHashMap<>();
         this.futuresById = new Long2ObjectHashMap<>();
         this.signaler = new ElektronSignaler(executor, Math.max(config.bufferSlotCapacity(), 512));
 
-        this.poller = new Poller();
+        this.poller = Poller.newPoller(config.poller());
 
         final BufferPool bufferPool = bufferPoolLayout.bufferPool();
 
@@ -321,6 +345,7 @@ public class EngineWorker implements EngineContext, Agent
 
         this.mask = mask;
         this.bufferPool = bufferPool;
+        this.sizeClassedPool = bufferPool instanceof SizeClassedBufferPool ? (SizeClassedBufferPool) bufferPool : null;
         this.initialId = initial;
         this.promiseId = initial;
         this.traceId = initial;
@@ -338,11 +363,14 @@ public class EngineWorker implements EngineContext, Agent
         this.debitorsByIndex = new Int2ObjectHashMap<DefaultBudgetDebitor>();
 
         Map<String, BindingContext> bindingsByType = new LinkedHashMap<>();
+        Map<String, Binding> bindingsByName = new LinkedHashMap<>();
         for (Binding binding : bindings)
         {
             String type = binding.name();
             bindingsByType.put(type, binding.supply(this));
+            bindingsByName.put(type, binding);
         }
+        this.bindingsByName = bindingsByName;
 
         Map<String, ExporterContext> exportersByType = new LinkedHashMap<>();
         for (Exporter exporter : exporters)
@@ -394,7 +422,6 @@ public class EngineWorker implements EngineContext, Agent
                 this::supplyMetricWriter, this::detachStreams, collector);
         this.taskQueue = new ConcurrentLinkedDeque<>();
         this.correlations = new Long2ObjectHashMap<>();
-        this.idleStrategy = idleStrategy;
         this.errorHandler = errorHandler;
         this.exportersById = new Long2ObjectHashMap<>();
         this.validatorFactory = validatorFactory;
@@ -522,6 +549,14 @@ public class EngineWorker implements EngineContext, Agent
         }
     }
 
+    @Override
+    public boolean congested(
+        long streamId)
+    {
+        return !congestedTargets.isEmpty() &&
+            (congested(clientIndex(streamId)) || congested(serverIndex(streamId)));
+    }
+
     @Override
     public BudgetCreditor creditor()
     {
@@ -683,6 +718,11 @@ public class EngineWorker implements EngineContext, Agent
 
         try
         {
+            if (timestamps)
+            {
+                cachedClock.update(System.nanoTime());
+            }
+
             workDone += poller.doWork();
 
             if (timerWheel.timerCount() != 0L)
@@ -698,7 +738,19 @@ public class EngineWorker implements EngineContext, Agent
                 }
             }
 
+            if (!congestedTargets.isEmpty())
+            {
+                workDone += flushCongestedTargets();
+            }
+
             workDone += streamsBuffer.read(readHandler, readLimit);
+
+            final long now = currentTimeMillis();
+            if (now - loadPublishedAt >= LOAD_PUBLISH_INTERVAL_MILLIS)
+            {
+                publishLoad();
+                loadPublishedAt = now;
+            }
         }
         catch (Throwable ex)
         {
@@ -796,6 +848,16 @@ public class EngineWorker implements EngineContext, Agent
         return detachTask.future();
     }
 
+    public CompletableFuture<Void> reconfigure(
+        NamespaceConfig namespace,
+        NamespaceDiff diff)
+    {
+        NamespaceTask reconfigureTask = configuration.reconfigure(namespace, diff);
+        taskQueue.offer(reconfigureTask);
+        signaler.signalNow(0L, 0L, 0L, supplyTraceId(), SIGNAL_TASK_QUEUED, 0);
+        return reconfigureTask.future();
+    }
+
     public AgentRunner runner()
     {
         return runner;
@@ -810,6 +872,7 @@ public class EngineWorker implements EngineContext, Agent
             ExporterRegistry registry = configuration.resolveExporter(exporterId);
             ExporterHandler handler = registry.handler();
             ExporterAgent agent = new ExporterAgent(exporterId, handler);
+            IdleStrategy idleStrategy = IdleStrategies.newIdleStrategy(config, IDLE_STRATEGY_BACKOFF);
             AgentRunner runner = new AgentRunner(idleStrategy, errorHandler, null, agent);
             AgentRunner.startOnThread(runner);
             exportersById.put(exporterId, runner);
@@ -946,34 +1009,28 @@ public class EngineWorker implements EngineContext, Agent
     private void doSystemFlush(
         long traceId,
         long budgetId,
-        long watchers)
+        int watcherIndex)
     {
-        for (int watcherIndex = 0; watcherIndex < Long.SIZE; watcherIndex++)
+        if (EngineConfiguration.DEBUG_BUDGETS)
         {
-            if ((watchers & (1L << watcherIndex)) != 0L)
-            {
-                if (EngineConfiguration.DEBUG_BUDGETS)
-                {
-                    System.out.format("[%d] [0x%016x] [0x%016x] flush %d\n",
-                            System.nanoTime(), traceId, budgetId, watcherIndex);
-                }
-
-                final MessageConsumer writer = supplyWriter(watcherIndex);
-                final FlushFW flush = flushRW.wrap(writeBuffer, 0, writeBuffer.capacity())
-                        .originId(0L)
-                        .routedId(0L)
-                        .streamId(0L)
-                        .sequence(0L)
-                        .acknowledge(0L)
-                        .maximum(0)
-                        .traceId(traceId)
-                        .budgetId(budgetId)
-                        .reserved(0)
-                        .build();
-
-                writer.accept(flush.typeId(), flush.buffer(), flush.offset(), flush.sizeof());
-            }
+            System.out.format("[%d] [0x%016x] [0x%016x] flush %d\n",
+                    System.nanoTime(), traceId, budgetId, watcherIndex);
         }
+
+        final MessageConsumer writer = supplyWriter(watcherIndex);
+        final FlushFW flush = flushRW.wrap(writeBuffer, 0, writeBuffer.capacity())
+                .originId(0L)
+                .routedId(0L)
+                .streamId(0L)
+                .sequence(0L)
+                .acknowledge(0L)
+                .maximum(0)
+                .traceId(traceId)
+                .budgetId(budgetId)
+                .reserved(0)
+                .build();
+
+        writer.accept(flush.typeId(), flush.buffer(), flush.offset(), flush.sizeof());
     }
 
     private void doSystemWindow(
@@ -1003,6 +1060,37 @@ public class EngineWorker implements EngineContext, Agent
         writer.accept(window.typeId(), window.buffer(), window.offset(), window.sizeof());
     }
 
+    private boolean congested(
+        int index)
+    {
+        final Target target = targetsByIndex.get(index);
+        return target != null && target.congested();
+    }
+
+    private void onTargetCongested(
+        Target target)
+    {
+        congestedTargets.add(target);
+    }
+
+    private int flushCongestedTargets()
+    {
+        int workDone = 0;
+
+        for (int index = congestedTargets.size() - 1; index >= 0; index--)
+        {
+            final Target target = congestedTargets.get(index);
+            workDone += target.flush();
+
+            if (!target.congested())
+            {
+                ArrayListUtil.fastUnorderedRemove(congestedTargets, index);
+            }
+        }
+
+        return workDone;
+    }
+
     private boolean handleExpire(
         TimeUnit timeUnit,
         long now,
@@ -1608,7 +1696,8 @@ public class EngineWorker implements EngineContext, Agent
     private Target newTarget(
         int index)
     {
-        return new Target(config, index, writeBuffer, correlations, streams, streamSets, throttles);
+        return new Target(config, index, clock, writeBuffer, correlations, streams, streamSets, throttles,
+            this::onTargetCongested);
     }
 
     private DefaultBudgetDebitor newBudgetDebitor(
@@ -1627,10 +1716,15 @@ public class EngineWorker implements EngineContext, Agent
     {
         final Affinity affinity = supplyAffinity(bindingId);
         final BitSet mask = affinity.mask;
-        final int remoteIndex = affinity.nextIndex;
 
-        // currently round-robin with prefer-local only
         assert mask.cardinality() != 0;
+        if (affinity.selection == LEAST_LOADED)
+        {
+            return resolveLeastLoadedIndex(mask);
+        }
+
+        // round-robin with prefer-local
+        final int remoteIndex = affinity.nextIndex;
         if (remoteIndex != localIndex)
         {
             int nextIndex = affinity.mask.nextSetBit(remoteIndex + 1);
@@ -1644,6 +1738,96 @@ public class EngineWorker implements EngineContext, Agent
         return remoteIndex;
     }
 
+    private int resolveLeastLoadedIndex(
+        BitSet mask)
+    {
+        long totalStreams = 0L;
+        long totalBufferSlots = 0L;
+
+        for (int index = mask.nextSetBit(0); index != -1; index = mask.nextSetBit(index + 1))
+        {
+            totalStreams += streamsLoad(index);
+            totalBufferSlots += bufferSlotsLoad(index);
+        }
+
+        int leastIndex = -1;
+        double leastLoad = Double.MAX_VALUE;
+        int leastOccupancy = Integer.MAX_VALUE;
+
+        for (int index = mask.nextSetBit(0); index != -1; index = mask.nextSetBit(index + 1))
+        {
+            // streams and buffer slots are different units, so weigh each as this worker's share of the total
+            final double load = share(streamsLoad(index), totalStreams) + share(bufferSlotsLoad(index), totalBufferSlots);
+
+            if (load < leastLoad ||
+                load == leastLoad && index == localIndex)
+            {
+                leastIndex = index;
+                leastLoad = load;
+                leastOccupancy = index != localIndex ? supplyTarget(index).occupancy() : 0;
+            }
+            else if (load == leastLoad && leastIndex != localIndex)
+            {
+                final int occupancy = supplyTarget(index).occupancy();
+                if (occupancy < leastOccupancy)
+                {
+                    leastIndex = index;
+                    leastOccupancy = occupancy;
+                }
+            }
+        }
+
+        assignedByIndex[leastIndex]++;
+
+        return leastIndex;
+    }
+
+    private long streamsLoad(
+        int index)
+    {
+        final long published = index < loadLayout.entries() ? loadLayout.streams(index) : 0L;
+        return published + assignedByIndex[index];
+    }
+
+    private long bufferSlotsLoad(
+        int index)
+    {
+        return index < loadLayout.entries() ? loadLayout.bufferSlots(index) : 0L;
+    }
+
+    private static double share(
+        long value,
+        long total)
+    {
+        return total != 0L ? (double) value / total : 0.0;
+    }
+
+    private void publishLoad()
+    {
+        if (localIndex < loadLayout.entries())
+        {
+            long streamCount = 0L;
+            for (int senderIndex = 0; senderIndex < streams.length; senderIndex++)
+            {
+                streamCount += streams[senderIndex].size();
+            }
+
+            loadLayout.streams(localIndex, streamCount);
+            loadLayout.bufferSlots(localIndex, bufferPool.acquiredSlots());
+
+            if (sizeClassedPool != null)
+            {
+                final int sizeClasses = Math.min(sizeClassedPool.sizeClasses(), LoadLayout.MAX_SIZE_CLASSES);
+                for (int sizeClass = 0; sizeClass < sizeClasses; sizeClass++)
+                {
+                    loadLayout.bufferSlots(localIndex, sizeClass, sizeClassedPool.acquiredSlots(sizeClass));
+                }
+            }
+        }
+
+        Arrays.fill(assignedByIndex, 0L);
+    }
+
     private Affinity supplyAffinity(
         long bindingId)
     {
@@ -1653,25 +1837,44 @@ public class EngineWorker implements EngineContext, Agent
     public Affinity resolveAffinity(
         long bindingId)
     {
-        long mask = affinityMask.applyAsLong(bindingId);
+        BitSet mask = affinityMask.apply(bindingId);
 
-        if (Long.bitCount(mask) == 0)
+        if (mask.isEmpty())
         {
             int namespaceId = NamespacedId.namespaceId(bindingId);
             int localId = NamespacedId.localId(bindingId);
             String namespace = labels.lookupLabel(namespaceId);
             String binding = labels.lookupLabel(localId);
-            throw new IllegalStateException(String.format("affinity mask must specify at least one bit: %s.%s %d",
+            throw new IllegalStateException(String.format("affinity mask must specify at least one bit: %s.%s %s",
                     namespace, binding, mask));
         }
 
         Affinity affinity = new Affinity();
-        affinity.mask = BitSet.valueOf(new long[] { mask });
+        affinity.mask = mask;
         affinity.nextIndex = affinity.mask.get(localIndex) ? localIndex : affinity.mask.nextSetBit(0);
+        affinity.selection = resolveSelection(bindingId);
 
         return affinity;
     }
 
+    private WorkerSelection resolveSelection(
+        long bindingId)
+    {
+        WorkerSelection selection = null;
+
+        final BindingRegistry binding = configuration.resolveBinding(bindingId);
+        if (binding != null)
+        {
+            final Binding factory = bindingsByName.get(binding.type());
+            if (factory != null)
+            {
+                selection = factory.selection(binding.kind());
+            }
+        }
+
+        return selection != null ? selection : config.workerSelection();
+    }
+
     private static SignalFW.Builder newSignalRW(
         int capacity)
     {
@@ -1682,7 +1885,7 @@ public class EngineWorker implements EngineContext, Agent
     private Int2ObjectHashMap<MessageConsumer>[] initDispatcher()
     {
         @SuppressWarnings("unchecked")
-        Int2ObjectHashMap<MessageConsumer>[] dispatcher = new Int2ObjectHashMap[64];
+        Int2ObjectHashMap<MessageConsumer>[] dispatcher = new Int2ObjectHashMap[MAX_WORKERS];
         for (int i = 0; i < dispatcher.length; i++)
         {
             dispatcher[i] = new Int2ObjectHashMap<>();
@@ -1867,6 +2070,7 @@ public class EngineWorker implements EngineContext, Agent
             int signalId,
             int contextId)
         {
+            // may run on executor threads, where the worker's cached clock can be a full idle park behind
             final long timestamp = timestamps ? System.nanoTime() : 0L;
 
             final SignalFW signal = signalRW.get()
@@ -1927,5 +2131,6 @@ public class EngineWorker implements EngineContext, Agent
     {
         BitSet mask;
         int nextIndex;
+        WorkerSelection selection;
     }
 }
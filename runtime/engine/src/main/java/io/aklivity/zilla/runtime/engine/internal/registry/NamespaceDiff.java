@@ -0,0 +1,199 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.registry;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import jakarta.json.JsonObject;
+import jakarta.json.JsonString;
+import jakarta.json.JsonValue;
+
+/**
+ * Names of the bindings, guards, vaults and catalogs that must be reattached when reconfiguring a namespace.
+ * Components are compared by their configuration source, and bindings referring to any changed guard, vault or
+ * catalog by name, as a property name or value, are reattached as well, so that unchanged bindings can retain
+ * their streams.
+ */
+public final class NamespaceDiff
+{
+    private static final String NAME_NAME = "name";
+    private static final String REFERENCES_NAME = "references";
+    private static final String TELEMETRY_NAME = "telemetry";
+    private static final String BINDINGS_NAME = "bindings";
+    private static final String GUARDS_NAME = "guards";
+    private static final String VAULTS_NAME = "vaults";
+    private static final String CATALOGS_NAME = "catalogs";
+
+    private static final Set<String> NON_REFERENCE_NAMES = Set.of("type", "kind", "entry", "exit");
+
+    final Set<String> bindings;
+    final Set<String> guards;
+    final Set<String> vaults;
+    final Set<String> catalogs;
+
+    private NamespaceDiff(
+        Set<String> bindings,
+        Set<String> guards,
+        Set<String> vaults,
+        Set<String> catalogs)
+    {
+        this.bindings = bindings;
+        this.guards = guards;
+        this.vaults = vaults;
+        this.catalogs = catalogs;
+    }
+
+    /**
+     * Computes the difference between two namespace configuration sources.
+     *
+     * @param oldSource  the source of the currently registered namespace
+     * @param newSource  the source of the replacement namespace
+     *
+     * @return the difference, or {@code null} if the namespace must be reloaded entirely
+     */
+    public static NamespaceDiff of(
+        JsonObject oldSource,
+        JsonObject newSource)
+    {
+        NamespaceDiff diff = null;
+
+        if (oldSource != null &&
+            newSource != null &&
+            !oldSource.equals(newSource) &&
+            Objects.equals(oldSource.get(NAME_NAME), newSource.get(NAME_NAME)) &&
+            Objects.equals(oldSource.get(REFERENCES_NAME), newSource.get(REFERENCES_NAME)) &&
+            Objects.equals(oldSource.get(TELEMETRY_NAME), newSource.get(TELEMETRY_NAME)))
+        {
+            final Set<String> guards = changed(oldSource, newSource, GUARDS_NAME);
+            final Set<String> vaults = changed(oldSource, newSource, VAULTS_NAME);
+            final Set<String> catalogs = changed(oldSource, newSource, CATALOGS_NAME);
+            final Set<String> bindings = changed(oldSource, newSource, BINDINGS_NAME);
+
+            final Set<String> dependencies = new HashSet<>();
+            dependencies.addAll(guards);
+            dependencies.addAll(vaults);
+            dependencies.addAll(catalogs);
+
+            if (!dependencies.isEmpty())
+            {
+                dependents(oldSource, dependencies, bindings);
+                dependents(newSource, dependencies, bindings);
+            }
+
+            diff = new NamespaceDiff(bindings, guards, vaults, catalogs);
+        }
+
+        return diff;
+    }
+
+    private static Set<String> changed(
+        JsonObject oldSource,
+        JsonObject newSource,
+        String kind)
+    {
+        final JsonObject oldItems = items(oldSource, kind);
+        final JsonObject newItems = items(newSource, kind);
+
+        final Set<String> changed = new HashSet<>();
+
+        for (String name : oldItems.keySet())
+        {
+            if (!oldItems.get(name).equals(newItems.get(name)))
+            {
+                changed.add(name);
+            }
+        }
+
+        for (String name : newItems.keySet())
+        {
+            if (!oldItems.containsKey(name))
+            {
+                changed.add(name);
+            }
+        }
+
+        return changed;
+    }
+
+    private static void dependents(
+        JsonObject source,
+        Set<String> dependencies,
+        Set<String> bindings)
+    {
+        final JsonObject items = items(source, BINDINGS_NAME);
+
+        for (String name : items.keySet())
+        {
+            if (refers(items.get(name), dependencies))
+            {
+                bindings.add(name);
+            }
+        }
+    }
+
+    private static boolean refers(
+        JsonValue value,
+        Set<String> dependencies)
+    {
+        boolean refers = false;
+
+        switch (value.getValueType())
+        {
+        case OBJECT:
+            for (Map.Entry<String, JsonValue> entry : value.asJsonObject().entrySet())
+            {
+                final String key = entry.getKey();
+                refers = dependencies.contains(key) ||
+                    !NON_REFERENCE_NAMES.contains(key) && refers(entry.getValue(), dependencies);
+
+                if (refers)
+                {
+                    break;
+                }
+            }
+            break;
+        case ARRAY:
+            for (JsonValue item : value.asJsonArray())
+            {
+                refers = refers(item, dependencies);
+
+                if (refers)
+                {
+                    break;
+                }
+            }
+            break;
+        case STRING:
+            refers = dependencies.contains(((JsonString) value).getString());
+            break;
+        default:
+            break;
+        }
+
+        return refers;
+    }
+
+    private static JsonObject items(
+        JsonObject source,
+        String kind)
+    {
+        final JsonValue items = source.get(kind);
+        return items instanceof JsonObject ? (JsonObject) items : JsonValue.EMPTY_JSON_OBJECT;
+    }
+}
@@ -52,7 +52,7 @@ import io.aklivity.zilla.runtime.engine.vault.VaultContext;
 
 public class NamespaceRegistry
 {
-    private final NamespaceConfig namespace;
+    private NamespaceConfig namespace;
     private final Function<String, BindingContext> bindingsByType;
     private final Function<String, GuardContext> guardsByType;
     private final Function<String, VaultContext> vaultsByType;
@@ -138,6 +138,23 @@ public class NamespaceRegistry
         namespace.telemetry.exporters.forEach(this::detachExporter);
     }
 
+    public void reconfigure(
+        NamespaceConfig newNamespace,
+        NamespaceDiff diff)
+    {
+        namespace.vaults.stream().filter(v -> diff.vaults.contains(v.name)).forEach(this::detachVault);
+        namespace.guards.stream().filter(g -> diff.guards.contains(g.name)).forEach(this::detachGuard);
+        namespace.catalogs.stream().filter(c -> diff.catalogs.contains(c.name)).forEach(this::detachCatalog);
+        namespace.bindings.stream().filter(b -> diff.bindings.contains(b.name)).forEach(this::detachBinding);
+
+        namespace = newNamespace;
+
+        namespace.vaults.stream().filter(v -> diff.vaults.contains(v.name)).forEach(this::attachVault);
+        namespace.guards.stream().filter(g -> diff.guards.contains(g.name)).forEach(this::attachGuard);
+        namespace.catalogs.stream().filter(c -> diff.catalogs.contains(c.name)).forEach(this::attachCatalog);
+        namespace.bindings.stream().filter(b -> diff.bindings.contains(b.name)).forEach(this::attachBinding);
+    }
+
     private void attachBinding(
         BindingConfig config)
     {
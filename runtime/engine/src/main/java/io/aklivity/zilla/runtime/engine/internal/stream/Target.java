@@ -22,15 +22,21 @@ import static io.aklivity.zilla.runtime.engine.internal.stream.StreamId.throttle
 import static io.aklivity.zilla.runtime.engine.internal.stream.StreamId.throttleIndex;
 import static io.aklivity.zilla.runtime.engine.internal.types.stream.FrameFW.FIELD_OFFSET_TIMESTAMP;
 
+import java.util.function.Consumer;
+
 import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.ExpandableRingBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.collections.LongHashSet;
+import org.agrona.concurrent.NanoClock;
 
 import io.aklivity.zilla.runtime.engine.EngineConfiguration;
 import io.aklivity.zilla.runtime.engine.binding.function.MessageConsumer;
 import io.aklivity.zilla.runtime.engine.binding.function.MessagePredicate;
+import io.aklivity.zilla.runtime.engine.internal.concurent.ManyToOneRingBuffer;
 import io.aklivity.zilla.runtime.engine.internal.layouts.StreamsLayout;
 import io.aklivity.zilla.runtime.engine.internal.types.stream.AbortFW;
 import io.aklivity.zilla.runtime.engine.internal.types.stream.BeginFW;
@@ -45,6 +51,8 @@ import io.aklivity.zilla.runtime.engine.internal.types.stream.WindowFW;
 
 public final class Target implements AutoCloseable
 {
+    private static final int SPILL_INITIAL_CAPACITY = 64 * 1024;
+
     private final FrameFW frameRO = new FrameFW();
 
     private final ResetFW.Builder resetRW = new ResetFW.Builder();
@@ -54,25 +62,39 @@ public final class Target implements AutoCloseable
     private final AutoCloseable streamsLayout;
     private final MutableDirectBuffer writeBuffer;
     private final boolean timestamps;
+    private final NanoClock clock;
     private final Long2ObjectHashMap<MessageConsumer> correlations;
     private final Int2ObjectHashMap<MessageConsumer>[] streams;
     private final Long2ObjectHashMap<LongHashSet> streamSets;
     private final Int2ObjectHashMap<MessageConsumer>[] throttles;
     private final MessageConsumer writeHandler;
+    private final ManyToOneRingBuffer streamsRingBuffer;
+    private final int spillCapacity;
+    private final int spillInitialCapacity;
+    private final Consumer<Target> onCongested;
+    private final ExpandableRingBuffer.MessageConsumer spillHandler;
+    private final MessagePredicate claimWriter;
 
     private MessagePredicate streamsBuffer;
-
+    private ExpandableRingBuffer spill;
+    private MutableDirectBuffer spillFrame;
+    private boolean detached;
+    private boolean claimCommitted;
+    private MessageConsumer claimObserver = MessageConsumer.NOOP;
 
     public Target(
         EngineConfiguration config,
         int index,
+        NanoClock clock,
         MutableDirectBuffer writeBuffer,
         Long2ObjectHashMap<MessageConsumer> correlations,
         Int2ObjectHashMap<MessageConsumer>[] streams,
         Long2ObjectHashMap<LongHashSet> streamSets,
-        Int2ObjectHashMap<MessageConsumer>[] throttles)
+        Int2ObjectHashMap<MessageConsumer>[] throttles,
+        Consumer<Target> onCongested)
     {
         this.timestamps = config.timestamps();
+        this.clock = clock;
         this.localIndex = index;
 
         final String targetName = String.format("data%d", index);
@@ -84,7 +106,12 @@ public final class Target implements AutoCloseable
                 .readonly(true)
                 .build();
         this.streamsLayout = streamsLayout;
-        this.streamsBuffer = streamsLayout.streamsBuffer()::write;
+        this.streamsRingBuffer = streamsLayout.streamsBuffer();
+        this.streamsBuffer = this::writeOrSpill;
+        this.spillCapacity = config.streamsSpillCapacity();
+        this.spillInitialCapacity = Math.min(SPILL_INITIAL_CAPACITY, spillCapacity);
+        this.onCongested = onCongested;
+        this.spillHandler = this::handleSpill;
 
         this.writeBuffer = writeBuffer;
         this.correlations = correlations;
@@ -92,12 +119,41 @@ public final class Target implements AutoCloseable
         this.streamSets = streamSets;
         this.throttles = throttles;
 
-        this.writeHandler = this::handleWrite;
+        this.claimWriter = this::commitClaim;
+        this.writeHandler = new TargetWriter();
     }
 
     public void detach()
     {
         streamsBuffer = (t, b, i, l) -> true;
+        detached = true;
+
+        if (spill != null)
+        {
+            spill.reset(spillInitialCapacity);
+        }
+    }
+
+    public int occupancy()
+    {
+        return streamsRingBuffer.size();
+    }
+
+    public boolean congested()
+    {
+        return spill != null && !spill.isEmpty();
+    }
+
+    public int flush()
+    {
+        int workDone = 0;
+
+        if (congested())
+        {
+            workDone = spill.consume(spillHandler, Integer.MAX_VALUE);
+        }
+
+        return workDone;
     }
 
     @Override
@@ -123,17 +179,75 @@ public final class Target implements AutoCloseable
         return writeHandler;
     }
 
-    private void handleWrite(
+    private int claim(
+        int msgTypeId,
+        int length)
+    {
+        int index = MessageConsumer.NO_CLAIM;
+
+        if (!detached && !congested() && length <= streamsRingBuffer.maxMsgLength())
+        {
+            index = Math.max(streamsRingBuffer.tryClaim(msgTypeId, length), MessageConsumer.NO_CLAIM);
+        }
+
+        return index;
+    }
+
+    private void commit(
+        int msgTypeId,
+        int index,
+        int length,
+        MessageConsumer observer)
+    {
+        claimCommitted = false;
+        claimObserver = observer;
+
+        try
+        {
+            handleWrite(msgTypeId, streamsRingBuffer.buffer(), index, length, claimWriter);
+        }
+        finally
+        {
+            claimObserver = MessageConsumer.NOOP;
+
+            if (!claimCommitted)
+            {
+                streamsRingBuffer.abort(index);
+            }
+        }
+    }
+
+    private void abort(
+        int index)
+    {
+        streamsRingBuffer.abort(index);
+    }
+
+    private boolean commitClaim(
         int msgTypeId,
         DirectBuffer buffer,
         int index,
         int length)
+    {
+        // observers see the timestamped frame before the reader can reclaim it
+        claimObserver.accept(msgTypeId, buffer, index, length);
+        streamsRingBuffer.commit(index, length);
+        claimCommitted = true;
+        return true;
+    }
+
+    private void handleWrite(
+        int msgTypeId,
+        DirectBuffer buffer,
+        int index,
+        int length,
+        MessagePredicate writer)
     {
         boolean handled = false;
 
         if (timestamps)
         {
-            ((MutableDirectBuffer) buffer).putLong(index + FIELD_OFFSET_TIMESTAMP, System.nanoTime());
+            ((MutableDirectBuffer) buffer).putLong(index + FIELD_OFFSET_TIMESTAMP, clock.nanoTime());
         }
 
         final FrameFW frame = frameRO.wrap(buffer, index, index + length);
@@ -143,15 +257,15 @@ public final class Target implements AutoCloseable
 
         if (streamId == 0L)
         {
-            handled = handleWriteSystem(originId, routedId, streamId, msgTypeId, buffer, index, length);
+            handled = handleWriteSystem(originId, routedId, streamId, msgTypeId, buffer, index, length, writer);
         }
         else if (isInitial(streamId))
         {
-            handled = handleWriteInitial(originId, routedId, streamId, msgTypeId, buffer, index, length);
+            handled = handleWriteInitial(originId, routedId, streamId, msgTypeId, buffer, index, length, writer);
         }
         else
         {
-            handled = handleWriteReply(originId, routedId, streamId, msgTypeId, buffer, index, length);
+            handled = handleWriteReply(originId, routedId, streamId, msgTypeId, buffer, index, length, writer);
         }
 
         if (!handled)
@@ -166,17 +280,19 @@ public final class Target implements AutoCloseable
         long streamId,
         int msgTypeId,
         DirectBuffer buffer,
-        int index, int length)
+        int index,
+        int length,
+        MessagePredicate writer)
     {
         boolean handled = false;
 
         switch (msgTypeId)
         {
         case FlushFW.TYPE_ID:
-            handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+            handled = writer.test(msgTypeId, buffer, index, length);
             break;
         case WindowFW.TYPE_ID:
-            handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+            handled = writer.test(msgTypeId, buffer, index, length);
             break;
         }
 
@@ -190,7 +306,8 @@ public final class Target implements AutoCloseable
         int msgTypeId,
         DirectBuffer buffer,
         int index,
-        int length)
+        int length,
+        MessagePredicate writer)
     {
         boolean handled;
 
@@ -199,21 +316,21 @@ public final class Target implements AutoCloseable
             switch (msgTypeId)
             {
             case BeginFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             case DataFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             case EndFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 throttles[throttleIndex(streamId)].remove(instanceId(streamId));
                 break;
             case AbortFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 throttles[throttleIndex(streamId)].remove(instanceId(streamId));
                 break;
             case FlushFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             default:
                 handled = true;
@@ -225,10 +342,10 @@ public final class Target implements AutoCloseable
             switch (msgTypeId)
             {
             case WindowFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             case ResetFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 streams[streamIndex(streamId)].remove(instanceId(streamId));
                 LongHashSet streamIdSet = streamSets.get(routedId);
                 if (streamIdSet != null)
@@ -237,10 +354,10 @@ public final class Target implements AutoCloseable
                 }
                 break;
             case SignalFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             case ChallengeFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             default:
                 handled = true;
@@ -258,7 +375,8 @@ public final class Target implements AutoCloseable
         int msgTypeId,
         DirectBuffer buffer,
         int index,
-        int length)
+        int length,
+        MessagePredicate writer)
     {
         boolean handled;
 
@@ -267,21 +385,21 @@ public final class Target implements AutoCloseable
             switch (msgTypeId)
             {
             case BeginFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             case DataFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             case EndFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 throttles[throttleIndex(streamId)].remove(instanceId(streamId));
                 break;
             case AbortFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 throttles[throttleIndex(streamId)].remove(instanceId(streamId));
                 break;
             case FlushFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             default:
                 handled = true;
@@ -293,10 +411,10 @@ public final class Target implements AutoCloseable
             switch (msgTypeId)
             {
             case WindowFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             case ResetFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 streams[streamIndex(streamId)].remove(instanceId(streamId));
                 correlations.remove(streamId);
                 LongHashSet streamIdSet = streamSets.get(routedId);
@@ -306,10 +424,10 @@ public final class Target implements AutoCloseable
                 }
                 break;
             case SignalFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             case ChallengeFW.TYPE_ID:
-                handled = streamsBuffer.test(msgTypeId, buffer, index, length);
+                handled = writer.test(msgTypeId, buffer, index, length);
                 break;
             default:
                 handled = true;
@@ -320,6 +438,47 @@ public final class Target implements AutoCloseable
         return handled;
     }
 
+    private boolean writeOrSpill(
+        int msgTypeId,
+        DirectBuffer buffer,
+        int index,
+        int length)
+    {
+        final boolean congested = congested();
+
+        boolean written = !congested && streamsRingBuffer.write(msgTypeId, buffer, index, length);
+
+        if (!written && spillCapacity != 0)
+        {
+            if (spill == null)
+            {
+                spill = new ExpandableRingBuffer(spillInitialCapacity, spillCapacity, true);
+                spillFrame = new ExpandableArrayBuffer();
+            }
+
+            spillFrame.putInt(0, msgTypeId);
+            spillFrame.putBytes(Integer.BYTES, buffer, index, length);
+            written = spill.append(spillFrame, 0, Integer.BYTES + length);
+
+            if (written && !congested)
+            {
+                onCongested.accept(this);
+            }
+        }
+
+        return written;
+    }
+
+    private boolean handleSpill(
+        MutableDirectBuffer buffer,
+        int offset,
+        int length,
+        int headOffset)
+    {
+        final int msgTypeId = buffer.getInt(offset);
+        return streamsRingBuffer.write(msgTypeId, buffer, offset + Integer.BYTES, length - Integer.BYTES);
+    }
+
     private void doSyntheticReset(
         long streamId,
         MessageConsumer sender)
@@ -337,4 +496,48 @@ public final class Target implements AutoCloseable
 
         sender.accept(reset.typeId(), reset.buffer(), reset.offset(), reset.sizeof());
     }
+
+    private final class TargetWriter implements MessageConsumer
+    {
+        @Override
+        public void accept(
+            int msgTypeId,
+            DirectBuffer buffer,
+            int index,
+            int length)
+        {
+            handleWrite(msgTypeId, buffer, index, length, streamsBuffer);
+        }
+
+        @Override
+        public int claim(
+            int msgTypeId,
+            int length)
+        {
+            return Target.this.claim(msgTypeId, length);
+        }
+
+        @Override
+        public MutableDirectBuffer claimBuffer()
+        {
+            return streamsRingBuffer.buffer();
+        }
+
+        @Override
+        public void commit(
+            int msgTypeId,
+            int index,
+            int length,
+            MessageConsumer observer)
+        {
+            Target.this.commit(msgTypeId, index, length, observer);
+        }
+
+        @Override
+        public void abort(
+            int index)
+        {
+            Target.this.abort(index);
+        }
+    }
 }
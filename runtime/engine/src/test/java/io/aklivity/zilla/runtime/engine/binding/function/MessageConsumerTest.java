@@ -15,6 +15,13 @@
  */
 package io.aklivity.zilla.runtime.engine.binding.function;
 
+import static io.aklivity.zilla.runtime.engine.binding.function.MessageConsumer.NO_CLAIM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Test;
 
 public class MessageConsumerTest
@@ -27,4 +34,78 @@ public class MessageConsumerTest
             consumer.onMessage(0, null, 0, 0);
         }
     }
+
+    @Test
+    public void shouldDefaultClaim() throws Exception
+    {
+        MessageConsumer consumer = (t, b, i, l) -> {};
+
+        assertEquals(NO_CLAIM, consumer.claim(1, 64));
+        assertEquals(NO_CLAIM, consumer.andThen((t, b, i, l) -> {}).claim(1, 64));
+    }
+
+    @Test
+    public void shouldDefaultCommitAndAbort() throws Exception
+    {
+        MessageConsumer consumer = (t, b, i, l) -> {};
+
+        consumer.commit(1, NO_CLAIM, 0);
+        consumer.abort(NO_CLAIM);
+    }
+
+    @Test
+    public void shouldDelegateClaimAndThen() throws Exception
+    {
+        MutableDirectBuffer claimBuffer = new UnsafeBuffer(new byte[64]);
+        int[] committed = new int[1];
+        int[] accepted = new int[1];
+
+        MessageConsumer claimer = new MessageConsumer()
+        {
+            @Override
+            public void accept(
+                int msgTypeId,
+                DirectBuffer buffer,
+                int index,
+                int length)
+            {
+            }
+
+            @Override
+            public int claim(
+                int msgTypeId,
+                int length)
+            {
+                return 8;
+            }
+
+            @Override
+            public MutableDirectBuffer claimBuffer()
+            {
+                return claimBuffer;
+            }
+
+            @Override
+            public void commit(
+                int msgTypeId,
+                int index,
+                int length,
+                MessageConsumer observer)
+            {
+                claimBuffer.putLong(index, 42L);
+                observer.accept(msgTypeId, claimBuffer, index, length);
+                committed[0] = length;
+            }
+        };
+
+        MessageConsumer consumer = claimer.andThen((t, b, i, l) -> accepted[0] = (int) b.getLong(i) + l);
+
+        int index = consumer.claim(1, 32);
+        assertEquals(8, index);
+        assertSame(claimBuffer, consumer.claimBuffer());
+
+        consumer.commit(1, index, 16);
+        assertEquals(42 + 16, accepted[0]);
+        assertEquals(16, committed[0]);
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.BitSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TuningTest
+{
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldDefaultToAllWorkers() throws Exception
+    {
+        try (Tuning tuning = new Tuning(folder.getRoot().toPath(), 96))
+        {
+            tuning.reset();
+
+            BitSet expected = new BitSet();
+            expected.set(0, 96);
+
+            assertEquals(expected, tuning.affinity(1L));
+        }
+    }
+
+    @Test
+    public void shouldStoreAffinityBeyond64Workers() throws Exception
+    {
+        try (Tuning tuning = new Tuning(folder.getRoot().toPath(), 128))
+        {
+            tuning.reset();
+
+            BitSet mask1 = new BitSet();
+            mask1.set(3);
+            mask1.set(127);
+
+            BitSet mask2 = new BitSet();
+            mask2.set(64, 96);
+
+            tuning.affinity(1L, mask1);
+            tuning.affinity(2L, mask2);
+
+            assertEquals(mask1, tuning.affinity(1L));
+            assertEquals(mask2, tuning.affinity(2L));
+
+            mask1.clear(127);
+            tuning.affinity(1L, mask1);
+
+            assertEquals(mask1, tuning.affinity(1L));
+            assertEquals(mask2, tuning.affinity(2L));
+        }
+    }
+
+    @Test
+    public void shouldComputeMaskWords()
+    {
+        assertEquals(1, Tuning.maskWords(1));
+        assertEquals(1, Tuning.maskWords(64));
+        assertEquals(2, Tuning.maskWords(65));
+        assertEquals(2, Tuning.maskWords(128));
+    }
+}
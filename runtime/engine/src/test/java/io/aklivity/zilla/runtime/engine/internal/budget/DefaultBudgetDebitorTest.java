@@ -230,4 +230,36 @@ public class DefaultBudgetDebitorTest
         verify(flusher).accept(traceId);
         verifyNoMoreInteractions(flusher);
     }
+
+    @Test
+    public void shouldWatchBeyondFirstWord() throws Exception
+    {
+        final LongConsumer flusher = Mockito.mock(LongConsumer.class);
+        final BudgetsLayout layout = new BudgetsLayout.Builder()
+            .owner(true)
+            .path(Paths.get("target/zilla-itests/budgets0"))
+            .capacity(1024)
+            .build();
+
+        final long budgetId = 1L;
+        final long watcherId = 2L;
+        final int creditorLocalIndex = 1;
+
+        try (DefaultBudgetDebitor debitor1 = new DefaultBudgetDebitor(1, 0, layout);
+             DefaultBudgetDebitor debitor65 = new DefaultBudgetDebitor(65, 0, layout))
+        {
+            layout.buffer().putLongVolatile(budgetIdOffset(creditorLocalIndex), budgetId);
+            layout.buffer().putLongVolatile(budgetRemainingOffset(creditorLocalIndex), 256L);
+
+            final long debitorIndex = debitor65.acquire(budgetId, watcherId, flusher);
+            debitor65.claim(debitorIndex, watcherId, 512, 1024);
+
+            assertEquals(0L, debitor1.watchers(debitorIndex, 0));
+            assertEquals(1L << 1, debitor65.watchers(debitorIndex, 1));
+
+            debitor65.claim(debitorIndex, watcherId, 0, 256);
+
+            assertEquals(0L, debitor65.watchers(debitorIndex, 1));
+        }
+    }
 }
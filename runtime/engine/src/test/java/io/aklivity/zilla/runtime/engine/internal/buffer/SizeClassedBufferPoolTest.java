@@ -0,0 +1,150 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.buffer;
+
+import static io.aklivity.zilla.runtime.engine.buffer.BufferPool.NO_SLOT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.agrona.MutableDirectBuffer;
+import org.junit.Test;
+
+public class SizeClassedBufferPoolTest
+{
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectNonConsecutiveSizeClasses()
+    {
+        new SizeClassedBufferPool(new DefaultBufferPool[] {
+            new DefaultBufferPool(1024, 512),
+            new DefaultBufferPool(4096, 2048)
+        });
+    }
+
+    @Test
+    public void shouldAcquireFromSmallestSufficientSizeClass()
+    {
+        SizeClassedBufferPool pool = newBufferPool();
+
+        int slot = pool.acquire(1L, 100);
+
+        assertNotEquals(NO_SLOT, slot);
+        assertEquals(512, pool.capacity(slot));
+        assertEquals(1, pool.acquiredSlots(0));
+        assertEquals(0, pool.acquiredSlots(1));
+        assertEquals(512, pool.buffer(slot).capacity());
+    }
+
+    @Test
+    public void shouldAcquireFromLargestSizeClassByDefault()
+    {
+        SizeClassedBufferPool pool = newBufferPool();
+
+        int slot = pool.acquire(1L);
+
+        assertNotEquals(NO_SLOT, slot);
+        assertEquals(2048, pool.slotCapacity());
+        assertEquals(2048, pool.capacity(slot));
+        assertEquals(1, pool.acquiredSlots(2));
+    }
+
+    @Test
+    public void shouldFallbackToLargerSizeClassWhenExhausted()
+    {
+        SizeClassedBufferPool pool = newBufferPool();
+
+        int slot1 = pool.acquire(1L, 512);
+        int slot2 = pool.acquire(2L, 512);
+        int slot3 = pool.acquire(3L, 512);
+
+        assertEquals(512, pool.capacity(slot1));
+        assertEquals(512, pool.capacity(slot2));
+        assertEquals(1024, pool.capacity(slot3));
+        assertEquals(3, pool.acquiredSlots());
+    }
+
+    @Test
+    public void shouldReportOutOfMemory()
+    {
+        SizeClassedBufferPool pool = newBufferPool();
+
+        assertNotEquals(NO_SLOT, pool.acquire(1L));
+        assertNotEquals(NO_SLOT, pool.acquire(2L));
+        assertEquals(NO_SLOT, pool.acquire(3L));
+        assertEquals(NO_SLOT, pool.acquire(4L, 4096));
+    }
+
+    @Test
+    public void shouldGrowSlotRetainingContent()
+    {
+        SizeClassedBufferPool pool = newBufferPool();
+
+        int slot = pool.acquire(1L, 100);
+        pool.buffer(slot).putLong(504, 0x0123456789abcdefL);
+
+        int newSlot = pool.grow(slot, 1500);
+
+        assertNotEquals(NO_SLOT, newSlot);
+        assertEquals(2048, pool.capacity(newSlot));
+        assertEquals(0, pool.acquiredSlots(0));
+        assertEquals(1, pool.acquiredSlots(2));
+
+        MutableDirectBuffer buffer = pool.buffer(newSlot);
+        assertEquals(0x0123456789abcdefL, buffer.getLong(504));
+    }
+
+    @Test
+    public void shouldNotGrowSlotWithSufficientCapacity()
+    {
+        SizeClassedBufferPool pool = newBufferPool();
+
+        int slot = pool.acquire(1L, 1000);
+
+        assertEquals(slot, pool.grow(slot, 1024));
+    }
+
+    @Test
+    public void shouldRetainSlotWhenGrowFails()
+    {
+        SizeClassedBufferPool pool = newBufferPool();
+
+        pool.acquire(1L);
+        pool.acquire(2L);
+        int slot = pool.acquire(3L, 100);
+
+        assertEquals(NO_SLOT, pool.grow(slot, 2048));
+        assertEquals(1, pool.acquiredSlots(0));
+    }
+
+    @Test
+    public void shouldReleaseSlot()
+    {
+        SizeClassedBufferPool pool = newBufferPool();
+
+        int slot = pool.acquire(1L, 1024);
+        pool.release(slot);
+
+        assertEquals(0, pool.acquiredSlots());
+    }
+
+    private static SizeClassedBufferPool newBufferPool()
+    {
+        return new SizeClassedBufferPool(new DefaultBufferPool[] {
+            new DefaultBufferPool(1024, 512),
+            new DefaultBufferPool(2048, 1024),
+            new DefaultBufferPool(4096, 2048)
+        });
+    }
+}
@@ -457,4 +457,51 @@ public class ManyToOneRingBufferTest
         inOrder.verify(buffer).putBytes(encodedMsgOffset(0), srcBuffer, 0, messageLength);
         inOrder.verify(buffer).putIntOrdered(lengthOffset(0), recordLength);
     }
+
+    @Test
+    public void shouldCommitClaimWithPaddingForUnusedLength()
+    {
+        final int claimLength = 400;
+        final int messageLength = 100;
+        final int recordLength = messageLength + HEADER_LENGTH;
+        final int alignedRecordLength = align(recordLength, ALIGNMENT);
+        final int claimRecordLength = claimLength + HEADER_LENGTH;
+        final int recordIndex = 0;
+
+        when(buffer.getInt(lengthOffset(recordIndex))).thenReturn(-claimRecordLength);
+
+        ringBuffer.commit(encodedMsgOffset(recordIndex), messageLength);
+
+        final InOrder inOrder = inOrder(buffer);
+        inOrder.verify(buffer).putInt(typeOffset(alignedRecordLength), PADDING_MSG_TYPE_ID);
+        inOrder.verify(buffer).putIntOrdered(lengthOffset(alignedRecordLength),
+            align(claimRecordLength, ALIGNMENT) - alignedRecordLength);
+        inOrder.verify(buffer).putIntOrdered(lengthOffset(recordIndex), recordLength);
+    }
+
+    @Test
+    public void shouldCommitClaimWithoutPaddingForClaimedLength()
+    {
+        final int messageLength = 100;
+        final int recordLength = messageLength + HEADER_LENGTH;
+        final int recordIndex = 0;
+
+        when(buffer.getInt(lengthOffset(recordIndex))).thenReturn(-recordLength);
+
+        ringBuffer.commit(encodedMsgOffset(recordIndex), messageLength);
+
+        verify(buffer, never()).putInt(anyInt(), eq(PADDING_MSG_TYPE_ID));
+        verify(buffer).putIntOrdered(lengthOffset(recordIndex), recordLength);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectCommitExceedingClaimedLength()
+    {
+        final int claimLength = 100;
+        final int recordIndex = 0;
+
+        when(buffer.getInt(lengthOffset(recordIndex))).thenReturn(-(claimLength + HEADER_LENGTH));
+
+        ringBuffer.commit(encodedMsgOffset(recordIndex), claimLength + 1);
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.idle;
+
+import static io.aklivity.zilla.runtime.engine.EngineConfiguration.ENGINE_IDLE_STRATEGY;
+import static io.aklivity.zilla.runtime.engine.internal.idle.IdleStrategies.IDLE_STRATEGY_ADAPTIVE;
+import static io.aklivity.zilla.runtime.engine.internal.idle.IdleStrategies.IDLE_STRATEGY_BACKOFF;
+import static io.aklivity.zilla.runtime.engine.internal.idle.IdleStrategies.IDLE_STRATEGY_SPIN;
+import static io.aklivity.zilla.runtime.engine.internal.idle.IdleStrategies.IDLE_STRATEGY_YIELD;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.BusySpinIdleStrategy;
+import org.agrona.concurrent.YieldingIdleStrategy;
+import org.junit.Test;
+
+import io.aklivity.zilla.runtime.engine.EngineConfiguration;
+
+public class IdleStrategiesTest
+{
+    @Test
+    public void shouldCreateIdleStrategies()
+    {
+        EngineConfiguration config = new EngineConfiguration();
+
+        assertTrue(IdleStrategies.newIdleStrategy(config, IDLE_STRATEGY_SPIN) instanceof BusySpinIdleStrategy);
+        assertTrue(IdleStrategies.newIdleStrategy(config, IDLE_STRATEGY_YIELD) instanceof YieldingIdleStrategy);
+        assertTrue(IdleStrategies.newIdleStrategy(config, IDLE_STRATEGY_BACKOFF) instanceof BackoffIdleStrategy);
+        assertTrue(IdleStrategies.newIdleStrategy(config, IDLE_STRATEGY_ADAPTIVE) instanceof AdaptiveIdleStrategy);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnrecognizedIdleStrategy()
+    {
+        IdleStrategies.newIdleStrategy(new EngineConfiguration(), "unrecognized");
+    }
+
+    @Test
+    public void shouldResolveIdleStrategyByWorkerIndex()
+    {
+        Properties properties = new Properties();
+        properties.setProperty(ENGINE_IDLE_STRATEGY.name(), "spin, spin, adaptive");
+        EngineConfiguration config = new EngineConfiguration(properties);
+
+        assertEquals(IDLE_STRATEGY_SPIN, config.idleStrategy(0));
+        assertEquals(IDLE_STRATEGY_SPIN, config.idleStrategy(1));
+        assertEquals(IDLE_STRATEGY_ADAPTIVE, config.idleStrategy(2));
+        assertEquals(IDLE_STRATEGY_ADAPTIVE, config.idleStrategy(7));
+    }
+
+    @Test
+    public void shouldBoundAdaptiveParkByWorkInterval() throws Exception
+    {
+        final long minParkNanos = 1_000L;
+        final long maxParkNanos = MILLISECONDS.toNanos(100L);
+        AdaptiveIdleStrategy idleStrategy = new AdaptiveIdleStrategy(0L, minParkNanos, maxParkNanos);
+
+        assertEquals(maxParkNanos, idleStrategy.maxParkNanos());
+
+        for (int i = 0; i < 64; i++)
+        {
+            idleStrategy.idle(1);
+        }
+
+        assertTrue(idleStrategy.maxParkNanos() < maxParkNanos);
+        assertTrue(idleStrategy.maxParkNanos() >= minParkNanos);
+    }
+}
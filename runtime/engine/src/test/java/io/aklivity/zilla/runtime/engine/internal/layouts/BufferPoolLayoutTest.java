@@ -0,0 +1,118 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.layouts;
+
+import static io.aklivity.zilla.runtime.engine.buffer.BufferPool.NO_SLOT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.aklivity.zilla.runtime.engine.buffer.BufferPool;
+import io.aklivity.zilla.runtime.engine.internal.buffer.DefaultBufferPool;
+import io.aklivity.zilla.runtime.engine.internal.buffer.SizeClassedBufferPool;
+
+public class BufferPoolLayoutTest
+{
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldBuildDefaultBufferPool() throws Exception
+    {
+        try (BufferPoolLayout layout = new BufferPoolLayout.Builder()
+                .path(folder.getRoot().toPath().resolve("buffers0"))
+                .slotCapacity(65536)
+                .slotCount(4)
+                .build())
+        {
+            BufferPool pool = layout.bufferPool();
+
+            assertTrue(pool instanceof DefaultBufferPool);
+            assertEquals(65536, pool.slotCapacity());
+        }
+    }
+
+    @Test
+    public void shouldBuildSizeClassedBufferPool() throws Exception
+    {
+        try (BufferPoolLayout layout = new BufferPoolLayout.Builder()
+                .path(folder.getRoot().toPath().resolve("buffers0"))
+                .slotCapacity(65536)
+                .minSlotCapacity(512)
+                .slotCount(8)
+                .build())
+        {
+            SizeClassedBufferPool pool = (SizeClassedBufferPool) layout.bufferPool();
+
+            assertEquals(8, pool.sizeClasses());
+            assertEquals(512, pool.sizeClassCapacity(0));
+            assertEquals(65536, pool.sizeClassCapacity(7));
+            assertEquals(65536, pool.slotCapacity());
+
+            int slot = pool.acquire(1L, 256);
+            assertNotEquals(NO_SLOT, slot);
+            pool.buffer(slot).putLong(0, 42L);
+
+            int newSlot = pool.grow(slot, 65536);
+            assertNotEquals(NO_SLOT, newSlot);
+            assertEquals(42L, pool.buffer(newSlot).getLong(0));
+
+            pool.release(newSlot);
+            assertEquals(0, pool.acquiredSlots());
+        }
+    }
+
+    @Test
+    public void shouldReserveHalfPoolForUnsizedAcquire() throws Exception
+    {
+        try (BufferPoolLayout layout = new BufferPoolLayout.Builder()
+                .path(folder.getRoot().toPath().resolve("buffers0"))
+                .slotCapacity(65536)
+                .minSlotCapacity(512)
+                .slotCount(8)
+                .build())
+        {
+            SizeClassedBufferPool pool = (SizeClassedBufferPool) layout.bufferPool();
+
+            for (int streamId = 1; streamId <= 4; streamId++)
+            {
+                assertNotEquals(NO_SLOT, pool.acquire(streamId));
+            }
+            assertEquals(NO_SLOT, pool.acquire(5L));
+            assertEquals(4, pool.acquiredSlots(7));
+
+            int slot = pool.acquire(6L, 512);
+            assertNotEquals(NO_SLOT, slot);
+            assertEquals(512, pool.capacity(slot));
+            assertEquals(1, pool.acquiredSlots(0));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSizeClassesNotPowerOfTwo() throws Exception
+    {
+        new BufferPoolLayout.Builder()
+            .path(folder.getRoot().toPath().resolve("buffers0"))
+            .slotCapacity(65536)
+            .minSlotCapacity(768)
+            .slotCount(8)
+            .build();
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.layouts;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LoadLayoutTest
+{
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldPublishLoadPerWorker() throws Exception
+    {
+        final Path path = folder.getRoot().toPath().resolve("load");
+
+        try (LoadLayout writer = new LoadLayout.Builder()
+                .path(path)
+                .capacity(4)
+                .build();
+             LoadLayout reader = new LoadLayout.Builder()
+                .path(path)
+                .capacity(4)
+                .readonly(true)
+                .build())
+        {
+            assertEquals(4, writer.entries());
+
+            writer.streams(2, 17L);
+            writer.bufferSlots(2, 3L);
+            writer.bufferSlots(2, 0, 2L);
+            writer.bufferSlots(2, 7, 1L);
+
+            assertEquals(17L, reader.streams(2));
+            assertEquals(3L, reader.bufferSlots(2));
+            assertEquals(2L, reader.bufferSlots(2, 0));
+            assertEquals(1L, reader.bufferSlots(2, 7));
+            assertEquals(0L, reader.bufferSlots(2, 1));
+            assertEquals(0L, reader.streams(1));
+        }
+    }
+}
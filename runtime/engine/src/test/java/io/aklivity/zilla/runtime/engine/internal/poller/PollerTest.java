@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.poller;
+
+import static io.aklivity.zilla.runtime.engine.internal.poller.Poller.POLLER_SELECTED_KEYS;
+import static io.aklivity.zilla.runtime.engine.internal.poller.Poller.POLLER_SELECT_ACTION;
+import static java.nio.channels.SelectionKey.OP_READ;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+
+import org.junit.Test;
+
+public class PollerTest
+{
+    @Test
+    public void shouldCreateSelectedKeysPoller()
+    {
+        Poller poller = Poller.newPoller(POLLER_SELECTED_KEYS);
+
+        try
+        {
+            assertTrue(poller instanceof SelectedKeysPoller);
+        }
+        finally
+        {
+            poller.onClose();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnrecognizedPoller()
+    {
+        Poller.newPoller("unrecognized");
+    }
+
+    @Test
+    public void shouldHandleReadWithSelectedKeysPoller() throws Exception
+    {
+        shouldHandleRead(Poller.newPoller(POLLER_SELECTED_KEYS));
+    }
+
+    @Test
+    public void shouldHandleReadWithSelectActionPoller() throws Exception
+    {
+        shouldHandleRead(Poller.newPoller(POLLER_SELECT_ACTION));
+    }
+
+    private static void shouldHandleRead(
+        Poller poller) throws Exception
+    {
+        Pipe pipe = Pipe.open();
+
+        try
+        {
+            pipe.source().configureBlocking(false);
+
+            PollerKeyImpl key = poller.register(pipe.source());
+            key.handler(OP_READ, k -> 1);
+            key.register(OP_READ);
+
+            assertEquals(0, poller.doWork());
+            assertEquals(1L, poller.keys().count());
+
+            pipe.sink().write(ByteBuffer.wrap(new byte[] { 0x01 }));
+
+            int workDone = 0;
+            for (int attempts = 0; workDone == 0 && attempts < 100; attempts++)
+            {
+                workDone = poller.doWork();
+            }
+
+            assertEquals(1, workDone);
+        }
+        finally
+        {
+            pipe.sink().close();
+            poller.onClose();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.registry;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.aklivity.zilla.runtime.engine.EngineConfiguration;
+import io.aklivity.zilla.runtime.engine.config.NamespaceConfig;
+import io.aklivity.zilla.runtime.engine.internal.Tuning;
+import io.aklivity.zilla.runtime.engine.test.internal.binding.TestBinding;
+
+public class ConfigurationManagerTest
+{
+    @Test
+    public void shouldRollbackChangedBindingsOnlyWhenReconfigureFails()
+    {
+        Tuning tuning = mock(Tuning.class);
+        when(tuning.affinity(anyLong())).thenReturn(new BitSet());
+
+        EngineWorker worker = mock(EngineWorker.class);
+
+        ConfigurationManager manager = new ConfigurationManager(
+            List.of(TestBinding.class.getResource("test.schema.patch.json")),
+            type -> null,
+            name -> name.hashCode() & 0x7fff,
+            type -> kind -> Integer.MAX_VALUE,
+            tuning,
+            List.of(worker),
+            message -> {},
+            null,
+            new EngineConfiguration(),
+            List.of(),
+            (url, location) -> "");
+
+        NamespaceConfig oldNamespace = manager.parse(null,
+            "{\"name\":\"test\",\"bindings\":{" +
+            "\"app0\":{\"type\":\"test\",\"kind\":\"server\",\"exit\":\"app1\"}," +
+            "\"app1\":{\"type\":\"test\",\"kind\":\"server\",\"exit\":\"app2\"}}}");
+        NamespaceConfig newNamespace = manager.parse(null,
+            "{\"name\":\"test\",\"bindings\":{" +
+            "\"app0\":{\"type\":\"test\",\"kind\":\"server\",\"exit\":\"app1\"}," +
+            "\"app1\":{\"type\":\"test\",\"kind\":\"proxy\",\"exit\":\"app2\"}}}");
+
+        assertThat(oldNamespace, notNullValue());
+        assertThat(newNamespace, notNullValue());
+
+        when(worker.reconfigure(same(newNamespace), any())).thenReturn(failedFuture(new IllegalStateException("attach")));
+        when(worker.reconfigure(same(oldNamespace), any())).thenReturn(completedFuture(null));
+
+        try
+        {
+            manager.reconfigure(oldNamespace, newNamespace);
+            fail("reconfigure should have failed");
+        }
+        catch (CompletionException ex)
+        {
+            ArgumentCaptor<NamespaceDiff> diff = ArgumentCaptor.forClass(NamespaceDiff.class);
+            verify(worker).reconfigure(same(oldNamespace), diff.capture());
+            assertThat(diff.getValue().bindings, containsInAnyOrder("app1"));
+            verify(worker, never()).attach(any());
+            verify(worker, never()).detach(any());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.registry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.StringReader;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import org.junit.Test;
+
+public class NamespaceDiffTest
+{
+    @Test
+    public void shouldReloadWhenUnchanged()
+    {
+        JsonObject source = source("{\"name\":\"test\",\"bindings\":{\"net0\":{\"type\":\"tcp\",\"kind\":\"server\"}}}");
+
+        assertThat(NamespaceDiff.of(source, source), nullValue());
+    }
+
+    @Test
+    public void shouldReloadWhenTelemetryChanged()
+    {
+        JsonObject oldSource = source("{\"name\":\"test\",\"telemetry\":{\"metrics\":[\"stream.opens.sent\"]}}");
+        JsonObject newSource = source("{\"name\":\"test\",\"telemetry\":{\"metrics\":[\"stream.opens.received\"]}}");
+
+        assertThat(NamespaceDiff.of(oldSource, newSource), nullValue());
+    }
+
+    @Test
+    public void shouldReloadWhenNameChanged()
+    {
+        JsonObject oldSource = source("{\"name\":\"test\"}");
+        JsonObject newSource = source("{\"name\":\"other\"}");
+
+        assertThat(NamespaceDiff.of(oldSource, newSource), nullValue());
+    }
+
+    @Test
+    public void shouldDiffChangedBindingsOnly()
+    {
+        JsonObject oldSource = source("{\"name\":\"test\",\"bindings\":{" +
+            "\"net0\":{\"type\":\"tcp\",\"kind\":\"server\",\"exit\":\"app0\"}," +
+            "\"app0\":{\"type\":\"echo\",\"kind\":\"server\"}," +
+            "\"app1\":{\"type\":\"echo\",\"kind\":\"server\"}}}");
+        JsonObject newSource = source("{\"name\":\"test\",\"bindings\":{" +
+            "\"net0\":{\"type\":\"tcp\",\"kind\":\"server\",\"exit\":\"app2\"}," +
+            "\"app0\":{\"type\":\"echo\",\"kind\":\"server\"}," +
+            "\"app2\":{\"type\":\"echo\",\"kind\":\"server\"}}}");
+
+        NamespaceDiff diff = NamespaceDiff.of(oldSource, newSource);
+
+        assertThat(diff, notNullValue());
+        assertThat(diff.bindings, containsInAnyOrder("net0", "app1", "app2"));
+        assertThat(diff.guards, empty());
+        assertThat(diff.vaults, empty());
+        assertThat(diff.catalogs, empty());
+    }
+
+    @Test
+    public void shouldDiffBindingsReferringToChangedVault()
+    {
+        JsonObject oldSource = source("{\"name\":\"test\"," +
+            "\"vaults\":{\"server\":{\"type\":\"filesystem\",\"options\":{\"keys\":{\"store\":\"old.p12\"}}}}," +
+            "\"bindings\":{" +
+            "\"tls0\":{\"type\":\"tls\",\"kind\":\"server\",\"vault\":\"server\"}," +
+            "\"app0\":{\"type\":\"echo\",\"kind\":\"server\"}}}");
+        JsonObject newSource = source("{\"name\":\"test\"," +
+            "\"vaults\":{\"server\":{\"type\":\"filesystem\",\"options\":{\"keys\":{\"store\":\"new.p12\"}}}}," +
+            "\"bindings\":{" +
+            "\"tls0\":{\"type\":\"tls\",\"kind\":\"server\",\"vault\":\"server\"}," +
+            "\"app0\":{\"type\":\"echo\",\"kind\":\"server\"}}}");
+
+        NamespaceDiff diff = NamespaceDiff.of(oldSource, newSource);
+
+        assertThat(diff, notNullValue());
+        assertThat(diff.vaults, containsInAnyOrder("server"));
+        assertThat(diff.bindings, containsInAnyOrder("tls0"));
+    }
+
+    @Test
+    public void shouldDiffBindingsReferringToChangedGuard()
+    {
+        JsonObject oldSource = source("{\"name\":\"test\"," +
+            "\"guards\":{\"jwt0\":{\"type\":\"jwt\",\"options\":{\"issuer\":\"old\"}}}," +
+            "\"bindings\":{" +
+            "\"http0\":{\"type\":\"http\",\"kind\":\"server\"," +
+            "\"routes\":[{\"exit\":\"app0\",\"guarded\":{\"jwt0\":[\"read\"]}}]}," +
+            "\"app0\":{\"type\":\"echo\",\"kind\":\"server\"}}}");
+        JsonObject newSource = source("{\"name\":\"test\"," +
+            "\"guards\":{\"jwt0\":{\"type\":\"jwt\",\"options\":{\"issuer\":\"new\"}}}," +
+            "\"bindings\":{" +
+            "\"http0\":{\"type\":\"http\",\"kind\":\"server\"," +
+            "\"routes\":[{\"exit\":\"app0\",\"guarded\":{\"jwt0\":[\"read\"]}}]}," +
+            "\"app0\":{\"type\":\"echo\",\"kind\":\"server\"}}}");
+
+        NamespaceDiff diff = NamespaceDiff.of(oldSource, newSource);
+
+        assertThat(diff, notNullValue());
+        assertThat(diff.guards, containsInAnyOrder("jwt0"));
+        assertThat(diff.bindings, containsInAnyOrder("http0"));
+    }
+
+    private static JsonObject source(
+        String text)
+    {
+        return Json.createReader(new StringReader(text)).readObject();
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2021-2023 Aklivity Inc.
+ *
+ * Aklivity licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package io.aklivity.zilla.runtime.engine.internal.stream;
+
+import static io.aklivity.zilla.runtime.engine.EngineConfiguration.ENGINE_DIRECTORY;
+import static io.aklivity.zilla.runtime.engine.EngineConfiguration.ENGINE_STREAMS_BUFFER_CAPACITY;
+import static io.aklivity.zilla.runtime.engine.EngineConfiguration.ENGINE_STREAMS_SPILL_CAPACITY;
+import static io.aklivity.zilla.runtime.engine.binding.function.MessageConsumer.NO_CLAIM;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.SystemNanoClock;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.ringbuffer.RingBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.aklivity.zilla.runtime.engine.EngineConfiguration;
+import io.aklivity.zilla.runtime.engine.binding.function.MessageConsumer;
+import io.aklivity.zilla.runtime.engine.internal.layouts.StreamsLayout;
+import io.aklivity.zilla.runtime.engine.internal.types.stream.DataFW;
+
+public class TargetTest
+{
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[1024]);
+    private final List<Target> congested = new ArrayList<>();
+
+    private StreamsLayout streamsLayout;
+    private Target target;
+
+    @Before
+    public void initTarget() throws Exception
+    {
+        Properties properties = new Properties();
+        properties.setProperty(ENGINE_DIRECTORY.name(), folder.getRoot().getPath());
+        properties.setProperty(ENGINE_STREAMS_BUFFER_CAPACITY.name(), Integer.toString(4096));
+        properties.setProperty(ENGINE_STREAMS_SPILL_CAPACITY.name(), Integer.toString(8192));
+        EngineConfiguration config = new EngineConfiguration(properties);
+
+        streamsLayout = new StreamsLayout.Builder()
+            .path(config.directory().resolve("data0"))
+            .streamsCapacity(config.streamsBufferCapacity())
+            .readonly(false)
+            .build();
+
+        target = new Target(config, 0, SystemNanoClock.INSTANCE, writeBuffer, new Long2ObjectHashMap<>(), newDispatcher(),
+            new Long2ObjectHashMap<>(), newDispatcher(), congested::add);
+    }
+
+    @After
+    public void closeTarget() throws Exception
+    {
+        target.close();
+        streamsLayout.close();
+    }
+
+    @Test
+    public void shouldSpillWhenStreamsBufferFull() throws Exception
+    {
+        final MessageConsumer writer = target.writeHandler();
+        final RingBuffer streamsBuffer = streamsLayout.streamsBuffer();
+
+        int written = 0;
+        while (!target.congested())
+        {
+            DataFW data = newData(written++);
+            writer.accept(data.typeId(), data.buffer(), data.offset(), data.sizeof());
+        }
+
+        DataFW data = newData(written++);
+        writer.accept(data.typeId(), data.buffer(), data.offset(), data.sizeof());
+
+        assertEquals(List.of(target), congested);
+
+        List<Long> sequences = new ArrayList<>();
+        DataFW dataRO = new DataFW();
+        while (target.congested())
+        {
+            streamsBuffer.read((t, b, i, l) -> sequences.add(dataRO.wrap(b, i, i + l).sequence()));
+            target.flush();
+        }
+        while (streamsBuffer.read((t, b, i, l) -> sequences.add(dataRO.wrap(b, i, i + l).sequence())) != 0)
+        {
+            // drain
+        }
+
+        assertFalse(target.congested());
+        assertEquals(written, sequences.size());
+        for (int sequence = 0; sequence < written; sequence++)
+        {
+            assertEquals(sequence, sequences.get(sequence).longValue());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectWhenSpillFull() throws Exception
+    {
+        final MessageConsumer writer = target.writeHandler();
+
+        for (int sequence = 0; sequence < 1024; sequence++)
+        {
+            DataFW data = newData(sequence);
+            writer.accept(data.typeId(), data.buffer(), data.offset(), data.sizeof());
+        }
+    }
+
+    @Test
+    public void shouldDiscardSpillWhenDetached() throws Exception
+    {
+        final MessageConsumer writer = target.writeHandler();
+
+        for (int sequence = 0; !target.congested(); sequence++)
+        {
+            DataFW data = newData(sequence);
+            writer.accept(data.typeId(), data.buffer(), data.offset(), data.sizeof());
+        }
+
+        target.detach();
+
+        assertFalse(target.congested());
+        assertEquals(0, target.flush());
+    }
+
+    @Test
+    public void shouldClaimAndCommitData() throws Exception
+    {
+        final MessageConsumer writer = target.writeHandler();
+        final RingBuffer streamsBuffer = streamsLayout.streamsBuffer();
+
+        final int index = writer.claim(DataFW.TYPE_ID, 1024 / 2);
+        assertNotEquals(NO_CLAIM, index);
+
+        DataFW data = new DataFW.Builder().wrap(writer.claimBuffer(), index, index + 1024 / 2)
+            .originId(0L)
+            .routedId(0L)
+            .streamId(1L)
+            .sequence(42L)
+            .acknowledge(0L)
+            .maximum(0)
+            .budgetId(0L)
+            .reserved(64)
+            .payload(new UnsafeBuffer(new byte[64]), 0, 64)
+            .build();
+
+        writer.commit(data.typeId(), index, data.sizeof());
+
+        List<Long> sequences = new ArrayList<>();
+        DataFW dataRO = new DataFW();
+        streamsBuffer.read((t, b, i, l) -> sequences.add(dataRO.wrap(b, i, i + l).sequence()));
+
+        assertEquals(List.of(42L), sequences);
+    }
+
+    @Test
+    public void shouldNotifyObserverOfTimestampedFrameOnCommit() throws Exception
+    {
+        final List<Long> timestamps = new ArrayList<>();
+        final DataFW dataRO = new DataFW();
+        final MessageConsumer writer = target.writeHandler()
+            .andThen((t, b, i, l) -> timestamps.add(dataRO.wrap(b, i, i + l).timestamp()));
+        final RingBuffer streamsBuffer = streamsLayout.streamsBuffer();
+
+        final int index = writer.claim(DataFW.TYPE_ID, 1024 / 2);
+        assertNotEquals(NO_CLAIM, index);
+
+        DataFW data = new DataFW.Builder().wrap(writer.claimBuffer(), index, index + 1024 / 2)
+            .originId(0L)
+            .routedId(0L)
+            .streamId(1L)
+            .sequence(42L)
+            .acknowledge(0L)
+            .maximum(0)
+            .budgetId(0L)
+            .reserved(64)
+            .payload(new UnsafeBuffer(new byte[64]), 0, 64)
+            .build();
+
+        writer.commit(data.typeId(), index, data.sizeof());
+
+        assertEquals(1, timestamps.size());
+        assertNotEquals(0L, timestamps.get(0).longValue());
+        assertEquals(1, streamsBuffer.read((t, b, i, l) -> {}));
+    }
+
+    @Test
+    public void shouldNotClaimWhenCongested() throws Exception
+    {
+        final MessageConsumer writer = target.writeHandler();
+
+        for (int sequence = 0; !target.congested(); sequence++)
+        {
+            DataFW data = newData(sequence);
+            writer.accept(data.typeId(), data.buffer(), data.offset(), data.sizeof());
+        }
+
+        assertEquals(NO_CLAIM, writer.claim(DataFW.TYPE_ID, 64));
+    }
+
+    private DataFW newData(
+        long sequence)
+    {
+        return new DataFW.Builder().wrap(writeBuffer, 0, writeBuffer.capacity())
+            .originId(0L)
+            .routedId(0L)
+            .streamId(1L)
+            .sequence(sequence)
+            .acknowledge(0L)
+            .maximum(0)
+            .budgetId(0L)
+            .reserved(256)
+            .payload(new UnsafeBuffer(new byte[256]), 0, 256)
+            .build();
+    }
+
+    private static Int2ObjectHashMap<MessageConsumer>[] newDispatcher()
+    {
+        @SuppressWarnings("unchecked")
+        Int2ObjectHashMap<MessageConsumer>[] dispatcher = new Int2ObjectHashMap[64];
+        for (int i = 0; i < dispatcher.length; i++)
+        {
+            dispatcher[i] = new Int2ObjectHashMap<>();
+        }
+        return dispatcher;
+    }
+}
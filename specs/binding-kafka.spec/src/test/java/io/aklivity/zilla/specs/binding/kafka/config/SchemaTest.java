@@ -83,6 +83,30 @@ public class SchemaTest
         assertThat(config, not(nullValue()));
     }
 
+    @Test
+    public void shouldValidateClientOptionsCompressionGzip()
+    {
+        JsonObject config = schema.validate("client.options.compression.gzip.yaml");
+
+        assertThat(config, not(nullValue()));
+    }
+
+    @Test
+    public void shouldValidateClientOptionsCompressionSnappy()
+    {
+        JsonObject config = schema.validate("client.options.compression.snappy.yaml");
+
+        assertThat(config, not(nullValue()));
+    }
+
+    @Test
+    public void shouldValidateClientOptionsCompressionLz4()
+    {
+        JsonObject config = schema.validate("client.options.compression.lz4.yaml");
+
+        assertThat(config, not(nullValue()));
+    }
+
     @Test
     public void shouldValidateClientOptionsMerged()
     {
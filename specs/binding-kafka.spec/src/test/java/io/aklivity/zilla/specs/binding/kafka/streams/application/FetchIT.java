@@ -181,6 +181,15 @@ public class FetchIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${app}/message.value.replica.fallback/client",
+        "${app}/message.value.replica.fallback/server"})
+    public void shouldReceiveMessageValueWithReplicaFallback() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${app}/message.value.string.invalid/client",
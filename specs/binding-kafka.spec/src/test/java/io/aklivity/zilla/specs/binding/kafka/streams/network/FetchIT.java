@@ -18,7 +18,6 @@ package io.aklivity.zilla.specs.binding.kafka.streams.network;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.rules.RuleChain.outerRule;
 
-import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.DisableOnDebug;
@@ -190,7 +189,6 @@ public class FetchIT
         k3po.finish();
     }
 
-    @Ignore("TODO")
     @Test
     @Specification({
         "${net}/message.value.gzip/client",
@@ -200,7 +198,6 @@ public class FetchIT
         k3po.finish();
     }
 
-    @Ignore("TODO")
     @Test
     @Specification({
         "${net}/message.value.snappy/client",
@@ -210,7 +207,6 @@ public class FetchIT
         k3po.finish();
     }
 
-    @Ignore("TODO")
     @Test
     @Specification({
         "${net}/message.value.lz4/client",
@@ -220,6 +216,15 @@ public class FetchIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "${net}/message.value.lz4.10k/client",
+        "${net}/message.value.lz4.10k/server"})
+    public void shouldReceiveMessageValueLz410k() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "${net}/message.value.distinct/client",